@@ -15,8 +15,8 @@
  */
 package io.micronaut.http.server.binding;
 
-import io.micronaut.aop.around.AroundCompileBenchmark;
 import io.micronaut.context.ApplicationContext;
+import io.micronaut.core.type.Argument;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.MutableHttpRequest;
 import io.micronaut.web.router.RouteMatch;
@@ -31,18 +31,26 @@ import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @State(Scope.Benchmark)
 public class RequestArgumentSatisfierBenchmark {
 
     ApplicationContext applicationContext;
     RequestArgumentSatisfier requestArgumentSatisfier;
     Router router;
+    MutableHttpRequest<Object> annotatedRequest;
+    UriRouteMatch<Object, Object> annotatedRouteMatch;
 
     @Setup
     public void setup() {
         applicationContext = ApplicationContext.run();
         requestArgumentSatisfier = applicationContext.getBean(RequestArgumentSatisfier.class);
         router = applicationContext.getBean(Router.class);
+        annotatedRequest = HttpRequest.GET("/arguments/annotated/foo?age=20&shout=true");
+        annotatedRequest.header("X-Greeting", "Hello");
+        annotatedRouteMatch = router.find(annotatedRequest.getMethod(), annotatedRequest.getPath(), annotatedRequest).findFirst().orElse(null);
     }
 
     @Benchmark
@@ -56,9 +64,32 @@ public class RequestArgumentSatisfierBenchmark {
         );
     }
 
+    @Benchmark
+    public Object benchmarkFulfillAnnotatedArgumentRequirements() {
+        return requestArgumentSatisfier.fulfillArgumentRequirements(
+                annotatedRouteMatch,
+                annotatedRequest,
+                true
+        );
+    }
+
+    /**
+     * Binds the same route as {@link #benchmarkFulfillAnnotatedArgumentRequirements()} but resolves the binder of
+     * every argument from the registry on each call, as was done before the binders were planned per route.
+     */
+    @Benchmark
+    public Object benchmarkFulfillAnnotatedArgumentRequirementsWithoutPlan() {
+        Map<String, Object> argumentValues = new LinkedHashMap<>();
+        for (Argument<?> argument : annotatedRouteMatch.getRequiredArguments()) {
+            requestArgumentSatisfier.getValueForArgument(argument, annotatedRequest, true).ifPresent(value ->
+                    argumentValues.put(argument.getName(), value));
+        }
+        return annotatedRouteMatch.fulfill(argumentValues);
+    }
+
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
-                .include(".*" + AroundCompileBenchmark.class.getSimpleName() + ".*")
+                .include(".*" + RequestArgumentSatisfierBenchmark.class.getSimpleName() + ".*")
                 .warmupIterations(3)
                 .measurementIterations(5)
                 .forks(1)
@@ -17,6 +17,8 @@ package io.micronaut.http.server.binding;
 
 import io.micronaut.http.annotation.Controller;
 import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Header;
+import io.micronaut.http.annotation.QueryValue;
 
 @Controller("/arguments")
 public class TestController {
@@ -25,4 +27,12 @@ public class TestController {
     String show(String name, int age) {
         return name + " is " + age;
     }
+
+    @Get("/annotated/{name}")
+    String annotated(String name,
+                     @QueryValue(defaultValue = "10") int age,
+                     @Header("X-Greeting") String greeting,
+                     @QueryValue(defaultValue = "false") boolean shout) {
+        return greeting + " " + name + (shout ? "!" : "") + " is " + age;
+    }
 }
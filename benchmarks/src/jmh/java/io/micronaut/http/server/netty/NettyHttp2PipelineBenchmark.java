@@ -0,0 +1,197 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http2.DefaultHttp2DataFrame;
+import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersFrame;
+import io.netty.handler.codec.http2.DefaultHttp2WindowUpdateFrame;
+import io.netty.handler.codec.http2.Http2DataFrame;
+import io.netty.handler.codec.http2.Http2FrameCodec;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2FrameStream;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.handler.codec.http2.Http2HeadersFrame;
+import io.netty.handler.codec.http2.Http2StreamFrame;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Sends HTTP/2 requests with prior knowledge through the cleartext server pipeline of
+ * {@link NettyHttpServer}. The frames are encoded by a client {@link Http2FrameCodec} and moved
+ * between two {@link EmbeddedChannel}s, so no sockets are involved. The client codec is part of
+ * the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class NettyHttp2PipelineBenchmark {
+
+    @Param({"PLAIN_TEXT", "JSON_ECHO"})
+    public Scenario scenario;
+
+    private ApplicationContext applicationContext;
+    private EmbeddedChannel server;
+    private EmbeddedChannel client;
+    private Http2FrameCodec clientCodec;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        applicationContext = ApplicationContext.run(Map.of(
+            NettyPipelineBenchmark.ENABLED_PROPERTY, true,
+            "micronaut.server.http-version", "2.0"
+        ));
+        NettyHttpServer nettyHttpServer = (NettyHttpServer) applicationContext.getBean(EmbeddedServer.class);
+        server = nettyHttpServer.buildEmbeddedChannel(false);
+        clientCodec = Http2FrameCodecBuilder.forClient().build();
+        client = new EmbeddedChannel(clientCodec);
+        body = scenario == Scenario.JSON_ECHO ? "{\"id\":42,\"text\":\"Hello, World!\"}".getBytes(StandardCharsets.UTF_8) : null;
+
+        CharSequence status = exchange();
+        if (status == null || !"200".contentEquals(status)) {
+            throw new IllegalStateException("Unexpected response to " + scenario + ": " + status);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.finishAndReleaseAll();
+        server.finishAndReleaseAll();
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public CharSequence http2() {
+        return exchange();
+    }
+
+    /**
+     * Sends one request on a new stream and reads the response.
+     *
+     * @return The status of the response
+     */
+    private CharSequence exchange() {
+        Http2FrameStream stream = clientCodec.newStream();
+        Http2Headers headers = new DefaultHttp2Headers()
+            .scheme("http")
+            .authority("localhost");
+        if (body == null) {
+            headers.method("GET").path("/bench/plain");
+            client.write(new DefaultHttp2HeadersFrame(headers, true).stream(stream));
+        } else {
+            headers.method("POST").path("/bench/json")
+                .set("content-type", "application/json")
+                .setInt("content-length", body.length);
+            client.write(new DefaultHttp2HeadersFrame(headers, false).stream(stream));
+            client.write(new DefaultHttp2DataFrame(Unpooled.wrappedBuffer(body), true).stream(stream));
+        }
+        client.flush();
+
+        CharSequence status = null;
+        boolean endOfStream = false;
+        while (!endOfStream) {
+            if (!transfer(client, server) && !transfer(server, client)) {
+                throw new IllegalStateException("No response received for " + scenario);
+            }
+            Object msg;
+            while ((msg = client.readInbound()) != null) {
+                if (msg instanceof Http2StreamFrame frame && frame.stream() != null && frame.stream().id() == stream.id()) {
+                    if (msg instanceof Http2HeadersFrame headersFrame) {
+                        if (status == null) {
+                            status = headersFrame.headers().status();
+                        }
+                        endOfStream |= headersFrame.isEndStream();
+                    } else if (msg instanceof Http2DataFrame dataFrame) {
+                        // return the flow control window, or the connection stalls after 64KB
+                        if (dataFrame.initialFlowControlledBytes() > 0) {
+                            client.write(new DefaultHttp2WindowUpdateFrame(dataFrame.initialFlowControlledBytes()).stream(stream));
+                        }
+                        endOfStream |= dataFrame.isEndStream();
+                    }
+                }
+                ReferenceCountUtil.release(msg);
+            }
+            client.flush();
+        }
+        return status;
+    }
+
+    /**
+     * Moves the bytes written by one channel to the other one.
+     *
+     * @param from The writing channel
+     * @param to   The reading channel
+     * @return Whether any bytes were moved
+     */
+    private static boolean transfer(EmbeddedChannel from, EmbeddedChannel to) {
+        from.runPendingTasks();
+        boolean transferred = false;
+        Object msg;
+        while ((msg = from.readOutbound()) != null) {
+            if (msg instanceof ByteBuf buf && buf.isReadable()) {
+                transferred = true;
+                to.writeOneInbound(buf);
+            } else {
+                ReferenceCountUtil.release(msg);
+            }
+        }
+        if (transferred) {
+            to.flushInbound();
+            to.runPendingTasks();
+        }
+        return transferred;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + NettyHttp2PipelineBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    /**
+     * The requests that are sent.
+     */
+    public enum Scenario {
+        PLAIN_TEXT,
+        JSON_ECHO
+    }
+}
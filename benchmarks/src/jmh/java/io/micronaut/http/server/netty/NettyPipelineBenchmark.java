@@ -0,0 +1,216 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Sends HTTP/1.1 requests through the complete server pipeline of {@link NettyHttpServer}, from
+ * the HTTP codec through routing, filters, body binding and encoding to compression. The requests
+ * are written to an {@link EmbeddedChannel}, so no sockets are involved.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class NettyPipelineBenchmark {
+
+    static final String ENABLED_PROPERTY = "netty-pipeline-benchmark.enabled";
+
+    private static final String MULTIPART_BOUNDARY = "benchmark-boundary";
+
+    @Param({"PLAIN_TEXT", "PLAIN_TEXT_GZIP", "JSON_ECHO", "PATH_VARIABLE", "FILTERED", "FORM", "MULTIPART"})
+    public Scenario scenario;
+
+    /**
+     * The number of routes in the route table, requested by {@link Scenario#PATH_VARIABLE}.
+     */
+    @Param({"1000"})
+    public int routes;
+
+    private ApplicationContext applicationContext;
+    private EmbeddedChannel channel;
+    private byte[] request;
+
+    @Setup
+    public void setUp() {
+        applicationContext = ApplicationContext.run(Map.of(
+            ENABLED_PROPERTY, true,
+            PipelineBenchmarkRoutes.ROUTES_PROPERTY, routes
+        ));
+        NettyHttpServer server = (NettyHttpServer) applicationContext.getBean(EmbeddedServer.class);
+        channel = server.buildEmbeddedChannel(false);
+        request = scenario.request(routes);
+
+        String statusLine = new String(exchangeBytes(), 0, 12, StandardCharsets.US_ASCII);
+        if (!statusLine.equals("HTTP/1.1 200")) {
+            throw new IllegalStateException("Unexpected response to " + scenario + ": " + statusLine);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+        applicationContext.close();
+    }
+
+    @Benchmark
+    public int http1() {
+        channel.writeInbound(Unpooled.wrappedBuffer(request));
+        return drain(null);
+    }
+
+    private byte[] exchangeBytes() {
+        channel.writeInbound(Unpooled.wrappedBuffer(request));
+        ByteBuf response = Unpooled.buffer();
+        drain(response);
+        byte[] bytes = new byte[response.readableBytes()];
+        response.readBytes(bytes);
+        response.release();
+        return bytes;
+    }
+
+    /**
+     * Runs the tasks scheduled by the pipeline and releases the written response.
+     *
+     * @param collector The buffer to copy the response to, if any
+     * @return The number of bytes written
+     */
+    private int drain(ByteBuf collector) {
+        channel.runPendingTasks();
+        int written = 0;
+        Object msg;
+        while ((msg = channel.readOutbound()) != null) {
+            if (msg instanceof ByteBuf buf) {
+                written += buf.readableBytes();
+                if (collector != null) {
+                    collector.writeBytes(buf, buf.readerIndex(), buf.readableBytes());
+                }
+            }
+            ReferenceCountUtil.release(msg);
+        }
+        return written;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + NettyPipelineBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .forks(1)
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+    /**
+     * The requests that are sent.
+     */
+    public enum Scenario {
+        PLAIN_TEXT {
+            @Override
+            String message(int routes) {
+                return get("/bench/plain", "");
+            }
+        },
+        PLAIN_TEXT_GZIP {
+            @Override
+            String message(int routes) {
+                return get("/bench/large", "Accept-Encoding: gzip\r\n");
+            }
+        },
+        JSON_ECHO {
+            @Override
+            String message(int routes) {
+                return post("/bench/json", "application/json", "{\"id\":42,\"text\":\"Hello, World!\"}");
+            }
+        },
+        PATH_VARIABLE {
+            @Override
+            String message(int routes) {
+                return get("/table/resource" + (routes - 1) + "/42", "");
+            }
+        },
+        FILTERED {
+            @Override
+            String message(int routes) {
+                return get("/bench/filtered", "");
+            }
+        },
+        FORM {
+            @Override
+            String message(int routes) {
+                return post("/bench/form", "application/x-www-form-urlencoded", "name=Fred&age=40");
+            }
+        },
+        MULTIPART {
+            @Override
+            String message(int routes) {
+                String body = "--" + MULTIPART_BOUNDARY + "\r\n"
+                    + "Content-Disposition: form-data; name=\"name\"\r\n\r\n"
+                    + "Fred\r\n"
+                    + "--" + MULTIPART_BOUNDARY + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"file.txt\"\r\n"
+                    + "Content-Type: text/plain\r\n\r\n"
+                    + "Hello, World! ".repeat(20) + "\r\n"
+                    + "--" + MULTIPART_BOUNDARY + "--\r\n";
+                return post("/bench/multipart", "multipart/form-data; boundary=" + MULTIPART_BOUNDARY, body);
+            }
+        };
+
+        abstract String message(int routes);
+
+        byte[] request(int routes) {
+            return message(routes).getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static String get(String uri, String headers) {
+            return "GET " + uri + " HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + headers
+                + "\r\n";
+        }
+
+        private static String post(String uri, String contentType, String body) {
+            return "POST " + uri + " HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Content-Type: " + contentType + "\r\n"
+                + "Content-Length: " + body.getBytes(StandardCharsets.UTF_8).length + "\r\n"
+                + "\r\n"
+                + body;
+        }
+    }
+}
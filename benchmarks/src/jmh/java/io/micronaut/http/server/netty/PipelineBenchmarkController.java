@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Post;
+import io.micronaut.http.annotation.Produces;
+import io.micronaut.http.multipart.CompletedFileUpload;
+
+/**
+ * The routes requested by {@link NettyPipelineBenchmark} and {@link NettyHttp2PipelineBenchmark}.
+ */
+@Requires(property = NettyPipelineBenchmark.ENABLED_PROPERTY)
+@Controller("/bench")
+public class PipelineBenchmarkController {
+
+    static final String LARGE_TEXT = "Hello, World! ".repeat(300);
+
+    @Get("/plain")
+    @Produces(MediaType.TEXT_PLAIN)
+    String plain() {
+        return "Hello, World!";
+    }
+
+    @Get("/large")
+    @Produces(MediaType.TEXT_PLAIN)
+    String large() {
+        return LARGE_TEXT;
+    }
+
+    @Post("/json")
+    Message json(@Body Message message) {
+        return message;
+    }
+
+    @Get("/filtered")
+    @Produces(MediaType.TEXT_PLAIN)
+    String filtered() {
+        return "filtered";
+    }
+
+    @Get("/item/{id}")
+    @Produces(MediaType.TEXT_PLAIN)
+    String item(String id) {
+        return id;
+    }
+
+    @Post(value = "/form", consumes = MediaType.APPLICATION_FORM_URLENCODED)
+    @Produces(MediaType.TEXT_PLAIN)
+    String form(String name, int age) {
+        return name + " is " + age;
+    }
+
+    @Post(value = "/multipart", consumes = MediaType.MULTIPART_FORM_DATA)
+    @Produces(MediaType.TEXT_PLAIN)
+    String multipart(String name, CompletedFileUpload file) {
+        return name + ": " + file.getSize();
+    }
+
+    /**
+     * The body of the JSON echo route.
+     */
+    @Introspected
+    public static class Message {
+        private int id;
+        private String text;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public void setText(String text) {
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty;
+
+import io.micronaut.context.ExecutionHandleLocator;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.web.router.DefaultRouteBuilder;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+/**
+ * Registers a configurable number of routes with a path variable, so that routing is measured
+ * against a large route table.
+ */
+@Requires(property = NettyPipelineBenchmark.ENABLED_PROPERTY)
+@Singleton
+public class PipelineBenchmarkRoutes extends DefaultRouteBuilder {
+
+    static final String ROUTES_PROPERTY = "netty-pipeline-benchmark.routes";
+
+    public PipelineBenchmarkRoutes(ExecutionHandleLocator executionHandleLocator) {
+        super(executionHandleLocator);
+    }
+
+    @Inject
+    void routes(PipelineBenchmarkController controller, @Value("${" + ROUTES_PROPERTY + ":100}") int routes) {
+        for (int i = 0; i < routes; i++) {
+            GET("/table/resource" + i + "/{id}", controller, "item", String.class);
+        }
+    }
+}
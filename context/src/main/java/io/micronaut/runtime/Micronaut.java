@@ -25,6 +25,7 @@ import io.micronaut.context.banner.MicronautBanner;
 import io.micronaut.context.banner.ResourceBanner;
 import io.micronaut.context.env.Environment;
 import io.micronaut.context.env.PropertySource;
+import io.micronaut.context.startup.StartupProfiler;
 import io.micronaut.core.naming.Described;
 import io.micronaut.core.version.VersionUtils;
 import io.micronaut.runtime.exceptions.ApplicationStartupException;
@@ -79,6 +80,7 @@ public class Micronaut extends DefaultApplicationContextBuilder implements Appli
             if (embeddedApplication != null) {
                 try {
                     embeddedApplication.start();
+                    applicationContext.findBean(StartupProfiler.class).ifPresent(StartupProfiler::stop);
 
                     boolean keepAlive;
                     if (embeddedApplication instanceof Described described) {
@@ -161,8 +163,11 @@ public class Micronaut extends DefaultApplicationContextBuilder implements Appli
                 }
             }
 
-            if (LOG.isInfoEnabled() && embeddedApplication == null) {
-                LOG.info("No embedded container found. Running as CLI application");
+            if (embeddedApplication == null) {
+                applicationContext.findBean(StartupProfiler.class).ifPresent(StartupProfiler::stop);
+                if (LOG.isInfoEnabled()) {
+                    LOG.info("No embedded container found. Running as CLI application");
+                }
             }
             return applicationContext;
         } catch (Throwable e) {
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.runtime.event.dispatch;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.util.ArgumentUtils;
+import io.micronaut.core.util.Toggleable;
+
+/**
+ * Configuration of the {@link RingBufferEventDispatcher}.
+ *
+ * @since 4.0.0
+ */
+@ConfigurationProperties(EventDispatcherConfiguration.PREFIX)
+public class EventDispatcherConfiguration implements Toggleable {
+
+    /**
+     * The prefix to use to configure the event dispatcher.
+     */
+    public static final String PREFIX = "micronaut.event-dispatcher";
+
+    /**
+     * Setting to enable the event dispatcher.
+     */
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    /**
+     * The default capacity of the queue of a listener.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /**
+     * The default number of events delivered to a listener in one task.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private boolean enabled = false;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private boolean virtualThreads = false;
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether asynchronous events are delivered by the {@link RingBufferEventDispatcher}. Default
+     * value (false).
+     *
+     * @param enabled True if the dispatcher is enabled
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return The capacity of the queue of each listener
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Sets the capacity of the queue of each listener. It is rounded up to a power of two. Default
+     * value ({@value #DEFAULT_QUEUE_CAPACITY}).
+     *
+     * @param queueCapacity The queue capacity
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        ArgumentUtils.requirePositive("queueCapacity", queueCapacity);
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @return The maximum number of events delivered to a listener in one task
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of events delivered to a listener in one task, before the task is
+     * resubmitted to let other listeners run. Default value ({@value #DEFAULT_BATCH_SIZE}).
+     *
+     * @param batchSize The batch size
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Argument [batchSize] must be greater than zero");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return What happens to an event if the queue of a listener is full
+     */
+    public @NonNull OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Sets what happens to an event if the queue of a listener is full. Default value
+     * ({@link OverflowPolicy#BLOCK}).
+     *
+     * @param overflowPolicy The overflow policy
+     */
+    public void setOverflowPolicy(@NonNull OverflowPolicy overflowPolicy) {
+        ArgumentUtils.requireNonNull("overflowPolicy", overflowPolicy);
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * @return Whether listeners are notified on virtual threads
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Whether listeners are notified on virtual threads instead of the {@code scheduled}
+     * executor. Falls back to the {@code scheduled} executor if virtual threads are not
+     * supported. Default value (false).
+     *
+     * @param virtualThreads True if virtual threads should be used
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * What happens to an event if the queue of a listener is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The publishing thread waits until the queue has space. If the publishing thread is
+         * notifying the same listener, the event is delivered like {@link #CALLER_RUNS} instead.
+         */
+        BLOCK,
+        /**
+         * The event is not delivered to the listener.
+         */
+        DROP,
+        /**
+         * The publishing thread notifies the listener itself. The event may then be delivered
+         * before events that are still in the queue.
+         */
+        CALLER_RUNS
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.runtime.event.dispatch;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock-free queue for many producers and a single consumer. Producers claim a slot by
+ * incrementing the producer index and then publish the element into it. The consumer frees a slot
+ * before it advances the consumer index, so a producer that sees free capacity also sees an empty
+ * slot.
+ *
+ * @param <E> The element type
+ * @since 4.0.0
+ */
+@Internal
+final class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    /**
+     * @param capacity The minimum capacity, rounded up to a power of two
+     */
+    MpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return The capacity of this queue
+     */
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Add an element. May be called concurrently.
+     *
+     * @param element The element
+     * @return {@code true} if the element was added, {@code false} if the queue is full
+     */
+    boolean offer(E element) {
+        while (true) {
+            long index = producerIndex.get();
+            if (index - consumerIndex.get() > mask) {
+                return false;
+            }
+            if (producerIndex.compareAndSet(index, index + 1)) {
+                buffer.lazySet((int) (index & mask), element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Remove the oldest element. Must only be called by one thread at a time.
+     *
+     * @return The element, or {@code null} if the queue is empty
+     */
+    @Nullable
+    E poll() {
+        long index = consumerIndex.get();
+        int offset = (int) (index & mask);
+        E element = buffer.get(offset);
+        if (element == null) {
+            if (index == producerIndex.get()) {
+                return null;
+            }
+            // the slot was claimed, but the producer has not published the element yet
+            do {
+                Thread.onSpinWait();
+                element = buffer.get(offset);
+            } while (element == null);
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return element;
+    }
+
+    /**
+     * @return The number of elements in the queue, may be outdated
+     */
+    int size() {
+        long consumer = consumerIndex.get();
+        long producer = producerIndex.get();
+        return (int) Math.max(0, Math.min(capacity(), producer - consumer));
+    }
+
+    /**
+     * @return Whether the queue is empty, may be outdated
+     */
+    boolean isEmpty() {
+        return producerIndex.get() == consumerIndex.get();
+    }
+}
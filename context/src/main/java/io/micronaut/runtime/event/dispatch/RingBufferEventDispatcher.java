@@ -0,0 +1,296 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.runtime.event.dispatch;
+
+import io.micronaut.context.BeanProvider;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.ApplicationEventDispatcher;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.context.event.ApplicationEventPublisherFactory;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.scheduling.TaskExecutors;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An {@link ApplicationEventDispatcher} that gives every listener a bounded lock-free queue. A
+ * listener is notified of the events in its queue by a single task at a time, in the order they
+ * were published, so a slow listener does not delay the others. Each task notifies the listener of
+ * at most {@link EventDispatcherConfiguration#getBatchSize()} events before it is resubmitted.
+ *
+ * @since 4.0.0
+ */
+@Singleton
+@Requires(property = EventDispatcherConfiguration.ENABLED, value = StringUtils.TRUE)
+public class RingBufferEventDispatcher implements ApplicationEventDispatcher, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RingBufferEventDispatcher.class);
+    private static final long BLOCK_PARK_NANOS = 10_000;
+    private static final ThreadLocal<ListenerQueue> DRAINING = new ThreadLocal<>();
+
+    private final EventDispatcherConfiguration configuration;
+    private final Executor executor;
+    private final Map<ApplicationEventListener<?>, ListenerQueue> queues = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * @param configuration The dispatcher configuration
+     * @param scheduled     The scheduled executor
+     * @param virtual       The virtual thread executor, used if enabled and available
+     */
+    public RingBufferEventDispatcher(EventDispatcherConfiguration configuration,
+                                     @Named(TaskExecutors.SCHEDULED) BeanProvider<ExecutorService> scheduled,
+                                     @Named(TaskExecutors.VIRTUAL) BeanProvider<ExecutorService> virtual) {
+        this.configuration = configuration;
+        if (configuration.isVirtualThreads() && virtual.isPresent()) {
+            this.executor = virtual.get();
+        } else {
+            if (configuration.isVirtualThreads()) {
+                LOG.warn("Virtual threads are not available, event listeners will be notified on the scheduled executor");
+            }
+            this.executor = scheduled.get();
+        }
+    }
+
+    @Override
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public Future<Void> dispatchAsync(@NonNull Object event, @NonNull List<ApplicationEventListener> listeners) {
+        // the extra count is released once the event has been queued for all listeners
+        EventFuture future = new EventFuture(event, listeners.size() + 1);
+        if (closed) {
+            future.completeExceptionally(new RejectedExecutionException("Event dispatcher is closed"));
+            return future;
+        }
+        for (ApplicationEventListener listener : listeners) {
+            if (listener.supports(event)) {
+                queues.computeIfAbsent(listener, ListenerQueue::new).enqueue(future);
+            } else {
+                future.listenerDone(null);
+            }
+        }
+        future.listenerDone(null);
+        return future;
+    }
+
+    /**
+     * @return The statistics of the queue of every listener that has been notified so far
+     */
+    @NonNull
+    public List<ListenerStatistics> getStatistics() {
+        List<ListenerStatistics> statistics = new ArrayList<>(queues.size());
+        for (ListenerQueue queue : queues.values()) {
+            statistics.add(queue.statistics());
+        }
+        return statistics;
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * The statistics of the queue of a listener.
+     *
+     * @param listener       The listener
+     * @param queueDepth     The number of events waiting in the queue
+     * @param delivered      The number of events the listener has been notified of
+     * @param dropped        The number of events dropped because the queue was full
+     * @param averageLatency The average time from publishing an event to notifying the listener
+     * @param maxLatency     The maximum time from publishing an event to notifying the listener
+     */
+    public record ListenerStatistics(
+        @NonNull ApplicationEventListener<?> listener,
+        int queueDepth,
+        long delivered,
+        long dropped,
+        @NonNull Duration averageLatency,
+        @NonNull Duration maxLatency
+    ) {
+    }
+
+    /**
+     * The future returned to the publisher, which is also the element of the listener queues.
+     */
+    private static final class EventFuture extends CompletableFuture<Void> {
+        private static final AtomicIntegerFieldUpdater<EventFuture> REMAINING =
+            AtomicIntegerFieldUpdater.newUpdater(EventFuture.class, "remaining");
+        private static final AtomicReferenceFieldUpdater<EventFuture, Throwable> ERROR =
+            AtomicReferenceFieldUpdater.newUpdater(EventFuture.class, Throwable.class, "error");
+
+        final Object event;
+        final long publishedNanos = System.nanoTime();
+        private volatile int remaining;
+        private volatile Throwable error;
+
+        EventFuture(Object event, int remaining) {
+            this.event = event;
+            this.remaining = remaining;
+        }
+
+        void listenerDone(Throwable failure) {
+            if (failure != null) {
+                ERROR.compareAndSet(this, null, failure);
+            }
+            if (REMAINING.decrementAndGet(this) == 0) {
+                Throwable e = error;
+                if (e == null) {
+                    complete(null);
+                } else {
+                    completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The queue of a listener, and the task that notifies the listener of the queued events.
+     */
+    private final class ListenerQueue implements Runnable {
+        private static final int IDLE = 0;
+        private static final int SCHEDULED = 1;
+
+        private final ApplicationEventListener<?> listener;
+        private final MpscRingBuffer<EventFuture> buffer;
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder totalLatencyNanos = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+        ListenerQueue(ApplicationEventListener<?> listener) {
+            this.listener = listener;
+            this.buffer = new MpscRingBuffer<>(configuration.getQueueCapacity());
+        }
+
+        void enqueue(EventFuture future) {
+            if (buffer.offer(future)) {
+                schedule();
+                return;
+            }
+            switch (configuration.getOverflowPolicy()) {
+                case DROP -> {
+                    dropped.increment();
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Queue of event listener [{}] is full, dropping event: {}", listener, future.event);
+                    }
+                    future.listenerDone(null);
+                }
+                case CALLER_RUNS -> deliver(future);
+                default -> {
+                    if (DRAINING.get() == this) {
+                        // the listener published the event itself, waiting would never end
+                        deliver(future);
+                        return;
+                    }
+                    do {
+                        schedule();
+                        LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                        if (closed) {
+                            future.listenerDone(new RejectedExecutionException("Event dispatcher is closed"));
+                            return;
+                        }
+                    } while (!buffer.offer(future));
+                    schedule();
+                }
+            }
+        }
+
+        private void schedule() {
+            if (state.compareAndSet(IDLE, SCHEDULED)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // the executor is shutting down, notify the listener on this thread
+                    run();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            ListenerQueue previous = DRAINING.get();
+            DRAINING.set(this);
+            try {
+                int batchSize = configuration.getBatchSize();
+                for (int i = 0; i < batchSize; i++) {
+                    EventFuture future = buffer.poll();
+                    if (future == null) {
+                        break;
+                    }
+                    deliver(future);
+                }
+            } finally {
+                DRAINING.set(previous);
+                state.set(IDLE);
+            }
+            // an event queued after the last poll could not schedule this task while it was running
+            if (!buffer.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void deliver(EventFuture future) {
+            Throwable failure = null;
+            try {
+                ApplicationEventPublisherFactory.notifyEventListener(future.event, listener);
+            } catch (Throwable e) {
+                failure = e;
+            }
+            long latency = System.nanoTime() - future.publishedNanos;
+            delivered.increment();
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            future.listenerDone(failure);
+        }
+
+        ListenerStatistics statistics() {
+            long count = delivered.sum();
+            return new ListenerStatistics(
+                listener,
+                buffer.size(),
+                count,
+                dropped.sum(),
+                Duration.ofNanos(count == 0 ? 0 : totalLatencyNanos.sum() / count),
+                Duration.ofNanos(maxLatencyNanos.get())
+            );
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package io.micronaut.runtime.event.dispatch
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.context.event.ApplicationEventDispatcher
+import io.micronaut.context.event.ApplicationEventListener
+import jakarta.inject.Singleton
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
+
+class RingBufferEventDispatcherSpec extends Specification {
+
+    void "test the dispatcher is disabled by default"() {
+        given:
+        ApplicationContext ctx = ApplicationContext.run(['spec.name': 'RingBufferEventDispatcherSpec'])
+
+        expect:
+        !ctx.containsBean(ApplicationEventDispatcher)
+
+        cleanup:
+        ctx.close()
+    }
+
+    void "test events are delivered to each listener in order"() {
+        given:
+        ApplicationContext ctx = ApplicationContext.run([
+                'spec.name': 'RingBufferEventDispatcherSpec',
+                'micronaut.event-dispatcher.enabled': true,
+                'micronaut.event-dispatcher.queue-capacity': 16,
+                'micronaut.event-dispatcher.batch-size': 4,
+        ])
+        RecordingListener listener = ctx.getBean(RecordingListener)
+
+        when:
+        List<Future<Void>> futures = (0..<1000).collect { ctx.publishEventAsync(new DispatchEvent(it)) }
+        futures.each { it.get(10, TimeUnit.SECONDS) }
+
+        then:
+        listener.values == (0..<1000).toList()
+
+        when:
+        RingBufferEventDispatcher.ListenerStatistics statistics = ctx.getBean(RingBufferEventDispatcher).statistics
+                .find { it.listener().is(listener) }
+
+        then:
+        statistics.delivered() == 1000
+        statistics.dropped() == 0
+        statistics.queueDepth() == 0
+        statistics.maxLatency() >= statistics.averageLatency()
+
+        cleanup:
+        ctx.close()
+    }
+
+    void "test a failing listener completes the future exceptionally"() {
+        given:
+        ApplicationContext ctx = ApplicationContext.run([
+                'spec.name': 'RingBufferEventDispatcherSpec',
+                'micronaut.event-dispatcher.enabled': true,
+        ])
+
+        when:
+        ctx.publishEventAsync(new DispatchEvent(-1)).get(10, TimeUnit.SECONDS)
+
+        then:
+        ExecutionException e = thrown()
+        e.cause.message == 'Bad event'
+        ctx.getBean(RecordingListener).values == [-1]
+
+        cleanup:
+        ctx.close()
+    }
+
+    void "test events are dropped if the queue of a listener is full"() {
+        given:
+        ApplicationContext ctx = ApplicationContext.run([
+                'spec.name': 'RingBufferEventDispatcherSpec',
+                'micronaut.event-dispatcher.enabled': true,
+                'micronaut.event-dispatcher.queue-capacity': 2,
+                'micronaut.event-dispatcher.overflow-policy': 'drop',
+        ])
+        BlockingListener listener = ctx.getBean(BlockingListener)
+
+        when:
+        Future<Void> first = ctx.publishEventAsync(new DispatchEvent(0))
+        listener.started.await(10, TimeUnit.SECONDS)
+        List<Future<Void>> futures = (1..10).collect { ctx.publishEventAsync(new DispatchEvent(it)) }
+        listener.release.countDown()
+        CompletableFuture.allOf(*(futures + first)).get(10, TimeUnit.SECONDS)
+
+        then:
+        listener.values == [0, 1, 2]
+        ctx.getBean(RingBufferEventDispatcher).statistics
+                .find { it.listener().is(listener) }
+                .dropped() == 8
+
+        cleanup:
+        listener?.release?.countDown()
+        ctx.close()
+    }
+
+    static class DispatchEvent {
+        final int value
+
+        DispatchEvent(int value) {
+            this.value = value
+        }
+    }
+
+    @Singleton
+    @Requires(property = 'spec.name', value = 'RingBufferEventDispatcherSpec')
+    static class RecordingListener implements ApplicationEventListener<DispatchEvent> {
+        final List<Integer> values = Collections.synchronizedList([])
+
+        @Override
+        void onApplicationEvent(DispatchEvent event) {
+            values.add(event.value)
+            if (event.value < 0) {
+                throw new IllegalStateException('Bad event')
+            }
+        }
+    }
+
+    @Singleton
+    @Requires(property = 'spec.name', value = 'RingBufferEventDispatcherSpec')
+    @Requires(property = 'micronaut.event-dispatcher.overflow-policy', value = 'drop')
+    static class BlockingListener implements ApplicationEventListener<DispatchEvent> {
+        final List<Integer> values = Collections.synchronizedList([])
+        final CountDownLatch started = new CountDownLatch(1)
+        final CountDownLatch release = new CountDownLatch(1)
+
+        @Override
+        void onApplicationEvent(DispatchEvent event) {
+            values.add(event.value)
+            started.countDown()
+            release.await(10, TimeUnit.SECONDS)
+        }
+    }
+}
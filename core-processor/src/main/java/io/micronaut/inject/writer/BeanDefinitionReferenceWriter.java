@@ -24,6 +24,7 @@ import io.micronaut.context.annotation.Requires;
 import io.micronaut.core.annotation.AnnotationMetadata;
 import io.micronaut.core.annotation.AnnotationUtil;
 import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.type.Argument;
 import io.micronaut.core.type.DefaultArgument;
 import io.micronaut.core.util.CollectionUtils;
@@ -33,6 +34,7 @@ import io.micronaut.inject.BeanDefinition;
 import io.micronaut.inject.BeanDefinitionReference;
 import io.micronaut.inject.annotation.AnnotationMetadataReference;
 import io.micronaut.inject.ast.ClassElement;
+import io.micronaut.inject.ast.beans.BeanElement;
 import jakarta.inject.Singleton;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Type;
@@ -42,6 +44,8 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Writes the bean definition class file to disk.
@@ -84,6 +88,7 @@ public class BeanDefinitionReferenceWriter extends AbstractAnnotationMetadataWri
     private final Map<String, ClassElement> typeParameters;
     private final boolean proxiedBean;
     private final boolean proxyTarget;
+    private final String[] indexedTypeNames;
     private boolean contextScope = false;
     private boolean requiresMethodProcessing;
 
@@ -107,6 +112,7 @@ public class BeanDefinitionReferenceWriter extends AbstractAnnotationMetadataWri
         this.interceptedType = visitor.getInterceptedType().orElse(null);
         this.proxiedBean = visitor.isProxiedBean();
         this.proxyTarget = visitor.isProxyTarget();
+        this.indexedTypeNames = resolveIndexedTypeNames(visitor);
     }
 
     /**
@@ -258,6 +264,17 @@ public class BeanDefinitionReferenceWriter extends AbstractAnnotationMetadataWri
         getBeanType.returnValue();
         getBeanType.visitMaxs(2, 1);
 
+        if (indexedTypeNames != null) {
+            // start method: String[] getIndexedTypeNames()
+            GeneratorAdapter getIndexedTypeNames = startPublicMethodZeroArgs(classWriter, String[].class, "getIndexedTypeNames");
+            pushNewArray(getIndexedTypeNames, String.class, indexedTypeNames.length);
+            for (int i = 0; i < indexedTypeNames.length; i++) {
+                pushStoreStringInArray(getIndexedTypeNames, i, indexedTypeNames.length, indexedTypeNames[i]);
+            }
+            getIndexedTypeNames.returnValue();
+            getIndexedTypeNames.visitMaxs(4, 1);
+        }
+
         if (CollectionUtils.isNotEmpty(typeParameters)) {
             // start method: Argument<T> getGenericBeanType()
             GeneratorAdapter getGenericType = startPublicMethodZeroArgs(classWriter, Argument.class, "getGenericBeanType");
@@ -290,4 +307,31 @@ public class BeanDefinitionReferenceWriter extends AbstractAnnotationMetadataWri
         return classWriter;
     }
 
+    /**
+     * Resolves the names of the types the bean can be looked up by: the exposed types if the bean declares them,
+     * otherwise the bean type and all its super types and interfaces. Array, container and primitive beans are not
+     * indexed since they are candidates for other types.
+     *
+     * @param visitor The visitor
+     * @return The sorted type names or null if the bean should not be indexed
+     */
+    @Nullable
+    private static String[] resolveIndexedTypeNames(BeanDefinitionVisitor visitor) {
+        if (!(visitor instanceof BeanElement beanElement)) {
+            return null;
+        }
+        String beanTypeName = visitor.getBeanTypeName();
+        if (visitor.getProvidedType().getSort() != Type.OBJECT || DefaultArgument.CONTAINER_TYPES.stream().anyMatch(clazz -> clazz.equals(beanTypeName))) {
+            return null;
+        }
+        Set<String> names = new TreeSet<>();
+        names.add(beanTypeName);
+        for (ClassElement beanType : beanElement.getBeanTypes()) {
+            if (beanType.isPrimitive() || beanType.isArray()) {
+                return null;
+            }
+            names.add(beanType.getName());
+        }
+        return names.toArray(new String[0]);
+    }
 }
@@ -101,6 +101,30 @@ public abstract class HttpClientConfiguration {
     @SuppressWarnings("WeakerAccess")
     public static final boolean DEFAULT_EXCEPTION_ON_ERROR_STATUS = true;
 
+    /**
+     * The default DNS query timeout in seconds.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final long DEFAULT_DNS_QUERY_TIMEOUT_SECONDS = 5;
+
+    /**
+     * The default maximum size of the response cache in bytes.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final long DEFAULT_RESPONSE_CACHE_MAX_SIZE = 10 * 1024 * 1024;
+
+    /**
+     * The default maximum size of a single cached response body in bytes.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_RESPONSE_CACHE_MAX_ENTRY_SIZE = 1024 * 1024;
+
+    /**
+     * The default fraction of extra requests that hedging may send.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final double DEFAULT_HEDGING_BUDGET = 0.05;
+
     private Map<String, Object> channelOptions = Collections.emptyMap();
 
     private Integer numOfThreads = null;
@@ -161,6 +185,34 @@ public abstract class HttpClientConfiguration {
 
     private LogLevel logLevel;
 
+    private DnsResolutionMode dnsResolutionMode = DnsResolutionMode.DEFAULT;
+
+    private boolean dnsRoundRobin;
+
+    private Duration dnsMinTtl;
+
+    private Duration dnsMaxTtl;
+
+    private Duration dnsNegativeTtl;
+
+    private Duration dnsQueryTimeout = Duration.ofSeconds(DEFAULT_DNS_QUERY_TIMEOUT_SECONDS);
+
+    private List<String> dnsServers = Collections.emptyList();
+
+    private Duration dnsRefreshInterval;
+
+    private boolean responseCacheEnabled;
+
+    private long responseCacheMaxSize = DEFAULT_RESPONSE_CACHE_MAX_SIZE;
+
+    private int responseCacheMaxEntrySize = DEFAULT_RESPONSE_CACHE_MAX_ENTRY_SIZE;
+
+    private Duration hedgingDelay;
+
+    private double hedgingPercentile;
+
+    private double hedgingBudget = DEFAULT_HEDGING_BUDGET;
+
     /**
      * Default constructor.
      */
@@ -207,6 +259,20 @@ public abstract class HttpClientConfiguration {
             this.sslConfiguration = copy.sslConfiguration;
             this.threadFactory = copy.threadFactory;
             this.httpVersion = copy.httpVersion;
+            this.dnsResolutionMode = copy.dnsResolutionMode;
+            this.dnsRoundRobin = copy.dnsRoundRobin;
+            this.dnsMinTtl = copy.dnsMinTtl;
+            this.dnsMaxTtl = copy.dnsMaxTtl;
+            this.dnsNegativeTtl = copy.dnsNegativeTtl;
+            this.dnsQueryTimeout = copy.dnsQueryTimeout;
+            this.dnsServers = copy.dnsServers;
+            this.dnsRefreshInterval = copy.dnsRefreshInterval;
+            this.responseCacheEnabled = copy.responseCacheEnabled;
+            this.responseCacheMaxSize = copy.responseCacheMaxSize;
+            this.responseCacheMaxEntrySize = copy.responseCacheMaxEntrySize;
+            this.hedgingDelay = copy.hedgingDelay;
+            this.hedgingPercentile = copy.hedgingPercentile;
+            this.hedgingBudget = copy.hedgingBudget;
         }
     }
 
@@ -709,6 +775,303 @@ public abstract class HttpClientConfiguration {
         this.alpnModes = Objects.requireNonNull(alpnModes, "alpnModes");
     }
 
+    /**
+     * @return How host names are resolved to addresses when connecting without a proxy
+     * @since 4.0.0
+     */
+    @NonNull
+    public DnsResolutionMode getDnsResolutionMode() {
+        return dnsResolutionMode;
+    }
+
+    /**
+     * Sets how host names are resolved to addresses when connecting without a proxy. With
+     * {@link DnsResolutionMode#ASYNC} the client queries the DNS servers from its event loops
+     * and caches the answers according to their TTL, instead of calling the blocking JDK
+     * resolver. Default value ({@link DnsResolutionMode#DEFAULT}).
+     *
+     * @param dnsResolutionMode The DNS resolution mode
+     * @since 4.0.0
+     */
+    public void setDnsResolutionMode(@NonNull DnsResolutionMode dnsResolutionMode) {
+        this.dnsResolutionMode = Objects.requireNonNull(dnsResolutionMode, "dnsResolutionMode");
+    }
+
+    /**
+     * @return Whether connections rotate over all the addresses of a host
+     * @since 4.0.0
+     */
+    public boolean isDnsRoundRobin() {
+        return dnsRoundRobin;
+    }
+
+    /**
+     * Sets whether new connections rotate over all the A and AAAA records of a host instead of
+     * always using the first one. Only applies to {@link DnsResolutionMode#ASYNC}. Default
+     * value (false).
+     *
+     * @param dnsRoundRobin True to rotate over the resolved addresses
+     * @since 4.0.0
+     */
+    public void setDnsRoundRobin(boolean dnsRoundRobin) {
+        this.dnsRoundRobin = dnsRoundRobin;
+    }
+
+    /**
+     * @return The lower bound for the time a resolved address is cached
+     * @since 4.0.0
+     */
+    public Optional<Duration> getDnsMinTtl() {
+        return Optional.ofNullable(dnsMinTtl);
+    }
+
+    /**
+     * Sets the lower bound for the time a resolved address is cached, overriding smaller TTLs
+     * sent by the DNS server. Defaults to the TTL of the record.
+     *
+     * @param dnsMinTtl The minimum TTL
+     * @since 4.0.0
+     */
+    public void setDnsMinTtl(@Nullable Duration dnsMinTtl) {
+        this.dnsMinTtl = dnsMinTtl;
+    }
+
+    /**
+     * @return The upper bound for the time a resolved address is cached
+     * @since 4.0.0
+     */
+    public Optional<Duration> getDnsMaxTtl() {
+        return Optional.ofNullable(dnsMaxTtl);
+    }
+
+    /**
+     * Sets the upper bound for the time a resolved address is cached, overriding larger TTLs
+     * sent by the DNS server. Defaults to the TTL of the record.
+     *
+     * @param dnsMaxTtl The maximum TTL
+     * @since 4.0.0
+     */
+    public void setDnsMaxTtl(@Nullable Duration dnsMaxTtl) {
+        this.dnsMaxTtl = dnsMaxTtl;
+    }
+
+    /**
+     * @return The time a failed resolution is cached
+     * @since 4.0.0
+     */
+    public Optional<Duration> getDnsNegativeTtl() {
+        return Optional.ofNullable(dnsNegativeTtl);
+    }
+
+    /**
+     * Sets the time a failed resolution, such as an unknown host, is cached. Defaults to not
+     * caching failures.
+     *
+     * @param dnsNegativeTtl The negative TTL
+     * @since 4.0.0
+     */
+    public void setDnsNegativeTtl(@Nullable Duration dnsNegativeTtl) {
+        this.dnsNegativeTtl = dnsNegativeTtl;
+    }
+
+    /**
+     * @return The timeout of a single DNS query
+     * @since 4.0.0
+     */
+    @NonNull
+    public Duration getDnsQueryTimeout() {
+        return dnsQueryTimeout;
+    }
+
+    /**
+     * Sets the timeout of a single DNS query. Default value
+     * ({@value io.micronaut.http.client.HttpClientConfiguration#DEFAULT_DNS_QUERY_TIMEOUT_SECONDS} seconds).
+     *
+     * @param dnsQueryTimeout The query timeout
+     * @since 4.0.0
+     */
+    public void setDnsQueryTimeout(@NonNull Duration dnsQueryTimeout) {
+        this.dnsQueryTimeout = Objects.requireNonNull(dnsQueryTimeout, "dnsQueryTimeout");
+    }
+
+    /**
+     * @return The DNS servers to query, as {@code host:port}
+     * @since 4.0.0
+     */
+    @NonNull
+    public List<String> getDnsServers() {
+        return dnsServers;
+    }
+
+    /**
+     * Sets the DNS servers to query, as {@code host} or {@code host:port}. They are tried in
+     * order. Defaults to the name servers of the operating system.
+     *
+     * @param dnsServers The DNS servers
+     * @since 4.0.0
+     */
+    public void setDnsServers(@NonNull List<String> dnsServers) {
+        this.dnsServers = Objects.requireNonNull(dnsServers, "dnsServers");
+    }
+
+    /**
+     * @return The interval at which cached host names are resolved again in the background
+     * @since 4.0.0
+     */
+    public Optional<Duration> getDnsRefreshInterval() {
+        return Optional.ofNullable(dnsRefreshInterval);
+    }
+
+    /**
+     * Sets the interval at which host names that were looked up since they were last resolved and
+     * whose cached addresses expire before the next refresh are resolved again in the background,
+     * so that requests do not wait for DNS when an entry expires. Only applies to
+     * {@link DnsResolutionMode#ASYNC}. Defaults to no background refresh.
+     *
+     * @param dnsRefreshInterval The refresh interval
+     * @since 4.0.0
+     */
+    public void setDnsRefreshInterval(@Nullable Duration dnsRefreshInterval) {
+        this.dnsRefreshInterval = dnsRefreshInterval;
+    }
+
+    /**
+     * @return Whether responses are cached by the client
+     * @since 4.0.0
+     */
+    public boolean isResponseCacheEnabled() {
+        return responseCacheEnabled;
+    }
+
+    /**
+     * Sets whether the client keeps a private cache of responses, as described by RFC 9111. Fresh
+     * responses are served without sending a request and stale responses are revalidated with
+     * their entity tag or modification date. Default value (false).
+     *
+     * @param responseCacheEnabled True if responses should be cached
+     * @since 4.0.0
+     */
+    public void setResponseCacheEnabled(boolean responseCacheEnabled) {
+        this.responseCacheEnabled = responseCacheEnabled;
+    }
+
+    /**
+     * @return The maximum size of the response cache in bytes
+     * @since 4.0.0
+     */
+    public long getResponseCacheMaxSize() {
+        return responseCacheMaxSize;
+    }
+
+    /**
+     * Sets the maximum size of the cached responses in bytes. The least recently used responses
+     * are evicted once it is exceeded. Default value ({@value #DEFAULT_RESPONSE_CACHE_MAX_SIZE}).
+     *
+     * @param responseCacheMaxSize The maximum size in bytes
+     * @since 4.0.0
+     */
+    public void setResponseCacheMaxSize(long responseCacheMaxSize) {
+        this.responseCacheMaxSize = responseCacheMaxSize;
+    }
+
+    /**
+     * @return The maximum size of a single cached response body in bytes
+     * @since 4.0.0
+     */
+    public int getResponseCacheMaxEntrySize() {
+        return responseCacheMaxEntrySize;
+    }
+
+    /**
+     * Sets the maximum size of a response body that is cached. Larger responses are not cached.
+     * Default value ({@value #DEFAULT_RESPONSE_CACHE_MAX_ENTRY_SIZE}).
+     *
+     * @param responseCacheMaxEntrySize The maximum size in bytes
+     * @since 4.0.0
+     */
+    public void setResponseCacheMaxEntrySize(int responseCacheMaxEntrySize) {
+        this.responseCacheMaxEntrySize = responseCacheMaxEntrySize;
+    }
+
+    /**
+     * @return The delay after which an idempotent request is hedged, if hedging is enabled
+     * @since 4.0.0
+     */
+    public Optional<Duration> getHedgingDelay() {
+        return Optional.ofNullable(hedgingDelay);
+    }
+
+    /**
+     * Sets the delay after which a second attempt of an idempotent request is sent to the next
+     * server of the load balancer, if no response has arrived yet. The first successful response
+     * is used and the other attempt is cancelled. If a {@link #setHedgingPercentile(double)
+     * percentile} is set as well, this delay is only used until enough latencies have been
+     * observed. Hedging is disabled by default. Declarative clients can also enable hedging per
+     * method with {@link io.micronaut.http.client.annotation.Hedged}.
+     *
+     * @param hedgingDelay The hedging delay
+     * @since 4.0.0
+     */
+    public void setHedgingDelay(@Nullable Duration hedgingDelay) {
+        this.hedgingDelay = hedgingDelay;
+    }
+
+    /**
+     * @return The latency percentile after which an idempotent request is hedged, or {@code 0}
+     * @since 4.0.0
+     */
+    public double getHedgingPercentile() {
+        return hedgingPercentile;
+    }
+
+    /**
+     * Sets the percentile of the observed response latencies after which a second attempt of an
+     * idempotent request is sent, e.g. {@code 95} to hedge the slowest 5% of requests. Default
+     * value (0, disabled).
+     *
+     * @param hedgingPercentile The hedging percentile, between 0 and 100
+     * @since 4.0.0
+     */
+    public void setHedgingPercentile(double hedgingPercentile) {
+        this.hedgingPercentile = hedgingPercentile;
+    }
+
+    /**
+     * @return The maximum fraction of extra requests sent by hedging
+     * @since 4.0.0
+     */
+    public double getHedgingBudget() {
+        return hedgingBudget;
+    }
+
+    /**
+     * Sets the maximum number of hedged attempts as a fraction of the requests, so that hedging
+     * can't multiply the load on a struggling service. Default value
+     * ({@value #DEFAULT_HEDGING_BUDGET}).
+     *
+     * @param hedgingBudget The hedging budget
+     * @since 4.0.0
+     */
+    public void setHedgingBudget(double hedgingBudget) {
+        this.hedgingBudget = hedgingBudget;
+    }
+
+    /**
+     * How the client resolves host names to addresses.
+     *
+     * @since 4.0.0
+     */
+    public enum DnsResolutionMode {
+        /**
+         * Use the blocking JDK resolver, as configured for the JVM.
+         */
+        DEFAULT,
+        /**
+         * Query the DNS servers asynchronously from the event loops and cache the answers.
+         */
+        ASYNC
+    }
+
     /**
      * Configuration for the HTTP client connnection pool.
      */
@@ -736,6 +1099,14 @@ public abstract class HttpClientConfiguration {
 
         private boolean enabled = DEFAULT_ENABLED;
 
+        private boolean eventLoopAffinity = false;
+
+        private int minIdleConnections = 0;
+
+        private int prewarmConnections = 0;
+
+        private Duration http2PingInterval;
+
         /**
          * Whether connection pooling is enabled.
          *
@@ -874,6 +1245,105 @@ public abstract class HttpClientConfiguration {
         public void setMaxConcurrentHttp2Connections(int maxConcurrentHttp2Connections) {
             this.maxConcurrentHttp2Connections = maxConcurrentHttp2Connections;
         }
+
+        /**
+         * Whether the pool is partitioned by event loop. A request made on an event loop of the
+         * client is served by a connection of the same event loop if one is available, and new
+         * connections for it are opened on that event loop. Connections of other event loops are
+         * only used when the event loop has none available. Defaults to {@code false}.
+         *
+         * @return Whether the pool is partitioned by event loop
+         * @since 4.0.0
+         */
+        public boolean isEventLoopAffinity() {
+            return eventLoopAffinity;
+        }
+
+        /**
+         * Whether the pool is partitioned by event loop. A request made on an event loop of the
+         * client is served by a connection of the same event loop if one is available, and new
+         * connections for it are opened on that event loop. Connections of other event loops are
+         * only used when the event loop has none available. With HTTP/2, also raise
+         * {@link #setMaxConcurrentHttp2Connections(int)} to allow a connection per event loop.
+         *
+         * @param eventLoopAffinity Whether the pool is partitioned by event loop
+         * @since 4.0.0
+         */
+        public void setEventLoopAffinity(boolean eventLoopAffinity) {
+            this.eventLoopAffinity = eventLoopAffinity;
+        }
+
+        /**
+         * The minimum number of idle connections the pool keeps open to a host it has connected
+         * to. Missing connections are opened in the background, and idle connections are not
+         * closed by the connection pool idle timeout while the pool is at this minimum.
+         *
+         * @return The minimum number of idle connections
+         * @since 4.0.0
+         */
+        public int getMinIdleConnections() {
+            return minIdleConnections;
+        }
+
+        /**
+         * The minimum number of idle connections the pool keeps open to a host it has connected
+         * to. Missing connections are opened in the background, and idle connections are not
+         * closed by the connection pool idle timeout while the pool is at this minimum. Defaults
+         * to {@code 0}.
+         *
+         * @param minIdleConnections The minimum number of idle connections
+         * @since 4.0.0
+         */
+        public void setMinIdleConnections(int minIdleConnections) {
+            this.minIdleConnections = minIdleConnections;
+        }
+
+        /**
+         * The number of connections to open in the background when a client with a fixed or
+         * discovered URL is created, before its first request.
+         *
+         * @return The number of connections to pre-warm
+         * @since 4.0.0
+         */
+        public int getPrewarmConnections() {
+            return prewarmConnections;
+        }
+
+        /**
+         * The number of connections to open in the background when a client with a fixed or
+         * discovered URL is created, before its first request. Defaults to {@code 0}.
+         *
+         * @param prewarmConnections The number of connections to pre-warm
+         * @since 4.0.0
+         */
+        public void setPrewarmConnections(int prewarmConnections) {
+            this.prewarmConnections = prewarmConnections;
+        }
+
+        /**
+         * The interval of HTTP/2 PING frames on connections that have not received any data. A
+         * connection whose PING is not acknowledged within another interval is closed.
+         *
+         * @return The PING interval, if PINGs are enabled
+         * @since 4.0.0
+         */
+        public Optional<Duration> getHttp2PingInterval() {
+            return Optional.ofNullable(http2PingInterval);
+        }
+
+        /**
+         * The interval of HTTP/2 PING frames on connections that have not received any data. A
+         * connection whose PING is not acknowledged within another interval is closed. Idle
+         * connections above {@link #setMinIdleConnections(int) the minimum} are not pinged when a
+         * connection pool idle timeout is set, so that they can still time out. Disabled by
+         * default.
+         *
+         * @param http2PingInterval The PING interval, or {@code null} to disable PINGs
+         * @since 4.0.0
+         */
+        public void setHttp2PingInterval(@Nullable Duration http2PingInterval) {
+            this.http2PingInterval = http2PingInterval;
+        }
     }
 
 }
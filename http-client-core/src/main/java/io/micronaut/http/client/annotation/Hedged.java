@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Enables request hedging for the methods of a declarative client. If no response arrives within
+ * the hedging delay, a second attempt is sent to the next server of the load balancer, the first
+ * successful response is used and the other attempt is cancelled. Only requests with an idempotent
+ * method and without a streaming body are hedged, and the number of hedged attempts is capped by
+ * {@link io.micronaut.http.client.HttpClientConfiguration#getHedgingBudget()}.
+ * <p>
+ * Members that are not set fall back to the hedging configuration of the client. If neither
+ * defines a delay, the 95th percentile of the observed latencies of the method is used.
+ *
+ * @since 4.0.0
+ */
+@Documented
+@Retention(RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Hedged {
+
+    /**
+     * The percentile used when neither the annotation nor the client configuration define a
+     * delay.
+     */
+    double DEFAULT_PERCENTILE = 95;
+
+    /**
+     * @return The fixed delay after which the request is hedged, e.g. {@code 50ms}
+     */
+    String delay() default "";
+
+    /**
+     * @return The percentile of the observed latencies after which the request is hedged, e.g.
+     * {@code 95}
+     */
+    double percentile() default 0;
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+import io.micronaut.discovery.ServiceInstance;
+import io.micronaut.discovery.exceptions.NoAvailableServiceException;
+import io.micronaut.health.HealthStatus;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A load balancer that selects instances from the requests in progress and the response latency of each instance,
+ * and stops selecting the instances with a high error rate for a while.
+ *
+ * @since 4.0.0
+ */
+public abstract class AbstractLatencyAwareLoadBalancer implements RequestTrackingLoadBalancer {
+
+    private final LoadBalancerConfiguration configuration;
+    private final Map<URI, InstanceStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * @param configuration The load balancer configuration
+     */
+    protected AbstractLatencyAwareLoadBalancer(LoadBalancerConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * @return The service ID
+     */
+    public abstract String getServiceID();
+
+    @Override
+    public RequestTracker onRequest(ServiceInstance instance) {
+        return statistics(instance).start();
+    }
+
+    /**
+     * @param serviceInstances A list of service instances
+     * @return The selected instance or a {@link NoAvailableServiceException} if none
+     */
+    protected ServiceInstance getNextAvailable(List<ServiceInstance> serviceInstances) {
+        List<ServiceInstance> available = new ArrayList<>(serviceInstances.size());
+        for (ServiceInstance instance : serviceInstances) {
+            if (instance.getHealthStatus().equals(HealthStatus.UP)) {
+                available.add(instance);
+            }
+        }
+        if (available.isEmpty()) {
+            throw new NoAvailableServiceException(getServiceID());
+        }
+        if (statistics.size() > available.size() * 2) {
+            prune(serviceInstances);
+        }
+        if (configuration.isOutlierEjection() && available.size() > 1) {
+            removeEjected(available);
+        }
+        int size = available.size();
+        if (size == 1) {
+            return available.get(0);
+        }
+        if (configuration.getStrategy() == LoadBalancerStrategy.LEAST_OUTSTANDING_REQUESTS) {
+            return leastOutstanding(available);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = available.get(first);
+        ServiceInstance b = available.get(second);
+        InstanceStatistics statisticsA = statistics(a);
+        InstanceStatistics statisticsB = statistics(b);
+        double defaultLatency = statisticsA.isSampled() && statisticsB.isSampled() ? 0 : averageLatency(available);
+        return statisticsA.cost(defaultLatency) <= statisticsB.cost(defaultLatency) ? a : b;
+    }
+
+    /**
+     * @param instance The instance
+     * @return The statistics of the instance
+     */
+    InstanceStatistics statistics(ServiceInstance instance) {
+        return statistics.computeIfAbsent(instance.getURI(), uri -> new InstanceStatistics(configuration));
+    }
+
+    /**
+     * An instance without samples is expected to be as fast as the average instance, so that it neither wins every
+     * comparison nor is never tried.
+     *
+     * @param available The available instances
+     * @return The average latency of the instances with samples, 0 if none has any
+     */
+    private double averageLatency(List<ServiceInstance> available) {
+        double total = 0;
+        int sampled = 0;
+        for (ServiceInstance instance : available) {
+            InstanceStatistics instanceStatistics = statistics.get(instance.getURI());
+            if (instanceStatistics != null && instanceStatistics.isSampled()) {
+                total += instanceStatistics.getLatency();
+                sampled++;
+            }
+        }
+        return sampled == 0 ? 0 : total / sampled;
+    }
+
+    private ServiceInstance leastOutstanding(List<ServiceInstance> available) {
+        int size = available.size();
+        // start at a random index so that ties are spread over the instances
+        int offset = ThreadLocalRandom.current().nextInt(size);
+        ServiceInstance selected = null;
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            ServiceInstance instance = available.get((offset + i) % size);
+            int inFlight = statistics(instance).getInFlight();
+            if (inFlight < min) {
+                min = inFlight;
+                selected = instance;
+            }
+        }
+        return selected;
+    }
+
+    private void removeEjected(List<ServiceInstance> available) {
+        long now = System.nanoTime();
+        int maxEjected = available.size() * configuration.getMaxEjectionPercent() / 100;
+        int ejected = 0;
+        for (int i = available.size() - 1; i >= 0 && ejected < maxEjected; i--) {
+            InstanceStatistics instanceStatistics = statistics.get(available.get(i).getURI());
+            if (instanceStatistics != null && instanceStatistics.isEjected(now)) {
+                available.remove(i);
+                ejected++;
+            }
+        }
+    }
+
+    private void prune(List<ServiceInstance> serviceInstances) {
+        Set<URI> uris = new HashSet<>();
+        for (ServiceInstance instance : serviceInstances) {
+            uris.add(instance.getURI());
+        }
+        statistics.keySet().retainAll(uris);
+    }
+}
@@ -17,6 +17,7 @@ package io.micronaut.http.client.loadbalance;
 
 import io.micronaut.discovery.DiscoveryClient;
 import io.micronaut.http.client.LoadBalancer;
+import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
 /**
@@ -30,22 +31,37 @@ import jakarta.inject.Singleton;
 public class DiscoveryClientLoadBalancerFactory {
 
     private final DiscoveryClient discoveryClient;
+    private final LoadBalancerConfiguration configuration;
 
     /**
      * @param discoveryClient The discover client
      */
     public DiscoveryClientLoadBalancerFactory(DiscoveryClient discoveryClient) {
+        this(discoveryClient, new LoadBalancerConfiguration());
+    }
+
+    /**
+     * @param discoveryClient The discover client
+     * @param configuration   The load balancer configuration
+     * @since 4.0.0
+     */
+    @Inject
+    public DiscoveryClientLoadBalancerFactory(DiscoveryClient discoveryClient, LoadBalancerConfiguration configuration) {
         this.discoveryClient = discoveryClient;
+        this.configuration = configuration;
     }
 
     /**
-     * Creates a {@link LoadBalancer} for the given service ID.
+     * Creates a {@link LoadBalancer} for the given service ID, using the configured {@link LoadBalancerStrategy}.
      *
      * @param serviceID The service ID
      * @return The {@link LoadBalancer}
      */
     public LoadBalancer create(String serviceID) {
-        return new DiscoveryClientRoundRobinLoadBalancer(serviceID, discoveryClient);
+        if (configuration.getStrategy() == LoadBalancerStrategy.ROUND_ROBIN) {
+            return new DiscoveryClientRoundRobinLoadBalancer(serviceID, discoveryClient);
+        }
+        return new DiscoveryClientLatencyAwareLoadBalancer(serviceID, discoveryClient, configuration);
     }
 
     /**
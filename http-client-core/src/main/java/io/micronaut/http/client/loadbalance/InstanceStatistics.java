@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The requests in progress, the moving average latency and the moving average error rate of a service instance.
+ *
+ * <p>The latency average decays with time rather than with the number of samples, so an instance that was slow a
+ * while ago recovers even if it has been selected rarely since. It is also peak sensitive: a sample above the
+ * average replaces it, so a slowing instance is avoided immediately. The error rate averages the last
+ * {@link LoadBalancerConfiguration#getMinimumRequests()} requests or so.</p>
+ *
+ * @since 4.0.0
+ */
+@Internal
+final class InstanceStatistics {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final double decayNanos;
+    private final double errorRateWeight;
+    private final LoadBalancerConfiguration configuration;
+
+    private volatile double latency;
+    private volatile boolean sampled;
+    private volatile double errorRate;
+    private volatile long ejectedUntil;
+    private volatile boolean ejected;
+    private long lastSample = System.nanoTime();
+    private long requests;
+
+    /**
+     * @param configuration The load balancer configuration
+     */
+    InstanceStatistics(LoadBalancerConfiguration configuration) {
+        this.configuration = configuration;
+        this.decayNanos = Math.max(1, configuration.getDecayTime().toNanos());
+        this.errorRateWeight = 2d / (Math.max(1, configuration.getMinimumRequests()) + 1);
+    }
+
+    /**
+     * @return The number of requests in progress
+     */
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return The moving average latency in nanoseconds
+     */
+    double getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return The moving average error rate, between 0 and 1
+     */
+    double getErrorRate() {
+        return errorRate;
+    }
+
+    /**
+     * @return Whether the latency of a request to the instance has been recorded
+     */
+    boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * @param defaultLatency The latency in nanoseconds assumed for an instance without samples
+     * @return The expected cost of sending one more request to the instance
+     */
+    double cost(double defaultLatency) {
+        // the +1 keeps the requests in progress significant while no instance has samples
+        return ((sampled ? latency : defaultLatency) + 1) * (inFlight.get() + 1);
+    }
+
+    /**
+     * @param now The current {@link System#nanoTime()}
+     * @return Whether the instance is ejected
+     */
+    boolean isEjected(long now) {
+        if (ejected) {
+            if (now - ejectedUntil < 0) {
+                return true;
+            }
+            ejected = false;
+        }
+        return false;
+    }
+
+    /**
+     * @return A tracker for a new request to the instance
+     */
+    RequestTrackingLoadBalancer.RequestTracker start() {
+        inFlight.incrementAndGet();
+        return new Tracker(System.nanoTime());
+    }
+
+    private synchronized void record(long latencyNanos, boolean failure) {
+        long now = System.nanoTime();
+        double weight = Math.exp(-Math.max(0, now - lastSample) / decayNanos);
+        lastSample = now;
+        double currentLatency = latency;
+        latency = latencyNanos > currentLatency ? latencyNanos : currentLatency * weight + latencyNanos * (1 - weight);
+        sampled = true;
+        double rate = errorRate + ((failure ? 1 : 0) - errorRate) * errorRateWeight;
+        requests++;
+        if (configuration.isOutlierEjection() && requests >= configuration.getMinimumRequests() && rate >= configuration.getErrorRateThreshold()) {
+            // start afresh once the ejection is over
+            ejectedUntil = now + configuration.getEjectionDuration().toNanos();
+            ejected = true;
+            requests = 0;
+            rate = 0;
+        }
+        errorRate = rate;
+    }
+
+    private static boolean isFailure(@Nullable Throwable error) {
+        if (error instanceof HttpClientResponseException responseException) {
+            return responseException.getStatus().getCode() >= 500;
+        }
+        return error != null;
+    }
+
+    /**
+     * Tracks a request to the instance.
+     */
+    private final class Tracker extends AtomicBoolean implements RequestTrackingLoadBalancer.RequestTracker {
+        private final long start;
+
+        Tracker(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(@Nullable Throwable error) {
+            if (compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                record(System.nanoTime() - start, isFailure(error));
+            }
+        }
+
+        @Override
+        public void onCancel() {
+            if (compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
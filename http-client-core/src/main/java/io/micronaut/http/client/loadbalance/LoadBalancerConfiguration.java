@@ -0,0 +1,197 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+import io.micronaut.context.annotation.BootstrapContextCompatible;
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.http.client.DefaultHttpClientConfiguration;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration of the load balancers of the HTTP clients that call a service by its ID.
+ *
+ * @since 4.0.0
+ */
+@ConfigurationProperties(LoadBalancerConfiguration.PREFIX)
+@BootstrapContextCompatible
+public class LoadBalancerConfiguration {
+
+    /**
+     * The prefix of the load balancer settings.
+     */
+    public static final String PREFIX = DefaultHttpClientConfiguration.PREFIX + ".load-balancer";
+
+    /**
+     * The default decay time.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final Duration DEFAULT_DECAY_TIME = Duration.ofSeconds(10);
+
+    /**
+     * The default error rate threshold.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final double DEFAULT_ERROR_RATE_THRESHOLD = 0.5;
+
+    /**
+     * The default minimum number of requests.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_MINIMUM_REQUESTS = 10;
+
+    /**
+     * The default ejection duration.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final Duration DEFAULT_EJECTION_DURATION = Duration.ofSeconds(30);
+
+    /**
+     * The default maximum percentage of ejected instances.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_MAX_EJECTION_PERCENT = 50;
+
+    private LoadBalancerStrategy strategy = LoadBalancerStrategy.ROUND_ROBIN;
+    private Duration decayTime = DEFAULT_DECAY_TIME;
+    private boolean outlierEjection = true;
+    private double errorRateThreshold = DEFAULT_ERROR_RATE_THRESHOLD;
+    private int minimumRequests = DEFAULT_MINIMUM_REQUESTS;
+    private Duration ejectionDuration = DEFAULT_EJECTION_DURATION;
+    private int maxEjectionPercent = DEFAULT_MAX_EJECTION_PERCENT;
+
+    /**
+     * @return The strategy selecting the instances
+     */
+    @NonNull
+    public LoadBalancerStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Sets the strategy selecting the instances. Default value ({@link LoadBalancerStrategy#ROUND_ROBIN}).
+     *
+     * @param strategy The strategy
+     */
+    public void setStrategy(@NonNull LoadBalancerStrategy strategy) {
+        this.strategy = Objects.requireNonNull(strategy, "strategy");
+    }
+
+    /**
+     * @return The time after which a latency sample has lost most of its weight in the average latency
+     */
+    @NonNull
+    public Duration getDecayTime() {
+        return decayTime;
+    }
+
+    /**
+     * Sets the time after which a latency sample has lost most of its weight in the moving average latency of an
+     * instance. Default value (10 seconds).
+     *
+     * @param decayTime The decay time
+     */
+    public void setDecayTime(@NonNull Duration decayTime) {
+        this.decayTime = Objects.requireNonNull(decayTime, "decayTime");
+    }
+
+    /**
+     * @return Whether instances with a high error rate are ejected
+     */
+    public boolean isOutlierEjection() {
+        return outlierEjection;
+    }
+
+    /**
+     * Sets whether the latency aware strategies stop selecting the instances with a high error rate for a while.
+     * Default value (true).
+     *
+     * @param outlierEjection Whether outliers are ejected
+     */
+    public void setOutlierEjection(boolean outlierEjection) {
+        this.outlierEjection = outlierEjection;
+    }
+
+    /**
+     * @return The error rate at which an instance is ejected
+     */
+    public double getErrorRateThreshold() {
+        return errorRateThreshold;
+    }
+
+    /**
+     * Sets the error rate, between 0 and 1, at which an instance is ejected. Connection errors, timeouts and 5xx
+     * responses count as errors. Default value ({@value #DEFAULT_ERROR_RATE_THRESHOLD}).
+     *
+     * @param errorRateThreshold The error rate threshold
+     */
+    public void setErrorRateThreshold(double errorRateThreshold) {
+        this.errorRateThreshold = errorRateThreshold;
+    }
+
+    /**
+     * @return The number of requests an instance must have completed before it can be ejected
+     */
+    public int getMinimumRequests() {
+        return minimumRequests;
+    }
+
+    /**
+     * Sets the number of requests an instance must have completed before it can be ejected. The error rate is
+     * averaged over about as many requests. Default value ({@value #DEFAULT_MINIMUM_REQUESTS}).
+     *
+     * @param minimumRequests The minimum number of requests
+     */
+    public void setMinimumRequests(int minimumRequests) {
+        this.minimumRequests = minimumRequests;
+    }
+
+    /**
+     * @return How long an ejected instance is not selected
+     */
+    @NonNull
+    public Duration getEjectionDuration() {
+        return ejectionDuration;
+    }
+
+    /**
+     * Sets how long an ejected instance is not selected. Default value (30 seconds).
+     *
+     * @param ejectionDuration The ejection duration
+     */
+    public void setEjectionDuration(@NonNull Duration ejectionDuration) {
+        this.ejectionDuration = Objects.requireNonNull(ejectionDuration, "ejectionDuration");
+    }
+
+    /**
+     * @return The maximum percentage of the available instances that can be ejected at once
+     */
+    public int getMaxEjectionPercent() {
+        return maxEjectionPercent;
+    }
+
+    /**
+     * Sets the maximum percentage of the available instances that can be ejected at once. Default value
+     * ({@value #DEFAULT_MAX_EJECTION_PERCENT}).
+     *
+     * @param maxEjectionPercent The maximum ejection percentage
+     */
+    public void setMaxEjectionPercent(int maxEjectionPercent) {
+        this.maxEjectionPercent = maxEjectionPercent;
+    }
+}
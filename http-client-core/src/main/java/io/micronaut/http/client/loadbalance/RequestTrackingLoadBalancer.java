@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.loadbalance;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.discovery.ServiceInstance;
+import io.micronaut.http.client.LoadBalancer;
+
+/**
+ * A {@link LoadBalancer} that is notified of the outcome of the requests sent to the instances it selects, for
+ * example to prefer the instances that respond faster.
+ *
+ * @since 4.0.0
+ */
+public interface RequestTrackingLoadBalancer extends LoadBalancer {
+
+    /**
+     * Invoked when a request is sent to an instance selected by this load balancer.
+     *
+     * @param instance The selected instance
+     * @return The tracker to notify once the request completes
+     */
+    RequestTracker onRequest(ServiceInstance instance);
+
+    /**
+     * Tracks a single request. Only the first notification has an effect.
+     */
+    interface RequestTracker {
+
+        /**
+         * Invoked once the response is received or the request failed.
+         *
+         * @param error The error the request failed with, if any
+         */
+        void onComplete(@Nullable Throwable error);
+
+        /**
+         * Invoked if the request is cancelled before it completes.
+         */
+        void onCancel();
+    }
+}
@@ -18,6 +18,7 @@ package io.micronaut.http.client.loadbalance;
 import io.micronaut.context.annotation.BootstrapContextCompatible;
 import io.micronaut.discovery.ServiceInstanceList;
 import io.micronaut.http.client.LoadBalancer;
+import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
 /**
@@ -31,13 +32,35 @@ import jakarta.inject.Singleton;
 @BootstrapContextCompatible
 public class ServiceInstanceListLoadBalancerFactory {
 
+    private final LoadBalancerConfiguration configuration;
+
+    /**
+     * Creates a factory of round-robin load balancers.
+     */
+    public ServiceInstanceListLoadBalancerFactory() {
+        this(new LoadBalancerConfiguration());
+    }
+
+    /**
+     * @param configuration The load balancer configuration
+     * @since 4.0.0
+     */
+    @Inject
+    public ServiceInstanceListLoadBalancerFactory(LoadBalancerConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
     /**
-     * Creates a {@link LoadBalancer} from the given {@link ServiceInstanceList}.
+     * Creates a {@link LoadBalancer} from the given {@link ServiceInstanceList}, using the configured
+     * {@link LoadBalancerStrategy}.
      *
      * @param serviceInstanceList The {@link ServiceInstanceList}
      * @return The {@link LoadBalancer}
      */
     public LoadBalancer create(ServiceInstanceList serviceInstanceList) {
-        return new ServiceInstanceListRoundRobinLoadBalancer(serviceInstanceList);
+        if (configuration.getStrategy() == LoadBalancerStrategy.ROUND_ROBIN) {
+            return new ServiceInstanceListRoundRobinLoadBalancer(serviceInstanceList);
+        }
+        return new ServiceInstanceListLatencyAwareLoadBalancer(serviceInstanceList, configuration);
     }
 }
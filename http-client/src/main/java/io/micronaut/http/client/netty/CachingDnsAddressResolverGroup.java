@@ -0,0 +1,352 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.netty;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.client.HttpClientConfiguration;
+import io.netty.channel.ChannelFactory;
+import io.netty.channel.EventLoop;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.handler.codec.dns.DnsRecord;
+import io.netty.resolver.AddressResolver;
+import io.netty.resolver.AddressResolverGroup;
+import io.netty.resolver.dns.DefaultDnsCache;
+import io.netty.resolver.dns.DnsCache;
+import io.netty.resolver.dns.DnsCacheEntry;
+import io.netty.resolver.dns.DnsNameResolver;
+import io.netty.resolver.dns.DnsNameResolverBuilder;
+import io.netty.resolver.dns.DnsServerAddressStreamProvider;
+import io.netty.resolver.dns.DnsServerAddressStreamProviders;
+import io.netty.resolver.dns.RoundRobinInetAddressResolver;
+import io.netty.resolver.dns.SequentialDnsServerAddressStreamProvider;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AddressResolverGroup} that resolves host names with a non-blocking {@link DnsNameResolver} per event
+ * loop. All resolvers share one cache that honours the TTL of the records, clamped to the configured bounds,
+ * and that caches failed lookups for the configured negative TTL.
+ * <p>
+ * If a refresh interval is configured, host names that were looked up since they were last resolved and whose
+ * addresses expire before the next refresh are resolved again in the background. The cached addresses are only
+ * replaced once the new answer arrives, so connections never wait for DNS while a host is in use.
+ *
+ * @since 4.0.0
+ */
+@Internal
+final class CachingDnsAddressResolverGroup extends AddressResolverGroup<InetSocketAddress> {
+
+    private static final int DEFAULT_DNS_PORT = 53;
+
+    private final Logger log;
+    private final DnsNameResolverBuilder builder;
+    private final RefreshingDnsCache cache;
+    private final boolean roundRobin;
+    @Nullable
+    private final Duration refreshInterval;
+
+    private DnsNameResolver refreshResolver;
+    private ScheduledFuture<?> refreshTask;
+
+    /**
+     * @param log                    The logger of the client
+     * @param configuration          The client configuration
+     * @param datagramChannelFactory Factory for the datagram channels of the resolvers, matching the event loops
+     */
+    CachingDnsAddressResolverGroup(Logger log,
+                                   HttpClientConfiguration configuration,
+                                   ChannelFactory<? extends DatagramChannel> datagramChannelFactory) {
+        this.log = log;
+        this.cache = new RefreshingDnsCache(
+            seconds(configuration.getDnsMinTtl(), 0),
+            seconds(configuration.getDnsMaxTtl(), Integer.MAX_VALUE),
+            seconds(configuration.getDnsNegativeTtl(), 0)
+        );
+        this.builder = new DnsNameResolverBuilder()
+            .channelFactory(datagramChannelFactory)
+            .resolveCache(cache)
+            .queryTimeoutMillis(configuration.getDnsQueryTimeout().toMillis())
+            .nameServerProvider(nameServerProvider(configuration.getDnsServers()));
+        this.roundRobin = configuration.isDnsRoundRobin();
+        this.refreshInterval = configuration.getDnsRefreshInterval().orElse(null);
+    }
+
+    @Override
+    protected AddressResolver<InetSocketAddress> newResolver(EventExecutor executor) {
+        if (!(executor instanceof EventLoop loop)) {
+            throw new IllegalStateException("Unsupported executor type for DNS resolution: " + executor);
+        }
+        DnsNameResolver resolver = builder.copy().eventLoop(loop).build();
+        if (refreshInterval != null) {
+            scheduleRefresh(loop);
+        }
+        if (roundRobin) {
+            return new RoundRobinInetAddressResolver(loop, resolver).asAddressResolver();
+        } else {
+            return resolver.asAddressResolver();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (refreshTask != null) {
+                refreshTask.cancel(false);
+                refreshTask = null;
+            }
+            if (refreshResolver != null) {
+                refreshResolver.close();
+                refreshResolver = null;
+            }
+        }
+        super.close();
+        cache.clear();
+    }
+
+    /**
+     * For testing.
+     *
+     * @return The shared cache
+     */
+    DnsCache getCache() {
+        return cache;
+    }
+
+    private synchronized void scheduleRefresh(EventLoop loop) {
+        if (refreshTask != null) {
+            return;
+        }
+        // the refresh resolver never answers from the cache, and only replaces the cached addresses of a host
+        // once the new ones arrive
+        refreshResolver = builder.copy().eventLoop(loop).resolveCache(cache.refreshView()).build();
+        long interval = refreshInterval.toNanos();
+        refreshTask = loop.scheduleAtFixedRate(this::refresh, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    private void refresh() {
+        DnsNameResolver resolver;
+        synchronized (this) {
+            resolver = refreshResolver;
+        }
+        if (resolver == null) {
+            return;
+        }
+        for (String hostname : cache.hostnamesToRefresh(System.nanoTime() + refreshInterval.toNanos())) {
+            cache.refreshing.add(hostname);
+            resolver.resolveAll(hostname).addListener(future -> {
+                cache.refreshing.remove(hostname);
+                if (!future.isSuccess() && log.isDebugEnabled()) {
+                    log.debug("Background DNS refresh of {} failed, keeping the cached addresses", hostname, future.cause());
+                }
+            });
+        }
+    }
+
+    private static int seconds(Optional<Duration> duration, int defaultValue) {
+        return duration.map(d -> (int) Math.min(Integer.MAX_VALUE, d.getSeconds())).orElse(defaultValue);
+    }
+
+    private static DnsServerAddressStreamProvider nameServerProvider(List<String> servers) {
+        if (servers.isEmpty()) {
+            return DnsServerAddressStreamProviders.platformDefault();
+        }
+        InetSocketAddress[] addresses = new InetSocketAddress[servers.size()];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = parseServer(servers.get(i));
+        }
+        return new SequentialDnsServerAddressStreamProvider(addresses);
+    }
+
+    /**
+     * @param server The server as {@code host}, {@code host:port} or {@code [ipv6]:port}
+     * @return The resolved server address
+     */
+    static InetSocketAddress parseServer(String server) {
+        String host = server.trim();
+        int port = DEFAULT_DNS_PORT;
+        int colon = host.lastIndexOf(':');
+        if (host.startsWith("[")) {
+            int end = host.indexOf(']');
+            if (end == -1) {
+                throw new IllegalArgumentException("Invalid DNS server address: " + server);
+            }
+            if (colon > end) {
+                port = Integer.parseInt(host.substring(colon + 1));
+            }
+            host = host.substring(1, end);
+        } else if (colon != -1 && colon == host.indexOf(':')) {
+            // a single colon separates the port, several are an unbracketed IPv6 address
+            port = Integer.parseInt(host.substring(colon + 1));
+            host = host.substring(0, colon);
+        }
+        return new InetSocketAddress(host, port);
+    }
+
+    /**
+     * {@link DefaultDnsCache} that records when the addresses of each host expire and which hosts are in use.
+     */
+    private static final class RefreshingDnsCache implements DnsCache {
+
+        final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+        private final DefaultDnsCache delegate;
+        private final int minTtl;
+        private final int maxTtl;
+        private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+        private final Set<String> used = ConcurrentHashMap.newKeySet();
+
+        RefreshingDnsCache(int minTtl, int maxTtl, int negativeTtl) {
+            this.delegate = new DefaultDnsCache(minTtl, maxTtl, negativeTtl);
+            this.minTtl = minTtl;
+            this.maxTtl = Math.max(minTtl, maxTtl);
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+            expiries.clear();
+            used.clear();
+        }
+
+        @Override
+        public boolean clear(String hostname) {
+            expiries.remove(hostname);
+            return delegate.clear(hostname);
+        }
+
+        @Override
+        public List<? extends DnsCacheEntry> get(String hostname, DnsRecord[] additionals) {
+            List<? extends DnsCacheEntry> entries = delegate.get(hostname, additionals);
+            if (entries != null && !entries.isEmpty() && entries.get(0).cause() == null) {
+                used.add(hostname);
+            }
+            return entries;
+        }
+
+        @Override
+        public DnsCacheEntry cache(String hostname, DnsRecord[] additionals, InetAddress address, long originalTtl, EventLoop loop) {
+            int ttl = Math.max(minTtl, (int) Math.min(maxTtl, originalTtl));
+            long expiry = System.nanoTime() + TimeUnit.SECONDS.toNanos(ttl);
+            List<? extends DnsCacheEntry> cached = delegate.get(hostname, additionals);
+            if (cached == null || cached.isEmpty() || cached.get(0).cause() != null) {
+                // the first record of a new answer, the deadline of a previous answer no longer applies
+                expiries.put(hostname, expiry);
+            } else {
+                // another record of the cached answer, which is refreshed when its first record expires
+                expiries.merge(hostname, expiry, Math::min);
+            }
+            return delegate.cache(hostname, additionals, address, originalTtl, loop);
+        }
+
+        @Override
+        public DnsCacheEntry cache(String hostname, DnsRecord[] additionals, Throwable cause, EventLoop loop) {
+            return delegate.cache(hostname, additionals, cause, loop);
+        }
+
+        /**
+         * @param horizon The {@link System#nanoTime()} before which addresses must expire to be refreshed
+         * @return The hosts looked up since they were last resolved whose addresses expire before the horizon
+         */
+        List<String> hostnamesToRefresh(long horizon) {
+            List<String> hostnames = new ArrayList<>();
+            for (String hostname : used) {
+                Long expiry = expiries.get(hostname);
+                if (expiry == null) {
+                    used.remove(hostname);
+                } else if (expiry - horizon <= 0 && !refreshing.contains(hostname)) {
+                    used.remove(hostname);
+                    hostnames.add(hostname);
+                }
+            }
+            return hostnames;
+        }
+
+        /**
+         * @return A view that never answers from the cache, and replaces the addresses of a host being refreshed
+         * when the first new address is cached. Failed refreshes leave the cached addresses untouched.
+         */
+        DnsCache refreshView() {
+            return new DnsCache() {
+                @Override
+                public void clear() {
+                    // the view does not own the cache
+                }
+
+                @Override
+                public boolean clear(String hostname) {
+                    return false;
+                }
+
+                @Override
+                public List<? extends DnsCacheEntry> get(String hostname, DnsRecord[] additionals) {
+                    return Collections.emptyList();
+                }
+
+                @Override
+                public DnsCacheEntry cache(String hostname, DnsRecord[] additionals, InetAddress address, long originalTtl, EventLoop loop) {
+                    if (refreshing.remove(hostname)) {
+                        RefreshingDnsCache.this.clear(hostname);
+                    }
+                    return RefreshingDnsCache.this.cache(hostname, additionals, address, originalTtl, loop);
+                }
+
+                @Override
+                public DnsCacheEntry cache(String hostname, DnsRecord[] additionals, Throwable cause, EventLoop loop) {
+                    return new FailedRefresh(cause);
+                }
+            };
+        }
+    }
+
+    /**
+     * Entry returned for a failed background refresh, which is not cached.
+     */
+    private static final class FailedRefresh implements DnsCacheEntry {
+
+        private final Throwable cause;
+
+        FailedRefresh(Throwable cause) {
+            this.cause = cause;
+        }
+
+        @Override
+        @Nullable
+        public InetAddress address() {
+            return null;
+        }
+
+        @Override
+        @NonNull
+        public Throwable cause() {
+            return cause;
+        }
+    }
+}
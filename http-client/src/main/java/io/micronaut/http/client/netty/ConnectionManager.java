@@ -41,8 +41,11 @@ import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.netty.handler.codec.DecoderException;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.HttpClientCodec;
@@ -52,11 +55,13 @@ import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.websocketx.extensions.compression.WebSocketClientCompressionHandler;
+import io.netty.handler.codec.http2.DefaultHttp2PingFrame;
 import io.netty.handler.codec.http2.Http2ClientUpgradeCodec;
 import io.netty.handler.codec.http2.Http2FrameCodec;
 import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
 import io.netty.handler.codec.http2.Http2FrameLogger;
 import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2PingFrame;
 import io.netty.handler.codec.http2.Http2SettingsAckFrame;
 import io.netty.handler.codec.http2.Http2SettingsFrame;
 import io.netty.handler.codec.http2.Http2StreamChannel;
@@ -70,14 +75,17 @@ import io.netty.handler.ssl.ApplicationProtocolNegotiationHandler;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.ssl.SslHandshakeCompletionEvent;
+import io.netty.handler.timeout.IdleStateEvent;
 import io.netty.handler.timeout.IdleStateHandler;
 import io.netty.handler.timeout.ReadTimeoutException;
 import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.resolver.AddressResolverGroup;
 import io.netty.resolver.NoopAddressResolverGroup;
 import io.netty.util.ReferenceCountUtil;
 import io.netty.util.ResourceLeakDetector;
 import io.netty.util.ResourceLeakDetectorFactory;
 import io.netty.util.ResourceLeakTracker;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 import io.netty.util.concurrent.ScheduledFuture;
@@ -113,6 +121,12 @@ import java.util.function.Supplier;
  */
 @Internal
 class ConnectionManager {
+    /**
+     * A replacement for a connection with a TTL is opened when the last
+     * {@code 1/TTL_REPLACEMENT_DIVISOR} of the TTL starts.
+     */
+    private static final int TTL_REPLACEMENT_DIVISOR = 10;
+
     final InvocationInstrumenter instrumenter;
 
     private final HttpVersionSelection httpVersion;
@@ -122,7 +136,11 @@ class ConnectionManager {
     private final boolean shutdownGroup;
     private final ThreadFactory threadFactory;
     private final ChannelFactory<? extends Channel> socketChannelFactory;
+    @Nullable
+    private final ChannelFactory<? extends DatagramChannel> datagramChannelFactory;
     private Bootstrap bootstrap;
+    @Nullable
+    private AddressResolverGroup<InetSocketAddress> resolverGroup;
     private final HttpClientConfiguration configuration;
     private final SslContext sslContext;
     private final NettyClientCustomizer clientCustomizer;
@@ -141,7 +159,9 @@ class ConnectionManager {
         this.shutdownGroup = from.shutdownGroup;
         this.threadFactory = from.threadFactory;
         this.socketChannelFactory = from.socketChannelFactory;
+        this.datagramChannelFactory = from.datagramChannelFactory;
         this.bootstrap = from.bootstrap;
+        this.resolverGroup = from.resolverGroup;
         this.configuration = from.configuration;
         this.sslContext = from.sslContext;
         this.clientCustomizer = from.clientCustomizer;
@@ -156,6 +176,7 @@ class ConnectionManager {
         @Nullable  HttpVersionSelection httpVersion,
         InvocationInstrumenter instrumenter,
         ChannelFactory<? extends Channel> socketChannelFactory,
+        @Nullable ChannelFactory<? extends DatagramChannel> datagramChannelFactory,
         NettyClientSslBuilder nettyClientSslBuilder,
         NettyClientCustomizer clientCustomizer,
         String informationalServiceId) {
@@ -182,6 +203,10 @@ class ConnectionManager {
             group = createEventLoopGroup(configuration, threadFactory);
             shutdownGroup = true;
         }
+        if (datagramChannelFactory == null && group instanceof NioEventLoopGroup) {
+            datagramChannelFactory = NioDatagramChannel::new;
+        }
+        this.datagramChannelFactory = datagramChannelFactory;
 
         initBootstrap();
 
@@ -287,6 +312,27 @@ class ConnectionManager {
         this.bootstrap.group(group)
             .channelFactory(socketChannelFactory)
             .option(ChannelOption.SO_KEEPALIVE, true);
+        this.resolverGroup = createResolverGroup();
+        if (resolverGroup != null) {
+            this.bootstrap.resolver(resolverGroup);
+        }
+    }
+
+    /**
+     * Creates the non-blocking DNS resolver if it is enabled.
+     *
+     * @return The resolver group, or {@code null} to use the default resolver
+     */
+    @Nullable
+    private AddressResolverGroup<InetSocketAddress> createResolverGroup() {
+        if (configuration.getDnsResolutionMode() != HttpClientConfiguration.DnsResolutionMode.ASYNC) {
+            return null;
+        }
+        if (datagramChannelFactory == null) {
+            log.warn("Asynchronous DNS resolution is not supported by the event loop group {}, using the default resolver", group);
+            return null;
+        }
+        return new CachingDnsAddressResolverGroup(log, configuration, datagramChannelFactory);
     }
 
     /**
@@ -296,6 +342,9 @@ class ConnectionManager {
         for (Pool pool : pools.values()) {
             pool.shutdown();
         }
+        if (resolverGroup != null) {
+            resolverGroup.close();
+        }
         if (shutdownGroup) {
             Duration shutdownTimeout = configuration.getShutdownTimeout()
                 .orElse(Duration.ofMillis(HttpClientConfiguration.DEFAULT_SHUTDOWN_TIMEOUT_MILLISECONDS));
@@ -334,9 +383,28 @@ class ConnectionManager {
      * @return Future that terminates when the TCP connection is established.
      */
     protected ChannelFuture doConnect(DefaultHttpClient.RequestKey requestKey, ChannelInitializer<?> channelInitializer) {
+        return doConnect(bootstrap.clone(), requestKey, channelInitializer);
+    }
+
+    /**
+     * Use the bootstrap to connect to the given host on the given event loop. Used by pools with
+     * {@link HttpClientConfiguration.ConnectionPoolConfiguration#isEventLoopAffinity()}.
+     *
+     * @param requestKey The host to connect to
+     * @param channelInitializer The initializer to use
+     * @param eventLoop The event loop of the new channel, or {@code null} for any event loop
+     * @return Future that terminates when the TCP connection is established.
+     */
+    protected ChannelFuture doConnect(DefaultHttpClient.RequestKey requestKey, ChannelInitializer<?> channelInitializer, @Nullable EventLoop eventLoop) {
+        if (eventLoop == null) {
+            return doConnect(requestKey, channelInitializer);
+        }
+        return doConnect(bootstrap.clone(eventLoop), requestKey, channelInitializer);
+    }
+
+    private ChannelFuture doConnect(Bootstrap localBootstrap, DefaultHttpClient.RequestKey requestKey, ChannelInitializer<?> channelInitializer) {
         String host = requestKey.getHost();
         int port = requestKey.getPort();
-        Bootstrap localBootstrap = bootstrap.clone();
         Proxy proxy = configuration.resolveProxy(requestKey.isSecure(), host, port);
         if (proxy.type() != Proxy.Type.DIRECT) {
             localBootstrap.resolver(NoopAddressResolverGroup.INSTANCE);
@@ -376,6 +444,20 @@ class ConnectionManager {
         return pools.computeIfAbsent(requestKey, Pool::new).acquire(blockHint);
     }
 
+    /**
+     * Open the configured number of
+     * {@link HttpClientConfiguration.ConnectionPoolConfiguration#getPrewarmConnections() pre-warm}
+     * connections to the given remote in the background.
+     *
+     * @param requestKey The remote to connect to
+     */
+    void prewarm(DefaultHttpClient.RequestKey requestKey) {
+        int connections = configuration.getConnectionPoolConfiguration().getPrewarmConnections();
+        if (connections > 0) {
+            pools.computeIfAbsent(requestKey, Pool::new).prewarm(connections);
+        }
+    }
+
     /**
      * Connect to a remote websocket. The given {@link ChannelHandler} is added to the pipeline
      * when the handshakes complete.
@@ -811,8 +893,11 @@ class ConnectionManager {
         }
 
         Mono<PoolHandle> acquire(@Nullable BlockHint blockHint) {
-            PoolSink<PoolHandle> sink = new CancellableMonoSink<>(blockHint);
-            addPendingRequest(sink);
+            EventLoop eventLoop = configuration.getConnectionPoolConfiguration().isEventLoopAffinity() ? currentEventLoop(blockHint) : null;
+            PoolSink<PoolHandle> sink = new CancellableMonoSink<>(blockHint, eventLoop);
+            if (!tryDispatchLocal(sink)) {
+                addPendingRequest(sink);
+            }
             Optional<Duration> acquireTimeout = configuration.getConnectionPoolConfiguration().getAcquireTimeout();
             //noinspection OptionalIsPresent
             if (acquireTimeout.isPresent()) {
@@ -843,8 +928,23 @@ class ConnectionManager {
             log.error("Failed to connect to remote", error);
         }
 
+        /**
+         * @param blockHint The block hint of the request
+         * @return The event loop of this client the caller runs on, unless the request would
+         * block it
+         */
+        @Nullable
+        private EventLoop currentEventLoop(@Nullable BlockHint blockHint) {
+            for (EventExecutor executor : group) {
+                if (executor.inEventLoop() && executor instanceof EventLoop eventLoop) {
+                    return blockHint != null && blockHint.blocks(eventLoop) ? null : eventLoop;
+                }
+            }
+            return null;
+        }
+
         @Override
-        void openNewConnection(@Nullable BlockHint blockHint) throws Exception {
+        void openNewConnection(@Nullable BlockHint blockHint, @Nullable EventLoop eventLoop) throws Exception {
             // open a new connection
             ChannelInitializer<?> initializer;
             if (requestKey.isSecure()) {
@@ -881,7 +981,10 @@ class ConnectionManager {
                         throw new AssertionError("Unknown plaintext mode");
                 }
             }
-            ChannelFuture channelFuture = doConnect(requestKey, initializer);
+            if (eventLoop != null && blockHint != null && blockHint.blocks(eventLoop)) {
+                eventLoop = null;
+            }
+            ChannelFuture channelFuture = doConnect(requestKey, initializer, eventLoop);
             if (blockHint != null && blockHint.blocks(channelFuture.channel().eventLoop())) {
                 channelFuture.channel().close();
                 onNewConnectionFailure(BlockHint.createException());
@@ -894,7 +997,14 @@ class ConnectionManager {
             });
         }
 
+        @Override
+        void schedule(Runnable task, long delay, TimeUnit unit) {
+            group.schedule(task, delay, unit);
+        }
+
+        @Override
         public void shutdown() {
+            super.shutdown();
             forEachConnection(c -> ((ConnectionHolder) c).channel.close());
         }
 
@@ -911,12 +1021,26 @@ class ConnectionManager {
             @Nullable
             ScheduledFuture<?> ttlFuture;
             volatile boolean windDownConnection = false;
+            /**
+             * Set shortly before the connection reaches its TTL.
+             */
+            volatile boolean expiring = false;
 
             ConnectionHolder(Channel channel, NettyClientCustomizer connectionCustomizer) {
                 this.channel = channel;
                 this.connectionCustomizer = connectionCustomizer;
             }
 
+            @Override
+            final EventLoop eventLoop() {
+                return channel.eventLoop();
+            }
+
+            @Override
+            final boolean isIdle() {
+                return !windDownConnection && !expiring && !hasLiveRequests();
+            }
+
             /**
              * Add connection-level timeout-related handlers to the channel
              * (read timeout, TTL, ...).
@@ -941,13 +1065,24 @@ class ConnectionManager {
                     .ifPresent(dur -> channel.pipeline().addBefore(before, ChannelPipelineCustomizer.HANDLER_IDLE_STATE, new ReadTimeoutHandler(dur.toNanos(), TimeUnit.NANOSECONDS) {
                         @Override
                         protected void readTimedOut(ChannelHandlerContext ctx) {
-                            if (!hasLiveRequests()) {
+                            if (!hasLiveRequests() && !isIdleRetained()) {
                                 ctx.close();
                             }
                         }
                     }));
-                configuration.getConnectTtl().ifPresent(ttl ->
-                    ttlFuture = channel.eventLoop().schedule(this::windDownConnection, ttl.toNanos(), TimeUnit.NANOSECONDS));
+                // shortly before the TTL passes, open a replacement connection in the background
+                configuration.getConnectTtl().ifPresent(ttl -> {
+                    long ttlNanos = ttl.toNanos();
+                    long replaceNanos = ttlNanos - ttlNanos / TTL_REPLACEMENT_DIVISOR;
+                    ttlFuture = channel.eventLoop().schedule(() -> {
+                        if (!channel.isActive() || windDownConnection) {
+                            return;
+                        }
+                        expiring = true;
+                        onConnectionExpiring(hasLiveRequests());
+                        ttlFuture = channel.eventLoop().schedule(this::windDownConnection, ttlNanos - replaceNanos, TimeUnit.NANOSECONDS);
+                    }, replaceNanos, TimeUnit.NANOSECONDS);
+                });
                 channel.pipeline().addBefore(before, "connection-cleaner", new ChannelInboundHandlerAdapter() {
                     boolean inactiveCalled = false;
 
@@ -1172,6 +1307,8 @@ class ConnectionManager {
                         ChannelPipelineCustomizer.HANDLER_SSL :
                         ChannelPipelineCustomizer.HANDLER_HTTP2_CONNECTION
                 );
+                configuration.getConnectionPoolConfiguration().getHttp2PingInterval().ifPresent(interval ->
+                    channel.pipeline().addAfter(ChannelPipelineCustomizer.HANDLER_HTTP2_CONNECTION, "http2-ping", new PingHandler(interval)));
 
                 connectionCustomizer.onStreamPipelineBuilt();
 
@@ -1265,6 +1402,48 @@ class ConnectionManager {
                 super.onInactive();
                 onConnectionInactive2(this);
             }
+
+            /**
+             * Sends a PING when no frame was received for the configured interval, and closes the
+             * connection if it is not acknowledged within another interval.
+             */
+            private final class PingHandler extends IdleStateHandler {
+                private final boolean idleTimeout;
+                private boolean pingOutstanding = false;
+
+                PingHandler(Duration interval) {
+                    super(interval.toNanos(), 0, 0, TimeUnit.NANOSECONDS);
+                    this.idleTimeout = configuration.getConnectionPoolIdleTimeout()
+                        .filter(d -> !d.isZero() && !d.isNegative())
+                        .isPresent();
+                }
+
+                @Override
+                protected void channelIdle(ChannelHandlerContext ctx, IdleStateEvent evt) {
+                    if (pingOutstanding) {
+                        log.debug("HTTP/2 PING was not acknowledged, closing connection {}", ctx.channel());
+                        ctx.close();
+                        return;
+                    }
+                    // don't keep idle connections alive that the pool idle timeout should close
+                    if (hasLiveRequests() || !idleTimeout || isIdleRetained()) {
+                        pingOutstanding = true;
+                        ctx.writeAndFlush(new DefaultHttp2PingFrame(System.nanoTime()));
+                    }
+                }
+
+                @Override
+                public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+                    if (msg instanceof Http2PingFrame ping) {
+                        // the frame codec acknowledges PINGs of the server itself
+                        if (ping.ack()) {
+                            pingOutstanding = false;
+                        }
+                        return;
+                    }
+                    super.channelRead(ctx, msg);
+                }
+            }
         }
     }
 }
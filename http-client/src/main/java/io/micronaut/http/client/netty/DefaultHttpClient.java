@@ -36,6 +36,7 @@ import io.micronaut.core.util.ArrayUtils;
 import io.micronaut.core.util.CollectionUtils;
 import io.micronaut.core.util.ObjectUtils;
 import io.micronaut.core.util.StringUtils;
+import io.micronaut.discovery.ServiceInstance;
 import io.micronaut.http.HttpAttributes;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpResponseWrapper;
@@ -65,6 +66,7 @@ import io.micronaut.http.client.exceptions.ReadTimeoutException;
 import io.micronaut.http.client.filter.ClientFilterResolutionContext;
 import io.micronaut.http.client.filter.DefaultHttpClientFilterResolver;
 import io.micronaut.http.client.filters.ClientServerContextFilter;
+import io.micronaut.http.client.loadbalance.RequestTrackingLoadBalancer;
 import io.micronaut.http.client.multipart.MultipartBody;
 import io.micronaut.http.client.multipart.MultipartDataFactory;
 import io.micronaut.http.client.netty.ssl.NettyClientSslBuilder;
@@ -120,6 +122,7 @@ import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.MultithreadEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.TooLongFrameException;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
@@ -216,6 +219,10 @@ public class DefaultHttpClient implements
     private static final Logger DEFAULT_LOG = LoggerFactory.getLogger(DefaultHttpClient.class);
     private static final int DEFAULT_HTTP_PORT = 80;
     private static final int DEFAULT_HTTPS_PORT = 443;
+    /**
+     * The instance selected by a {@link RequestTrackingLoadBalancer} for a request.
+     */
+    private static final CharSequence SELECTED_SERVICE_INSTANCE = "micronaut.http.client.selected-service-instance";
 
     /**
      * Which headers <i>not</i> to copy from the first request when redirecting to a second request. There doesn't
@@ -255,6 +262,9 @@ public class DefaultHttpClient implements
     private final List<InvocationInstrumenterFactory> invocationInstrumenterFactories;
     private final String informationalServiceId;
     private final ConversionService conversionService;
+    @Nullable
+    private final HttpClientResponseCache responseCache;
+    private final RequestHedging hedging;
 
     /**
      * Construct a client for the given arguments.
@@ -336,6 +346,67 @@ public class DefaultHttpClient implements
                              List<InvocationInstrumenterFactory> invocationInstrumenterFactories,
                              @Nullable String informationalServiceId,
                              ConversionService conversionService
+    ) {
+        this(loadBalancer,
+            explicitHttpVersion,
+            configuration,
+            contextPath,
+            filterResolver,
+            clientFilterEntries,
+            threadFactory,
+            nettyClientSslBuilder,
+            codecRegistry,
+            webSocketBeanRegistry,
+            requestBinderRegistry,
+            eventLoopGroup,
+            socketChannelFactory,
+            null,
+            clientCustomizer,
+            invocationInstrumenterFactories,
+            informationalServiceId,
+            conversionService);
+    }
+
+    /**
+     * Construct a client for the given arguments.
+     *  @param loadBalancer                    The {@link LoadBalancer} to use for selecting servers
+     * @param explicitHttpVersion                     The HTTP version to use. Can be null and defaults to {@link io.micronaut.http.HttpVersion#HTTP_1_1}
+     * @param configuration                   The {@link HttpClientConfiguration} object
+     * @param contextPath                     The base URI to prepend to request uris
+     * @param filterResolver                  The http client filter resolver
+     * @param clientFilterEntries             The client filter entries
+     * @param threadFactory                   The thread factory to use for client threads
+     * @param nettyClientSslBuilder           The SSL builder
+     * @param codecRegistry                   The {@link MediaTypeCodecRegistry} to use for encoding and decoding objects
+     * @param webSocketBeanRegistry           The websocket bean registry
+     * @param requestBinderRegistry           The request binder registry
+     * @param eventLoopGroup                  The event loop group to use
+     * @param socketChannelFactory            The socket channel factory
+     * @param datagramChannelFactory          The datagram channel factory used for DNS queries. Can be null if the event loop group is not provided or is a {@link io.netty.channel.nio.NioEventLoopGroup}
+     * @param clientCustomizer                The pipeline customizer
+     * @param invocationInstrumenterFactories The invocation instrumeter factories to instrument netty handlers execution with
+     * @param informationalServiceId          Optional service ID that will be passed to exceptions created by this client
+     * @param conversionService               The conversion service
+     * @since 4.0.0
+     */
+    public DefaultHttpClient(@Nullable LoadBalancer loadBalancer,
+                             @Nullable HttpVersionSelection explicitHttpVersion,
+                             @NonNull HttpClientConfiguration configuration,
+                             @Nullable String contextPath,
+                             @NonNull HttpClientFilterResolver<ClientFilterResolutionContext> filterResolver,
+                             List<HttpFilterResolver.FilterEntry<HttpClientFilter>> clientFilterEntries,
+                             @Nullable ThreadFactory threadFactory,
+                             @NonNull NettyClientSslBuilder nettyClientSslBuilder,
+                             @NonNull MediaTypeCodecRegistry codecRegistry,
+                             @NonNull WebSocketBeanRegistry webSocketBeanRegistry,
+                             @NonNull RequestBinderRegistry requestBinderRegistry,
+                             @Nullable EventLoopGroup eventLoopGroup,
+                             @NonNull ChannelFactory socketChannelFactory,
+                             @Nullable ChannelFactory<? extends DatagramChannel> datagramChannelFactory,
+                             NettyClientCustomizer clientCustomizer,
+                             List<InvocationInstrumenterFactory> invocationInstrumenterFactories,
+                             @Nullable String informationalServiceId,
+                             ConversionService conversionService
     ) {
         ArgumentUtils.requireNonNull("nettyClientSslBuilder", nettyClientSslBuilder);
         ArgumentUtils.requireNonNull("codecRegistry", codecRegistry);
@@ -373,6 +444,8 @@ public class DefaultHttpClient implements
         this.requestBinderRegistry = requestBinderRegistry;
         this.informationalServiceId = informationalServiceId;
         this.conversionService = conversionService;
+        this.responseCache = configuration.isResponseCacheEnabled() ? new HttpClientResponseCache(configuration) : null;
+        this.hedging = new RequestHedging(configuration);
 
         this.connectionManager = new ConnectionManager(
             log,
@@ -382,9 +455,11 @@ public class DefaultHttpClient implements
             explicitHttpVersion,
             combineFactories(),
             socketChannelFactory,
+            datagramChannelFactory,
             nettyClientSslBuilder,
             clientCustomizer,
             informationalServiceId);
+        prewarmConnections();
     }
 
     /**
@@ -781,9 +856,36 @@ public class DefaultHttpClient implements
     private <I, O, E> Flux<HttpResponse<O>> exchange(io.micronaut.http.HttpRequest<I> request, Argument<O> bodyType, Argument<E> errorType, @Nullable BlockHint blockHint) {
         setupConversionService(request);
         final io.micronaut.http.HttpRequest<Object> parentRequest = ServerRequestContext.currentRequest().orElse(null);
+        RequestHedging.Plan hedgingPlan = hedging.plan(request);
+        if (hedgingPlan != null) {
+            // each attempt resolves its own server from the load balancer
+            return Flux.from(hedging.exchange(hedgingPlan, request, attempt -> Flux.from(resolveRequestURI(attempt))
+                .switchMap(uri -> trackRequest(attempt, exchangeImpl(uri, parentRequest, toMutableRequest(attempt), bodyType, errorType, blockHint)))));
+        }
         Publisher<URI> uriPublisher = resolveRequestURI(request);
         return Flux.from(uriPublisher)
-            .switchMap(uri -> exchangeImpl(uri, parentRequest, toMutableRequest(request), bodyType, errorType, blockHint));
+            .switchMap(uri -> trackRequest(request, exchangeImpl(uri, parentRequest, toMutableRequest(request), bodyType, errorType, blockHint)));
+    }
+
+    /**
+     * Notifies the {@link RequestTrackingLoadBalancer} that selected the instance the request is sent to of the
+     * outcome of the exchange.
+     */
+    private <I, O> Publisher<? extends HttpResponse<O>> trackRequest(io.micronaut.http.HttpRequest<I> request, Publisher<? extends HttpResponse<O>> exchange) {
+        if (!(loadBalancer instanceof RequestTrackingLoadBalancer trackingLoadBalancer)) {
+            return exchange;
+        }
+        ServiceInstance instance = request.removeAttribute(SELECTED_SERVICE_INSTANCE, ServiceInstance.class).orElse(null);
+        if (instance == null) {
+            return exchange;
+        }
+        return Flux.defer(() -> {
+            RequestTrackingLoadBalancer.RequestTracker tracker = trackingLoadBalancer.onRequest(instance);
+            return Flux.from(exchange)
+                .doOnNext(response -> tracker.onComplete(null))
+                .doOnError(tracker::onComplete)
+                .doOnCancel(tracker::onCancel);
+        });
     }
 
     @Override
@@ -1103,37 +1205,37 @@ public class DefaultHttpClient implements
             return Flux.error(e);
         }
 
-        Mono<ConnectionManager.PoolHandle> handlePublisher = connectionManager.connect(requestKey, blockHint);
-
-        Flux<io.micronaut.http.HttpResponse<O>> responsePublisher = handlePublisher.flatMapMany(poolHandle -> {
-            poolHandle.channel.pipeline()
-                .addLast(ChannelPipelineCustomizer.HANDLER_HTTP_AGGREGATOR, new HttpObjectAggregator(configuration.getMaxContentLength()) {
-                    @Override
-                    protected void finishAggregation(FullHttpMessage aggregated) throws Exception {
-                        // only set content-length if there's any content
-                        if (!HttpUtil.isContentLengthSet(aggregated) &&
-                            aggregated.content().readableBytes() > 0) {
-                            super.finishAggregation(aggregated);
-                        }
+        Flux<io.micronaut.http.HttpResponse<O>> responsePublisher;
+        if (responseCache == null) {
+            responsePublisher = sendRequest(requestKey, blockHint, requestWrapper, bodyType, errorType, null);
+        } else {
+            responsePublisher = Flux.defer(() -> {
+                // the filters have run, so the cache sees the request that is sent
+                HttpClientResponseCache.Exchange cacheExchange = responseCache.begin(requestURI, requestWrapper.get());
+                if (cacheExchange == null) {
+                    return sendRequest(requestKey, blockHint, requestWrapper, bodyType, errorType, null);
+                }
+                FullHttpResponse cachedResponse = cacheExchange.getFreshResponse();
+                if (cachedResponse == null) {
+                    cachedResponse = cacheExchange.getStaleResponse();
+                    if (cachedResponse != null && cacheExchange.startRevalidation()) {
+                        sendRequest(requestKey, null, requestWrapper, bodyType, errorType, cacheExchange)
+                            .doFinally(signal -> cacheExchange.endRevalidation())
+                            .subscribe(response -> { }, throwable -> {
+                                if (log.isDebugEnabled()) {
+                                    log.debug("Background revalidation of " + requestURI + " failed: " + throwable.getMessage(), throwable);
+                                }
+                            });
                     }
-                })
-                .addLast(ChannelPipelineCustomizer.HANDLER_HTTP_STREAM, new HttpStreamsClientHandler());
-
-            return Flux.create(emitter -> {
-                try {
-                    sendRequestThroughChannel(
-                        requestWrapper.get(),
-                        bodyType,
-                        errorType,
-                        emitter,
-                        requestKey.isSecure(),
-                        poolHandle
-                    );
-                } catch (Exception e) {
-                    emitter.error(e);
                 }
+                if (cachedResponse != null) {
+                    FullNettyClientHttpResponse<O> response = new FullNettyClientHttpResponse<>(cachedResponse, mediaTypeCodecRegistry, byteBufferFactory, bodyType, true, conversionService);
+                    response.onComplete();
+                    return Flux.just(response);
+                }
+                return sendRequest(requestKey, blockHint, requestWrapper, bodyType, errorType, cacheExchange);
             });
-        });
+        }
 
         Publisher<io.micronaut.http.HttpResponse<O>> finalPublisher = applyFilterToResponsePublisher(
                 parentRequest,
@@ -1163,6 +1265,45 @@ public class DefaultHttpClient implements
         return finalReactiveSequence;
     }
 
+    private <O, E> Flux<io.micronaut.http.HttpResponse<O>> sendRequest(
+        RequestKey requestKey,
+        @Nullable BlockHint blockHint,
+        AtomicReference<MutableHttpRequest<?>> requestWrapper,
+        Argument<O> bodyType,
+        Argument<E> errorType,
+        @Nullable HttpClientResponseCache.Exchange cacheExchange) {
+        return connectionManager.connect(requestKey, blockHint).flatMapMany(poolHandle -> {
+            poolHandle.channel.pipeline()
+                .addLast(ChannelPipelineCustomizer.HANDLER_HTTP_AGGREGATOR, new HttpObjectAggregator(configuration.getMaxContentLength()) {
+                    @Override
+                    protected void finishAggregation(FullHttpMessage aggregated) throws Exception {
+                        // only set content-length if there's any content
+                        if (!HttpUtil.isContentLengthSet(aggregated) &&
+                            aggregated.content().readableBytes() > 0) {
+                            super.finishAggregation(aggregated);
+                        }
+                    }
+                })
+                .addLast(ChannelPipelineCustomizer.HANDLER_HTTP_STREAM, new HttpStreamsClientHandler());
+
+            return Flux.create(emitter -> {
+                try {
+                    sendRequestThroughChannel(
+                        requestWrapper.get(),
+                        bodyType,
+                        errorType,
+                        emitter,
+                        requestKey.isSecure(),
+                        poolHandle,
+                        cacheExchange
+                    );
+                } catch (Exception e) {
+                    emitter.error(e);
+                }
+            });
+        });
+    }
+
     /**
      * @param request The request
      * @param <I>     The input type
@@ -1229,6 +1370,24 @@ public class DefaultHttpClient implements
         return requestURI;
     }
 
+    /**
+     * Open the configured number of pre-warm connections to the server selected by the load
+     * balancer, in the background.
+     */
+    private void prewarmConnections() {
+        HttpClientConfiguration.ConnectionPoolConfiguration poolConfiguration = configuration.getConnectionPoolConfiguration();
+        if (loadBalancer == null || !poolConfiguration.isEnabled() || poolConfiguration.getPrewarmConnections() <= 0) {
+            return;
+        }
+        Flux.from(loadBalancer.select(getLoadBalancerDiscriminator())).take(1).subscribe(server -> {
+            try {
+                connectionManager.prewarm(new RequestKey(this, server.getURI()));
+            } catch (Exception e) {
+                log.debug("Failed to pre-warm connections to {}", server.getURI(), e);
+            }
+        }, throwable -> log.debug("No server to pre-warm connections to", throwable));
+    }
+
     /**
      * @return The discriminator to use when selecting a server for the purposes of load balancing (defaults to null)
      */
@@ -1506,6 +1665,9 @@ public class DefaultHttpClient implements
                     if (request instanceof MutableHttpRequest && authInfo.isPresent()) {
                         ((MutableHttpRequest) request).getHeaders().auth(authInfo.get());
                     }
+                    if (loadBalancer instanceof RequestTrackingLoadBalancer) {
+                        request.setAttribute(SELECTED_SERVICE_INSTANCE, server);
+                    }
                     return server.resolve(includeContextPath ? prependContextPath(requestURI) : requestURI);
                 }
         );
@@ -1517,7 +1679,8 @@ public class DefaultHttpClient implements
             Argument<E> errorType,
             FluxSink<? super HttpResponse<O>> emitter,
             boolean secure,
-            ConnectionManager.PoolHandle poolHandle) throws HttpPostRequestEncoder.ErrorDataEncoderException {
+            ConnectionManager.PoolHandle poolHandle,
+            @Nullable HttpClientResponseCache.Exchange cacheExchange) throws HttpPostRequestEncoder.ErrorDataEncoderException {
         URI requestURI = finalRequest.getUri();
         MediaType requestContentType = finalRequest
                 .getContentType()
@@ -1547,6 +1710,9 @@ public class DefaultHttpClient implements
             nettyRequest,
             permitsBody
         );
+        if (cacheExchange != null) {
+            cacheExchange.addConditionalHeaders(nettyRequest.headers());
+        }
 
         if (log.isDebugEnabled()) {
             debugRequest(requestURI, nettyRequest);
@@ -1558,7 +1724,7 @@ public class DefaultHttpClient implements
 
         Promise<HttpResponse<O>> responsePromise = poolHandle.channel.eventLoop().newPromise();
         poolHandle.channel.pipeline().addLast(ChannelPipelineCustomizer.HANDLER_MICRONAUT_FULL_HTTP_RESPONSE,
-                new FullHttpResponseHandler<>(responsePromise, poolHandle, secure, finalRequest, bodyType, errorType));
+                new FullHttpResponseHandler<>(responsePromise, poolHandle, secure, finalRequest, bodyType, errorType, cacheExchange));
         poolHandle.notifyRequestPipelineBuilt();
         Publisher<HttpResponse<O>> publisher = new NettyFuturePublisher<>(responsePromise, true);
         publisher.subscribe(new ForwardingSubscriber<>(emitter));
@@ -2150,6 +2316,8 @@ public class DefaultHttpClient implements
         private final Argument<O> bodyType;
         private final Argument<?> errorType;
         private final ConnectionManager.PoolHandle poolHandle;
+        @Nullable
+        private final HttpClientResponseCache.Exchange cacheExchange;
 
         public FullHttpResponseHandler(
                 Promise<HttpResponse<O>> responsePromise,
@@ -2157,12 +2325,14 @@ public class DefaultHttpClient implements
                 boolean secure,
                 io.micronaut.http.HttpRequest<?> request,
                 Argument<O> bodyType,
-                Argument<?> errorType) {
+                Argument<?> errorType,
+                @Nullable HttpClientResponseCache.Exchange cacheExchange) {
             super(responsePromise, request, request);
             this.secure = secure;
             this.bodyType = bodyType;
             this.errorType = errorType;
             this.poolHandle = poolHandle;
+            this.cacheExchange = cacheExchange;
         }
 
         @Override
@@ -2207,6 +2377,9 @@ public class DefaultHttpClient implements
 
         @Override
         protected void buildResponse(Promise<? super HttpResponse<O>> promise, FullHttpResponse msg) {
+            if (cacheExchange != null) {
+                msg = cacheExchange.onResponse(msg);
+            }
             try {
                 if (log.isTraceEnabled()) {
                     traceBody("Response", msg.content());
@@ -67,6 +67,8 @@ import io.micronaut.websocket.WebSocketClientRegistry;
 import io.micronaut.websocket.context.WebSocketBeanRegistry;
 import io.netty.channel.ChannelFactory;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ReflectiveChannelFactory;
+import io.netty.channel.socket.DatagramChannel;
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -399,6 +401,7 @@ class DefaultNettyHttpClientRegistry implements AutoCloseable,
             AnnotationMetadata annotationMetadata) {
 
         EventLoopGroup eventLoopGroup = resolveEventLoopGroup(configuration, beanContext);
+        EventLoopGroupConfiguration eventLoopGroupConfiguration = resolveEventLoopGroupConfiguration(configuration, beanContext);
         ConversionService conversionService = beanContext.getBean(ConversionService.class);
         return new DefaultHttpClient(
                 loadBalancer,
@@ -418,7 +421,8 @@ class DefaultNettyHttpClientRegistry implements AutoCloseable,
                         new DefaultRequestBinderRegistry(conversionService)
                 ),
                 eventLoopGroup,
-                resolveSocketChannelFactory(configuration, beanContext),
+                () -> eventLoopGroupFactory.clientSocketChannelInstance(eventLoopGroupConfiguration),
+                resolveDatagramChannelFactory(eventLoopGroupConfiguration),
                 clientCustomizer,
                 invocationInstrumenterFactories,
                 clientId,
@@ -461,10 +465,10 @@ class DefaultNettyHttpClientRegistry implements AutoCloseable,
         }
     }
 
-    private ChannelFactory resolveSocketChannelFactory(HttpClientConfiguration configuration, BeanContext beanContext) {
+    private EventLoopGroupConfiguration resolveEventLoopGroupConfiguration(HttpClientConfiguration configuration, BeanContext beanContext) {
         final String eventLoopGroup = configuration.getEventLoopGroup();
 
-        final EventLoopGroupConfiguration eventLoopGroupConfiguration = beanContext.findBean(EventLoopGroupConfiguration.class, Qualifiers.byName(eventLoopGroup))
+        return beanContext.findBean(EventLoopGroupConfiguration.class, Qualifiers.byName(eventLoopGroup))
                 .orElseGet(() -> {
                     if (EventLoopGroupConfiguration.DEFAULT.equals(eventLoopGroup)) {
                         return new DefaultEventLoopGroupConfiguration();
@@ -472,8 +476,16 @@ class DefaultNettyHttpClientRegistry implements AutoCloseable,
                         throw new HttpClientException("Specified event loop group is not defined: " + eventLoopGroup);
                     }
                 });
+    }
 
-        return () -> eventLoopGroupFactory.clientSocketChannelInstance(eventLoopGroupConfiguration);
+    @Nullable
+    private ChannelFactory<? extends DatagramChannel> resolveDatagramChannelFactory(EventLoopGroupConfiguration eventLoopGroupConfiguration) {
+        try {
+            return new ReflectiveChannelFactory<>(eventLoopGroupFactory.datagramChannelClass(eventLoopGroupConfiguration));
+        } catch (UnsupportedOperationException e) {
+            // the client falls back to the default resolver
+            return null;
+        }
     }
 
     private ClientKey getClientKey(AnnotationMetadata metadata) {
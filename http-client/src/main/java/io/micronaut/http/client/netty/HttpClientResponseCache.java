@@ -0,0 +1,609 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.netty;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.clhm.ConcurrentLinkedHashMap;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.client.HttpClientConfiguration;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A private response cache of a {@link DefaultHttpClient}, following RFC 9111.
+ *
+ * <p>Responses to GET requests with a 200 or 203 status are stored when they have an explicit
+ * freshness lifetime from <code>Cache-Control: max-age</code> or <code>Expires</code>, or a
+ * validator that allows revalidating them. Fresh responses are served without sending a request.
+ * Stale responses are revalidated with <code>If-None-Match</code> and
+ * <code>If-Modified-Since</code>, or served while they are revalidated in the background within
+ * their <code>stale-while-revalidate</code> window. Successful unsafe requests invalidate the
+ * responses stored for their URI.</p>
+ *
+ * <p>A client may be shared by the callers of an application, so as in a shared cache (RFC 9111
+ * section 3.5) the responses to requests with <code>Authorization</code> or <code>Cookie</code>
+ * headers are only stored, and stored responses are only used for such requests, if they have a
+ * <code>public</code>, <code>must-revalidate</code> or <code>s-maxage</code> directive. Responses with a
+ * <code>private</code> directive or a <code>Set-Cookie</code> header are never stored.</p>
+ *
+ * @since 4.0.0
+ */
+@Internal
+final class HttpClientResponseCache {
+
+    private static final String[] NO_VARY = new String[0];
+
+    private final int maxEntrySize;
+    private final Map<String, Entry> entries;
+    private final Map<String, Location> locations = new ConcurrentHashMap<>();
+
+    /**
+     * @param configuration The client configuration
+     */
+    HttpClientResponseCache(HttpClientConfiguration configuration) {
+        this.maxEntrySize = configuration.getResponseCacheMaxEntrySize();
+        this.entries = new ConcurrentLinkedHashMap.Builder<String, Entry>()
+            .maximumWeightedCapacity(configuration.getResponseCacheMaxSize())
+            .weigher(Entry::weight)
+            .listener(this::unindex)
+            .build();
+    }
+
+    /**
+     * Starts the exchange of a request with the cache.
+     *
+     * @param uri     The resolved URI of the request
+     * @param request The request, after the client filters
+     * @return The exchange, or null if the request bypasses the cache
+     */
+    @Nullable
+    Exchange begin(URI uri, io.micronaut.http.HttpRequest<?> request) {
+        HttpMethod method = request.getMethod();
+        String location = uri.toString();
+        io.micronaut.http.HttpHeaders headers = request.getHeaders();
+        if (method == HttpMethod.GET) {
+            if (headers.contains(io.micronaut.http.HttpHeaders.IF_NONE_MATCH)
+                || headers.contains(io.micronaut.http.HttpHeaders.IF_MODIFIED_SINCE)
+                || headers.contains(io.micronaut.http.HttpHeaders.RANGE)) {
+                // conditional and partial requests of the caller are passed through untouched
+                return null;
+            }
+            CacheControl cacheControl = CacheControl.parse(headers.getAll(io.micronaut.http.HttpHeaders.CACHE_CONTROL));
+            if (cacheControl.noStore) {
+                return null;
+            }
+            boolean revalidate = cacheControl.noCache
+                || cacheControl.maxAge == 0
+                || headers.getAll(io.micronaut.http.HttpHeaders.PRAGMA).contains("no-cache");
+            Location stored = locations.get(location);
+            Entry entry = stored == null ? null : entries.get(cacheKey(location, stored.varyNames, headers));
+            if (entry != null && (!entry.matches(headers) || !entry.shared && hasCredentials(headers))) {
+                entry = null;
+            }
+            return new Exchange(location, request, entry, revalidate, false);
+        } else if (method == HttpMethod.HEAD || method == HttpMethod.OPTIONS || method == HttpMethod.TRACE) {
+            return null;
+        } else {
+            return new Exchange(location, request, null, false, true);
+        }
+    }
+
+    /**
+     * Removes all responses stored for a URI.
+     *
+     * @param location The URI
+     */
+    private void invalidate(String location) {
+        Location removed = locations.remove(location);
+        if (removed != null) {
+            for (String key : removed.keys) {
+                entries.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Stores a response and indexes its key by the URI, so that it can be invalidated.
+     *
+     * @param location The URI
+     * @param key      The key of the response
+     * @param entry    The response
+     */
+    private void put(String location, String key, Entry entry) {
+        locations.compute(location, (l, stored) -> {
+            if (stored == null || !Arrays.equals(stored.varyNames, entry.varyNames)) {
+                stored = new Location(entry.varyNames, stored);
+            }
+            stored.keys.add(key);
+            return stored;
+        });
+        entries.put(key, entry);
+    }
+
+    /**
+     * Removes the key of an evicted response from the index of its URI.
+     *
+     * @param key   The key of the response
+     * @param entry The response
+     */
+    private void unindex(String key, Entry entry) {
+        locations.computeIfPresent(entry.location, (l, stored) -> {
+            if (!entries.containsKey(key)) {
+                stored.keys.remove(key);
+            }
+            return stored.keys.isEmpty() ? null : stored;
+        });
+    }
+
+    private static boolean hasCredentials(io.micronaut.http.HttpHeaders headers) {
+        return headers.contains(io.micronaut.http.HttpHeaders.AUTHORIZATION) || headers.contains(io.micronaut.http.HttpHeaders.COOKIE);
+    }
+
+    private void store(String location, Exchange exchange, FullHttpResponse response, long requestTime, long responseTime) {
+        int code = response.status().code();
+        if (code != HttpResponseStatus.OK.code() && code != HttpResponseStatus.NON_AUTHORITATIVE_INFORMATION.code()) {
+            return;
+        }
+        HttpHeaders headers = response.headers();
+        CacheControl cacheControl = CacheControl.parse(headers.getAll(HttpHeaderNames.CACHE_CONTROL));
+        if (cacheControl.noStore || !isShareable(cacheControl, headers) || response.content().readableBytes() > maxEntrySize) {
+            return;
+        }
+        String[] varyNames = varyNames(headers.getAll(HttpHeaderNames.VARY));
+        if (varyNames == null) {
+            return;
+        }
+        Entry entry = new Entry(
+            location,
+            response.status(),
+            storedHeaders(headers),
+            ByteBufUtil.getBytes(response.content()),
+            varyNames,
+            varyValues(varyNames, exchange.request.getHeaders()),
+            requestTime,
+            responseTime
+        );
+        io.micronaut.http.HttpHeaders requestHeaders = exchange.request.getHeaders();
+        if (!entry.isCacheable() || !entry.shared && hasCredentials(requestHeaders)) {
+            return;
+        }
+        put(location, cacheKey(location, varyNames, requestHeaders), entry);
+    }
+
+    /**
+     * @param cacheControl The directives of the response
+     * @param headers      The headers of the response
+     * @return True if the response may be stored for every caller of the client
+     */
+    private static boolean isShareable(CacheControl cacheControl, HttpHeaders headers) {
+        return !cacheControl.privateResponse && !headers.contains(HttpHeaderNames.SET_COOKIE);
+    }
+
+    private static HttpHeaders storedHeaders(HttpHeaders headers) {
+        HttpHeaders stored = new DefaultHttpHeaders().add(headers);
+        stored.remove(HttpHeaderNames.CONNECTION);
+        stored.remove(HttpHeaderNames.KEEP_ALIVE);
+        stored.remove(HttpHeaderNames.TRANSFER_ENCODING);
+        stored.remove(HttpHeaderNames.AGE);
+        return stored;
+    }
+
+    @Nullable
+    private static String[] varyNames(List<String> values) {
+        TreeSet<String> names = new TreeSet<>();
+        for (String value : values) {
+            for (String name : value.split(",")) {
+                name = name.trim();
+                if (name.equals("*")) {
+                    return null;
+                }
+                if (!name.isEmpty()) {
+                    names.add(name.toLowerCase(Locale.ENGLISH));
+                }
+            }
+        }
+        return names.isEmpty() ? NO_VARY : names.toArray(NO_VARY);
+    }
+
+    private static String[] varyValues(String[] varyNames, io.micronaut.http.HttpHeaders headers) {
+        String[] values = new String[varyNames.length];
+        for (int i = 0; i < varyNames.length; i++) {
+            values[i] = varyValue(headers, varyNames[i]);
+        }
+        return values;
+    }
+
+    @Nullable
+    private static String varyValue(io.micronaut.http.HttpHeaders headers, String name) {
+        List<String> values = headers.getAll(name);
+        if (values.isEmpty()) {
+            return null;
+        }
+        return values.size() == 1 ? values.get(0) : String.join(",", values);
+    }
+
+    private static String cacheKey(String location, @Nullable String[] varyNames, io.micronaut.http.HttpHeaders headers) {
+        if (varyNames == null || varyNames.length == 0) {
+            return location;
+        }
+        StringBuilder key = new StringBuilder(location);
+        for (String name : varyNames) {
+            String value = varyValue(headers, name);
+            key.append('\n').append(name).append(':');
+            if (value != null) {
+                key.append(value);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * The exchange of a single request with the cache.
+     */
+    final class Exchange {
+        private final String location;
+        private final io.micronaut.http.HttpRequest<?> request;
+        @Nullable
+        private final Entry entry;
+        private final boolean revalidate;
+        private final boolean unsafe;
+        private final long requestTime = System.currentTimeMillis();
+
+        private Exchange(String location, io.micronaut.http.HttpRequest<?> request, @Nullable Entry entry, boolean revalidate, boolean unsafe) {
+            this.location = location;
+            this.request = request;
+            this.entry = entry;
+            this.revalidate = revalidate;
+            this.unsafe = unsafe;
+        }
+
+        /**
+         * @return The stored response if it is fresh, or null if the request must be sent
+         */
+        @Nullable
+        FullHttpResponse getFreshResponse() {
+            if (entry == null || revalidate || !entry.isFresh(requestTime)) {
+                return null;
+            }
+            return entry.toResponse(requestTime);
+        }
+
+        /**
+         * Returns the stored response if it may be served while it is revalidated in the
+         * background. Only one exchange revalidates a stored response at a time, the others are
+         * served the stale response without sending a request.
+         *
+         * @return The stale response, or null if the request must be sent
+         */
+        @Nullable
+        FullHttpResponse getStaleResponse() {
+            if (entry == null || revalidate || !entry.isStaleWhileRevalidate(requestTime)) {
+                return null;
+            }
+            return entry.toResponse(requestTime);
+        }
+
+        /**
+         * @return Whether this exchange should send the revalidation request of a stale response
+         * that is being served
+         */
+        boolean startRevalidation() {
+            return entry != null && entry.revalidating.compareAndSet(false, true);
+        }
+
+        /**
+         * Marks the background revalidation as complete.
+         */
+        void endRevalidation() {
+            if (entry != null) {
+                entry.revalidating.set(false);
+            }
+        }
+
+        /**
+         * Adds the validators of the stored response to the request that is sent.
+         *
+         * @param headers The headers of the request
+         */
+        void addConditionalHeaders(HttpHeaders headers) {
+            if (entry == null) {
+                return;
+            }
+            String etag = entry.headers.get(HttpHeaderNames.ETAG);
+            if (etag != null) {
+                headers.set(HttpHeaderNames.IF_NONE_MATCH, etag);
+            }
+            String lastModified = entry.headers.get(HttpHeaderNames.LAST_MODIFIED);
+            if (lastModified != null) {
+                headers.set(HttpHeaderNames.IF_MODIFIED_SINCE, lastModified);
+            }
+        }
+
+        /**
+         * Stores or invalidates responses according to the response received. A 304 response
+         * to a revalidation is replaced by the stored response with updated headers.
+         *
+         * @param response The response received
+         * @return The response to deliver
+         */
+        FullHttpResponse onResponse(FullHttpResponse response) {
+            long responseTime = System.currentTimeMillis();
+            int code = response.status().code();
+            if (unsafe) {
+                if (code < HttpResponseStatus.BAD_REQUEST.code()) {
+                    invalidate(location);
+                }
+                return response;
+            }
+            if (code == HttpResponseStatus.NOT_MODIFIED.code() && entry != null) {
+                HttpHeaders headers = entry.headers.copy();
+                for (String name : response.headers().names()) {
+                    if (!HttpHeaderNames.CONTENT_LENGTH.contentEqualsIgnoreCase(name)) {
+                        headers.set(name, response.headers().getAll(name));
+                    }
+                }
+                Entry updated = new Entry(location, entry.status, storedHeaders(headers), entry.body, entry.varyNames, entry.varyValues, requestTime, responseTime);
+                String key = cacheKey(location, entry.varyNames, request.getHeaders());
+                if (isShareable(CacheControl.parse(headers.getAll(HttpHeaderNames.CACHE_CONTROL)), headers)) {
+                    put(location, key, updated);
+                } else if (entries.remove(key, entry)) {
+                    unindex(key, entry);
+                }
+                return updated.toResponse(responseTime);
+            }
+            store(location, this, response, requestTime, responseTime);
+            return response;
+        }
+    }
+
+    /**
+     * The keys of the responses stored for a URI.
+     */
+    private static final class Location {
+        final String[] varyNames;
+        final Set<String> keys = new HashSet<>();
+
+        /**
+         * @param varyNames The names of the request headers the responses vary on
+         * @param previous  The location previously stored for the URI, if any
+         */
+        Location(String[] varyNames, @Nullable Location previous) {
+            this.varyNames = varyNames;
+            if (previous != null) {
+                // the keys of responses varying on other headers are kept until they are evicted or invalidated
+                keys.addAll(previous.keys);
+            }
+        }
+    }
+
+    /**
+     * A stored response.
+     */
+    private static final class Entry {
+        final String location;
+        final HttpResponseStatus status;
+        final HttpHeaders headers;
+        final byte[] body;
+        final String[] varyNames;
+        final String[] varyValues;
+        final AtomicBoolean revalidating = new AtomicBoolean();
+        final boolean shared;
+        private final long responseTime;
+        private final long initialAge;
+        private final long freshUntil;
+        private final long staleUntil;
+        private final boolean cacheable;
+
+        Entry(String location,
+              HttpResponseStatus status,
+              HttpHeaders headers,
+              byte[] body,
+              String[] varyNames,
+              String[] varyValues,
+              long requestTime,
+              long responseTime) {
+            this.location = location;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.varyNames = varyNames;
+            this.varyValues = varyValues;
+            this.responseTime = responseTime;
+
+            CacheControl cacheControl = CacheControl.parse(headers.getAll(HttpHeaderNames.CACHE_CONTROL));
+            long ageValue = Math.max(0, CacheControl.parseDeltaSeconds(headers.get(HttpHeaderNames.AGE))) * 1000;
+            // RFC 9111 section 4.2.3, without the apparent age to be robust against clock skew
+            this.initialAge = ageValue + Math.max(0, responseTime - requestTime);
+            long freshnessLifetime = freshnessLifetime(cacheControl, headers, responseTime);
+            this.freshUntil = cacheControl.noCache ? 0 : responseTime + freshnessLifetime - initialAge;
+            this.staleUntil = cacheControl.mustRevalidate || cacheControl.staleWhileRevalidate <= 0
+                ? freshUntil
+                : freshUntil + cacheControl.staleWhileRevalidate * 1000;
+            this.shared = cacheControl.publicResponse || cacheControl.mustRevalidate || cacheControl.sharedMaxAge > -1;
+            this.cacheable = freshnessLifetime > 0
+                || headers.contains(HttpHeaderNames.ETAG)
+                || headers.contains(HttpHeaderNames.LAST_MODIFIED);
+        }
+
+        boolean isCacheable() {
+            return cacheable;
+        }
+
+        boolean isFresh(long now) {
+            return now < freshUntil;
+        }
+
+        boolean isStaleWhileRevalidate(long now) {
+            return now >= freshUntil && now < staleUntil;
+        }
+
+        boolean matches(io.micronaut.http.HttpHeaders requestHeaders) {
+            for (int i = 0; i < varyNames.length; i++) {
+                if (!Objects.equals(varyValues[i], varyValue(requestHeaders, varyNames[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int weight() {
+            int weight = body.length + 1;
+            for (Map.Entry<String, String> header : headers) {
+                weight += header.getKey().length() + header.getValue().length();
+            }
+            return weight;
+        }
+
+        FullHttpResponse toResponse(long now) {
+            HttpHeaders responseHeaders = headers.copy();
+            responseHeaders.set(HttpHeaderNames.AGE, String.valueOf((initialAge + Math.max(0, now - responseTime)) / 1000));
+            return new DefaultFullHttpResponse(
+                HttpVersion.HTTP_1_1,
+                status,
+                Unpooled.wrappedBuffer(body),
+                responseHeaders,
+                EmptyHttpHeaders.INSTANCE
+            );
+        }
+
+        private static long freshnessLifetime(CacheControl cacheControl, HttpHeaders headers, long responseTime) {
+            if (cacheControl.maxAge > -1) {
+                return cacheControl.maxAge * 1000;
+            }
+            String expires = headers.get(HttpHeaderNames.EXPIRES);
+            if (expires == null) {
+                return 0;
+            }
+            Date expiresDate = DateFormatter.parseHttpDate(expires);
+            if (expiresDate == null) {
+                // an invalid date represents a time in the past
+                return 0;
+            }
+            String date = headers.get(HttpHeaderNames.DATE);
+            Date dateValue = date != null ? DateFormatter.parseHttpDate(date) : null;
+            long base = dateValue != null ? dateValue.getTime() : responseTime;
+            return Math.max(0, expiresDate.getTime() - base);
+        }
+    }
+
+    /**
+     * The directives of <code>Cache-Control</code> headers relevant to the cache.
+     */
+    private static final class CacheControl {
+        private static final CacheControl NONE = new CacheControl(false, false, false, false, false, -1, -1, -1);
+
+        final boolean noStore;
+        final boolean noCache;
+        final boolean mustRevalidate;
+        final boolean publicResponse;
+        final boolean privateResponse;
+        final long maxAge;
+        final long sharedMaxAge;
+        final long staleWhileRevalidate;
+
+        private CacheControl(boolean noStore, boolean noCache, boolean mustRevalidate, boolean publicResponse, boolean privateResponse,
+                             long maxAge, long sharedMaxAge, long staleWhileRevalidate) {
+            this.noStore = noStore;
+            this.noCache = noCache;
+            this.mustRevalidate = mustRevalidate;
+            this.publicResponse = publicResponse;
+            this.privateResponse = privateResponse;
+            this.maxAge = maxAge;
+            this.sharedMaxAge = sharedMaxAge;
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+
+        static CacheControl parse(List<String> values) {
+            if (values.isEmpty()) {
+                return NONE;
+            }
+            boolean noStore = false;
+            boolean noCache = false;
+            boolean mustRevalidate = false;
+            boolean publicResponse = false;
+            boolean privateResponse = false;
+            long maxAge = -1;
+            long sharedMaxAge = -1;
+            long staleWhileRevalidate = -1;
+            for (String value : values) {
+                for (String directive : value.split(",")) {
+                    String name = directive.trim();
+                    String argument = null;
+                    int i = name.indexOf('=');
+                    if (i > -1) {
+                        argument = name.substring(i + 1).trim();
+                        name = name.substring(0, i).trim();
+                    }
+                    if (name.equalsIgnoreCase("no-store")) {
+                        noStore = true;
+                    } else if (name.equalsIgnoreCase("no-cache")) {
+                        noCache = true;
+                    } else if (name.equalsIgnoreCase("must-revalidate")) {
+                        mustRevalidate = true;
+                    } else if (name.equalsIgnoreCase("public")) {
+                        publicResponse = true;
+                    } else if (name.equalsIgnoreCase("private")) {
+                        privateResponse = true;
+                    } else if (name.equalsIgnoreCase("max-age")) {
+                        maxAge = parseDeltaSeconds(argument);
+                    } else if (name.equalsIgnoreCase("s-maxage")) {
+                        sharedMaxAge = parseDeltaSeconds(argument);
+                    } else if (name.equalsIgnoreCase("stale-while-revalidate")) {
+                        staleWhileRevalidate = parseDeltaSeconds(argument);
+                    }
+                }
+            }
+            return new CacheControl(noStore, noCache, mustRevalidate, publicResponse, privateResponse, maxAge, sharedMaxAge, staleWhileRevalidate);
+        }
+
+        static long parseDeltaSeconds(@Nullable String argument) {
+            if (argument == null) {
+                return -1;
+            }
+            if (argument.length() > 1 && argument.charAt(0) == '"' && argument.charAt(argument.length() - 1) == '"') {
+                argument = argument.substring(1, argument.length() - 1);
+            }
+            try {
+                return Long.parseLong(argument);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+}
@@ -19,13 +19,20 @@ import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.client.HttpClientConfiguration;
 import io.micronaut.http.client.exceptions.HttpClientException;
+import io.netty.channel.EventLoop;
 import org.slf4j.Logger;
 import reactor.core.publisher.Sinks;
 
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -40,9 +47,27 @@ import java.util.function.Consumer;
  * {@link #dirty()}. The state management logic ensures that {@link #doSomeWork()} is called in a
  * serialized fashion (no concurrency or reentrancy) at least once after each {@link #dirty()}
  * call.
+ * <p>
+ * With {@link HttpClientConfiguration.ConnectionPoolConfiguration#isEventLoopAffinity()}, the
+ * connections are additionally tracked per event loop. Those lists are only accessed from their
+ * own event loop, so that {@link #tryDispatchLocal} can hand out a connection to a request made on
+ * the same event loop without going through {@link #doSomeWork()}.
+ * <p>
+ * Apart from the connections needed for pending requests, {@link #doSomeWork()} also opens
+ * connections in the background: to reach the
+ * {@link HttpClientConfiguration.ConnectionPoolConfiguration#getMinIdleConnections() minimum idle}
+ * count, to reach the {@link #prewarm pre-warm} count, and to replace busy connections that are
+ * about to reach their TTL. After a failed connection attempt, background connections are
+ * suspended for {@link #BACKGROUND_CONNECT_BACKOFF_NANOS}.
  */
 @Internal
 abstract class PoolResizer {
+    /**
+     * Time after a failed connection attempt before connections are opened in the background
+     * again.
+     */
+    static final long BACKGROUND_CONNECT_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     private final Logger log;
     private final HttpClientConfiguration.ConnectionPoolConfiguration connectionPoolConfiguration;
 
@@ -53,10 +78,22 @@ abstract class PoolResizer {
     private final Deque<PoolSink<ConnectionManager.PoolHandle>> pendingRequests = new ConcurrentLinkedDeque<>();
     private final List<ResizerConnection> http1Connections = new CopyOnWriteArrayList<>();
     private final List<ResizerConnection> http2Connections = new CopyOnWriteArrayList<>();
+    private final boolean eventLoopAffinity;
+    private final Map<EventLoop, List<ResizerConnection>> localConnections = new ConcurrentHashMap<>();
+
+    private final int minIdleConnections;
+    private volatile int prewarmConnections = 0;
+    private final AtomicInteger requestedReplacements = new AtomicInteger(0);
+    private volatile long backgroundBackoffUntil = System.nanoTime();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean(false);
+    private volatile boolean shutdown = false;
 
     PoolResizer(Logger log, HttpClientConfiguration.ConnectionPoolConfiguration connectionPoolConfiguration) {
         this.log = log;
         this.connectionPoolConfiguration = connectionPoolConfiguration;
+        this.eventLoopAffinity = connectionPoolConfiguration.isEventLoopAffinity();
+        // without pooling, connections are closed after one request, so idle ones are useless
+        this.minIdleConnections = connectionPoolConfiguration.isEnabled() ? connectionPoolConfiguration.getMinIdleConnections() : 0;
     }
 
     private void dirty() {
@@ -103,20 +140,15 @@ abstract class PoolResizer {
             if (toDispatch == null) {
                 break;
             }
-            boolean dispatched = false;
-            for (ResizerConnection c : http2Connections) {
-                if (dispatchSafe(c, toDispatch)) {
-                    dispatched = true;
-                    break;
-                }
-            }
+            EventLoop preferredLoop = eventLoopAffinity ? toDispatch.getEventLoop() : null;
+            // with an event loop preference, first look for a connection on that loop, and only
+            // then steal one from another loop
+            boolean dispatched = preferredLoop != null && (
+                dispatch(http2Connections, toDispatch, preferredLoop, true) ||
+                    dispatch(http1Connections, toDispatch, preferredLoop, true));
             if (!dispatched) {
-                for (ResizerConnection c : http1Connections) {
-                    if (dispatchSafe(c, toDispatch)) {
-                        dispatched = true;
-                        break;
-                    }
-                }
+                dispatched = dispatch(http2Connections, toDispatch, preferredLoop, false) ||
+                    dispatch(http1Connections, toDispatch, preferredLoop, false);
             }
             if (!dispatched) {
                 pendingRequests.addFirst(toDispatch);
@@ -132,11 +164,36 @@ abstract class PoolResizer {
         int http1ConnectionCount = this.http1Connections.size();
         int http2ConnectionCount = this.http2Connections.size();
 
-        if (pendingRequestCount == 0) {
+        int replacements = requestedReplacements.get();
+        int prewarm = this.prewarmConnections;
+        boolean background = !shutdown && (replacements > 0 || prewarm > 0 || minIdleConnections > 0);
+        if (pendingRequestCount == 0 && !background) {
             // if there are no pending requests, there is nothing to do.
             return;
         }
-        int connectionsToOpen = pendingRequestCount - pendingConnectionCount;
+        int connectionsToOpen = Math.max(0, pendingRequestCount - pendingConnectionCount);
+        if (background) {
+            if (System.nanoTime() - backgroundBackoffUntil < 0) {
+                // a recent connection attempt failed, try again later
+                replacements = 0;
+                scheduleRefresh();
+            } else {
+                connectionsToOpen += replacements;
+                if (prewarm > 0) {
+                    int openConnections = http1ConnectionCount + http2ConnectionCount;
+                    if (openConnections >= prewarm) {
+                        this.prewarmConnections = 0;
+                    } else {
+                        connectionsToOpen = Math.max(connectionsToOpen, prewarm - openConnections - pendingConnectionCount);
+                    }
+                }
+                if (minIdleConnections > 0) {
+                    // pending connections that aren't needed for pending requests will be idle
+                    int futureIdle = idleConnectionCount() + Math.max(0, pendingConnectionCount - pendingRequestCount);
+                    connectionsToOpen = Math.max(connectionsToOpen, minIdleConnections - futureIdle);
+                }
+            }
+        }
         // make sure we won't exceed our config setting for pending connections
         connectionsToOpen = Math.min(connectionsToOpen, connectionPoolConfiguration.getMaxPendingConnections() - pendingConnectionCount);
         // limit the connection count to the protocol-specific settings, but only if that protocol was seen for this pool.
@@ -148,10 +205,23 @@ abstract class PoolResizer {
         }
 
         if (connectionsToOpen > 0) {
+            if (replacements > 0) {
+                requestedReplacements.addAndGet(-Math.min(replacements, connectionsToOpen));
+            }
+            Iterator<PoolSink<ConnectionManager.PoolHandle>> waiting = null;
+            if (eventLoopAffinity) {
+                // open the connections on the loops of the requests that no pending connection
+                // has been opened for yet
+                waiting = pendingRequests.iterator();
+                for (int i = 0; i < pendingConnectionCount && waiting.hasNext(); i++) {
+                    waiting.next();
+                }
+            }
             this.pendingConnectionCount.addAndGet(connectionsToOpen);
             for (int i = 0; i < connectionsToOpen; i++) {
+                EventLoop eventLoop = waiting != null && waiting.hasNext() ? waiting.next().getEventLoop() : null;
                 try {
-                    openNewConnection(blockedPendingRequests);
+                    openNewConnection(blockedPendingRequests, eventLoop);
                 } catch (Exception e) {
                     try {
                         onNewConnectionFailure(e);
@@ -164,6 +234,18 @@ abstract class PoolResizer {
         }
     }
 
+    private boolean dispatch(List<ResizerConnection> connections, PoolSink<ConnectionManager.PoolHandle> toDispatch, @Nullable EventLoop eventLoop, boolean local) {
+        for (ResizerConnection c : connections) {
+            if (eventLoop != null && (c.eventLoop() == eventLoop) != local) {
+                continue;
+            }
+            if (dispatchSafe(c, toDispatch)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private boolean dispatchSafe(ResizerConnection connection, PoolSink<ConnectionManager.PoolHandle> toDispatch) {
         try {
             return connection.dispatch(toDispatch);
@@ -180,7 +262,47 @@ abstract class PoolResizer {
         }
     }
 
-    abstract void openNewConnection(@Nullable BlockHint blockedPendingRequests) throws Exception;
+    /**
+     * Open a new connection.
+     *
+     * @param blockedPendingRequests The block hint of the pending requests
+     * @param eventLoop              The event loop to open the connection on, or {@code null} for
+     *                               any event loop
+     */
+    abstract void openNewConnection(@Nullable BlockHint blockedPendingRequests, @Nullable EventLoop eventLoop) throws Exception;
+
+    /**
+     * Run the given task after a delay.
+     *
+     * @param task  The task
+     * @param delay The delay
+     * @param unit  The unit of the delay
+     */
+    abstract void schedule(Runnable task, long delay, TimeUnit unit);
+
+    private void scheduleRefresh() {
+        if (refreshScheduled.compareAndSet(false, true)) {
+            schedule(() -> {
+                refreshScheduled.set(false);
+                dirty();
+            }, BACKGROUND_CONNECT_BACKOFF_NANOS, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private int idleConnectionCount() {
+        int idle = 0;
+        for (ResizerConnection c : http1Connections) {
+            if (c.isIdle()) {
+                idle++;
+            }
+        }
+        for (ResizerConnection c : http2Connections) {
+            if (c.isIdle()) {
+                idle++;
+            }
+        }
+        return idle;
+    }
 
     static boolean incrementWithLimit(AtomicInteger variable, int limit) {
         while (true) {
@@ -199,31 +321,90 @@ abstract class PoolResizer {
         // todo: implement a circuit breaker here? right now, we just fail one connection in the
         //  subclass implementation, but maybe we should do more.
         pendingConnectionCount.decrementAndGet();
+        // background connections are best effort, don't hammer a failing host
+        backgroundBackoffUntil = System.nanoTime() + BACKGROUND_CONNECT_BACKOFF_NANOS;
+        prewarmConnections = 0;
         dirty();
     }
 
     final void onNewConnectionEstablished1(ResizerConnection connection) {
         http1Connections.add(connection);
+        addLocalConnection(connection);
         pendingConnectionCount.decrementAndGet();
         dirty();
     }
 
     final void onNewConnectionEstablished2(ResizerConnection connection) {
         http2Connections.add(connection);
+        addLocalConnection(connection);
         pendingConnectionCount.decrementAndGet();
         dirty();
     }
 
     final void onConnectionInactive1(ResizerConnection connection) {
         http1Connections.remove(connection);
+        removeLocalConnection(connection);
         dirty();
     }
 
     final void onConnectionInactive2(ResizerConnection connection) {
         http2Connections.remove(connection);
+        removeLocalConnection(connection);
         dirty();
     }
 
+    private void addLocalConnection(ResizerConnection connection) {
+        if (eventLoopAffinity) {
+            EventLoop eventLoop = connection.eventLoop();
+            if (eventLoop.inEventLoop()) {
+                localConnections.computeIfAbsent(eventLoop, l -> new ArrayList<>()).add(connection);
+            } else {
+                eventLoop.execute(() -> addLocalConnection(connection));
+            }
+        }
+    }
+
+    private void removeLocalConnection(ResizerConnection connection) {
+        if (eventLoopAffinity) {
+            EventLoop eventLoop = connection.eventLoop();
+            if (eventLoop.inEventLoop()) {
+                List<ResizerConnection> connections = localConnections.get(eventLoop);
+                if (connections != null) {
+                    connections.remove(connection);
+                }
+            } else {
+                eventLoop.execute(() -> removeLocalConnection(connection));
+            }
+        }
+    }
+
+    /**
+     * Attempt to dispatch a request made on an event loop to a connection of that event loop,
+     * without going through the pending request queue. This is only done if no other request is
+     * waiting for a connection, so that it can't overtake them.
+     *
+     * @param sink The request, with the current event loop as its preferred event loop
+     * @return {@code true} if the request was dispatched, {@code false} if it should be added as a
+     * pending request instead
+     */
+    final boolean tryDispatchLocal(PoolSink<ConnectionManager.PoolHandle> sink) {
+        EventLoop eventLoop = sink.getEventLoop();
+        if (!eventLoopAffinity || eventLoop == null || !eventLoop.inEventLoop() || !pendingRequests.isEmpty()) {
+            return false;
+        }
+        List<ResizerConnection> connections = localConnections.get(eventLoop);
+        if (connections == null) {
+            return false;
+        }
+        // index loop, a connection may be removed while we dispatch
+        for (int i = 0; i < connections.size(); i++) {
+            if (dispatchSafe(connections.get(i), sink)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     final void addPendingRequest(PoolSink<ConnectionManager.PoolHandle> sink) {
         if (pendingRequests.size() >= connectionPoolConfiguration.getMaxPendingAcquires()) {
             sink.tryEmitError(new HttpClientException("Cannot acquire connection, exceeded max pending acquires configuration"));
@@ -243,9 +424,51 @@ abstract class PoolResizer {
     }
 
     final void markConnectionAvailable() {
+        // always, even if no request seems to be pending: doSomeWork may have polled a request it
+        // could not dispatch and not have put it back yet
         dirty();
     }
 
+    /**
+     * Open the given number of connections in the background, before they are needed.
+     *
+     * @param connections The number of connections the pool should have
+     */
+    final void prewarm(int connections) {
+        prewarmConnections = connections;
+        dirty();
+    }
+
+    /**
+     * Called when a connection is about to reach its TTL. If it is busy, a replacement is
+     * opened in the background, so that the requests that would have used it don't have to
+     * wait for a new connection. Idle connections are only replaced if needed for the minimum
+     * idle count.
+     *
+     * @param busy Whether the connection has running requests
+     */
+    final void onConnectionExpiring(boolean busy) {
+        if (busy) {
+            requestedReplacements.incrementAndGet();
+        }
+        dirty();
+    }
+
+    /**
+     * @return {@code true} if idle connections should not be closed, because the pool is at or
+     * below its minimum idle count
+     */
+    final boolean isIdleRetained() {
+        return minIdleConnections > 0 && idleConnectionCount() <= minIdleConnections;
+    }
+
+    /**
+     * Stop opening connections in the background.
+     */
+    void shutdown() {
+        shutdown = true;
+    }
+
     final void forEachConnection(Consumer<ResizerConnection> c) {
         for (ResizerConnection http1Connection : http1Connections) {
             c.accept(http1Connection);
@@ -281,5 +504,16 @@ abstract class PoolResizer {
          * request must be readded), or {@code false} if it fails immediately
          */
         abstract boolean dispatch(PoolSink<ConnectionManager.PoolHandle> sink) throws Exception;
+
+        /**
+         * @return The event loop of this connection
+         */
+        abstract EventLoop eventLoop();
+
+        /**
+         * @return {@code true} if this connection has no running requests and may be used for
+         * new requests for the foreseeable future
+         */
+        abstract boolean isIdle();
     }
 }
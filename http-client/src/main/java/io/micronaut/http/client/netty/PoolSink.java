@@ -17,10 +17,11 @@ package io.micronaut.http.client.netty;
 
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.Nullable;
+import io.netty.channel.EventLoop;
 import reactor.core.publisher.Sinks;
 
 /**
- * Sink with an additional optional {@link BlockHint} as metadata.
+ * Sink with an additional optional {@link BlockHint} and preferred {@link EventLoop} as metadata.
  *
  * @param <T> The type that can be submitted to this sink.
  * @author Jonas Konrad
@@ -30,4 +31,12 @@ import reactor.core.publisher.Sinks;
 interface PoolSink<T> extends Sinks.One<T> {
     @Nullable
     BlockHint getBlockHint();
+
+    /**
+     * @return The event loop the request was made on, whose connections should be preferred
+     */
+    @Nullable
+    default EventLoop getEventLoop() {
+        return null;
+    }
 }
@@ -0,0 +1,338 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.client.netty;
+
+import io.micronaut.core.annotation.AnnotationMetadataProvider;
+import io.micronaut.core.annotation.AnnotationValue;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.core.util.clhm.ConcurrentLinkedHashMap;
+import io.micronaut.http.HttpAttributes;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpRequest;
+import io.micronaut.http.client.HttpClientConfiguration;
+import io.micronaut.http.client.annotation.Hedged;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.netty.util.ReferenceCountUtil;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Request hedging of a {@link DefaultHttpClient}. If an idempotent request has no response after
+ * the hedging delay, a second attempt is sent, which resolves its own server from the load
+ * balancer. The first successful response is used and the other attempt is cancelled.
+ *
+ * <p>The delay is either fixed, or a percentile of the latencies observed for the same method and
+ * URI template, or path for requests without a URI template. Hedged attempts are paid for from a token bucket that is filled by a fraction of
+ * every request, so at most {@link HttpClientConfiguration#getHedgingBudget()} extra requests are
+ * sent over time, even if all requests are slow. A client error response other than 408 or 429
+ * fails the request without waiting for the other attempt.</p>
+ *
+ * @since 4.0.0
+ */
+@Internal
+final class RequestHedging {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RequestHedging.class);
+    private static final long TOKEN = 1000;
+    private static final long MAX_TOKENS = 10 * TOKEN;
+    private static final int MAX_TRACKERS = 1000;
+
+    private final Duration delay;
+    private final double percentile;
+    private final long tokensPerRequest;
+    private final AtomicLong tokens = new AtomicLong();
+    private final Map<String, LatencyTracker> trackers = new ConcurrentLinkedHashMap.Builder<String, LatencyTracker>()
+        .maximumWeightedCapacity(MAX_TRACKERS)
+        .build();
+
+    /**
+     * @param configuration The client configuration
+     */
+    RequestHedging(HttpClientConfiguration configuration) {
+        this.delay = configuration.getHedgingDelay().orElse(null);
+        this.percentile = configuration.getHedgingPercentile();
+        this.tokensPerRequest = (long) (configuration.getHedgingBudget() * TOKEN);
+    }
+
+    /**
+     * @param request The request
+     * @return The hedging plan of the request, or {@code null} if it must not be hedged
+     */
+    @Nullable
+    Plan plan(HttpRequest<?> request) {
+        if (!isIdempotent(request) || request.getBody().filter(Publisher.class::isInstance).isPresent()) {
+            return null;
+        }
+        AnnotationValue<Hedged> hedged = request.getAttribute(HttpAttributes.INVOCATION_CONTEXT, AnnotationMetadataProvider.class)
+            .map(provider -> provider.getAnnotationMetadata().getAnnotation(Hedged.class))
+            .orElse(null);
+        Duration fixedDelay = delay;
+        double delayPercentile = percentile;
+        if (hedged != null) {
+            fixedDelay = hedged.stringValue("delay")
+                .filter(StringUtils::hasText)
+                .flatMap(d -> ConversionService.SHARED.convert(d, Duration.class))
+                .orElse(fixedDelay);
+            double annotationPercentile = hedged.doubleValue("percentile").orElse(0);
+            if (annotationPercentile > 0) {
+                delayPercentile = annotationPercentile;
+            } else if (fixedDelay == null && delayPercentile <= 0) {
+                delayPercentile = Hedged.DEFAULT_PERCENTILE;
+            }
+        }
+        if (fixedDelay == null && delayPercentile <= 0) {
+            return null;
+        }
+        LatencyTracker tracker = null;
+        if (delayPercentile > 0) {
+            // without a template, such as for requests that are not made by a declarative client, the
+            // path tells apart the latencies of different endpoints
+            String key = request.getMethodName() + ' ' + request.getAttribute(HttpAttributes.URI_TEMPLATE, String.class).orElseGet(request::getPath);
+            double p = delayPercentile;
+            tracker = trackers.computeIfAbsent(key, k -> new LatencyTracker(p));
+            long learned = tracker.percentile();
+            if (learned > 0) {
+                fixedDelay = Duration.ofNanos(learned);
+            }
+        }
+        return new Plan(fixedDelay, tracker);
+    }
+
+    /**
+     * Send the request, and a second attempt if there's no response after the hedging delay.
+     *
+     * @param plan    The hedging plan of the request
+     * @param request The request
+     * @param attempt Sends one attempt of the given request
+     * @param <T>     The response type
+     * @return The first successful response
+     */
+    <T> Mono<T> exchange(Plan plan, HttpRequest<?> request, Function<HttpRequest<?>, Publisher<T>> attempt) {
+        return Mono.create(sink -> {
+            // copy before the first attempt modifies the request
+            HttpRequest<?> hedgeRequest = plan.delay == null ? null : copy(request);
+            tokens.getAndUpdate(t -> Math.min(MAX_TOKENS, t + tokensPerRequest));
+            Race<T> race = new Race<>(sink, plan.tracker);
+            sink.onDispose(race.disposables);
+            race.subscribe(attempt.apply(request), true);
+            if (hedgeRequest != null) {
+                race.disposables.add(Mono.delay(plan.delay).subscribe(t -> {
+                    if (!race.done.get() && tryAcquireToken()) {
+                        race.subscribe(attempt.apply(hedgeRequest), false);
+                    }
+                }));
+            }
+        });
+    }
+
+    private boolean tryAcquireToken() {
+        while (true) {
+            long t = tokens.get();
+            if (t < TOKEN) {
+                return false;
+            }
+            if (tokens.compareAndSet(t, t - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    private static boolean isIdempotent(HttpRequest<?> request) {
+        return switch (request.getMethod()) {
+            case GET, HEAD, OPTIONS, TRACE, PUT, DELETE -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * @param t The error of an attempt
+     * @return True if the error is a client error response that the other attempt would get as well
+     */
+    private static boolean isClientError(Throwable t) {
+        if (t instanceof HttpClientResponseException e) {
+            int code = e.getResponse().code();
+            return code >= HttpStatus.BAD_REQUEST.getCode() && code < HttpStatus.INTERNAL_SERVER_ERROR.getCode()
+                && code != HttpStatus.REQUEST_TIMEOUT.getCode() && code != HttpStatus.TOO_MANY_REQUESTS.getCode();
+        }
+        return false;
+    }
+
+    private static HttpRequest<?> copy(HttpRequest<?> request) {
+        MutableHttpRequest<Object> copy = HttpRequest.create(request.getMethod(), request.getUri().toString(), request.getMethodName());
+        request.getHeaders().forEach((name, values) -> {
+            for (String value : values) {
+                copy.getHeaders().add(name, value);
+            }
+        });
+        request.getAttributes().forEach(copy::setAttribute);
+        request.getBody().ifPresent(copy::body);
+        return copy;
+    }
+
+    /**
+     * How a request is hedged.
+     *
+     * @param delay   The delay after which the request is hedged, or {@code null} if only the
+     *                latency is recorded until enough latencies have been observed
+     * @param tracker The tracker that records the latency of the request, if any
+     */
+    record Plan(@Nullable Duration delay, @Nullable LatencyTracker tracker) {
+    }
+
+    /**
+     * The attempts of one request. The first value wins and the values of the other attempts are
+     * released, and the request fails once all attempts have failed or one of them got a client
+     * error. The latency of every attempt that completes is recorded.
+     *
+     * @param <T> The response type
+     */
+    private static final class Race<T> {
+        final AtomicBoolean done = new AtomicBoolean();
+        final Disposable.Composite disposables = Disposables.composite();
+        private final MonoSink<T> sink;
+        @Nullable
+        private final LatencyTracker tracker;
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        Race(MonoSink<T> sink, @Nullable LatencyTracker tracker) {
+            this.sink = sink;
+            this.tracker = tracker;
+        }
+
+        void subscribe(Publisher<T> attempt, boolean primary) {
+            running.incrementAndGet();
+            long start = System.nanoTime();
+            Mono<T> response = Flux.from(attempt)
+                .next()
+                .contextWrite(sink.contextView());
+            if (primary && tracker != null) {
+                // the primary attempt is cancelled when the hedge wins: the time it took until then
+                // is a lower bound of its latency, without which only the fast attempts would be learned
+                response = response.doOnCancel(() -> tracker.record(System.nanoTime() - start));
+            }
+            disposables.add(response.subscribe(value -> onValue(value, start), this::onError, this::onEmpty));
+        }
+
+        private void onValue(T value, long start) {
+            if (tracker != null) {
+                tracker.record(System.nanoTime() - start);
+            }
+            if (done.compareAndSet(false, true)) {
+                sink.success(value);
+            } else {
+                discard(value);
+            }
+        }
+
+        private static void discard(Object value) {
+            if (value instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Failed to close the response of a hedged attempt: {}", e.getMessage(), e);
+                    }
+                }
+            } else {
+                ReferenceCountUtil.release(value);
+            }
+        }
+
+        private void onError(Throwable t) {
+            if (isClientError(t) && done.compareAndSet(false, true)) {
+                sink.error(t);
+                return;
+            }
+            error.compareAndSet(null, t);
+            onEmpty();
+        }
+
+        private void onEmpty() {
+            if (running.decrementAndGet() == 0 && done.compareAndSet(false, true)) {
+                Throwable t = error.get();
+                if (t == null) {
+                    sink.success();
+                } else {
+                    sink.error(t);
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps the latest latencies of a request and computes a percentile of them.
+     */
+    static final class LatencyTracker {
+        private static final int SAMPLES = 256;
+        private static final int MIN_SAMPLES = 20;
+        private static final int RECOMPUTE_INTERVAL = 16;
+
+        private final double percentile;
+        private final long[] samples = new long[SAMPLES];
+        private int index;
+        private int size;
+        private int sinceRecompute;
+        private volatile long value = -1;
+
+        LatencyTracker(double percentile) {
+            this.percentile = percentile;
+        }
+
+        /**
+         * @param nanos The latency of an attempt
+         */
+        synchronized void record(long nanos) {
+            samples[index] = nanos;
+            index = (index + 1) % SAMPLES;
+            size = Math.min(size + 1, SAMPLES);
+            if (size >= MIN_SAMPLES && (value < 0 || ++sinceRecompute >= RECOMPUTE_INTERVAL)) {
+                sinceRecompute = 0;
+                long[] sorted = Arrays.copyOf(samples, size);
+                Arrays.sort(sorted);
+                int rank = (int) Math.ceil(percentile / 100 * size) - 1;
+                value = sorted[Math.max(0, Math.min(size - 1, rank))];
+            }
+        }
+
+        /**
+         * @return The percentile of the recorded latencies in nanoseconds, or {@code -1} if not
+         * enough latencies have been recorded
+         */
+        long percentile() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.micronaut.http.client.loadbalance
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.discovery.ServiceInstance
+import io.micronaut.discovery.ServiceInstanceList
+import io.micronaut.http.client.LoadBalancer
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import reactor.core.publisher.Mono
+import spock.lang.Specification
+
+import java.time.Duration
+
+class ServiceInstanceListLatencyAwareLoadBalancerSpec extends Specification {
+
+    ServiceInstance a = ServiceInstance.of('test', new URI('http://a:8080'))
+    ServiceInstance b = ServiceInstance.of('test', new URI('http://b:8080'))
+
+    void "test the instance with the fewest requests in progress is selected"() {
+        given:
+        def balancer = balancer(LoadBalancerStrategy.LEAST_OUTSTANDING_REQUESTS)
+
+        when:
+        def tracker = balancer.onRequest(a)
+
+        then:
+        100.times {
+            assert select(balancer) == b
+        }
+
+        when:
+        tracker.onComplete(null)
+        balancer.onRequest(b)
+
+        then:
+        select(balancer) == a
+    }
+
+    void "test power of two choices prefers the faster instance"() {
+        given:
+        def balancer = balancer(LoadBalancerStrategy.POWER_OF_TWO_CHOICES)
+
+        when:"the latency of a is much higher than the latency of b"
+        def slow = balancer.onRequest(a)
+        def fast = balancer.onRequest(b)
+        sleep(50)
+        slow.onComplete(null)
+        fast.onCancel()
+        balancer.onRequest(b).onComplete(null)
+
+        then:
+        balancer.statistics(a).latency > balancer.statistics(b).latency
+        100.times {
+            assert select(balancer) == b
+        }
+    }
+
+    void "test power of two choices expects an instance without samples to have the average latency"() {
+        given:
+        ServiceInstance c = ServiceInstance.of('test', new URI('http://c:8080'))
+        ServiceInstance d = ServiceInstance.of('test', new URI('http://d:8080'))
+        def balancer = new ServiceInstanceListLatencyAwareLoadBalancer(instances(a, b, c, d), new LoadBalancerConfiguration(strategy: LoadBalancerStrategy.POWER_OF_TWO_CHOICES))
+
+        when:"a is fast, b and c are slow and d is cold"
+        balancer.onRequest(a).onComplete(null)
+        def slow = [balancer.onRequest(b), balancer.onRequest(c)]
+        sleep(50)
+        slow*.onComplete(null)
+        Map<ServiceInstance, Integer> selected = [:].withDefault { 0 }
+        600.times {
+            selected[select(balancer)]++
+        }
+
+        then:"d loses to a but wins over b and c"
+        !balancer.statistics(d).sampled
+        selected[a] > selected[d]
+        selected[d] > 0
+        selected[b] < selected[d]
+        selected[c] < selected[d]
+    }
+
+    void "test an instance with a high error rate is ejected"() {
+        given:
+        LoadBalancerConfiguration configuration = new LoadBalancerConfiguration(
+                strategy: LoadBalancerStrategy.LEAST_OUTSTANDING_REQUESTS,
+                minimumRequests: 4,
+                ejectionDuration: Duration.ofMillis(200)
+        )
+        def balancer = new ServiceInstanceListLatencyAwareLoadBalancer(instances(a, b), configuration)
+
+        when:"client errors do not count"
+        4.times {
+            balancer.onRequest(a).onComplete(new HttpClientResponseException('not found', HttpResponse.status(HttpStatus.NOT_FOUND)))
+        }
+
+        then:
+        balancer.statistics(a).errorRate == 0d
+
+        when:
+        4.times {
+            balancer.onRequest(a).onComplete(new HttpClientResponseException('error', HttpResponse.serverError()))
+        }
+        balancer.onRequest(b)
+
+        then:"a is not selected although b is busy"
+        100.times {
+            assert select(balancer) == b
+        }
+
+        and:"a is selected again once the ejection is over"
+        sleep(250)
+        select(balancer) == a
+    }
+
+    void "test the factory creates a load balancer for the configured strategy"() {
+        given:
+        ApplicationContext context = ApplicationContext.run(['micronaut.http.client.load-balancer.strategy': 'power-of-two-choices'])
+
+        when:
+        LoadBalancer balancer = context.getBean(ServiceInstanceListLoadBalancerFactory).create(instances(a, b))
+
+        then:
+        balancer instanceof ServiceInstanceListLatencyAwareLoadBalancer
+
+        cleanup:
+        context.close()
+    }
+
+    private ServiceInstanceListLatencyAwareLoadBalancer balancer(LoadBalancerStrategy strategy) {
+        new ServiceInstanceListLatencyAwareLoadBalancer(instances(a, b), new LoadBalancerConfiguration(strategy: strategy))
+    }
+
+    private static ServiceInstance select(LoadBalancer balancer) {
+        Mono.from(balancer.select(null)).block()
+    }
+
+    private static ServiceInstanceList instances(ServiceInstance... instances) {
+        new ServiceInstanceList() {
+            @Override
+            String getID() {
+                return 'test'
+            }
+
+            @Override
+            List<ServiceInstance> getInstances() {
+                return instances as List
+            }
+        }
+    }
+}
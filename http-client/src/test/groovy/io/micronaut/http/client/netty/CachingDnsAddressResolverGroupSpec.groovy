@@ -0,0 +1,292 @@
+package io.micronaut.http.client.netty
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.DefaultHttpClientConfiguration
+import io.micronaut.http.client.HttpClient
+import io.micronaut.runtime.server.EmbeddedServer
+import io.netty.bootstrap.Bootstrap
+import io.netty.buffer.Unpooled
+import io.netty.channel.Channel
+import io.netty.channel.ChannelHandlerContext
+import io.netty.channel.ChannelInitializer
+import io.netty.channel.SimpleChannelInboundHandler
+import io.netty.channel.nio.NioEventLoopGroup
+import io.netty.channel.socket.DatagramChannel
+import io.netty.channel.socket.nio.NioDatagramChannel
+import io.netty.handler.codec.dns.DatagramDnsQuery
+import io.netty.handler.codec.dns.DatagramDnsQueryDecoder
+import io.netty.handler.codec.dns.DatagramDnsResponse
+import io.netty.handler.codec.dns.DatagramDnsResponseEncoder
+import io.netty.handler.codec.dns.DefaultDnsRawRecord
+import io.netty.handler.codec.dns.DnsQuestion
+import io.netty.handler.codec.dns.DnsRecordType
+import io.netty.handler.codec.dns.DnsResponseCode
+import io.netty.handler.codec.dns.DnsSection
+import org.slf4j.LoggerFactory
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+class CachingDnsAddressResolverGroupSpec extends Specification {
+
+    @Shared
+    @AutoCleanup('shutdownGracefully')
+    NioEventLoopGroup eventLoopGroup = new NioEventLoopGroup(1)
+
+    @AutoCleanup
+    TestDnsServer dnsServer = new TestDnsServer(eventLoopGroup)
+
+    CachingDnsAddressResolverGroup group
+
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    void cleanup() {
+        group?.close()
+    }
+
+    void 'test resolved addresses are cached'() {
+        given:
+        dnsServer.records['service.test.'] = ['10.0.0.1']
+        group = newGroup()
+
+        when:
+        def first = resolve('service.test')
+        def second = resolve('service.test')
+
+        then:
+        first.address.hostAddress == '10.0.0.1'
+        first.port == 8080
+        second.address.hostAddress == '10.0.0.1'
+        dnsServer.queries('service.test.') == 1
+    }
+
+    void 'test the TTL of the records is respected'() {
+        given:
+        dnsServer.records['service.test.'] = ['10.0.0.1']
+        dnsServer.ttl = 1
+        group = newGroup()
+        resolve('service.test')
+
+        when:
+        dnsServer.records['service.test.'] = ['10.0.0.2']
+
+        then:
+        conditions.eventually {
+            assert resolve('service.test').address.hostAddress == '10.0.0.2'
+        }
+        dnsServer.queries('service.test.') == 2
+    }
+
+    void 'test the minimum TTL overrides the TTL of the records'() {
+        given:
+        dnsServer.records['service.test.'] = ['10.0.0.1']
+        dnsServer.ttl = 0
+        group = newGroup(dnsMinTtl: Duration.ofMinutes(1))
+
+        when:
+        resolve('service.test')
+        resolve('service.test')
+
+        then:
+        dnsServer.queries('service.test.') == 1
+    }
+
+    void 'test failed lookups are cached for the negative TTL'() {
+        given:
+        group = newGroup(dnsNegativeTtl: Duration.ofMinutes(1))
+
+        when:
+        resolve('unknown.test')
+
+        then:
+        thrown(UnknownHostException)
+
+        when:
+        resolve('unknown.test')
+
+        then:
+        thrown(UnknownHostException)
+        dnsServer.queries('unknown.test.') == 1
+    }
+
+    void 'test round robin over the A records'() {
+        given:
+        dnsServer.records['service.test.'] = ['10.0.0.1', '10.0.0.2', '10.0.0.3']
+        group = newGroup(dnsRoundRobin: true)
+
+        when:
+        Set<String> addresses = (1..50).collect { resolve('service.test').address.hostAddress } as Set
+
+        then:
+        addresses == ['10.0.0.1', '10.0.0.2', '10.0.0.3'] as Set
+        dnsServer.queries('service.test.') == 1
+    }
+
+    void 'test host names in use are refreshed in the background'() {
+        given:
+        dnsServer.records['service.test.'] = ['10.0.0.1']
+        dnsServer.ttl = 1
+        group = newGroup(dnsRefreshInterval: Duration.ofMillis(300))
+        resolve('service.test')
+        resolve('service.test')
+
+        when:
+        dnsServer.records['service.test.'] = ['10.0.0.2']
+
+        then:
+        conditions.eventually {
+            assert dnsServer.queries('service.test.') == 2
+            assert group.cache.get('service.test', null)*.address()*.hostAddress == ['10.0.0.2']
+        }
+    }
+
+    void 'test a new answer replaces the expiry of the previous answer'() {
+        given:
+        group = newGroup()
+        def loop = eventLoopGroup.next()
+        def address = InetAddress.getByName('10.0.0.1')
+
+        when:"an answer with a TTL of one second expires"
+        group.cache.cache('service.test', null, address, 1, loop)
+        group.cache.cache('service.test', null, InetAddress.getByName('10.0.0.2'), 60, loop)
+        conditions.eventually {
+            assert !group.cache.get('service.test', null)
+        }
+
+        and:"a new answer is cached and looked up"
+        group.cache.cache('service.test', null, address, 60, loop)
+        group.cache.get('service.test', null)
+
+        then:"it is not refreshed before its own TTL"
+        group.cache.hostnamesToRefresh(System.nanoTime()).isEmpty()
+    }
+
+    void 'test DNS server addresses are parsed'() {
+        expect:
+        CachingDnsAddressResolverGroup.parseServer(server) == new InetSocketAddress(host, port)
+
+        where:
+        server           | host        | port
+        '127.0.0.1'      | '127.0.0.1' | 53
+        '127.0.0.1:5353' | '127.0.0.1' | 5353
+        '::1'            | '::1'       | 53
+        '[::1]:5353'     | '::1'       | 5353
+        '[::1]'          | '::1'       | 53
+    }
+
+    void 'test the client connects through the asynchronous resolver'() {
+        given:
+        dnsServer.records['service.test.'] = ['127.0.0.1']
+        EmbeddedServer server = ApplicationContext.run(EmbeddedServer, ['spec.name': 'CachingDnsAddressResolverGroupSpec'])
+        ApplicationContext ctx = ApplicationContext.run([
+                'micronaut.http.client.dns-resolution-mode': 'async',
+                'micronaut.http.client.dns-servers'        : ["127.0.0.1:${dnsServer.port}".toString()],
+        ])
+        HttpClient client = ctx.createBean(HttpClient, new URL("http://service.test:${server.port}"))
+
+        when:
+        String response = client.toBlocking().retrieve('/dns')
+
+        then:
+        response == 'resolved'
+        dnsServer.queries('service.test.') == 1
+
+        cleanup:
+        client.close()
+        ctx.close()
+        server.close()
+    }
+
+    private CachingDnsAddressResolverGroup newGroup(Map<String, Object> properties = [:]) {
+        DefaultHttpClientConfiguration configuration = new DefaultHttpClientConfiguration()
+        configuration.dnsServers = ["127.0.0.1:${dnsServer.port}".toString()]
+        properties.each { name, value -> configuration[name] = value }
+        return new CachingDnsAddressResolverGroup(LoggerFactory.getLogger(CachingDnsAddressResolverGroupSpec), configuration, NioDatagramChannel::new)
+    }
+
+    private InetSocketAddress resolve(String host) {
+        try {
+            return group.getResolver(eventLoopGroup.next()).resolve(InetSocketAddress.createUnresolved(host, 8080)).get()
+        } catch (java.util.concurrent.ExecutionException e) {
+            throw e.cause
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'CachingDnsAddressResolverGroupSpec')
+    @Controller('/dns')
+    static class DnsController {
+        @Get(produces = 'text/plain')
+        String index() {
+            'resolved'
+        }
+    }
+
+    /**
+     * Minimal UDP DNS server answering A queries from {@link #records}, and NXDOMAIN for unknown names.
+     */
+    static class TestDnsServer implements Closeable {
+        final Map<String, List<String>> records = new ConcurrentHashMap<>()
+        final Map<String, AtomicInteger> aQueries = new ConcurrentHashMap<>()
+        volatile long ttl = 60
+        final Channel channel
+
+        TestDnsServer(NioEventLoopGroup group) {
+            channel = new Bootstrap()
+                    .group(group)
+                    .channel(NioDatagramChannel)
+                    .handler(new ChannelInitializer<DatagramChannel>() {
+                        @Override
+                        protected void initChannel(DatagramChannel ch) {
+                            ch.pipeline().addLast(new DatagramDnsQueryDecoder(), new DatagramDnsResponseEncoder(), new SimpleChannelInboundHandler<DatagramDnsQuery>() {
+                                @Override
+                                protected void channelRead0(ChannelHandlerContext ctx, DatagramDnsQuery query) {
+                                    ctx.writeAndFlush(answer(query))
+                                }
+                            })
+                        }
+                    })
+                    .bind('127.0.0.1', 0).sync().channel()
+        }
+
+        int getPort() {
+            ((InetSocketAddress) channel.localAddress()).port
+        }
+
+        int queries(String name) {
+            aQueries.get(name)?.get() ?: 0
+        }
+
+        private DatagramDnsResponse answer(DatagramDnsQuery query) {
+            DnsQuestion question = query.recordAt(DnsSection.QUESTION)
+            DatagramDnsResponse response = new DatagramDnsResponse(query.recipient(), query.sender(), query.id())
+            response.addRecord(DnsSection.QUESTION, question)
+            List<String> addresses = records.get(question.name())
+            if (addresses == null) {
+                if (question.type() == DnsRecordType.A) {
+                    aQueries.computeIfAbsent(question.name(), n -> new AtomicInteger()).incrementAndGet()
+                }
+                response.setCode(DnsResponseCode.NXDOMAIN)
+            } else if (question.type() == DnsRecordType.A) {
+                aQueries.computeIfAbsent(question.name(), n -> new AtomicInteger()).incrementAndGet()
+                for (String address : addresses) {
+                    response.addRecord(DnsSection.ANSWER, new DefaultDnsRawRecord(
+                            question.name(), DnsRecordType.A, ttl, Unpooled.wrappedBuffer(InetAddress.getByName(address).address)))
+                }
+            }
+            return response
+        }
+
+        @Override
+        void close() {
+            channel.close().sync()
+        }
+    }
+}
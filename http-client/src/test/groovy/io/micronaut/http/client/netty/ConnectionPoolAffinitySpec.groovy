@@ -0,0 +1,80 @@
+package io.micronaut.http.client.netty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.HttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import jakarta.inject.Inject
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import spock.lang.Specification
+
+@Property(name = 'spec.name', value = 'ConnectionPoolAffinitySpec')
+@Property(name = 'micronaut.http.client.pool.event-loop-affinity', value = 'true')
+@MicronautTest
+class ConnectionPoolAffinitySpec extends Specification {
+
+    @Inject
+    @Client("/")
+    HttpClient client
+
+    void "test connections are reused with event loop affinity"() {
+        when:
+        String first = client.toBlocking().retrieve('/pool-affinity/port')
+        String second = client.toBlocking().retrieve('/pool-affinity/port')
+
+        then:
+        first == second
+    }
+
+    void "test concurrent requests are served with event loop affinity"() {
+        when:
+        List<String> ports = Flux.range(0, 20)
+                .flatMap(i -> client.retrieve('/pool-affinity/port'))
+                .collectList()
+                .block()
+
+        then:
+        ports.size() == 20
+    }
+
+    void "test requests made on a client event loop are served"() {
+        when:
+        List<String> result = Mono.from(client.retrieve('/pool-affinity/port'))
+                .flatMap(port -> Mono.from(client.retrieve('/pool-affinity/port')).map(next -> [port, next]))
+                .block()
+
+        then:
+        result.every { it != null }
+    }
+
+    void "test a request made on a client event loop gets a connection on that loop"() {
+        when:
+        List<List<String>> threads = Flux.range(0, 10)
+                .flatMap(i -> Mono.from(client.retrieve('/pool-affinity/port'))
+                        .flatMap(port -> {
+                            String caller = Thread.currentThread().name
+                            return Mono.from(client.retrieve('/pool-affinity/port'))
+                                    .map(next -> [caller, Thread.currentThread().name])
+                        }))
+                .collectList()
+                .block()
+
+        then:"the response is received on the event loop of the caller"
+        threads.size() == 10
+        threads.every { it[0] == it[1] }
+    }
+
+    @Requires(property = 'spec.name', value = 'ConnectionPoolAffinitySpec')
+    @Controller('/pool-affinity')
+    static class AffinityController {
+        @Get('/port')
+        String port(HttpRequest<?> request) {
+            return String.valueOf(request.remoteAddress.port)
+        }
+    }
+}
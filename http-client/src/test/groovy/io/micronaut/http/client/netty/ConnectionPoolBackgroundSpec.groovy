@@ -0,0 +1,76 @@
+package io.micronaut.http.client.netty
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.DefaultHttpClientConfiguration
+import io.micronaut.runtime.server.EmbeddedServer
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+class ConnectionPoolBackgroundSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    EmbeddedServer embeddedServer = ApplicationContext.run(EmbeddedServer, ['spec.name': 'ConnectionPoolBackgroundSpec'])
+
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    void "test connections are pre-warmed when the client is created"() {
+        given:
+        def configuration = new DefaultHttpClientConfiguration()
+        configuration.connectionPoolConfiguration.prewarmConnections = 2
+
+        when:
+        def client = new DefaultHttpClient(embeddedServer.URI, configuration)
+
+        then:
+        conditions.eventually {
+            assert client.connectionManager.channels.size() == 2
+        }
+        client.toBlocking().retrieve('/pool-background') == 'ok'
+        client.connectionManager.channels.size() == 2
+
+        cleanup:
+        client.close()
+    }
+
+    void "test the minimum of idle connections is maintained"() {
+        given:
+        def configuration = new DefaultHttpClientConfiguration()
+        configuration.connectionPoolConfiguration.minIdleConnections = 2
+        def client = new DefaultHttpClient(embeddedServer.URI, configuration)
+
+        when:
+        client.toBlocking().retrieve('/pool-background')
+
+        then:
+        conditions.eventually {
+            assert client.connectionManager.channels.size() == 2
+        }
+
+        when:
+        client.connectionManager.channels.first().close().sync()
+
+        then:
+        conditions.eventually {
+            assert client.connectionManager.channels.size() == 2
+            assert client.connectionManager.channels.every { it.active }
+        }
+
+        cleanup:
+        client.close()
+    }
+
+    @Requires(property = 'spec.name', value = 'ConnectionPoolBackgroundSpec')
+    @Controller('/pool-background')
+    static class BackgroundController {
+        @Get
+        String index() {
+            return 'ok'
+        }
+    }
+}
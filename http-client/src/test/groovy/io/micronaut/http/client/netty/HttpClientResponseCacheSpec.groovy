@@ -0,0 +1,230 @@
+package io.micronaut.http.client.netty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpHeaders
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.annotation.Header
+import io.micronaut.http.annotation.PathVariable
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.HttpClient
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import jakarta.inject.Inject
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+@Property(name = 'spec.name', value = 'HttpClientResponseCacheSpec')
+@Property(name = 'micronaut.http.client.response-cache-enabled', value = 'true')
+@MicronautTest
+class HttpClientResponseCacheSpec extends Specification {
+
+    @Inject
+    @Client("/")
+    HttpClient client
+
+    @Inject
+    CacheController controller
+
+    void "test fresh responses are served from the cache"() {
+        when:
+        String first = client.toBlocking().retrieve('/client-cache/fresh/a')
+        HttpResponse<String> second = client.toBlocking().exchange('/client-cache/fresh/a', String)
+
+        then:
+        first == 'a'
+        second.body() == 'a'
+        second.header(HttpHeaders.AGE) != null
+        controller.requests('fresh/a') == 1
+    }
+
+    void "test stale responses are revalidated with the entity tag"() {
+        when:
+        String first = client.toBlocking().retrieve('/client-cache/validated')
+        String second = client.toBlocking().retrieve('/client-cache/validated')
+
+        then:
+        first == 'validated'
+        second == 'validated'
+        controller.requests('validated') == 2
+        controller.notModified.get() == 1
+    }
+
+    void "test responses are cached per value of the headers they vary on"() {
+        when:
+        String en = client.toBlocking().retrieve(HttpRequest.GET('/client-cache/vary').header(HttpHeaders.ACCEPT_LANGUAGE, 'en'))
+        String de = client.toBlocking().retrieve(HttpRequest.GET('/client-cache/vary').header(HttpHeaders.ACCEPT_LANGUAGE, 'de'))
+        String enAgain = client.toBlocking().retrieve(HttpRequest.GET('/client-cache/vary').header(HttpHeaders.ACCEPT_LANGUAGE, 'en'))
+
+        then:
+        en == 'en'
+        de == 'de'
+        enAgain == 'en'
+        controller.requests('vary') == 2
+    }
+
+    void "test unsafe requests invalidate the cached response"() {
+        when:
+        client.toBlocking().retrieve('/client-cache/fresh/b')
+        client.toBlocking().exchange(HttpRequest.POST('/client-cache/fresh/b', 'update'))
+        client.toBlocking().retrieve('/client-cache/fresh/b')
+
+        then:
+        controller.requests('fresh/b') == 2
+    }
+
+    void "test responses are only shared with requests with credentials if they allow it"() {
+        when:"the response to an authorized request is not stored"
+        client.toBlocking().retrieve(HttpRequest.GET('/client-cache/fresh/c').basicAuth('alice', 'secret'))
+        client.toBlocking().retrieve('/client-cache/fresh/c')
+
+        then:
+        controller.requests('fresh/c') == 2
+
+        when:"a stored response is not used for authorized requests or requests with cookies"
+        client.toBlocking().retrieve('/client-cache/fresh/c')
+        client.toBlocking().retrieve(HttpRequest.GET('/client-cache/fresh/c').basicAuth('bob', 'secret'))
+        client.toBlocking().retrieve(HttpRequest.GET('/client-cache/fresh/c').header(HttpHeaders.COOKIE, 'user=bob'))
+
+        then:
+        controller.requests('fresh/c') == 4
+
+        when:"public responses are shared"
+        client.toBlocking().retrieve(HttpRequest.GET('/client-cache/public').basicAuth('alice', 'secret'))
+        client.toBlocking().retrieve(HttpRequest.GET('/client-cache/public').basicAuth('bob', 'secret'))
+
+        then:
+        controller.requests('public') == 1
+    }
+
+    void "test unsafe requests invalidate the responses stored for every value of the headers they vary on"() {
+        when:
+        client.toBlocking().retrieve(HttpRequest.GET('/client-cache/vary').header(HttpHeaders.ACCEPT_LANGUAGE, 'fr'))
+        client.toBlocking().retrieve(HttpRequest.GET('/client-cache/vary').header(HttpHeaders.ACCEPT_LANGUAGE, 'it'))
+        int before = controller.requests('vary')
+        client.toBlocking().exchange(HttpRequest.POST('/client-cache/vary', 'update'))
+        client.toBlocking().retrieve(HttpRequest.GET('/client-cache/vary').header(HttpHeaders.ACCEPT_LANGUAGE, 'fr'))
+        client.toBlocking().retrieve(HttpRequest.GET('/client-cache/vary').header(HttpHeaders.ACCEPT_LANGUAGE, 'it'))
+
+        then:
+        controller.requests('vary') == before + 2
+    }
+
+    void "test stale responses are served while they are revalidated"() {
+        given:
+        PollingConditions conditions = new PollingConditions(timeout: 5)
+
+        when:
+        client.toBlocking().retrieve('/client-cache/swr')
+        String stale = client.toBlocking().retrieve('/client-cache/swr')
+
+        then:
+        stale == 'swr'
+        conditions.eventually {
+            assert controller.requests('swr') == 2
+        }
+    }
+
+    void "test private responses are not stored"() {
+        when:
+        client.toBlocking().retrieve('/client-cache/private')
+        String second = client.toBlocking().retrieve('/client-cache/private')
+
+        then:
+        second == 'private'
+        controller.requests('private') == 2
+    }
+
+    void "test responses setting a cookie are not stored"() {
+        when:
+        client.toBlocking().retrieve('/client-cache/cookie')
+        HttpResponse<String> second = client.toBlocking().exchange('/client-cache/cookie', String)
+
+        then:
+        second.body() == 'cookie'
+        second.header(HttpHeaders.SET_COOKIE) == 'session=1'
+        controller.requests('cookie') == 2
+    }
+
+    @Requires(property = 'spec.name', value = 'HttpClientResponseCacheSpec')
+    @Controller('/client-cache')
+    static class CacheController {
+
+        final Map<String, AtomicInteger> counters = new ConcurrentHashMap<>()
+        final AtomicInteger notModified = new AtomicInteger()
+
+        int requests(String name) {
+            return counters.computeIfAbsent(name, n -> new AtomicInteger()).get()
+        }
+
+        private void count(String name) {
+            counters.computeIfAbsent(name, n -> new AtomicInteger()).incrementAndGet()
+        }
+
+        @Get('/fresh/{name}')
+        HttpResponse<String> fresh(@PathVariable String name) {
+            count('fresh/' + name)
+            return HttpResponse.ok(name).header(HttpHeaders.CACHE_CONTROL, 'max-age=60')
+        }
+
+        @Post('/fresh/{name}')
+        HttpResponse<?> update(@PathVariable String name) {
+            return HttpResponse.noContent()
+        }
+
+        @Get('/validated')
+        HttpResponse<String> validated(@Header(HttpHeaders.IF_NONE_MATCH) Optional<String> ifNoneMatch) {
+            count('validated')
+            if (ifNoneMatch.orElse(null) == '"v1"') {
+                notModified.incrementAndGet()
+                return HttpResponse.notModified().header(HttpHeaders.ETAG, '"v1"')
+            }
+            return HttpResponse.ok('validated').header(HttpHeaders.ETAG, '"v1"').header(HttpHeaders.CACHE_CONTROL, 'no-cache')
+        }
+
+        @Get('/vary')
+        HttpResponse<String> vary(@Header(HttpHeaders.ACCEPT_LANGUAGE) String language) {
+            count('vary')
+            return HttpResponse.ok(language)
+                    .header(HttpHeaders.CACHE_CONTROL, 'max-age=60')
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE)
+        }
+
+        @Post('/vary')
+        HttpResponse<?> updateVary() {
+            return HttpResponse.noContent()
+        }
+
+        @Get('/public')
+        HttpResponse<String> publicResponse() {
+            count('public')
+            return HttpResponse.ok('public').header(HttpHeaders.CACHE_CONTROL, 'public, max-age=60')
+        }
+
+        @Get('/private')
+        HttpResponse<String> privateResponse() {
+            count('private')
+            return HttpResponse.ok('private').header(HttpHeaders.CACHE_CONTROL, 'private, max-age=60')
+        }
+
+        @Get('/cookie')
+        HttpResponse<String> cookie() {
+            count('cookie')
+            return HttpResponse.ok('cookie')
+                    .header(HttpHeaders.CACHE_CONTROL, 'public, max-age=60')
+                    .header(HttpHeaders.SET_COOKIE, 'session=1')
+        }
+
+        @Get('/swr')
+        HttpResponse<String> staleWhileRevalidate() {
+            count('swr')
+            return HttpResponse.ok('swr').header(HttpHeaders.CACHE_CONTROL, 'max-age=0, stale-while-revalidate=60')
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package io.micronaut.http.client.netty
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.annotation.Body
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.DefaultHttpClientConfiguration
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.http.client.annotation.Hedged
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.scheduling.TaskExecutors
+import io.micronaut.scheduling.annotation.ExecuteOn
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import jakarta.inject.Inject
+import org.reactivestreams.Publisher
+import reactor.core.publisher.Mono
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Function
+
+@Property(name = 'spec.name', value = 'RequestHedgingSpec')
+@Property(name = 'micronaut.http.client.hedging-budget', value = '1')
+@MicronautTest
+class RequestHedgingSpec extends Specification {
+
+    @Inject
+    HedgedClient client
+
+    @Inject
+    HedgingController controller
+
+    void "test a slow idempotent request is hedged"() {
+        when:
+        long start = System.nanoTime()
+        String result = client.get('a')
+        long millis = (System.nanoTime() - start) / 1_000_000
+
+        then:
+        result == 'a'
+        millis < HedgingController.SLOW_MILLIS
+        controller.calls('a') == 2
+    }
+
+    void "test a fast request is not hedged"() {
+        when:
+        String result = client.get('fast')
+
+        then:
+        result == 'fast'
+        controller.calls('fast') == 1
+    }
+
+    void "test non idempotent requests are not hedged"() {
+        when:
+        String result = client.post('b', 'body')
+
+        then:
+        result == 'b'
+        controller.calls('b') == 1
+    }
+
+    void "test hedges stop once the budget is exhausted"() {
+        given:"a budget of one hedge every four requests"
+        DefaultHttpClientConfiguration configuration = new DefaultHttpClientConfiguration()
+        configuration.hedgingDelay = Duration.ofMillis(10)
+        configuration.hedgingPercentile = 0
+        configuration.hedgingBudget = 0.25
+        RequestHedging hedging = new RequestHedging(configuration)
+        AtomicInteger attempts = new AtomicInteger()
+        Function<HttpRequest<?>, Publisher<String>> attempt = r -> {
+            attempts.incrementAndGet()
+            return Mono.delay(Duration.ofMillis(100)).thenReturn('slow')
+        }
+
+        when:"every request is slow"
+        8.times {
+            HttpRequest<?> request = HttpRequest.GET('/budget')
+            assert hedging.exchange(hedging.plan(request), request, attempt).block() == 'slow'
+        }
+
+        then:"only the budgeted requests are hedged"
+        attempts.get() == 10
+    }
+
+    void "test the latency of a primary attempt that lost the race is recorded"() {
+        given:
+        DefaultHttpClientConfiguration configuration = new DefaultHttpClientConfiguration()
+        configuration.hedgingDelay = Duration.ofMillis(20)
+        configuration.hedgingPercentile = 90
+        configuration.hedgingBudget = 1
+        RequestHedging hedging = new RequestHedging(configuration)
+        RequestHedging.Plan plan = null
+
+        when:"every hedge answers immediately while the primary attempt is slow"
+        20.times {
+            HttpRequest<?> request = HttpRequest.GET('/lost')
+            plan = hedging.plan(request)
+            Function<HttpRequest<?>, Publisher<String>> attempt = r -> r.is(request)
+                    ? Mono.delay(Duration.ofMillis(500)).thenReturn('primary')
+                    : Mono.just('hedge')
+            assert hedging.exchange(plan, request, attempt).block() == 'hedge'
+        }
+
+        then:"the percentile is not learned from the winners only"
+        plan.tracker().percentile() >= Duration.ofMillis(20).toNanos()
+    }
+
+    void "test a client error fails the request without waiting for the hedge"() {
+        given:
+        DefaultHttpClientConfiguration configuration = new DefaultHttpClientConfiguration()
+        configuration.hedgingDelay = Duration.ofMillis(10)
+        configuration.hedgingPercentile = 0
+        configuration.hedgingBudget = 1
+        RequestHedging hedging = new RequestHedging(configuration)
+        HttpRequest<?> request = HttpRequest.GET('/missing')
+        Function<HttpRequest<?>, Publisher<String>> attempt = r -> r.is(request)
+                ? Mono.delay(Duration.ofMillis(50)).then(Mono.error(new HttpClientResponseException('Not Found', HttpResponse.notFound())))
+                : Mono.delay(Duration.ofSeconds(5)).thenReturn('hedge')
+
+        when:
+        long start = System.nanoTime()
+        hedging.exchange(hedging.plan(request), request, attempt).block()
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.NOT_FOUND
+        System.nanoTime() - start < Duration.ofSeconds(2).toNanos()
+    }
+
+    @Requires(property = 'spec.name', value = 'RequestHedgingSpec')
+    @Client('/hedging')
+    @Hedged(delay = '100ms')
+    static interface HedgedClient {
+        @Get('/{id}')
+        String get(String id)
+
+        @Post('/{id}')
+        String post(String id, @Body String body)
+    }
+
+    @Requires(property = 'spec.name', value = 'RequestHedgingSpec')
+    @Controller('/hedging')
+    @ExecuteOn(TaskExecutors.BLOCKING)
+    static class HedgingController {
+        static final long SLOW_MILLIS = 2000
+
+        final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>()
+
+        @Get('/{id}')
+        String get(String id) {
+            return respond(id)
+        }
+
+        @Post('/{id}')
+        String post(String id, @Body String body) {
+            return respond(id)
+        }
+
+        int calls(String id) {
+            return calls.get(id)?.get() ?: 0
+        }
+
+        private String respond(String id) {
+            if (id != 'fast' && calls.computeIfAbsent(id, k -> new AtomicInteger()).incrementAndGet() == 1) {
+                // only the first attempt is slow
+                Thread.sleep(SLOW_MILLIS)
+            } else if (id == 'fast') {
+                calls.computeIfAbsent(id, k -> new AtomicInteger()).incrementAndGet()
+            }
+            return id
+        }
+    }
+}
@@ -23,6 +23,7 @@ import io.micronaut.core.util.ArgumentUtils;
 import io.micronaut.http.netty.configuration.NettyGlobalConfiguration;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
+import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.ServerSocketChannel;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.unix.ServerDomainSocketChannel;
@@ -133,6 +134,11 @@ public class DefaultEventLoopGroupFactory implements EventLoopGroupFactory {
         return getFactory(configuration).clientSocketChannelClass(configuration);
     }
 
+    @Override
+    public Class<? extends DatagramChannel> datagramChannelClass(@Nullable EventLoopGroupConfiguration configuration) {
+        return getFactory(configuration).datagramChannelClass(configuration);
+    }
+
     private EventLoopGroupFactory getFactory(@Nullable EventLoopGroupConfiguration configuration) {
         if (configuration != null && configuration.isPreferNativeTransport()) {
             return this.nativeFactory;
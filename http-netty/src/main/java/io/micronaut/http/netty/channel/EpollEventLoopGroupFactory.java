@@ -23,10 +23,12 @@ import io.micronaut.core.annotation.Nullable;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
 import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDatagramChannel;
 import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.epoll.EpollServerDomainSocketChannel;
 import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.ServerSocketChannel;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.unix.ServerDomainSocketChannel;
@@ -114,6 +116,11 @@ public class EpollEventLoopGroupFactory implements EventLoopGroupFactory {
         return EpollSocketChannel.class;
     }
 
+    @Override
+    public Class<? extends DatagramChannel> datagramChannelClass(@Nullable EventLoopGroupConfiguration configuration) {
+        return EpollDatagramChannel.class;
+    }
+
     @Override
     public SocketChannel clientSocketChannelInstance(EventLoopGroupConfiguration configuration) {
         return new EpollSocketChannel();
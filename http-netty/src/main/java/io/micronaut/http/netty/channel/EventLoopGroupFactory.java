@@ -20,6 +20,7 @@ import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.util.ArgumentUtils;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
+import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.ServerSocketChannel;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.unix.ServerDomainSocketChannel;
@@ -193,4 +194,17 @@ public interface EventLoopGroupFactory {
         }
     }
 
+    /**
+     * Returns the datagram channel class, used for example to send DNS queries from the event loops of this
+     * factory.
+     *
+     * @param configuration The configuration
+     * @return A DatagramChannel class.
+     * @throws UnsupportedOperationException if datagram channels are not supported.
+     * @since 4.0.0
+     */
+    default @NonNull Class<? extends DatagramChannel> datagramChannelClass(@Nullable EventLoopGroupConfiguration configuration) {
+        throw new UnsupportedOperationException("Datagram channels are not supported by this event loop group factory");
+    }
+
 }
@@ -23,10 +23,12 @@ import io.micronaut.core.annotation.Nullable;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
 import io.netty.channel.kqueue.KQueue;
+import io.netty.channel.kqueue.KQueueDatagramChannel;
 import io.netty.channel.kqueue.KQueueEventLoopGroup;
 import io.netty.channel.kqueue.KQueueServerDomainSocketChannel;
 import io.netty.channel.kqueue.KQueueServerSocketChannel;
 import io.netty.channel.kqueue.KQueueSocketChannel;
+import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.ServerSocketChannel;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.unix.ServerDomainSocketChannel;
@@ -118,6 +120,11 @@ public class KQueueEventLoopGroupFactory implements EventLoopGroupFactory {
         return KQueueSocketChannel.class;
     }
 
+    @Override
+    public Class<? extends DatagramChannel> datagramChannelClass(@Nullable EventLoopGroupConfiguration configuration) {
+        return KQueueDatagramChannel.class;
+    }
+
     @Override
     public SocketChannel clientSocketChannelInstance(EventLoopGroupConfiguration configuration) {
         return new KQueueSocketChannel();
@@ -248,6 +248,15 @@ public abstract class AbstractNettyWebSocketHandler extends SimpleChannelInbound
         }
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        NettyWebSocketSession session = getSession();
+        if (session != null && ctx.channel().isWritable()) {
+            session.flushCoalescedFrame();
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
     @Override
     public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
         // don't write this close reason, only call the @OnClose handler.
@@ -22,6 +22,7 @@ import io.micronaut.websocket.WebSocketBroadcaster;
 import io.micronaut.websocket.WebSocketSession;
 import io.micronaut.websocket.exceptions.WebSocketSessionException;
 import io.netty.channel.Channel;
+import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.ChannelGroupException;
 import io.netty.handler.codec.http.websocketx.WebSocketFrame;
 import io.netty.util.Attribute;
@@ -62,11 +63,7 @@ public class NettyServerWebSocketBroadcaster implements WebSocketBroadcaster {
     public <T> void broadcastSync(T message, MediaType mediaType, Predicate<WebSocketSession> filter) {
         WebSocketFrame frame = webSocketMessageEncoder.encodeMessage(message, mediaType);
         try {
-            webSocketSessionRepository.getChannelGroup().writeAndFlush(frame, ch -> {
-                Attribute<NettyWebSocketSession> attr = ch.attr(NettyWebSocketSession.WEB_SOCKET_SESSION_KEY);
-                NettyWebSocketSession s = attr.get();
-                return s != null && s.isOpen() && filter.test(s);
-            }).sync();
+            webSocketSessionRepository.getChannelGroup().writeAndFlush(frame, ch -> matches(ch, frame, filter)).sync();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new WebSocketSessionException("Broadcast Interrupted");
@@ -75,14 +72,39 @@ public class NettyServerWebSocketBroadcaster implements WebSocketBroadcaster {
 
     @Override
     public <T> Publisher<T> broadcast(T message, MediaType mediaType, Predicate<WebSocketSession> filter) {
+        return broadcast(webSocketSessionRepository.getChannelGroup(), message, mediaType, filter);
+    }
+
+    /**
+     * Broadcasts a message to the sessions subscribed to the given topic. Only the channels of the topic are
+     * visited and the message is encoded once.
+     *
+     * @param topic The topic
+     * @param message The message
+     * @param mediaType The media type of the message
+     * @param <T> The message type
+     * @return A {@link Publisher} that either emits an error or emits the message once it has been published successfully.
+     */
+    @Override
+    public <T> Publisher<T> broadcastTopic(String topic, T message, MediaType mediaType) {
+        WebSocketTopicIndex topicIndex = webSocketSessionRepository.getTopicIndex();
+        if (topicIndex == null) {
+            return WebSocketBroadcaster.super.broadcastTopic(topic, message, mediaType);
+        }
+        return Flux.defer(() -> {
+            ChannelGroup channels = topicIndex.getChannelGroup(topic);
+            if (channels == null) {
+                return Flux.just(message);
+            }
+            return broadcast(channels, message, mediaType, s -> true);
+        });
+    }
+
+    private <T> Flux<T> broadcast(ChannelGroup channels, T message, MediaType mediaType, Predicate<WebSocketSession> filter) {
         return Flux.create(emitter -> {
             try {
                 WebSocketFrame frame = webSocketMessageEncoder.encodeMessage(message, mediaType);
-                webSocketSessionRepository.getChannelGroup().writeAndFlush(frame, ch -> {
-                    Attribute<NettyWebSocketSession> attr = ch.attr(NettyWebSocketSession.WEB_SOCKET_SESSION_KEY);
-                    NettyWebSocketSession s = attr.get();
-                    return s != null && s.isOpen() && filter.test(s);
-                }).addListener(future -> {
+                channels.writeAndFlush(frame, ch -> matches(ch, frame, filter)).addListener(future -> {
                     if (!future.isSuccess()) {
                         Throwable cause = extractBroadcastFailure(future.cause());
                         if (cause != null) {
@@ -99,6 +121,12 @@ public class NettyServerWebSocketBroadcaster implements WebSocketBroadcaster {
         }, FluxSink.OverflowStrategy.BUFFER);
     }
 
+    private boolean matches(Channel channel, WebSocketFrame frame, Predicate<WebSocketSession> filter) {
+        Attribute<NettyWebSocketSession> attr = channel.attr(NettyWebSocketSession.WEB_SOCKET_SESSION_KEY);
+        NettyWebSocketSession s = attr.get();
+        return s != null && s.isOpen() && filter.test(s) && s.acceptBroadcast(frame);
+    }
+
     /**
      * Attempt to extract a single failure from a failure of {@link io.netty.channel.group.ChannelGroup#write}
      * exception. {@link io.netty.channel.group.ChannelGroup} aggregates exceptions into a {@link ChannelGroupException}
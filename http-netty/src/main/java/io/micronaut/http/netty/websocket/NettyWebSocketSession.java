@@ -45,6 +45,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Implementation of the {@link WebSocketSession} interface for Netty.
@@ -67,6 +68,8 @@ public class NettyWebSocketSession implements WebSocketSession {
     private final MediaTypeCodecRegistry codecRegistry;
     private final MutableConvertibleValues<Object> attributes;
     private final WebSocketMessageEncoder messageEncoder;
+    private final AtomicReference<WebSocketFrame> coalescedFrame = new AtomicReference<>();
+    private volatile WebSocketBackpressurePolicy backpressurePolicy = WebSocketBackpressurePolicy.BUFFER;
 
     /**
      * Creates a new netty web socket session.
@@ -93,6 +96,90 @@ public class NettyWebSocketSession implements WebSocketSession {
         this.codecRegistry = codecRegistry;
         this.messageEncoder = new WebSocketMessageEncoder(this.codecRegistry);
         this.attributes = request.getAttribute("micronaut.SESSION", MutableConvertibleValues.class).orElseGet(MutableConvertibleValuesMap::new);
+        this.channel.closeFuture().addListener(future -> releaseCoalescedFrame());
+    }
+
+    /**
+     * @return The policy applied to broadcast messages while the channel is not writable
+     * @since 4.0.0
+     */
+    public WebSocketBackpressurePolicy getBackpressurePolicy() {
+        return backpressurePolicy;
+    }
+
+    /**
+     * Sets the policy applied to broadcast messages while the outbound buffer of the channel is above its high
+     * write buffer watermark.
+     *
+     * @param backpressurePolicy The policy
+     * @since 4.0.0
+     */
+    public void setBackpressurePolicy(WebSocketBackpressurePolicy backpressurePolicy) {
+        this.backpressurePolicy = backpressurePolicy == null ? WebSocketBackpressurePolicy.BUFFER : backpressurePolicy;
+    }
+
+    /**
+     * Applies the {@link WebSocketBackpressurePolicy} of this session to a broadcast frame.
+     *
+     * @param frame The frame that is about to be broadcast. Not retained unless it is coalesced.
+     * @return True if the frame should be written to the channel now
+     * @since 4.0.0
+     */
+    @Internal
+    public boolean acceptBroadcast(WebSocketFrame frame) {
+        if (!isOpen()) {
+            return false;
+        }
+        WebSocketBackpressurePolicy policy = backpressurePolicy;
+        if (policy == WebSocketBackpressurePolicy.BUFFER || channel.isWritable()) {
+            if (policy == WebSocketBackpressurePolicy.COALESCE_LATEST) {
+                // the frame is newer than any coalesced one
+                releaseCoalescedFrame();
+            }
+            return true;
+        }
+        switch (policy) {
+            case COALESCE_LATEST:
+                WebSocketFrame previous = coalescedFrame.getAndSet(frame.retainedDuplicate());
+                if (previous != null) {
+                    previous.release();
+                }
+                if (channel.isWritable() || !channel.isOpen()) {
+                    // writability changed before the frame was stored
+                    channel.eventLoop().execute(this::flushCoalescedFrame);
+                }
+                return false;
+            case CLOSE:
+                channel.close();
+                return false;
+            case DROP:
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Writes the latest frame coalesced while the channel was not writable, if any.
+     *
+     * @since 4.0.0
+     */
+    @Internal
+    public void flushCoalescedFrame() {
+        if (!channel.isOpen()) {
+            releaseCoalescedFrame();
+        } else if (channel.isWritable()) {
+            WebSocketFrame frame = coalescedFrame.getAndSet(null);
+            if (frame != null) {
+                channel.writeAndFlush(frame);
+            }
+        }
+    }
+
+    private void releaseCoalescedFrame() {
+        WebSocketFrame frame = coalescedFrame.getAndSet(null);
+        if (frame != null) {
+            frame.release();
+        }
     }
 
     @Override
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.netty.websocket;
+
+/**
+ * What to do with a broadcast message for a WebSocket session whose outbound buffer is above the high write
+ * buffer watermark of its channel.
+ *
+ * @since 4.0.0
+ */
+public enum WebSocketBackpressurePolicy {
+
+    /**
+     * Write the message anyway. The outbound buffer of a slow client grows without bounds.
+     */
+    BUFFER,
+
+    /**
+     * Drop the message.
+     */
+    DROP,
+
+    /**
+     * Keep only the latest message, and write it once the outbound buffer drops below the low watermark.
+     */
+    COALESCE_LATEST,
+
+    /**
+     * Close the session.
+     */
+    CLOSE
+}
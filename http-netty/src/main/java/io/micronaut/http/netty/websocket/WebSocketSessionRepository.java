@@ -15,6 +15,7 @@
  */
 package io.micronaut.http.netty.websocket;
 
+import io.micronaut.core.annotation.Nullable;
 import io.netty.channel.Channel;
 import io.netty.channel.group.ChannelGroup;
 
@@ -43,4 +44,15 @@ public interface WebSocketSessionRepository {
      * @return A {@link io.netty.channel.group.ChannelGroup}
      */
     ChannelGroup getChannelGroup();
+
+    /**
+     * Returns the index of the channels by the topics they are subscribed to.
+     *
+     * @return The topic index, or {@code null} if topics are not supported by this repository
+     * @since 4.0.0
+     */
+    @Nullable
+    default WebSocketTopicIndex getTopicIndex() {
+        return null;
+    }
 }
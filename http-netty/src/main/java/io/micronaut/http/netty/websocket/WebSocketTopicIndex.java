@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.netty.websocket;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.GlobalEventExecutor;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indexes the WebSocket channels by the topics they are subscribed to, so that a message for a topic is only
+ * written to its subscribers. The topics of a channel are kept in a channel attribute and the channel is removed
+ * from all its topics once it is closed.
+ *
+ * @since 4.0.0
+ */
+public final class WebSocketTopicIndex {
+
+    private static final AttributeKey<Set<String>> TOPICS_KEY = AttributeKey.newInstance("micronaut.websocket.topics");
+
+    private final Map<String, ChannelGroup> channelsByTopic = new ConcurrentHashMap<>();
+    private final EventExecutor executor;
+
+    /**
+     * Creates an index whose channel groups use the {@link GlobalEventExecutor}.
+     */
+    public WebSocketTopicIndex() {
+        this(GlobalEventExecutor.INSTANCE);
+    }
+
+    /**
+     * @param executor The executor used to notify the futures of the channel groups
+     */
+    public WebSocketTopicIndex(EventExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Subscribes a channel to a topic.
+     *
+     * @param channel The channel
+     * @param topic   The topic
+     * @return True if the channel was not already subscribed to the topic
+     */
+    public boolean subscribe(@NonNull Channel channel, @NonNull String topic) {
+        Set<String> topics = channel.attr(TOPICS_KEY).get();
+        if (topics == null) {
+            Set<String> newTopics = ConcurrentHashMap.newKeySet();
+            topics = channel.attr(TOPICS_KEY).setIfAbsent(newTopics);
+            if (topics == null) {
+                topics = newTopics;
+                channel.closeFuture().addListener((ChannelFutureListener) future -> unsubscribeAll(future.channel()));
+            }
+        }
+        if (!topics.add(topic)) {
+            return false;
+        }
+        channelsByTopic.compute(topic, (name, group) -> {
+            if (group == null) {
+                group = new DefaultChannelGroup(name, executor);
+            }
+            group.add(channel);
+            return group;
+        });
+        if (!channel.isOpen()) {
+            // closed concurrently, the close listener may have run before the channel was added
+            topics.remove(topic);
+            removeFromGroup(channel, topic);
+        }
+        return true;
+    }
+
+    /**
+     * Unsubscribes a channel from a topic.
+     *
+     * @param channel The channel
+     * @param topic   The topic
+     * @return True if the channel was subscribed to the topic
+     */
+    public boolean unsubscribe(@NonNull Channel channel, @NonNull String topic) {
+        Set<String> topics = channel.attr(TOPICS_KEY).get();
+        if (topics == null || !topics.remove(topic)) {
+            return false;
+        }
+        removeFromGroup(channel, topic);
+        return true;
+    }
+
+    /**
+     * Unsubscribes a channel from all its topics.
+     *
+     * @param channel The channel
+     */
+    public void unsubscribeAll(@NonNull Channel channel) {
+        Set<String> topics = channel.attr(TOPICS_KEY).get();
+        if (topics != null) {
+            for (String topic : topics) {
+                if (topics.remove(topic)) {
+                    removeFromGroup(channel, topic);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param channel The channel
+     * @return The topics the channel is subscribed to
+     */
+    @NonNull
+    public Set<String> getTopics(@NonNull Channel channel) {
+        Set<String> topics = channel.attr(TOPICS_KEY).get();
+        return topics == null ? Collections.emptySet() : Collections.unmodifiableSet(topics);
+    }
+
+    /**
+     * @param topic The topic
+     * @return The channels subscribed to the topic, or {@code null} if there are none
+     */
+    @Nullable
+    public ChannelGroup getChannelGroup(@NonNull String topic) {
+        return channelsByTopic.get(topic);
+    }
+
+    private void removeFromGroup(Channel channel, String topic) {
+        channelsByTopic.computeIfPresent(topic, (name, group) -> {
+            group.remove(channel);
+            return group.isEmpty() ? null : group;
+        });
+    }
+}
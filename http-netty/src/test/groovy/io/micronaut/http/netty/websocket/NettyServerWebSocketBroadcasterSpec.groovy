@@ -0,0 +1,176 @@
+package io.micronaut.http.netty.websocket
+
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.MediaType
+import io.micronaut.http.codec.MediaTypeCodecRegistry
+import io.micronaut.websocket.TopicWebSocketSession
+import io.micronaut.websocket.WebSocketBroadcaster
+import io.micronaut.websocket.WebSocketSession
+import io.netty.buffer.ByteBuf
+import io.netty.buffer.Unpooled
+import io.netty.channel.Channel
+import io.netty.channel.WriteBufferWaterMark
+import io.netty.channel.embedded.EmbeddedChannel
+import io.netty.channel.group.ChannelGroup
+import io.netty.channel.group.DefaultChannelGroup
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame
+import io.netty.util.concurrent.GlobalEventExecutor
+import org.reactivestreams.Publisher
+import reactor.core.publisher.Flux
+import spock.lang.Specification
+
+import java.nio.charset.StandardCharsets
+import java.util.function.Predicate
+
+class NettyServerWebSocketBroadcasterSpec extends Specification {
+
+    Repository repository = new Repository()
+    NettyServerWebSocketBroadcaster broadcaster = new NettyServerWebSocketBroadcaster(new WebSocketMessageEncoder(null), repository)
+
+    void "test a topic broadcast is only written to the subscribers of the topic"() {
+        given:
+        EmbeddedChannel first = connect()
+        EmbeddedChannel second = connect()
+        repository.topicIndex.subscribe(first, 'room')
+
+        when:
+        Flux.from(broadcaster.broadcastTopic('room', 'hello', MediaType.TEXT_PLAIN_TYPE)).blockFirst()
+
+        then:
+        text(first.readOutbound()) == 'hello'
+        second.readOutbound() == null
+        repository.topicIndex.getTopics(first) == ['room'] as Set
+        repository.topicIndex.getTopics(second).isEmpty()
+    }
+
+    void "test closed channels are removed from their topics"() {
+        given:
+        EmbeddedChannel channel = connect()
+        repository.topicIndex.subscribe(channel, 'room')
+        repository.topicIndex.subscribe(channel, 'lobby')
+
+        expect:
+        repository.topicIndex.getChannelGroup('room').contains(channel)
+
+        when:
+        channel.close()
+
+        then:
+        repository.topicIndex.getChannelGroup('room') == null
+        repository.topicIndex.getChannelGroup('lobby') == null
+    }
+
+    void "test a broadcast to a topic without subscribers completes"() {
+        expect:
+        Flux.from(broadcaster.broadcastTopic('empty', 'hello', MediaType.TEXT_PLAIN_TYPE)).blockFirst() == 'hello'
+    }
+
+    void "test the drop policy skips sessions that are not writable"() {
+        given:
+        EmbeddedChannel channel = connect()
+        session(channel).backpressurePolicy = WebSocketBackpressurePolicy.DROP
+        fillOutboundBuffer(channel)
+
+        when:
+        Flux.from(broadcaster.broadcast('dropped', MediaType.TEXT_PLAIN_TYPE)).blockFirst()
+        channel.flush()
+
+        then:
+        channel.<ByteBuf>readOutbound().release()
+        channel.readOutbound() == null
+    }
+
+    void "test the coalesce policy writes the latest message once the session is writable"() {
+        given:
+        EmbeddedChannel channel = connect()
+        NettyWebSocketSession session = session(channel)
+        session.backpressurePolicy = WebSocketBackpressurePolicy.COALESCE_LATEST
+        fillOutboundBuffer(channel)
+
+        when:
+        Flux.from(broadcaster.broadcast('first', MediaType.TEXT_PLAIN_TYPE)).blockFirst()
+        Flux.from(broadcaster.broadcast('second', MediaType.TEXT_PLAIN_TYPE)).blockFirst()
+        channel.flush()
+        session.flushCoalescedFrame()
+
+        then:
+        channel.<ByteBuf>readOutbound().release()
+        text(channel.readOutbound()) == 'second'
+        channel.readOutbound() == null
+    }
+
+    void "test the close policy closes sessions that are not writable"() {
+        given:
+        EmbeddedChannel channel = connect()
+        session(channel).backpressurePolicy = WebSocketBackpressurePolicy.CLOSE
+        fillOutboundBuffer(channel)
+
+        when:
+        Flux.from(broadcaster.broadcast('closed', MediaType.TEXT_PLAIN_TYPE)).blockFirst()
+
+        then:
+        !channel.isOpen()
+    }
+
+    void "test the default topic broadcast skips sessions that do not support topics"() {
+        given:
+        WebSocketSession plain = Stub(WebSocketSession)
+        TopicWebSocketSession subscribed = Stub(TopicWebSocketSession) {
+            getTopics() >> (['room'] as Set)
+        }
+        List<WebSocketSession> matched = []
+        WebSocketBroadcaster defaultBroadcaster = new WebSocketBroadcaster() {
+            @Override
+            def <T> Publisher<T> broadcast(T message, MediaType mediaType, Predicate<WebSocketSession> filter) {
+                matched.addAll([plain, subscribed].findAll { filter.test(it) })
+                return Flux.just(message)
+            }
+        }
+
+        when:
+        Flux.from(defaultBroadcaster.broadcastTopic('room', 'hello', MediaType.TEXT_PLAIN_TYPE)).blockFirst()
+
+        then:
+        matched == [subscribed]
+    }
+
+    private EmbeddedChannel connect() {
+        EmbeddedChannel channel = new EmbeddedChannel()
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(8, 16))
+        new NettyWebSocketSession(channel.id().asShortText(), channel, Stub(HttpRequest), Stub(MediaTypeCodecRegistry), '13', false)
+        repository.addChannel(channel)
+        return channel
+    }
+
+    private static NettyWebSocketSession session(Channel channel) {
+        return channel.attr(NettyWebSocketSession.WEB_SOCKET_SESSION_KEY).get()
+    }
+
+    private static void fillOutboundBuffer(EmbeddedChannel channel) {
+        channel.write(Unpooled.wrappedBuffer(new byte[32]))
+        assert !channel.isWritable()
+    }
+
+    private static String text(TextWebSocketFrame frame) {
+        try {
+            return frame.content().toString(StandardCharsets.UTF_8)
+        } finally {
+            frame.release()
+        }
+    }
+
+    static class Repository implements WebSocketSessionRepository {
+        final ChannelGroup channelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE)
+        final WebSocketTopicIndex topicIndex = new WebSocketTopicIndex()
+
+        @Override
+        void addChannel(Channel channel) {
+            channelGroup.add(channel)
+        }
+
+        @Override
+        void removeChannel(Channel channel) {
+            channelGroup.remove(channel)
+        }
+    }
+}
@@ -16,14 +16,19 @@
 package io.micronaut.http.server.netty;
 
 import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration.CompressionConfiguration;
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration.CompressionConfiguration.MediaTypeCompression;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpResponse;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
+import java.util.List;
+
 /**
  * Default implementation of {@link HttpCompressionStrategy}.
  *
@@ -36,6 +41,8 @@ class DefaultHttpCompressionStrategy implements HttpCompressionStrategy {
 
     private final int compressionThreshold;
     private final int compressionLevel;
+    private final CompressionConfiguration compression;
+    private final MediaType[] mediaTypes;
 
     /**
      * @param serverConfiguration The netty server configuration
@@ -44,6 +51,8 @@ class DefaultHttpCompressionStrategy implements HttpCompressionStrategy {
     DefaultHttpCompressionStrategy(NettyHttpServerConfiguration serverConfiguration) {
         this.compressionThreshold = serverConfiguration.getCompressionThreshold();
         this.compressionLevel = serverConfiguration.getCompressionLevel();
+        this.compression = serverConfiguration.getCompression();
+        this.mediaTypes = parseMediaTypes(compression);
     }
 
     /**
@@ -51,8 +60,19 @@ class DefaultHttpCompressionStrategy implements HttpCompressionStrategy {
      * @param compressionLevel The compression level (0-9)
      */
     DefaultHttpCompressionStrategy(int compressionThreshold, int compressionLevel) {
+        this(compressionThreshold, compressionLevel, new CompressionConfiguration());
+    }
+
+    /**
+     * @param compressionThreshold The compression threshold
+     * @param compressionLevel The compression level (0-9)
+     * @param compression The content encoding configuration
+     */
+    DefaultHttpCompressionStrategy(int compressionThreshold, int compressionLevel, CompressionConfiguration compression) {
         this.compressionThreshold = compressionThreshold;
         this.compressionLevel = compressionLevel;
+        this.compression = compression;
+        this.mediaTypes = parseMediaTypes(compression);
     }
 
     @Override
@@ -70,4 +90,57 @@ class DefaultHttpCompressionStrategy implements HttpCompressionStrategy {
     public int getCompressionLevel() {
         return compressionLevel;
     }
+
+    @Override
+    public List<String> getContentEncodings(HttpResponse response) {
+        MediaTypeCompression mediaTypeCompression = findMediaTypeCompression(response);
+        if (mediaTypeCompression != null && mediaTypeCompression.getEncodings() != null) {
+            return mediaTypeCompression.getEncodings();
+        }
+        return compression.getEncodings();
+    }
+
+    @Override
+    public int getCompressionLevel(HttpResponse response, String contentEncoding) {
+        MediaTypeCompression mediaTypeCompression = findMediaTypeCompression(response);
+        if (mediaTypeCompression != null && mediaTypeCompression.getLevel() > -1) {
+            return mediaTypeCompression.getLevel();
+        }
+        switch (contentEncoding) {
+            case CompressionConfiguration.BROTLI:
+                return compression.getBrotliQuality();
+            case CompressionConfiguration.ZSTD:
+                return compression.getZstdLevel();
+            default:
+                return compressionLevel;
+        }
+    }
+
+    @Nullable
+    private MediaTypeCompression findMediaTypeCompression(HttpResponse response) {
+        if (mediaTypes.length == 0) {
+            return null;
+        }
+        String contentType = response.headers().get(HttpHeaderNames.CONTENT_TYPE);
+        if (contentType == null) {
+            return null;
+        }
+        MediaType responseType = MediaType.of(contentType);
+        for (int i = 0; i < mediaTypes.length; i++) {
+            if (mediaTypes[i] != null && mediaTypes[i].matches(responseType)) {
+                return compression.getMediaTypes().get(i);
+            }
+        }
+        return null;
+    }
+
+    private static MediaType[] parseMediaTypes(CompressionConfiguration compression) {
+        List<MediaTypeCompression> mediaTypeCompressions = compression.getMediaTypes();
+        MediaType[] mediaTypes = new MediaType[mediaTypeCompressions.size()];
+        for (int i = 0; i < mediaTypes.length; i++) {
+            String mediaType = mediaTypeCompressions.get(i).getMediaType();
+            mediaTypes[i] = mediaType != null ? MediaType.of(mediaType) : null;
+        }
+        return mediaTypes;
+    }
 }
@@ -72,7 +72,7 @@ class DefaultHttpContentProcessorResolver implements HttpContentProcessorResolve
     @Override
     @NonNull
     public HttpContentProcessor resolve(@NonNull NettyHttpRequest<?> request, @NonNull RouteMatch<?> route) {
-        Argument<?> bodyType = route.getBodyArgument()
+        Optional<Argument<?>> bodyArgument = route.getBodyArgument()
                 /*
                 The getBodyArgument() method returns arguments for functions where it is
                 not possible to dictate whether the argument is supposed to bind the entire
@@ -86,7 +86,12 @@ class DefaultHttpContentProcessorResolver implements HttpContentProcessorResolve
                     } else {
                         return false;
                     }
-                })
+                });
+        if (bodyArgument.isPresent() && isOnlyBodyConsumer(route, bodyArgument.get())) {
+            // nothing else reads the body, so the processor may produce the argument type directly
+            return resolve(request, bodyArgument.get()).resultType(bodyArgument.get());
+        }
+        Argument<?> bodyType = bodyArgument
                 .orElseGet(() -> {
                     if (route instanceof ExecutionHandle) {
                         for (Argument<?> argument: ((ExecutionHandle) route).getArguments()) {
@@ -100,6 +105,26 @@ class DefaultHttpContentProcessorResolver implements HttpContentProcessorResolve
         return resolve(request, bodyType);
     }
 
+    /**
+     * @param route        The route
+     * @param bodyArgument The argument bound to the whole body
+     * @return Whether all other arguments are already bound and none of them exposes the request body
+     */
+    private static boolean isOnlyBodyConsumer(RouteMatch<?> route, Argument<?> bodyArgument) {
+        if (!(route instanceof ExecutionHandle)) {
+            return false;
+        }
+        for (Argument<?> argument : ((ExecutionHandle<?, ?>) route).getArguments()) {
+            if (argument.getName().equals(bodyArgument.getName())) {
+                continue;
+            }
+            if (HttpRequest.class.isAssignableFrom(argument.getType()) || !route.isSatisfied(argument.getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     @NonNull
     public HttpContentProcessor resolve(@NonNull NettyHttpRequest<?> request, @NonNull Argument<?> bodyType) {
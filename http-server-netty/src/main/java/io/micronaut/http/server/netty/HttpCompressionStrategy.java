@@ -15,8 +15,12 @@
  */
 package io.micronaut.http.server.netty;
 
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
 import io.netty.handler.codec.http.HttpResponse;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Determines if a given http message should be compressed. It should
  * be assumed the client allows for compressed responses.
@@ -38,4 +42,23 @@ public interface HttpCompressionStrategy {
     default int getCompressionLevel() {
         return 6;
     }
+
+    /**
+     * @param response The HTTP response
+     * @return The content encodings the response may be compressed with, in order of preference
+     * @since 4.0.0
+     */
+    default List<String> getContentEncodings(HttpResponse response) {
+        return Arrays.asList(NettyHttpServerConfiguration.CompressionConfiguration.GZIP, NettyHttpServerConfiguration.CompressionConfiguration.DEFLATE);
+    }
+
+    /**
+     * @param response        The HTTP response
+     * @param contentEncoding The negotiated content encoding
+     * @return The compression level for the given encoding
+     * @since 4.0.0
+     */
+    default int getCompressionLevel(HttpResponse response, String contentEncoding) {
+        return getCompressionLevel();
+    }
 }
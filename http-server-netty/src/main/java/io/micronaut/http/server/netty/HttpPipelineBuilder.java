@@ -24,6 +24,7 @@ import io.micronaut.http.netty.stream.HttpStreamsServerHandler;
 import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
 import io.micronaut.http.server.netty.decoders.HttpRequestDecoder;
 import io.micronaut.http.server.netty.encoders.HttpResponseEncoder;
+import io.micronaut.http.server.netty.handler.accesslog.AccessLogSink;
 import io.micronaut.http.server.netty.handler.accesslog.HttpAccessLogHandler;
 import io.micronaut.http.server.netty.ssl.HttpRequestCertificateHandler;
 import io.micronaut.http.server.netty.websocket.NettyServerWebSocketUpgradeHandler;
@@ -124,7 +125,12 @@ final class HttpPipelineBuilder {
 
         NettyHttpServerConfiguration.AccessLogger accessLogger = server.getServerConfiguration().getAccessLogger();
         if (accessLogger != null && accessLogger.isEnabled()) {
-            accessLogHandler = new HttpAccessLogHandler(accessLogger.getLoggerName(), accessLogger.getLogFormat(), NettyHttpServer.inclusionPredicate(accessLogger));
+            Optional<AccessLogSink> accessLogSink = embeddedServices.getApplicationContext().findBean(AccessLogSink.class);
+            if (accessLogSink.isPresent()) {
+                accessLogHandler = new HttpAccessLogHandler(accessLogSink.get(), accessLogger.getLogFormat(), NettyHttpServer.inclusionPredicate(accessLogger));
+            } else {
+                accessLogHandler = new HttpAccessLogHandler(accessLogger.getLoggerName(), accessLogger.getLogFormat(), NettyHttpServer.inclusionPredicate(accessLogger));
+            }
         } else {
             accessLogHandler = null;
         }
@@ -34,6 +34,7 @@ import io.micronaut.http.netty.channel.DefaultEventLoopGroupConfiguration;
 import io.micronaut.http.netty.channel.EventLoopGroupConfiguration;
 import io.micronaut.http.netty.channel.converters.ChannelOptionFactory;
 import io.micronaut.http.netty.websocket.WebSocketSessionRepository;
+import io.micronaut.http.netty.websocket.WebSocketTopicIndex;
 import io.micronaut.http.server.HttpServerConfiguration;
 import io.micronaut.http.server.exceptions.ServerStartupException;
 import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
@@ -120,6 +121,7 @@ public class NettyHttpServer implements NettyEmbeddedServer {
     private final ApplicationContext applicationContext;
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final ChannelGroup webSocketSessions = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    private final WebSocketTopicIndex webSocketTopicIndex = new WebSocketTopicIndex();
     private final HttpHostResolver hostResolver;
     private boolean shutdownWorker = false;
     private boolean shutdownParent = false;
@@ -665,6 +667,11 @@ public class NettyHttpServer implements NettyEmbeddedServer {
         return this.webSocketSessions;
     }
 
+    @Override
+    public WebSocketTopicIndex getTopicIndex() {
+        return this.webSocketTopicIndex;
+    }
+
     /**
      * @return {@link io.micronaut.http.server.netty.NettyHttpServer} which implements {@link WebSocketSessionRepository}
      */
@@ -21,6 +21,7 @@ import io.micronaut.core.type.Argument;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.bind.RequestBinderRegistry;
 import io.micronaut.http.server.binding.RequestArgumentSatisfier;
+import io.micronaut.web.router.RouteMatch;
 import jakarta.inject.Singleton;
 
 import java.util.Optional;
@@ -48,6 +49,15 @@ public class NettyRequestArgumentSatisfier extends RequestArgumentSatisfier {
         super(requestBinderRegistry);
     }
 
+    @Override
+    public RouteMatch<?> fulfillArgumentRequirements(RouteMatch<?> route, HttpRequest<?> request, boolean satisfyOptionals) {
+        if (request instanceof NettyHttpRequest && !route.getRequiredArguments().isEmpty()) {
+            NettyHttpRequest nettyHttpRequest = (NettyHttpRequest) request;
+            nettyHttpRequest.setBodyRequired(true);
+        }
+        return super.fulfillArgumentRequirements(route, request, satisfyOptionals);
+    }
+
     @Override
     protected Optional<Object> getValueForArgument(Argument argument, HttpRequest<?> request, boolean satisfyOptionals) {
         if (request instanceof NettyHttpRequest) {
@@ -33,6 +33,7 @@ import io.micronaut.http.server.multipart.MultipartBody;
 import io.micronaut.http.server.netty.multipart.NettyStreamingFileUpload;
 import io.micronaut.http.server.netty.types.files.NettyStreamedFileCustomizableResponseType;
 import io.micronaut.http.server.netty.types.files.NettySystemFileCustomizableResponseType;
+import io.micronaut.http.server.netty.types.files.StaticResourceCache;
 import io.micronaut.http.server.types.files.FileCustomizableResponseType;
 import io.micronaut.web.router.MethodBasedRouteMatch;
 import io.micronaut.web.router.RouteMatch;
@@ -108,10 +109,24 @@ final class NettyRequestLifecycle extends RequestLifecycle {
     @Nullable
     @Override
     protected FileCustomizableResponseType findFile() {
-        Optional<URL> optionalUrl = rib.staticResourceResolver.resolve(request().getUri().getPath());
+        String path = request().getUri().getPath();
+        StaticResourceCache cache = rib.staticResourceCache;
+        HttpMethod method = request().getMethod();
+        if (cache != null && (method == HttpMethod.GET || method == HttpMethod.HEAD)) {
+            FileCustomizableResponseType cached = cache.get(path);
+            if (cached != null) {
+                return cached;
+            }
+        } else {
+            cache = null;
+        }
+        Optional<URL> optionalUrl = rib.staticResourceResolver.resolve(path);
         if (optionalUrl.isPresent()) {
             try {
                 URL url = optionalUrl.get();
+                if (cache != null) {
+                    cache.load(path, url, rib.getIoExecutor());
+                }
                 if (url.getProtocol().equals("file")) {
                     File file = Paths.get(url.toURI()).toFile();
                     if (file.exists() && !file.isDirectory() && file.canRead()) {
@@ -48,6 +48,7 @@ import io.micronaut.http.server.exceptions.InternalServerException;
 import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
 import io.micronaut.http.server.netty.types.NettyCustomizableResponseTypeHandler;
 import io.micronaut.http.server.netty.types.NettyCustomizableResponseTypeHandlerRegistry;
+import io.micronaut.http.server.netty.types.files.StaticResourceCache;
 import io.micronaut.runtime.http.codec.TextPlainCodec;
 import io.micronaut.web.router.RouteInfo;
 import io.micronaut.web.router.resource.StaticResourceResolver;
@@ -107,6 +108,8 @@ final class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.microna
     private static final Pattern IGNORABLE_ERROR_MESSAGE = Pattern.compile(
         "^.*(?:connection (?:reset|closed|abort|broken)|broken pipe).*$", Pattern.CASE_INSENSITIVE);
     final StaticResourceResolver staticResourceResolver;
+    @Nullable
+    final StaticResourceCache staticResourceCache;
     final NettyHttpServerConfiguration serverConfiguration;
     final HttpContentProcessorResolver httpContentProcessorResolver;
     final RequestArgumentSatisfier requestArgumentSatisfier;
@@ -139,6 +142,7 @@ final class RoutingInBoundHandler extends SimpleChannelInboundHandler<io.microna
         this.mediaTypeCodecRegistry = embeddedServerContext.getMediaTypeCodecRegistry();
         this.customizableResponseTypeHandlerRegistry = customizableResponseTypeHandlerRegistry;
         this.staticResourceResolver = embeddedServerContext.getStaticResourceResolver();
+        this.staticResourceCache = embeddedServerContext.getApplicationContext().findBean(StaticResourceCache.class).orElse(null);
         this.ioExecutorSupplier = ioExecutor;
         this.requestArgumentSatisfier = embeddedServerContext.getRequestArgumentSatisfier();
         this.serverConfiguration = serverConfiguration;
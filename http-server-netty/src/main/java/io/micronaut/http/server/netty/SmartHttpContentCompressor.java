@@ -15,17 +15,36 @@
  */
 package io.micronaut.http.server.netty;
 
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import io.micronaut.core.annotation.AnnotationValue;
 import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpAttributes;
+import io.micronaut.http.annotation.Compression;
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration.CompressionConfiguration;
+import io.micronaut.web.router.RouteInfo;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.BrotliEncoder;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import io.netty.handler.codec.compression.Zstd;
+import io.netty.handler.codec.compression.ZstdEncoder;
 import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpObject;
 import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
 
 import java.util.List;
 
 /**
  * An extension of {@link HttpContentCompressor} that skips encoding if the content type is not compressible or if
- * the content is too small.
+ * the content is too small. The content encoding is negotiated from the quality values of the Accept-Encoding header
+ * and the encodings of the {@link HttpCompressionStrategy}, which may be overridden per route with {@link Compression}.
+ * Brotli and Zstandard are supported when their native libraries are available.
  *
  * @author James Kleeh
  * @since 1.0
@@ -33,8 +52,19 @@ import java.util.List;
 @Internal
 public class SmartHttpContentCompressor extends HttpContentCompressor {
 
+    private static final int WINDOW_BITS = 15;
+    private static final int MEM_LEVEL = 8;
+    private static final int MAX_ZLIB_LEVEL = 9;
+    private static final int MAX_BROTLI_QUALITY = 11;
+    private static final int MAX_ZSTD_LEVEL = 22;
+    private static final String IDENTITY = "identity";
+    private static final String ANY = "*";
+
     private final HttpCompressionStrategy httpCompressionStrategy;
+    private ChannelHandlerContext ctx;
     private boolean skipEncoding = false;
+    @Nullable
+    private AnnotationValue<Compression> routeCompression;
 
     /**
      * Creates a SmartHttpContentCompressor with the given compression logic.
@@ -53,23 +83,164 @@ public class SmartHttpContentCompressor extends HttpContentCompressor {
      * @return True if the content should not be compressed
      */
     public boolean shouldSkip(HttpResponse response) {
+        // the Content-Range of partial content refers to the unencoded representation
+        if (response.status().code() == HttpResponseStatus.PARTIAL_CONTENT.code()) {
+            return true;
+        }
         return !httpCompressionStrategy.shouldCompress(response);
     }
 
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        this.ctx = ctx;
+        super.handlerAdded(ctx);
+    }
+
     @Override
     protected void encode(ChannelHandlerContext ctx, HttpObject msg, List<Object> out) throws Exception {
         if (msg instanceof HttpResponse) {
             HttpResponse res = (HttpResponse) msg;
-            skipEncoding = shouldSkip(res);
+            routeCompression = findRouteCompression(ctx);
+            skipEncoding = (routeCompression != null && !routeCompression.booleanValue("enabled").orElse(true)) || shouldSkip(res);
         }
         super.encode(ctx, msg, out);
     }
 
     @Override
     protected Result beginEncode(HttpResponse headers, String acceptEncoding) throws Exception {
-        if (skipEncoding) {
+        if (skipEncoding || headers.headers().contains(HttpHeaderNames.CONTENT_ENCODING)) {
+            // already encoded, or the identity encoding was chosen explicitly
+            return null;
+        }
+        List<String> encodings = null;
+        int level = -1;
+        if (routeCompression != null) {
+            String[] routeEncodings = routeCompression.stringValues();
+            if (routeEncodings.length > 0) {
+                encodings = List.of(routeEncodings);
+            }
+            level = routeCompression.intValue("level").orElse(-1);
+        }
+        if (encodings == null) {
+            encodings = httpCompressionStrategy.getContentEncodings(headers);
+        }
+        String encoding = negotiate(acceptEncoding, encodings);
+        if (encoding == null) {
+            return null;
+        }
+        if (level < 0) {
+            level = httpCompressionStrategy.getCompressionLevel(headers, encoding);
+        }
+        ChannelHandler encoder = newEncoder(encoding, level);
+        if (encoder == null) {
+            return null;
+        }
+        return new Result(encoding, new EmbeddedChannel(
+            ctx.channel().id(), ctx.channel().metadata().hasDisconnect(), ctx.channel().config(), encoder));
+    }
+
+    /**
+     * Selects the encoding with the highest quality value in the Accept-Encoding header. Ties are broken by the
+     * order of the server encodings, and encodings whose native library is unavailable are ignored.
+     *
+     * @param acceptEncoding The Accept-Encoding header
+     * @param encodings      The server encodings in order of preference
+     * @return The negotiated encoding or {@code null} if the response should not be encoded
+     */
+    @Nullable
+    static String negotiate(String acceptEncoding, List<String> encodings) {
+        if (acceptEncoding == null || encodings.isEmpty() || IDENTITY.equals(acceptEncoding)) {
+            return null;
+        }
+        String[] tokens = acceptEncoding.split(",");
+        String[] names = new String[tokens.length];
+        float[] qualities = new float[tokens.length];
+        float wildcard = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i];
+            int semicolon = token.indexOf(';');
+            names[i] = (semicolon < 0 ? token : token.substring(0, semicolon)).trim();
+            qualities[i] = semicolon < 0 ? 1 : parseQuality(token.substring(semicolon + 1));
+            if (ANY.equals(names[i])) {
+                wildcard = qualities[i];
+            }
+        }
+        String selected = null;
+        float selectedQuality = 0;
+        for (String encoding : encodings) {
+            if (!isAvailable(encoding)) {
+                continue;
+            }
+            float quality = wildcard;
+            for (int i = 0; i < names.length; i++) {
+                if (encoding.equalsIgnoreCase(names[i])) {
+                    quality = qualities[i];
+                    break;
+                }
+            }
+            if (quality > selectedQuality) {
+                selected = encoding;
+                selectedQuality = quality;
+            }
+        }
+        return selected;
+    }
+
+    private static float parseQuality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(trimmed.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static boolean isAvailable(String encoding) {
+        switch (encoding) {
+            case CompressionConfiguration.GZIP:
+            case CompressionConfiguration.DEFLATE:
+                return true;
+            case CompressionConfiguration.BROTLI:
+                return Brotli.isAvailable();
+            case CompressionConfiguration.ZSTD:
+                return Zstd.isAvailable();
+            default:
+                return false;
+        }
+    }
+
+    @Nullable
+    private static ChannelHandler newEncoder(String encoding, int level) {
+        switch (encoding) {
+            case CompressionConfiguration.GZIP:
+                return ZlibCodecFactory.newZlibEncoder(ZlibWrapper.GZIP, clamp(level, 0, MAX_ZLIB_LEVEL), WINDOW_BITS, MEM_LEVEL);
+            case CompressionConfiguration.DEFLATE:
+                return ZlibCodecFactory.newZlibEncoder(ZlibWrapper.ZLIB, clamp(level, 0, MAX_ZLIB_LEVEL), WINDOW_BITS, MEM_LEVEL);
+            case CompressionConfiguration.BROTLI:
+                return new BrotliEncoder(new Encoder.Parameters().setQuality(clamp(level, 0, MAX_BROTLI_QUALITY)));
+            case CompressionConfiguration.ZSTD:
+                return new ZstdEncoder(clamp(level, 1, MAX_ZSTD_LEVEL));
+            default:
+                return null;
+        }
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    @Nullable
+    private static AnnotationValue<Compression> findRouteCompression(ChannelHandlerContext ctx) {
+        NettyHttpRequest<?> request = ctx.channel().attr(ServerAttributeKeys.REQUEST_KEY).get();
+        if (request == null) {
             return null;
         }
-        return super.beginEncode(headers, acceptEncoding);
+        RouteInfo<?> routeInfo = request.getAttribute(HttpAttributes.ROUTE_INFO, RouteInfo.class).orElse(null);
+        return routeInfo != null ? routeInfo.getAnnotationMetadata().getAnnotation(Compression.class) : null;
     }
 }
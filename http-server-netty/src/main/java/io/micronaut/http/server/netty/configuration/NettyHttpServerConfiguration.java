@@ -27,6 +27,7 @@ import io.micronaut.core.convert.format.ReadableBytes;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.http.netty.channel.ChannelPipelineListener;
 import io.micronaut.http.netty.channel.EventLoopGroupConfiguration;
+import io.micronaut.http.netty.websocket.WebSocketBackpressurePolicy;
 import io.micronaut.http.server.HttpServerConfiguration;
 import io.micronaut.runtime.ApplicationConfiguration;
 import io.netty.channel.ChannelOption;
@@ -38,6 +39,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -137,6 +139,8 @@ public class NettyHttpServerConfiguration extends HttpServerConfiguration {
     private String fallbackProtocol = ApplicationProtocolNames.HTTP_1_1;
     private AccessLogger accessLogger;
     private Http2Settings http2Settings = new Http2Settings();
+    private CompressionConfiguration compression = new CompressionConfiguration();
+    private WebSocketConfiguration webSocket = new WebSocketConfiguration();
     private boolean keepAliveOnServerError = DEFAULT_KEEP_ALIVE_ON_SERVER_ERROR;
     private String pcapLoggingPathPattern = null;
     private List<NettyListenerConfiguration> listeners = null;
@@ -722,6 +726,7 @@ public class NettyHttpServerConfiguration extends HttpServerConfiguration {
         private String loggerName;
         private String logFormat;
         private List<String> exclusions;
+        private AccessLogFileConfiguration file = new AccessLogFileConfiguration();
 
         /**
          * Returns whether the access logger is enabled.
@@ -788,6 +793,435 @@ public class NettyHttpServerConfiguration extends HttpServerConfiguration {
         public void setExclusions(List<String> exclusions) {
             this.exclusions = exclusions;
         }
+
+        /**
+         * @return The configuration of the asynchronous access log file writer
+         * @since 4.0.0
+         */
+        public AccessLogFileConfiguration getFile() {
+            return file;
+        }
+
+        /**
+         * Sets the configuration of the asynchronous access log file writer.
+         *
+         * @param file The file configuration
+         * @since 4.0.0
+         */
+        public void setFile(AccessLogFileConfiguration file) {
+            this.file = file;
+        }
+
+        /**
+         * Configuration for writing access logs asynchronously to a rotating file, see
+         * {@link io.micronaut.http.server.netty.handler.accesslog.AsyncFileAccessLogSink}.
+         *
+         * @since 4.0.0
+         */
+        @ConfigurationProperties(AccessLogFileConfiguration.NAME)
+        public static class AccessLogFileConfiguration {
+
+            /**
+             * The configuration name.
+             */
+            public static final String NAME = "file";
+
+            /**
+             * The prefix of the configuration.
+             */
+            public static final String PREFIX = HttpServerConfiguration.PREFIX + ".netty.access-logger." + NAME;
+
+            /**
+             * The default number of lines that can be buffered.
+             */
+            @SuppressWarnings("WeakerAccess")
+            public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+            /**
+             * The default maximum size of the file in bytes.
+             */
+            @SuppressWarnings("WeakerAccess")
+            public static final long DEFAULT_MAX_FILE_SIZE = 10L * 1024 * 1024;
+
+            /**
+             * The default number of rotated files to keep.
+             */
+            @SuppressWarnings("WeakerAccess")
+            public static final int DEFAULT_MAX_FILES = 5;
+
+            private String path;
+            private int bufferSize = DEFAULT_BUFFER_SIZE;
+            private long maxFileSize = DEFAULT_MAX_FILE_SIZE;
+            private int maxFiles = DEFAULT_MAX_FILES;
+
+            /**
+             * @return The path of the access log file
+             */
+            public String getPath() {
+                return path;
+            }
+
+            /**
+             * The path of the access log file. When set, access logs are written to this file by a dedicated thread
+             * instead of being logged through the configured logger.
+             *
+             * @param path The path of the file
+             */
+            public void setPath(String path) {
+                this.path = path;
+            }
+
+            /**
+             * @return The number of lines that can be buffered
+             */
+            public int getBufferSize() {
+                return bufferSize;
+            }
+
+            /**
+             * The number of lines that can be waiting to be written. Lines logged while the buffer is full are dropped
+             * and reported. Default value ({@value #DEFAULT_BUFFER_SIZE}).
+             *
+             * @param bufferSize The number of lines
+             */
+            public void setBufferSize(int bufferSize) {
+                this.bufferSize = bufferSize;
+            }
+
+            /**
+             * @return The maximum size of the file in bytes
+             */
+            public long getMaxFileSize() {
+                return maxFileSize;
+            }
+
+            /**
+             * The size in bytes after which the file is rotated. A value of zero or less disables rotation.
+             * Default value ({@value #DEFAULT_MAX_FILE_SIZE}).
+             *
+             * @param maxFileSize The maximum size of the file
+             */
+            public void setMaxFileSize(@ReadableBytes long maxFileSize) {
+                this.maxFileSize = maxFileSize;
+            }
+
+            /**
+             * @return The number of rotated files to keep
+             */
+            public int getMaxFiles() {
+                return maxFiles;
+            }
+
+            /**
+             * The number of rotated files to keep, named after the file with a numeric suffix.
+             * Default value ({@value #DEFAULT_MAX_FILES}).
+             *
+             * @param maxFiles The number of rotated files
+             */
+            public void setMaxFiles(int maxFiles) {
+                this.maxFiles = maxFiles;
+            }
+        }
+    }
+
+    /**
+     * Returns the compression configuration.
+     *
+     * @return The compression configuration
+     * @since 4.0.0
+     */
+    public CompressionConfiguration getCompression() {
+        return compression;
+    }
+
+    /**
+     * Sets the compression configuration.
+     *
+     * @param compression The compression configuration
+     * @since 4.0.0
+     */
+    public void setCompression(CompressionConfiguration compression) {
+        if (compression != null) {
+            this.compression = compression;
+        }
+    }
+
+    /**
+     * Returns the WebSocket configuration.
+     *
+     * @return The WebSocket configuration
+     * @since 4.0.0
+     */
+    public WebSocketConfiguration getWebSocket() {
+        return webSocket;
+    }
+
+    /**
+     * Sets the WebSocket configuration.
+     *
+     * @param webSocket The WebSocket configuration
+     * @since 4.0.0
+     */
+    public void setWebSocket(WebSocketConfiguration webSocket) {
+        if (webSocket != null) {
+            this.webSocket = webSocket;
+        }
+    }
+
+    /**
+     * Configuration for the outbound buffers of WebSocket sessions.
+     *
+     * @since 4.0.0
+     */
+    @ConfigurationProperties("websocket")
+    public static class WebSocketConfiguration {
+
+        /**
+         * The default backpressure policy.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final WebSocketBackpressurePolicy DEFAULT_BACKPRESSURE_POLICY = WebSocketBackpressurePolicy.BUFFER;
+
+        private WebSocketBackpressurePolicy backpressurePolicy = DEFAULT_BACKPRESSURE_POLICY;
+        private Integer writeBufferLowWaterMark;
+        private Integer writeBufferHighWaterMark;
+
+        /**
+         * @return The policy applied to broadcast messages for sessions that cannot keep up
+         */
+        public WebSocketBackpressurePolicy getBackpressurePolicy() {
+            return backpressurePolicy;
+        }
+
+        /**
+         * The policy applied to broadcast messages for a session whose outbound buffer is above the high write buffer
+         * watermark: buffer, drop, coalesce-latest or close. Default value (BUFFER).
+         *
+         * @param backpressurePolicy The policy
+         */
+        public void setBackpressurePolicy(WebSocketBackpressurePolicy backpressurePolicy) {
+            if (backpressurePolicy != null) {
+                this.backpressurePolicy = backpressurePolicy;
+            }
+        }
+
+        /**
+         * @return The low write buffer watermark of WebSocket channels in bytes, or {@code null} to keep the channel default
+         */
+        public Integer getWriteBufferLowWaterMark() {
+            return writeBufferLowWaterMark;
+        }
+
+        /**
+         * The number of buffered outbound bytes below which a WebSocket channel becomes writable again.
+         *
+         * @param writeBufferLowWaterMark The low watermark
+         */
+        public void setWriteBufferLowWaterMark(@ReadableBytes Integer writeBufferLowWaterMark) {
+            this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+        }
+
+        /**
+         * @return The high write buffer watermark of WebSocket channels in bytes, or {@code null} to keep the channel default
+         */
+        public Integer getWriteBufferHighWaterMark() {
+            return writeBufferHighWaterMark;
+        }
+
+        /**
+         * The number of buffered outbound bytes above which a WebSocket channel is no longer writable and the
+         * backpressure policy applies.
+         *
+         * @param writeBufferHighWaterMark The high watermark
+         */
+        public void setWriteBufferHighWaterMark(@ReadableBytes Integer writeBufferHighWaterMark) {
+            this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+        }
+    }
+
+    /**
+     * Configuration for the content encodings used to compress responses. The compression threshold and the level of
+     * gzip and deflate are configured with {@link #setCompressionThreshold(int)} and {@link #setCompressionLevel(int)}.
+     *
+     * @since 4.0.0
+     */
+    @ConfigurationProperties("compression")
+    public static class CompressionConfiguration {
+
+        /**
+         * The gzip content encoding.
+         */
+        public static final String GZIP = "gzip";
+
+        /**
+         * The deflate content encoding.
+         */
+        public static final String DEFLATE = "deflate";
+
+        /**
+         * The Brotli content encoding. Requires Brotli4j on the classpath.
+         */
+        public static final String BROTLI = "br";
+
+        /**
+         * The Zstandard content encoding. Requires zstd-jni on the classpath.
+         */
+        public static final String ZSTD = "zstd";
+
+        /**
+         * The default content encodings in order of preference.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final List<String> DEFAULT_ENCODINGS = Collections.unmodifiableList(Arrays.asList(BROTLI, ZSTD, GZIP, DEFLATE));
+
+        /**
+         * The default Brotli quality.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_BROTLI_QUALITY = 4;
+
+        /**
+         * The default Zstandard level.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_ZSTD_LEVEL = 3;
+
+        private List<String> encodings = DEFAULT_ENCODINGS;
+        private int brotliQuality = DEFAULT_BROTLI_QUALITY;
+        private int zstdLevel = DEFAULT_ZSTD_LEVEL;
+        private List<MediaTypeCompression> mediaTypes = Collections.emptyList();
+
+        /**
+         * @return The content encodings in order of preference
+         */
+        public List<String> getEncodings() {
+            return encodings;
+        }
+
+        /**
+         * The content encodings the server compresses responses with, in order of preference. The preference breaks
+         * ties between encodings the client accepts with the same quality value. Brotli and Zstandard are only used
+         * if their native libraries are available. Default value (br, zstd, gzip, deflate).
+         *
+         * @param encodings The content encodings
+         */
+        public void setEncodings(List<String> encodings) {
+            if (encodings != null) {
+                this.encodings = encodings;
+            }
+        }
+
+        /**
+         * @return The Brotli quality
+         */
+        public int getBrotliQuality() {
+            return brotliQuality;
+        }
+
+        /**
+         * The Brotli quality (0-11). Default value ({@value #DEFAULT_BROTLI_QUALITY}).
+         *
+         * @param brotliQuality The Brotli quality
+         */
+        public void setBrotliQuality(int brotliQuality) {
+            this.brotliQuality = brotliQuality;
+        }
+
+        /**
+         * @return The Zstandard level
+         */
+        public int getZstdLevel() {
+            return zstdLevel;
+        }
+
+        /**
+         * The Zstandard level (1-22). Default value ({@value #DEFAULT_ZSTD_LEVEL}).
+         *
+         * @param zstdLevel The Zstandard level
+         */
+        public void setZstdLevel(int zstdLevel) {
+            this.zstdLevel = zstdLevel;
+        }
+
+        /**
+         * @return The media type specific compression settings
+         */
+        public List<MediaTypeCompression> getMediaTypes() {
+            return mediaTypes;
+        }
+
+        /**
+         * Sets the media type specific compression settings.
+         *
+         * @param mediaTypes The media type specific compression settings
+         */
+        public void setMediaTypes(List<MediaTypeCompression> mediaTypes) {
+            if (mediaTypes != null) {
+                this.mediaTypes = mediaTypes;
+            }
+        }
+
+        /**
+         * Compression settings for the responses of a media type.
+         */
+        @EachProperty("media-types")
+        public static class MediaTypeCompression {
+
+            private String mediaType;
+            @Nullable
+            private List<String> encodings;
+            private int level = -1;
+
+            /**
+             * @return The media type, or a wildcard such as {@code text/*}
+             */
+            public String getMediaType() {
+                return mediaType;
+            }
+
+            /**
+             * The media type the settings apply to. A wildcard subtype such as {@code text/*} matches every
+             * subtype.
+             *
+             * @param mediaType The media type
+             */
+            public void setMediaType(String mediaType) {
+                this.mediaType = mediaType;
+            }
+
+            /**
+             * @return The content encodings in order of preference, or {@code null} to use the server encodings
+             */
+            @Nullable
+            public List<String> getEncodings() {
+                return encodings;
+            }
+
+            /**
+             * The content encodings responses of the media type are compressed with, in order of preference.
+             *
+             * @param encodings The content encodings
+             */
+            public void setEncodings(@Nullable List<String> encodings) {
+                this.encodings = encodings;
+            }
+
+            /**
+             * @return The compression level of any encoding, or {@code -1} to use the level configured for the encoding
+             */
+            public int getLevel() {
+                return level;
+            }
+
+            /**
+             * The compression level used for responses of the media type, whatever the negotiated encoding.
+             *
+             * @param level The compression level
+             */
+            public void setLevel(int level) {
+                this.level = level;
+            }
+        }
     }
 
     /**
@@ -838,8 +1272,23 @@ public class NettyHttpServerConfiguration extends HttpServerConfiguration {
         @SuppressWarnings("WeakerAccess")
         public static final int DEFAULT_CACHESECONDS = 60;
 
+        /**
+         * The default value for whether range requests are supported.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final boolean DEFAULT_ACCEPT_RANGES = true;
+
+        /**
+         * The default maximum number of ranges of a range request.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public static final int DEFAULT_MAX_RANGES = 16;
+
         private int cacheSeconds = DEFAULT_CACHESECONDS;
         private CacheControlConfiguration cacheControl = new CacheControlConfiguration();
+        private boolean acceptRanges = DEFAULT_ACCEPT_RANGES;
+        private int maxRanges = DEFAULT_MAX_RANGES;
+        private StaticResourceCacheConfiguration staticResourceCache = new StaticResourceCacheConfiguration();
 
         /**
          * Default constructor.
@@ -898,6 +1347,61 @@ public class NettyHttpServerConfiguration extends HttpServerConfiguration {
             this.cacheControl = cacheControl;
         }
 
+        /**
+         * @return True if requests with a Range header are answered with partial content
+         * @since 4.0.0
+         */
+        public boolean isAcceptRanges() {
+            return acceptRanges;
+        }
+
+        /**
+         * Whether requests with a Range header are answered with partial content. Default value ({@value #DEFAULT_ACCEPT_RANGES}).
+         *
+         * @param acceptRanges True if range requests are supported
+         * @since 4.0.0
+         */
+        public void setAcceptRanges(boolean acceptRanges) {
+            this.acceptRanges = acceptRanges;
+        }
+
+        /**
+         * @return The maximum number of ranges of a range request
+         * @since 4.0.0
+         */
+        public int getMaxRanges() {
+            return maxRanges;
+        }
+
+        /**
+         * The maximum number of ranges of a range request. Requests with more ranges are answered with the complete
+         * file. Default value ({@value #DEFAULT_MAX_RANGES}).
+         *
+         * @param maxRanges The maximum number of ranges
+         * @since 4.0.0
+         */
+        public void setMaxRanges(int maxRanges) {
+            this.maxRanges = maxRanges;
+        }
+
+        /**
+         * @return The static resource cache configuration
+         * @since 4.0.0
+         */
+        public StaticResourceCacheConfiguration getStaticResourceCache() {
+            return staticResourceCache;
+        }
+
+        /**
+         * Sets the static resource cache configuration.
+         *
+         * @param staticResourceCache The static resource cache configuration
+         * @since 4.0.0
+         */
+        public void setStaticResourceCache(StaticResourceCacheConfiguration staticResourceCache) {
+            this.staticResourceCache = staticResourceCache;
+        }
+
         /**
          * Configuration for the Cache-Control header.
          */
@@ -925,6 +1429,124 @@ public class NettyHttpServerConfiguration extends HttpServerConfiguration {
                 return publicCache;
             }
         }
+
+        /**
+         * Configuration for the in-memory cache of static resources served by the
+         * {@link io.micronaut.http.server.netty.types.files.StaticResourceCache}.
+         *
+         * @since 4.0.0
+         */
+        @ConfigurationProperties(StaticResourceCacheConfiguration.NAME)
+        public static class StaticResourceCacheConfiguration {
+
+            /**
+             * The configuration name.
+             */
+            public static final String NAME = "static-resource-cache";
+
+            /**
+             * The prefix of the configuration.
+             */
+            public static final String PREFIX = HttpServerConfiguration.PREFIX + ".netty.responses.file." + NAME;
+
+            /**
+             * The default enabled value.
+             */
+            @SuppressWarnings("WeakerAccess")
+            public static final boolean DEFAULT_ENABLED = false;
+
+            /**
+             * The default maximum size of the cache in bytes.
+             */
+            @SuppressWarnings("WeakerAccess")
+            public static final long DEFAULT_MAX_SIZE = 32L * 1024 * 1024;
+
+            /**
+             * The default maximum size of a single cached resource in bytes.
+             */
+            @SuppressWarnings("WeakerAccess")
+            public static final long DEFAULT_MAX_ENTRY_SIZE = 1024L * 1024;
+
+            /**
+             * The default interval between checks of the modification time of a cached file.
+             */
+            @SuppressWarnings("WeakerAccess")
+            public static final Duration DEFAULT_REVALIDATE_INTERVAL = Duration.ofSeconds(1);
+
+            private boolean enabled = DEFAULT_ENABLED;
+            private long maxSize = DEFAULT_MAX_SIZE;
+            private long maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
+            private Duration revalidateInterval = DEFAULT_REVALIDATE_INTERVAL;
+
+            /**
+             * @return True if static resources are cached in memory
+             */
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            /**
+             * Whether static resources are cached in memory together with their compressed variants. Default value ({@value #DEFAULT_ENABLED}).
+             *
+             * @param enabled True if static resources are cached
+             */
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            /**
+             * @return The maximum size of the cache in bytes
+             */
+            public long getMaxSize() {
+                return maxSize;
+            }
+
+            /**
+             * The maximum size of the cache in bytes, including the compressed variants. The least recently used
+             * resources are evicted once it is exceeded. Default value ({@value #DEFAULT_MAX_SIZE}).
+             *
+             * @param maxSize The maximum size
+             */
+            public void setMaxSize(@ReadableBytes long maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            /**
+             * @return The maximum size of a single cached resource in bytes
+             */
+            public long getMaxEntrySize() {
+                return maxEntrySize;
+            }
+
+            /**
+             * The maximum size of a single resource in bytes. Larger resources are always served from their source.
+             * Default value ({@value #DEFAULT_MAX_ENTRY_SIZE}).
+             *
+             * @param maxEntrySize The maximum size of a resource
+             */
+            public void setMaxEntrySize(@ReadableBytes long maxEntrySize) {
+                this.maxEntrySize = maxEntrySize;
+            }
+
+            /**
+             * @return The interval between checks of the modification time of a cached file
+             */
+            public Duration getRevalidateInterval() {
+                return revalidateInterval;
+            }
+
+            /**
+             * The interval between checks of the modification time of a cached file. Resources that are not files,
+             * such as classpath resources inside a JAR, are never revalidated. Default value (1s).
+             *
+             * @param revalidateInterval The revalidate interval
+             */
+            public void setRevalidateInterval(Duration revalidateInterval) {
+                if (revalidateInterval != null) {
+                    this.revalidateInterval = revalidateInterval;
+                }
+            }
+        }
     }
 
     /**
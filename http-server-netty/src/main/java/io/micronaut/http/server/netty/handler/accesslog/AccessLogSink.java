@@ -0,0 +1,42 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.handler.accesslog;
+
+/**
+ * Receives the lines formatted by the {@link HttpAccessLogHandler}. Lines are passed on the event loop of the
+ * connection, so implementations should not block.
+ *
+ * <p>A bean of this type replaces the logger configured with {@code micronaut.server.netty.access-logger.logger-name}.</p>
+ *
+ * @since 4.0.0
+ */
+@FunctionalInterface
+public interface AccessLogSink {
+
+    /**
+     * @return Whether access logs should be collected at all
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Logs a line. The given sequence may be reused once this method returns and must be copied if it is retained.
+     *
+     * @param line The formatted line, without line separator
+     */
+    void log(CharSequence line);
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.handler.accesslog;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration.AccessLogger.AccessLogFileConfiguration;
+import io.netty.util.internal.PlatformDependent;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An {@link AccessLogSink} that writes lines to a file from a dedicated thread. Logging a line only enqueues it into
+ * a bounded lock-free multi-producer queue. The writer thread drains the queue in batches into a buffer that is
+ * written with a {@link FileChannel}, and rotates the file once it exceeds the configured size.
+ *
+ * <p>Lines logged while the queue is full are dropped. The number of dropped lines is available from
+ * {@link #getDroppedLines()} and is reported as a warning by the writer thread.</p>
+ *
+ * @since 4.0.0
+ */
+@Singleton
+@Requires(property = AccessLogFileConfiguration.PREFIX + ".path")
+public final class AsyncFileAccessLogSink implements AccessLogSink, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncFileAccessLogSink.class);
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long DROP_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private final Path path;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final Queue<String> queue;
+    private final AtomicLong droppedLines = new AtomicLong();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final Thread writer;
+
+    private volatile boolean idle;
+    private volatile boolean closed;
+
+    private FileChannel channel;
+    private long fileSize;
+    private long reportedDroppedLines;
+    private long lastDropReport;
+
+    /**
+     * @param configuration The file configuration
+     */
+    @Inject
+    public AsyncFileAccessLogSink(AccessLogFileConfiguration configuration) {
+        this(Paths.get(configuration.getPath()), configuration.getBufferSize(), configuration.getMaxFileSize(), configuration.getMaxFiles());
+    }
+
+    /**
+     * @param path        The path of the file
+     * @param bufferSize  The number of lines that can be waiting to be written
+     * @param maxFileSize The size in bytes after which the file is rotated, or zero or less to never rotate it
+     * @param maxFiles    The number of rotated files to keep
+     */
+    public AsyncFileAccessLogSink(Path path, int bufferSize, long maxFileSize, int maxFiles) {
+        this.path = path.toAbsolutePath();
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = Math.max(0, maxFiles);
+        this.queue = PlatformDependent.newFixedMpscQueue(Math.max(2, bufferSize));
+        this.writer = new Thread(this::run, "access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * @return The total number of lines dropped because the buffer was full or the sink was closed
+     */
+    public long getDroppedLines() {
+        return droppedLines.get();
+    }
+
+    @Override
+    public void log(CharSequence line) {
+        if (closed || !queue.offer(line.toString())) {
+            droppedLines.incrementAndGet();
+        } else if (idle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Writes the pending lines and closes the file.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                boolean wasClosed = closed;
+                int drained = drain();
+                reportDroppedLines(wasClosed);
+                if (drained == 0) {
+                    if (wasClosed) {
+                        break;
+                    }
+                    idle = true;
+                    if (queue.isEmpty() && !closed) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    idle = false;
+                }
+            }
+        } finally {
+            closeChannel();
+        }
+    }
+
+    private int drain() {
+        int drained = 0;
+        String line;
+        while (drained < MAX_BATCH_SIZE && (line = queue.poll()) != null) {
+            drained++;
+            try {
+                append(line);
+            } catch (IOException e) {
+                buffer.clear();
+                if (LOG.isErrorEnabled()) {
+                    LOG.error("Error writing access log file " + path + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        if (drained > 0) {
+            try {
+                flush();
+            } catch (IOException e) {
+                buffer.clear();
+                if (LOG.isErrorEnabled()) {
+                    LOG.error("Error writing access log file " + path + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return drained;
+    }
+
+    private void append(String line) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(line);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                flush();
+            } else {
+                break;
+            }
+        }
+        encoder.reset();
+        if (buffer.remaining() < LINE_SEPARATOR.length) {
+            flush();
+        }
+        buffer.put(LINE_SEPARATOR);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        if (buffer.hasRemaining()) {
+            if (channel == null) {
+                open();
+            } else if (maxFileSize > 0 && fileSize > 0 && fileSize + buffer.remaining() > maxFileSize) {
+                rotate();
+            }
+            while (buffer.hasRemaining()) {
+                fileSize += channel.write(buffer);
+            }
+        }
+        buffer.clear();
+    }
+
+    private void open() throws IOException {
+        Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileSize = channel.size();
+    }
+
+    private void rotate() throws IOException {
+        closeChannel();
+        if (maxFiles == 0) {
+            Files.deleteIfExists(path);
+        } else {
+            for (int i = maxFiles - 1; i > 0; i--) {
+                Path source = rotatedPath(i);
+                if (Files.exists(source)) {
+                    Files.move(source, rotatedPath(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(path, rotatedPath(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private Path rotatedPath(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn("Error closing access log file " + path + ": " + e.getMessage(), e);
+                }
+            }
+            channel = null;
+        }
+    }
+
+    private void reportDroppedLines(boolean force) {
+        long dropped = droppedLines.get();
+        if (dropped != reportedDroppedLines) {
+            long now = System.nanoTime();
+            if (force || now - lastDropReport >= DROP_REPORT_INTERVAL_NANOS) {
+                if (LOG.isWarnEnabled()) {
+                    LOG.warn("Dropped {} access log lines because the buffer was full ({} in total)", dropped - reportedDroppedLines, dropped);
+                }
+                reportedDroppedLines = dropped;
+                lastDropReport = now;
+            }
+        }
+    }
+}
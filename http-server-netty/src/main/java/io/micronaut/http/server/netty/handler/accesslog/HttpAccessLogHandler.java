@@ -35,6 +35,7 @@ import io.netty.handler.codec.http2.Http2Exception;
 import io.netty.handler.codec.http2.HttpConversionUtil.ExtensionHeaderNames;
 import io.netty.util.Attribute;
 import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.FastThreadLocal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,7 +45,7 @@ import java.util.function.Predicate;
 
 /**
  * Logging handler for HTTP access logs.
- * Access logs will be logged at info level.
+ * Access logs will be logged at info level, or passed to an {@link AccessLogSink}.
  *
  * @author croudet
  * @since 2.0
@@ -58,8 +59,15 @@ public class HttpAccessLogHandler extends ChannelDuplexHandler {
 
     private static final AttributeKey<AccessLogHolder> ACCESS_LOGGER = AttributeKey.valueOf("ACCESS_LOGGER");
     private static final String H2_PROTOCOL_NAME = "HTTP/2.0";
+    private static final int MAX_REUSED_BUILDER_CAPACITY = 4096;
+    private static final FastThreadLocal<StringBuilder> LINE_BUILDER = new FastThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(256);
+        }
+    };
 
-    private final Logger logger;
+    private final AccessLogSink sink;
     private final AccessLogFormatParser accessLogFormatParser;
     private final Predicate<String> uriInclusion;
 
@@ -102,8 +110,20 @@ public class HttpAccessLogHandler extends ChannelDuplexHandler {
      * @param uriInclusion A filtering Predicate that will be checked per URI.
      */
     public HttpAccessLogHandler(Logger logger, String spec, Predicate<String> uriInclusion) {
+        this(new Slf4jAccessLogSink(logger == null ? LoggerFactory.getLogger(HTTP_ACCESS_LOGGER) : logger), spec, uriInclusion);
+    }
+
+    /**
+     * Creates a HttpAccessLogHandler.
+     *
+     * @param sink The sink receiving the formatted lines.
+     * @param spec The log format specification.
+     * @param uriInclusion A filtering Predicate that will be checked per URI.
+     * @since 4.0.0
+     */
+    public HttpAccessLogHandler(AccessLogSink sink, String spec, Predicate<String> uriInclusion) {
         super();
-        this.logger = logger == null ? LoggerFactory.getLogger(HTTP_ACCESS_LOGGER) : logger;
+        this.sink = sink;
         this.accessLogFormatParser = new AccessLogFormatParser(spec);
         this.uriInclusion = uriInclusion;
     }
@@ -121,7 +141,7 @@ public class HttpAccessLogHandler extends ChannelDuplexHandler {
 
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Http2Exception {
-        if (logger.isInfoEnabled() && msg instanceof HttpRequest) {
+        if (sink.isEnabled() && msg instanceof HttpRequest) {
             final SocketChannel channel = findSocketChannel(ctx.channel());
             final HttpRequest request = (HttpRequest) msg;
             AccessLogHolder accessLogHolder = getAccessLogHolder(ctx, true);
@@ -145,7 +165,7 @@ public class HttpAccessLogHandler extends ChannelDuplexHandler {
 
     @Override
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
-        if (logger.isInfoEnabled()) {
+        if (sink.isEnabled()) {
             processWriteEvent(ctx, msg, promise);
         } else {
             super.write(ctx, msg, promise);
@@ -155,7 +175,16 @@ public class HttpAccessLogHandler extends ChannelDuplexHandler {
     private void log(ChannelHandlerContext ctx, Object msg, ChannelPromise promise, AccessLog accessLog) {
         ctx.write(msg, promise.unvoid()).addListener(future -> {
             if (future.isSuccess()) {
-                accessLog.log(logger);
+                StringBuilder builder = LINE_BUILDER.get();
+                try {
+                    sink.log(accessLog.format(builder));
+                } finally {
+                    if (builder.capacity() > MAX_REUSED_BUILDER_CAPACITY) {
+                        LINE_BUILDER.remove();
+                    } else {
+                        builder.setLength(0);
+                    }
+                }
             }
         });
     }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.handler.accesslog;
+
+import org.slf4j.Logger;
+
+/**
+ * An {@link AccessLogSink} that logs the lines at info level to a {@link Logger}.
+ *
+ * @since 4.0.0
+ */
+public final class Slf4jAccessLogSink implements AccessLogSink {
+
+    private final Logger logger;
+
+    /**
+     * @param logger The logger
+     */
+    public Slf4jAccessLogSink(Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return logger.isInfoEnabled();
+    }
+
+    @Override
+    public void log(CharSequence line) {
+        logger.info(line.toString());
+    }
+}
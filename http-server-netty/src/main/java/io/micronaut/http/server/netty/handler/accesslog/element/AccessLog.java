@@ -118,14 +118,24 @@ public class AccessLog {
      */
     public void log(Logger accessLogger) {
         if (accessLogger.isInfoEnabled()) {
-            final StringBuilder b = new StringBuilder(elements.length * 5);
-            for (int i = 0; i < elements.length; ++i) {
-                b.append(elements[i] == null ? ConstantElement.UNKNOWN_VALUE : elements[i]);
-            }
-            accessLogger.info(b.toString());
+            accessLogger.info(format(new StringBuilder(elements.length * 5)).toString());
         }
     }
 
+    /**
+     * Appends the accumulated values to the given builder.
+     *
+     * @param builder The builder.
+     * @return The builder.
+     * @since 4.0.0
+     */
+    public StringBuilder format(StringBuilder builder) {
+        for (int i = 0; i < elements.length; ++i) {
+            builder.append(elements[i] == null ? ConstantElement.UNKNOWN_VALUE : elements[i]);
+        }
+        return builder;
+    }
+
     private void resetIndexedLogElement(IndexedLogElement elt) {
         elements[elt.index] = null;
         elt.reset();
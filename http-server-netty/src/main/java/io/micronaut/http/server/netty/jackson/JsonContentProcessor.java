@@ -15,9 +15,12 @@
  */
 package io.micronaut.http.server.netty.jackson;
 
+import io.micronaut.buffer.netty.NettyByteBufferFactory;
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.async.publisher.Publishers;
 import io.micronaut.core.async.subscriber.CompletionAwareSubscriber;
+import io.micronaut.core.convert.value.ConvertibleValues;
+import io.micronaut.core.io.buffer.ByteBuffer;
 import io.micronaut.core.type.Argument;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.server.HttpServerConfiguration;
@@ -29,16 +32,24 @@ import io.micronaut.json.tree.JsonNode;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufHolder;
 import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.util.ReferenceCountUtil;
 import org.reactivestreams.Processor;
 import org.reactivestreams.Subscription;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
 
 /**
  * This class will handle subscribing to a JSON stream and binding once the events are complete in a non-blocking
  * manner.
+ * <p>
+ * If the {@link #resultType(Argument) result type} is a plain, non-streaming type, the content is instead
+ * accumulated without copying and bound straight to that type once complete, without building a
+ * {@link JsonNode} tree first.
  *
  * @author Graeme Rocher
  * @since 1.0
@@ -50,6 +61,8 @@ public class JsonContentProcessor extends AbstractHttpContentProcessor {
     private Processor<byte[], JsonNode> jacksonProcessor;
     private Collection<Object> out;
     private Throwable failure = null;
+    private Argument<?> directType;
+    private CompositeByteBuf directContent;
 
     /**
      * @param nettyHttpRequest The Netty Http request
@@ -72,6 +85,11 @@ public class JsonContentProcessor extends AbstractHttpContentProcessor {
             .map(mediaType -> mediaType.equals(MediaType.APPLICATION_JSON_STREAM_TYPE))
             .orElse(false);
 
+        if (type != null && !isJsonStream && isDirectlyBindable(type)) {
+            this.directType = type;
+            return this;
+        }
+
         if (type != null) {
             Class<?> targetType = type.getType();
             if (Publishers.isConvertibleToPublisher(targetType) && !Publishers.isSingle(targetType)) {
@@ -130,6 +148,14 @@ public class JsonContentProcessor extends AbstractHttpContentProcessor {
 
     @Override
     protected void onData(ByteBufHolder message, Collection<Object> out) throws Throwable {
+        if (directType != null) {
+            ByteBuf content = message.content();
+            if (directContent == null) {
+                directContent = content.alloc().compositeBuffer(Integer.MAX_VALUE);
+            }
+            directContent.addComponent(true, content);
+            return;
+        }
         if (jacksonProcessor == null) {
             resultType(null);
         }
@@ -152,6 +178,33 @@ public class JsonContentProcessor extends AbstractHttpContentProcessor {
 
     @Override
     public void complete(Collection<Object> out) throws Throwable {
+        if (directType != null) {
+            CompositeByteBuf content = directContent;
+            directContent = null;
+            if (content == null) {
+                return;
+            }
+            try {
+                // like the tree parser, produce nothing for a blank body
+                if (content.forEachByte(JsonContentProcessor::isWhitespace) == -1) {
+                    return;
+                }
+                int readerIndex = content.readerIndex();
+                try {
+                    out.add(bindDirectly(content));
+                    return;
+                } catch (IOException e) {
+                    // replay the content through the tree parser, so that invalid JSON fails and JSON that cannot
+                    // be bound is converted exactly as without the fast path
+                    content.readerIndex(readerIndex);
+                    directType = null;
+                    resultType(null);
+                    replay(content, out);
+                }
+            } finally {
+                content.release();
+            }
+        }
         if (jacksonProcessor == null) {
             resultType(null);
         }
@@ -165,4 +218,57 @@ public class JsonContentProcessor extends AbstractHttpContentProcessor {
             throw f;
         }
     }
+
+    @Override
+    public void cancel() {
+        CompositeByteBuf content = directContent;
+        directContent = null;
+        if (content != null) {
+            content.release();
+        }
+    }
+
+    private Object bindDirectly(CompositeByteBuf content) throws IOException {
+        ByteBuffer<ByteBuf> buffer = NettyByteBufferFactory.DEFAULT.wrap(content);
+        Object value = jsonMapper.readValue(buffer, directType);
+        if (value == null) {
+            // the body is the JSON null literal
+            return JsonNode.nullNode();
+        }
+        return value;
+    }
+
+    private void replay(ByteBuf content, Collection<Object> out) throws Throwable {
+        this.out = out;
+        try {
+            jacksonProcessor.onNext(ByteBufUtil.getBytes(content));
+        } finally {
+            this.out = null;
+        }
+        Throwable f = failure;
+        if (f != null) {
+            failure = null;
+            throw f;
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+
+    /**
+     * @param type The body type
+     * @return Whether the body can be bound straight from the content rather than from a tree
+     */
+    private static boolean isDirectlyBindable(Argument<?> type) {
+        Class<?> targetType = type.getType();
+        return targetType != Object.class
+            && !JsonNode.class.isAssignableFrom(targetType)
+            && !CharSequence.class.isAssignableFrom(targetType)
+            && !ConvertibleValues.class.isAssignableFrom(targetType)
+            && !Optional.class.isAssignableFrom(targetType)
+            && !Future.class.isAssignableFrom(targetType)
+            && !CompletionStage.class.isAssignableFrom(targetType)
+            && !Publishers.isConvertibleToPublisher(targetType);
+    }
 }
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.sse;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A topic of the {@link ServerSentEventBroadcaster}. The subscribers are grouped by the event
+ * loop of their connection. Each group has a queue of commands, drained by one task on its event
+ * loop, so publishing an event costs one task per event loop rather than per subscriber, and all
+ * events published until the task runs are written to a subscriber with a single flush. A group
+ * is removed, and its heartbeat cancelled, once it has no subscribers left.
+ *
+ * @since 4.0.0
+ */
+@Internal
+final class BroadcastTopic {
+
+    private static final ByteBuf HEARTBEAT = Unpooled.unreleasableBuffer(
+        Unpooled.directBuffer(2).writeBytes(":\n".getBytes(StandardCharsets.US_ASCII)).asReadOnly()
+    );
+    private static final Object CLOSE = new Object();
+    // only schedules a drain, which removes the disposed members
+    private static final Object SWEEP = new Object();
+
+    private final String name;
+    private final ServerSentEventConfiguration configuration;
+    private final AtomicLong idGenerator = new AtomicLong();
+    private final ArrayDeque<Frame> replay = new ArrayDeque<>();
+    private final Map<EventExecutor, LoopGroup> groups = new HashMap<>();
+    private boolean closed;
+
+    /**
+     * @param name          The name of the topic
+     * @param configuration The configuration
+     */
+    BroadcastTopic(String name, ServerSentEventConfiguration configuration) {
+        this.name = name;
+        this.configuration = configuration;
+    }
+
+    /**
+     * @return A new event id, unique within this topic
+     */
+    String nextId() {
+        return Long.toString(idGenerator.incrementAndGet());
+    }
+
+    /**
+     * Send an encoded event to all subscribers.
+     *
+     * @param id      The event id
+     * @param content The encoded event, released by this topic
+     */
+    synchronized void publish(String id, ByteBuf content) {
+        if (closed) {
+            content.release();
+            throw new IllegalStateException("Server Sent Event topic [" + name + "] has been closed");
+        }
+        for (LoopGroup group : groups.values()) {
+            group.submit(content.retainedDuplicate());
+        }
+        int capacity = configuration.getReplayCapacity();
+        if (capacity == 0) {
+            content.release();
+            return;
+        }
+        if (replay.size() == capacity) {
+            replay.removeFirst().content.release();
+        }
+        replay.addLast(new Frame(id, content));
+    }
+
+    /**
+     * @param lastEventId The id of the last event the subscriber has received, if resuming
+     * @param eventLoop   The event loop of the subscriber connection
+     * @return The encoded events for the subscriber
+     */
+    Flux<ByteBuf> subscribe(@Nullable String lastEventId, EventExecutor eventLoop) {
+        return Flux.create(sink -> {
+            Member member = new Member(sink);
+            sink.onRequest(n -> member.execute(member::flush));
+            sink.onDispose(() -> {
+                // set right away, so that a member disposed before it is registered is never added
+                member.done = true;
+                member.execute(member::dispose);
+            });
+            synchronized (this) {
+                if (closed) {
+                    sink.complete();
+                    return;
+                }
+                if (lastEventId != null) {
+                    replayAfter(lastEventId, member.pending);
+                }
+                member.group = groups.computeIfAbsent(eventLoop, LoopGroup::new);
+                member.group.submit(member);
+            }
+        });
+    }
+
+    /**
+     * Complete all subscribers and release the retained events.
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Frame frame : replay) {
+            frame.content.release();
+        }
+        replay.clear();
+        for (LoopGroup group : groups.values()) {
+            group.submit(CLOSE);
+        }
+    }
+
+    /**
+     * Copies the events after the given one. If the event is no longer retained, all retained
+     * events are copied, since some events after it may still be retained.
+     */
+    private void replayAfter(String lastEventId, Queue<ByteBuf> target) {
+        Iterator<Frame> frames = replay.descendingIterator();
+        int skip = 0;
+        int index = replay.size();
+        while (frames.hasNext()) {
+            index--;
+            if (lastEventId.equals(frames.next().id)) {
+                skip = index + 1;
+                break;
+            }
+        }
+        int max = configuration.getMaxPendingEvents();
+        for (Frame frame : replay) {
+            if (skip > 0) {
+                skip--;
+            } else if (target.size() < max) {
+                target.add(frame.content.retainedDuplicate());
+            }
+        }
+    }
+
+    /**
+     * An encoded event retained for replay.
+     *
+     * @param id      The event id
+     * @param content The encoded event
+     */
+    private record Frame(String id, ByteBuf content) {
+    }
+
+    /**
+     * The subscribers on one event loop. Only the command queue is accessed from other threads.
+     */
+    private final class LoopGroup {
+        private final EventExecutor eventLoop;
+        private final Queue<Object> commands = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final List<Member> members = new ArrayList<>();
+        private final ScheduledFuture<?> heartbeat;
+
+        LoopGroup(EventExecutor eventLoop) {
+            this.eventLoop = eventLoop;
+            Duration interval = configuration.getHeartbeatInterval().orElse(null);
+            if (interval != null && !interval.isZero() && !interval.isNegative()) {
+                long nanos = interval.toNanos();
+                this.heartbeat = eventLoop.scheduleAtFixedRate(this::heartbeat, nanos, nanos, TimeUnit.NANOSECONDS);
+            } else {
+                this.heartbeat = null;
+            }
+        }
+
+        void submit(Object command) {
+            commands.add(command);
+            if (scheduled.compareAndSet(false, true)) {
+                eventLoop.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            scheduled.set(false);
+            Object command;
+            while ((command = commands.poll()) != null) {
+                if (command instanceof ByteBuf content) {
+                    for (Member member : members) {
+                        member.enqueue(content.retainedDuplicate());
+                    }
+                    content.release();
+                } else if (command instanceof Member member) {
+                    if (member.done) {
+                        member.releasePending();
+                    } else {
+                        members.add(member);
+                    }
+                } else if (command == CLOSE) {
+                    if (heartbeat != null) {
+                        heartbeat.cancel(false);
+                    }
+                    for (Member member : members) {
+                        member.complete();
+                    }
+                    members.clear();
+                }
+            }
+            // a single pass, rather than removing the members one by one as they are disposed
+            members.removeIf(member -> member.done);
+            if (members.isEmpty()) {
+                remove();
+                return;
+            }
+            for (Member member : members) {
+                member.flush();
+            }
+        }
+
+        /**
+         * Removes this group from the topic, unless a command has been submitted since the drain.
+         * Members and events are only submitted to a group registered in the topic while holding
+         * its lock, so none can be submitted to this group once it has been removed.
+         */
+        private void remove() {
+            synchronized (BroadcastTopic.this) {
+                if (!commands.isEmpty() || groups.get(eventLoop) != this) {
+                    return;
+                }
+                groups.remove(eventLoop);
+            }
+            if (heartbeat != null) {
+                heartbeat.cancel(false);
+            }
+        }
+
+        private void heartbeat() {
+            for (Member member : members) {
+                if (!member.done && !member.active && member.pending.isEmpty()) {
+                    member.enqueue(HEARTBEAT.duplicate());
+                    member.flush();
+                }
+                member.active = false;
+            }
+        }
+    }
+
+    /**
+     * A subscriber. Apart from the initial replay and the done flag set when it is disposed, its
+     * state is only accessed on its event loop.
+     */
+    private final class Member {
+        private final FluxSink<ByteBuf> sink;
+        private final ArrayDeque<ByteBuf> pending = new ArrayDeque<>();
+        private volatile LoopGroup group;
+        private boolean active;
+        private volatile boolean done;
+
+        Member(FluxSink<ByteBuf> sink) {
+            this.sink = sink;
+        }
+
+        void execute(Runnable task) {
+            LoopGroup group = this.group;
+            if (group == null) {
+                // not registered yet, the registration flushes and checks the done flag
+                return;
+            }
+            if (group.eventLoop.inEventLoop()) {
+                task.run();
+            } else {
+                group.eventLoop.execute(task);
+            }
+        }
+
+        void enqueue(ByteBuf content) {
+            if (done) {
+                content.release();
+                return;
+            }
+            if (pending.size() >= configuration.getMaxPendingEvents()) {
+                content.release();
+                done = true;
+                releasePending();
+                sink.error(Exceptions.failWithOverflow("Subscriber of Server Sent Event topic [" + name + "] is too slow"));
+                return;
+            }
+            pending.add(content);
+        }
+
+        void flush() {
+            if (done || pending.isEmpty() || sink.isCancelled() || sink.requestedFromDownstream() == 0) {
+                return;
+            }
+            ByteBuf content;
+            if (pending.size() == 1) {
+                content = pending.poll();
+            } else {
+                CompositeByteBuf composite = ByteBufAllocator.DEFAULT.compositeDirectBuffer(pending.size());
+                ByteBuf next;
+                while ((next = pending.poll()) != null) {
+                    composite.addComponent(true, next);
+                }
+                content = composite;
+            }
+            active = true;
+            sink.next(content);
+        }
+
+        void complete() {
+            if (!done) {
+                done = true;
+                releasePending();
+                sink.complete();
+            }
+        }
+
+        void dispose() {
+            done = true;
+            releasePending();
+            // may run while the group iterates its members, so it is swept by the next drain
+            group.submit(SWEEP);
+        }
+
+        void releasePending() {
+            ByteBuf content;
+            while ((content = pending.poll()) != null) {
+                content.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.sse;
+
+import io.micronaut.buffer.netty.NettyByteBufferFactory;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.ArgumentUtils;
+import io.micronaut.http.context.ServerRequestContext;
+import io.micronaut.http.server.codec.TextStreamCodec;
+import io.micronaut.http.server.netty.NettyHttpRequest;
+import io.micronaut.http.sse.Event;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Broadcasts Server Sent Events to the subscribers of a topic. Each event is encoded once into a
+ * read-only buffer that is shared by all subscribers, instead of being encoded for every
+ * subscriber stream. The most recent events of a topic are retained, so that a client that
+ * reconnects with a {@code Last-Event-ID} header receives the events it has missed. Events
+ * without an id are given one.
+ *
+ * <pre class="code">
+ * &#64;Get(produces = MediaType.TEXT_EVENT_STREAM)
+ * Publisher&lt;ByteBuf&gt; news(&#64;Nullable &#64;Header("Last-Event-ID") String lastEventId) {
+ *     return broadcaster.subscribe("news", lastEventId);
+ * }
+ * </pre>
+ *
+ * @since 4.0.0
+ */
+@Singleton
+public class ServerSentEventBroadcaster implements Closeable {
+
+    private final TextStreamCodec codec;
+    private final ServerSentEventConfiguration configuration;
+    private final Map<String, BroadcastTopic> topics = new ConcurrentHashMap<>();
+
+    /**
+     * @param codec         The codec used to encode the events
+     * @param configuration The configuration
+     */
+    public ServerSentEventBroadcaster(TextStreamCodec codec, ServerSentEventConfiguration configuration) {
+        this.codec = codec;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Send an event to all subscribers of a topic.
+     *
+     * @param topic The topic
+     * @param data  The event, or the data of the event
+     */
+    public void broadcast(@NonNull String topic, @NonNull Object data) {
+        ArgumentUtils.requireNonNull("topic", topic);
+        ArgumentUtils.requireNonNull("data", data);
+        BroadcastTopic broadcastTopic = topic(topic);
+        Event<?> event = data instanceof Event<?> e ? e : Event.of(data);
+        if (event.getId() == null) {
+            event = Event.of(event, event.getData()).id(broadcastTopic.nextId());
+        }
+        ByteBuf content = codec.encode(event, NettyByteBufferFactory.DEFAULT).asNativeBuffer();
+        broadcastTopic.publish(event.getId(), content.asReadOnly());
+    }
+
+    /**
+     * Subscribe to the events of a topic. The returned publisher is meant to be returned from a
+     * controller method that produces {@link io.micronaut.http.MediaType#TEXT_EVENT_STREAM}.
+     *
+     * @param topic       The topic
+     * @param lastEventId The value of the {@code Last-Event-ID} header, if the client resumes
+     * @return The encoded events
+     */
+    @NonNull
+    public Publisher<ByteBuf> subscribe(@NonNull String topic, @Nullable String lastEventId) {
+        ArgumentUtils.requireNonNull("topic", topic);
+        BroadcastTopic broadcastTopic = topic(topic);
+        return Flux.deferContextual(context -> broadcastTopic.subscribe(lastEventId, eventLoop(context)));
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        topics.values().forEach(BroadcastTopic::close);
+        topics.clear();
+    }
+
+    private BroadcastTopic topic(String name) {
+        return topics.computeIfAbsent(name, n -> new BroadcastTopic(n, configuration));
+    }
+
+    private static EventExecutor eventLoop(ContextView context) {
+        Object request = context.getOrDefault(ServerRequestContext.KEY, null);
+        if (request == null) {
+            request = ServerRequestContext.currentRequest().orElse(null);
+        }
+        if (request instanceof NettyHttpRequest<?> nettyRequest) {
+            return nettyRequest.getChannelHandlerContext().channel().eventLoop();
+        }
+        return GlobalEventExecutor.INSTANCE;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.sse;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.ArgumentUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Configuration of the {@link ServerSentEventBroadcaster}.
+ *
+ * @since 4.0.0
+ */
+@ConfigurationProperties(ServerSentEventConfiguration.PREFIX)
+public class ServerSentEventConfiguration {
+
+    /**
+     * The prefix to use to configure the broadcaster.
+     */
+    public static final String PREFIX = "micronaut.server.netty.sse";
+
+    /**
+     * The default number of events of a topic kept for replay.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_REPLAY_CAPACITY = 256;
+
+    /**
+     * The default maximum number of events waiting to be written to a subscriber.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_MAX_PENDING_EVENTS = 1024;
+
+    /**
+     * The default interval of heartbeats in seconds.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final long DEFAULT_HEARTBEAT_INTERVAL_SECONDS = 15;
+
+    private int replayCapacity = DEFAULT_REPLAY_CAPACITY;
+    private int maxPendingEvents = DEFAULT_MAX_PENDING_EVENTS;
+    private Duration heartbeatInterval = Duration.ofSeconds(DEFAULT_HEARTBEAT_INTERVAL_SECONDS);
+
+    /**
+     * @return The number of events of a topic kept for replay
+     */
+    public int getReplayCapacity() {
+        return replayCapacity;
+    }
+
+    /**
+     * Sets the number of the most recent events of a topic that are kept to be replayed to a
+     * subscriber that resumes with a {@code Last-Event-ID}. Zero disables replay. Default value
+     * ({@value #DEFAULT_REPLAY_CAPACITY}).
+     *
+     * @param replayCapacity The replay capacity
+     */
+    public void setReplayCapacity(int replayCapacity) {
+        ArgumentUtils.requirePositive("replayCapacity", replayCapacity);
+        this.replayCapacity = replayCapacity;
+    }
+
+    /**
+     * @return The maximum number of events waiting to be written to a subscriber
+     */
+    public int getMaxPendingEvents() {
+        return maxPendingEvents;
+    }
+
+    /**
+     * Sets the maximum number of events waiting to be written to a subscriber. A subscriber that
+     * falls further behind is disconnected, and can resume with a {@code Last-Event-ID}. Default
+     * value ({@value #DEFAULT_MAX_PENDING_EVENTS}).
+     *
+     * @param maxPendingEvents The maximum number of pending events
+     */
+    public void setMaxPendingEvents(int maxPendingEvents) {
+        ArgumentUtils.requirePositive("maxPendingEvents", maxPendingEvents);
+        this.maxPendingEvents = maxPendingEvents;
+    }
+
+    /**
+     * @return The interval of heartbeats, if enabled
+     */
+    public Optional<Duration> getHeartbeatInterval() {
+        return Optional.ofNullable(heartbeatInterval);
+    }
+
+    /**
+     * Sets the interval after which a comment is sent to a subscriber that has received nothing
+     * else, to keep the connection open. Set to {@code null} to disable heartbeats. Default value
+     * ({@value #DEFAULT_HEARTBEAT_INTERVAL_SECONDS} seconds).
+     *
+     * @param heartbeatInterval The heartbeat interval
+     */
+    public void setHeartbeatInterval(@Nullable Duration heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.types.files;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A satisfiable byte range of a representation as defined by
+ * <a href="https://www.rfc-editor.org/rfc/rfc7233#section-2.1">RFC 7233</a>.
+ *
+ * @since 4.0.0
+ */
+@Internal
+public final class ByteRange {
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final long start;
+    private final long end;
+
+    /**
+     * @param start The first byte position
+     * @param end   The last byte position, inclusive
+     */
+    public ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @return The first byte position
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * @return The last byte position, inclusive
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * @return The number of bytes in the range
+     */
+    public long getLength() {
+        return end - start + 1;
+    }
+
+    /**
+     * @param completeLength The length of the complete representation
+     * @return The value of the Content-Range header for this range
+     */
+    public String toContentRange(long completeLength) {
+        return "bytes " + start + '-' + end + '/' + completeLength;
+    }
+
+    /**
+     * @param completeLength The length of the complete representation
+     * @return The value of the Content-Range header of a 416 response
+     */
+    public static String unsatisfiedContentRange(long completeLength) {
+        return "bytes */" + completeLength;
+    }
+
+    /**
+     * Parses the value of a Range header. Overlapping or unordered ranges are sorted and coalesced so that the
+     * returned ranges are always ascending and can be read sequentially.
+     *
+     * @param value     The header value
+     * @param length    The length of the complete representation
+     * @param maxRanges The maximum number of ranges to accept
+     * @return The satisfiable ranges, an empty list if none of the ranges is satisfiable, or {@code null} if the header
+     * is invalid or contains too many ranges and should be ignored
+     */
+    @Nullable
+    public static List<ByteRange> parse(@Nullable String value, long length, int maxRanges) {
+        if (value == null || !value.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+            return null;
+        }
+        String[] specs = value.substring(BYTES_UNIT.length()).split(",");
+        if (specs.length > maxRanges) {
+            return null;
+        }
+        List<ByteRange> ranges = new ArrayList<>(specs.length);
+        for (String spec : specs) {
+            spec = spec.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            try {
+                if (dash == 0) {
+                    long suffixLength = Long.parseLong(spec.substring(1));
+                    if (suffixLength < 0) {
+                        return null;
+                    }
+                    if (suffixLength > 0 && length > 0) {
+                        ranges.add(new ByteRange(Math.max(0, length - suffixLength), length - 1));
+                    }
+                } else {
+                    long first = Long.parseLong(spec.substring(0, dash));
+                    long last = dash == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(dash + 1));
+                    if (first < 0 || last < first) {
+                        return null;
+                    }
+                    if (first < length) {
+                        ranges.add(new ByteRange(first, Math.min(last, length - 1)));
+                    }
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return coalesce(ranges);
+    }
+
+    private static List<ByteRange> coalesce(List<ByteRange> ranges) {
+        int size = ranges.size();
+        if (size < 2) {
+            return ranges;
+        }
+        boolean ascending = true;
+        for (int i = 1; i < size; i++) {
+            if (ranges.get(i).start <= ranges.get(i - 1).end) {
+                ascending = false;
+                break;
+            }
+        }
+        if (ascending) {
+            return ranges;
+        }
+        List<ByteRange> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingLong(ByteRange::getStart));
+        List<ByteRange> coalesced = new ArrayList<>(size);
+        ByteRange current = sorted.get(0);
+        for (int i = 1; i < size; i++) {
+            ByteRange next = sorted.get(i);
+            if (next.start <= current.end + 1) {
+                current = new ByteRange(current.start, Math.max(current.end, next.end));
+            } else {
+                coalesced.add(current);
+                current = next;
+            }
+        }
+        coalesced.add(current);
+        return Collections.unmodifiableList(coalesced);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ByteRange that = (ByteRange) o;
+        return start == that.start && end == that.end;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(start) + Long.hashCode(end);
+    }
+
+    @Override
+    public String toString() {
+        return start + "-" + end;
+    }
+}
@@ -16,9 +16,12 @@
 package io.micronaut.http.server.netty.types.files;
 
 import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
 import io.micronaut.http.MutableHttpHeaders;
 import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.netty.NettyMutableHttpResponse;
@@ -31,12 +34,16 @@ import io.micronaut.http.server.types.files.SystemFile;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.FullHttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * Responsible for writing files out to the response in Netty.
@@ -47,9 +54,12 @@ import java.util.Arrays;
 @Internal
 public class FileTypeHandler implements NettyCustomizableResponseTypeHandler<Object> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(FileTypeHandler.class);
+
     // sorted array of entity headers
     // https://tools.ietf.org/html/rfc2616#section-7.1
     private static final String[] ENTITY_HEADERS = {HttpHeaders.ALLOW, HttpHeaders.CONTENT_ENCODING, HttpHeaders.CONTENT_LANGUAGE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_LOCATION, HttpHeaders.CONTENT_MD5, HttpHeaders.CONTENT_RANGE, HttpHeaders.CONTENT_TYPE, HttpHeaders.EXPIRES, HttpHeaders.LAST_MODIFIED};
+    private static final String BYTES = "bytes";
     private static final Class<?>[] SUPPORTED_TYPES = new Class<?>[]{File.class, StreamedFile.class, NettyFileCustomizableResponseType.class, SystemFile.class};
     private final NettyHttpServerConfiguration.FileTypeHandlerConfiguration configuration;
 
@@ -79,7 +89,18 @@ public class FileTypeHandler implements NettyCustomizableResponseTypeHandler<Obj
         long lastModified = type.getLastModified();
 
         // Cache Validation
-        ZonedDateTime ifModifiedSince = request.getHeaders().getDate(HttpHeaders.IF_MODIFIED_SINCE);
+        String ifNoneMatch = null;
+        if (type instanceof NettyCachedFileCustomizableResponseType) {
+            if (!response.getHeaders().contains(HttpHeaders.ETAG)) {
+                response.header(HttpHeaders.ETAG, ((NettyCachedFileCustomizableResponseType) type).getETag(request));
+            }
+            ifNoneMatch = request.getHeaders().get(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch != null && matchesEntityTag(ifNoneMatch, response.getHeaders().get(HttpHeaders.ETAG))) {
+                return context.writeAndFlush(notModified(response));
+            }
+        }
+        // If-Modified-Since is ignored when If-None-Match is present
+        ZonedDateTime ifModifiedSince = ifNoneMatch == null ? request.getHeaders().getDate(HttpHeaders.IF_MODIFIED_SINCE) : null;
         if (ifModifiedSince != null) {
 
             // Only compare up to the second because the datetime format we send to the client
@@ -98,6 +119,12 @@ public class FileTypeHandler implements NettyCustomizableResponseTypeHandler<Obj
         setDateAndCacheHeaders(response, lastModified);
 
         type.process(response);
+        if (configuration.isAcceptRanges() && type instanceof NettyRangeFileCustomizableResponseType) {
+            NettyRangeFileCustomizableResponseType rangeType = (NettyRangeFileCustomizableResponseType) type;
+            if (rangeType.isRangeSupported() && response.getStatus() == HttpStatus.OK) {
+                return writeRanges(rangeType, request, response, context, lastModified);
+            }
+        }
         return type.write(request, response, context);
     }
 
@@ -136,6 +163,101 @@ public class FileTypeHandler implements NettyCustomizableResponseTypeHandler<Obj
         }
     }
 
+    /**
+     * Writes the ranges requested by the Range header of the request, or the complete file if the header is absent,
+     * invalid or the If-Range precondition does not hold.
+     *
+     * @param type         The file
+     * @param request      The request
+     * @param response     The response
+     * @param context      The channel context
+     * @param lastModified The last modified
+     * @return The channel future
+     */
+    private ChannelFuture writeRanges(NettyRangeFileCustomizableResponseType type,
+                                      HttpRequest<?> request,
+                                      MutableHttpResponse<?> response,
+                                      ChannelHandlerContext context,
+                                      long lastModified) {
+        MutableHttpHeaders headers = response.getHeaders();
+        headers.add(HttpHeaders.ACCEPT_RANGES, BYTES);
+        String rangeHeader = request.getHeaders().get(HttpHeaders.RANGE);
+        // ranges of a cached resource are taken from its identity content, whatever the encodings accepted
+        String etag = type instanceof NettyCachedFileCustomizableResponseType ?
+            ((NettyCachedFileCustomizableResponseType) type).getETag() : headers.get(HttpHeaders.ETAG);
+        if (rangeHeader == null || request.getMethod() != HttpMethod.GET || !isIfRangeSatisfied(request, etag, lastModified)) {
+            return type.write(request, response, context);
+        }
+        long length = type.getLength();
+        List<ByteRange> ranges = ByteRange.parse(rangeHeader, length, configuration.getMaxRanges());
+        if (ranges == null) {
+            return type.write(request, response, context);
+        }
+        if (ranges.isEmpty()) {
+            closeQuietly(type);
+            return context.writeAndFlush(rangeNotSatisfiable(response, length));
+        }
+        response.status(HttpStatus.PARTIAL_CONTENT);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        if (type instanceof NettyCachedFileCustomizableResponseType) {
+            headers.remove(HttpHeaders.ETAG);
+            headers.add(HttpHeaders.ETAG, etag);
+        }
+        if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            headers.add(HttpHeaders.CONTENT_RANGE, range.toContentRange(length));
+            headers.add(HttpHeaders.CONTENT_LENGTH, String.valueOf(range.getLength()));
+            return type.write(request, response, context, range);
+        }
+        MultipartByteRangesInput multipart = new MultipartByteRangesInput(ranges, headers.get(HttpHeaders.CONTENT_TYPE), length, type.openRanges());
+        headers.remove(HttpHeaders.CONTENT_TYPE);
+        headers.add(HttpHeaders.CONTENT_TYPE, multipart.getContentType());
+        headers.add(HttpHeaders.CONTENT_LENGTH, String.valueOf(multipart.length()));
+        return type.write(request, response, context, multipart);
+    }
+
+    /**
+     * Evaluates the If-Range precondition. An entity tag must strongly match the ETag of the ranges and a date
+     * must be equal to the last modification date of the file.
+     *
+     * @param request      The request
+     * @param etag         The entity tag of the content the ranges are taken from
+     * @param lastModified The last modified
+     * @return True if the precondition is absent or holds
+     */
+    private static boolean isIfRangeSatisfied(HttpRequest<?> request, @Nullable String etag, long lastModified) {
+        String ifRange = request.getHeaders().get(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return etag != null && !etag.startsWith("W/") && etag.equals(ifRange);
+        }
+        ZonedDateTime ifRangeDate = request.getHeaders().getDate(HttpHeaders.IF_RANGE);
+        return ifRangeDate != null && ifRangeDate.toEpochSecond() == lastModified / 1000;
+    }
+
+    /**
+     * Weakly compares the entity tags of an If-None-Match header with the entity tag of the response.
+     *
+     * @param ifNoneMatch The If-None-Match header
+     * @param etag        The entity tag of the response
+     * @return True if one of the entity tags matches
+     */
+    private static boolean matchesEntityTag(String ifNoneMatch, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        String opaqueTag = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * @param response The Http response
      */
@@ -153,6 +275,29 @@ public class FileTypeHandler implements NettyCustomizableResponseTypeHandler<Obj
         });
     }
 
+    /**
+     * Closes the input stream of a file whose content is not written.
+     *
+     * @param type The file
+     */
+    private static void closeQuietly(NettyFileCustomizableResponseType type) {
+        if (type instanceof StreamedFile streamedFile && streamedFile.getInputStream() != null) {
+            try {
+                streamedFile.getInputStream().close();
+            } catch (IOException e) {
+                LOG.warn("An error occurred closing an input stream", e);
+            }
+        }
+    }
+
+    private FullHttpResponse rangeNotSatisfiable(MutableHttpResponse<?> originalResponse, long length) {
+        MutableHttpResponse response = HttpResponse.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        copyNonEntityHeaders(originalResponse, response);
+        setDateHeader(response);
+        response.header(HttpHeaders.CONTENT_RANGE, ByteRange.unsatisfiedContentRange(length));
+        return ((NettyMutableHttpResponse) response).toFullHttpResponse();
+    }
+
     private FullHttpResponse notModified(MutableHttpResponse<?> originalResponse) {
         MutableHttpResponse response = HttpResponse.notModified();
         copyNonEntityHeaders(originalResponse, response);
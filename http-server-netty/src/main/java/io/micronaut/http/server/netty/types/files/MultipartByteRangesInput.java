@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.types.files;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A {@link ChunkedInput} that writes a <code>multipart/byteranges</code> body for the given ranges, reading the
+ * content of each part from a {@link NettyRangeFileCustomizableResponseType.RangeSource}.
+ *
+ * @since 4.0.0
+ */
+@Internal
+public final class MultipartByteRangesInput implements ChunkedInput<ByteBuf> {
+
+    private static final String CRLF = "\r\n";
+
+    private final List<ByteRange> ranges;
+    private final NettyRangeFileCustomizableResponseType.RangeSource source;
+    private final String contentType;
+    private final byte[][] partHeaders;
+    private final byte[] closeDelimiter;
+    private final long length;
+
+    private int index;
+    private ChunkedInput<ByteBuf> part;
+    private boolean endOfInput;
+    private long progress;
+
+    /**
+     * @param ranges          The ranges in ascending order
+     * @param partContentType The content type of the representation, if any
+     * @param completeLength  The length of the representation
+     * @param source          The source of the content of each range
+     */
+    public MultipartByteRangesInput(List<ByteRange> ranges,
+                                    @Nullable String partContentType,
+                                    long completeLength,
+                                    NettyRangeFileCustomizableResponseType.RangeSource source) {
+        this.ranges = ranges;
+        this.source = source;
+        String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong()) + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        this.contentType = "multipart/byteranges; boundary=" + boundary;
+        this.partHeaders = new byte[ranges.size()][];
+        long length = 0;
+        for (int i = 0; i < partHeaders.length; i++) {
+            ByteRange range = ranges.get(i);
+            StringBuilder header = new StringBuilder(CRLF).append("--").append(boundary).append(CRLF);
+            if (partContentType != null) {
+                header.append(HttpHeaders.CONTENT_TYPE).append(": ").append(partContentType).append(CRLF);
+            }
+            header.append(HttpHeaders.CONTENT_RANGE).append(": ").append(range.toContentRange(completeLength)).append(CRLF).append(CRLF);
+            partHeaders[i] = header.toString().getBytes(StandardCharsets.US_ASCII);
+            length += partHeaders[i].length + range.getLength();
+        }
+        this.closeDelimiter = (CRLF + "--" + boundary + "--" + CRLF).getBytes(StandardCharsets.US_ASCII);
+        this.length = length + closeDelimiter.length;
+    }
+
+    /**
+     * @return The value of the Content-Type header of the response
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEndOfInput() {
+        return endOfInput;
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            if (part != null) {
+                part.close();
+                part = null;
+            }
+        } finally {
+            source.close();
+        }
+    }
+
+    @Deprecated
+    @Override
+    public ByteBuf readChunk(ChannelHandlerContext ctx) throws Exception {
+        return readChunk(ctx.alloc());
+    }
+
+    @Override
+    public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+        while (!endOfInput) {
+            if (part == null) {
+                if (index == ranges.size()) {
+                    endOfInput = true;
+                    return wrap(closeDelimiter);
+                }
+                part = source.open(ranges.get(index));
+                return wrap(partHeaders[index]);
+            }
+            if (part.isEndOfInput()) {
+                part.close();
+                part = null;
+                index++;
+                continue;
+            }
+            ByteBuf chunk = part.readChunk(allocator);
+            if (chunk != null) {
+                progress += chunk.readableBytes();
+            }
+            return chunk;
+        }
+        return null;
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public long progress() {
+        return progress;
+    }
+
+    private ByteBuf wrap(byte[] bytes) {
+        progress += bytes.length;
+        return Unpooled.wrappedBuffer(bytes);
+    }
+}
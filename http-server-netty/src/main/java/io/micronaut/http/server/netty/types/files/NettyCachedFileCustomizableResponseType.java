@@ -0,0 +1,165 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.types.files;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpHeaders;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.netty.NettyMutableHttpResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.handler.stream.ChunkedStream;
+
+import java.io.IOException;
+
+/**
+ * Writes a static resource cached by the {@link StaticResourceCache}, choosing the smallest precompressed variant
+ * accepted by the client.
+ *
+ * @since 4.0.0
+ */
+@Internal
+public final class NettyCachedFileCustomizableResponseType implements NettyRangeFileCustomizableResponseType {
+
+    private static final int LENGTH_8K = 8192;
+
+    private final StaticResourceCache.Entry entry;
+
+    /**
+     * @param entry The cached resource
+     */
+    NettyCachedFileCustomizableResponseType(StaticResourceCache.Entry entry) {
+        this.entry = entry;
+    }
+
+    /**
+     * @return The strong entity tag of the identity content, which is the content of partial responses
+     */
+    public String getETag() {
+        return entry.etag;
+    }
+
+    /**
+     * @param request The request
+     * @return The strong entity tag of the variant selected for the request
+     */
+    public String getETag(HttpRequest<?> request) {
+        return entry.etag(entry.select(request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING)));
+    }
+
+    @Override
+    public long getLastModified() {
+        return entry.lastModified;
+    }
+
+    @Override
+    public long getLength() {
+        return entry.length;
+    }
+
+    @Override
+    public MediaType getMediaType() {
+        return entry.mediaType;
+    }
+
+    @Override
+    public void process(MutableHttpResponse<?> response) {
+        MutableHttpHeaders headers = response.getHeaders();
+        headers.add(HttpHeaders.CONTENT_LENGTH, String.valueOf(entry.length));
+        if (!headers.contains(HttpHeaders.ETAG)) {
+            headers.add(HttpHeaders.ETAG, entry.etag);
+        }
+        if (entry.encodings.length > 0) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+    }
+
+    @Override
+    public ChannelFuture write(HttpRequest<?> request, MutableHttpResponse<?> response, ChannelHandlerContext context) {
+        int variant = entry.select(request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING));
+        ByteBuf content = entry.retainedContent(variant);
+        if (content == null) {
+            // evicted after the lookup
+            return new NettyStreamedFileCustomizableResponseType(entry.url).write(request, response, context);
+        }
+        if (variant > -1) {
+            MutableHttpHeaders headers = response.getHeaders();
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.add(HttpHeaders.CONTENT_LENGTH, String.valueOf(content.readableBytes()));
+            headers.add(HttpHeaders.CONTENT_ENCODING, entry.encodings[variant]);
+        }
+        return write(response, context, content);
+    }
+
+    @Override
+    public boolean isRangeSupported() {
+        return true;
+    }
+
+    @Override
+    public RangeSource openRanges() {
+        return new RangeSource() {
+            @Override
+            public ChunkedInput<ByteBuf> open(ByteRange range) throws IOException {
+                ByteBuf slice = entry.retainedSlice((int) range.getStart(), (int) range.getLength());
+                if (slice == null) {
+                    throw new IOException("Cached resource has been evicted: " + entry.url);
+                }
+                return new ChunkedStream(new ByteBufInputStream(slice, true), LENGTH_8K);
+            }
+
+            @Override
+            public void close() {
+                // no-op
+            }
+        };
+    }
+
+    @Override
+    public ChannelFuture write(HttpRequest<?> request, MutableHttpResponse<?> response, ChannelHandlerContext context, ByteRange range) {
+        ByteBuf content = entry.retainedSlice((int) range.getStart(), (int) range.getLength());
+        if (content == null) {
+            // evicted after the lookup
+            return new NettyStreamedFileCustomizableResponseType(entry.url).write(request, response, context, range);
+        }
+        return write(response, context, content);
+    }
+
+    private ChannelFuture write(MutableHttpResponse<?> response, ChannelHandlerContext context, ByteBuf content) {
+        if (response instanceof NettyMutableHttpResponse) {
+            NettyMutableHttpResponse<?> nettyResponse = (NettyMutableHttpResponse<?>) response;
+            DefaultFullHttpResponse fullResponse = new DefaultFullHttpResponse(
+                nettyResponse.getNettyHttpVersion(),
+                nettyResponse.getNettyHttpStatus(),
+                content,
+                nettyResponse.getNettyHeaders(),
+                EmptyHttpHeaders.INSTANCE
+            );
+            return context.writeAndFlush(fullResponse);
+        } else {
+            content.release();
+            throw new IllegalArgumentException("Unsupported response type. Not a Netty response: " + response);
+        }
+    }
+}
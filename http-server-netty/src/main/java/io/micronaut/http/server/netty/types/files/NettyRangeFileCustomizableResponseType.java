@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.types.files;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.netty.NettyMutableHttpResponse;
+import io.micronaut.http.server.netty.types.NettyFileCustomizableResponseType;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpChunkedInput;
+import io.netty.handler.stream.ChunkedInput;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A {@link NettyFileCustomizableResponseType} whose content can be written partially in response to a request
+ * with a Range header.
+ *
+ * @since 4.0.0
+ */
+@Internal
+public interface NettyRangeFileCustomizableResponseType extends NettyFileCustomizableResponseType {
+
+    /**
+     * @return True if the length of the content is known and its ranges can be read
+     */
+    boolean isRangeSupported();
+
+    /**
+     * @return A source for the content of ascending ranges
+     */
+    RangeSource openRanges();
+
+    /**
+     * Writes a single range of the content.
+     *
+     * @param request  The request
+     * @param response The 206 response
+     * @param context  The channel context
+     * @param range    The range
+     * @return The channel future
+     */
+    ChannelFuture write(HttpRequest<?> request, MutableHttpResponse<?> response, ChannelHandlerContext context, ByteRange range);
+
+    /**
+     * Writes a <code>multipart/byteranges</code> body for several ranges of the content.
+     *
+     * @param request  The request
+     * @param response The 206 response
+     * @param context  The channel context
+     * @param ranges   The multipart input
+     * @return The channel future
+     */
+    default ChannelFuture write(HttpRequest<?> request, MutableHttpResponse<?> response, ChannelHandlerContext context, MultipartByteRangesInput ranges) {
+        if (response instanceof NettyMutableHttpResponse) {
+            NettyMutableHttpResponse nettyResponse = ((NettyMutableHttpResponse) response);
+            final DefaultHttpResponse finalResponse = new DefaultHttpResponse(nettyResponse.getNettyHttpVersion(), nettyResponse.getNettyHttpStatus(), nettyResponse.getNettyHeaders());
+            context.write(finalResponse, context.voidPromise());
+            // HttpChunkedInput will write the end marker (LastHttpContent) for us.
+            return context.writeAndFlush(new HttpChunkedInput(ranges), context.newProgressivePromise());
+        } else {
+            throw new IllegalArgumentException("Unsupported response type. Not a Netty response: " + response);
+        }
+    }
+
+    /**
+     * Provides the content of the ranges of a file. Ranges are opened in ascending order and each returned input is
+     * closed before the next range is opened.
+     */
+    interface RangeSource extends Closeable {
+
+        /**
+         * @param range The range
+         * @return The content of the range
+         * @throws IOException If the content cannot be read
+         */
+        ChunkedInput<ByteBuf> open(ByteRange range) throws IOException;
+    }
+}
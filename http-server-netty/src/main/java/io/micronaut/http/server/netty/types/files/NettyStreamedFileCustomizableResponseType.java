@@ -17,13 +17,25 @@ package io.micronaut.http.server.netty.types.files;
 
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.http.MediaType;
+import io.micronaut.http.HttpRequest;
 import io.micronaut.http.MutableHttpResponse;
-import io.micronaut.http.server.netty.types.NettyFileCustomizableResponseType;
+import io.micronaut.http.netty.NettyMutableHttpResponse;
 import io.micronaut.http.server.netty.types.stream.NettyStreamedCustomizableResponseType;
+import io.micronaut.http.server.types.CustomizableResponseTypeException;
 import io.micronaut.http.server.types.files.StreamedFile;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpChunkedInput;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.handler.stream.ChunkedStream;
 
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.Optional;
@@ -35,7 +47,9 @@ import java.util.Optional;
  * @since 1.0
  */
 @Internal
-public class NettyStreamedFileCustomizableResponseType extends StreamedFile implements NettyFileCustomizableResponseType, NettyStreamedCustomizableResponseType {
+public class NettyStreamedFileCustomizableResponseType extends StreamedFile implements NettyRangeFileCustomizableResponseType, NettyStreamedCustomizableResponseType {
+
+    private static final int LENGTH_8K = 8192;
 
     private final Optional<StreamedFile> delegate;
 
@@ -83,4 +97,132 @@ public class NettyStreamedFileCustomizableResponseType extends StreamedFile impl
         }
         delegate.ifPresent(type -> type.process(response));
     }
+
+    @Override
+    public boolean isRangeSupported() {
+        return getLength() > -1 && getInputStream() != null;
+    }
+
+    @Override
+    public RangeSource openRanges() {
+        InputStream inputStream = getInputStream();
+        return new RangeSource() {
+            private long position;
+
+            @Override
+            public ChunkedInput<ByteBuf> open(ByteRange range) throws IOException {
+                skipFully(inputStream, range.getStart() - position);
+                position = range.getEnd() + 1;
+                return new ChunkedStream(new RangeInputStream(inputStream, range.getLength()), LENGTH_8K);
+            }
+
+            @Override
+            public void close() throws IOException {
+                inputStream.close();
+            }
+        };
+    }
+
+    @Override
+    public ChannelFuture write(HttpRequest<?> request, MutableHttpResponse<?> response, ChannelHandlerContext context, ByteRange range) {
+        if (response instanceof NettyMutableHttpResponse) {
+            NettyMutableHttpResponse nettyResponse = ((NettyMutableHttpResponse) response);
+            RangeSource source = openRanges();
+            ChunkedInput<ByteBuf> content;
+            try {
+                content = source.open(range);
+            } catch (IOException e) {
+                closeQuietly(source);
+                throw new CustomizableResponseTypeException("Could not read file", e);
+            }
+
+            // Write the request data
+            final DefaultHttpResponse finalResponse = new DefaultHttpResponse(nettyResponse.getNettyHttpVersion(), nettyResponse.getNettyHttpStatus(), nettyResponse.getNettyHeaders());
+            context.write(finalResponse, context.voidPromise());
+            return context.writeAndFlush(new HttpChunkedInput(content))
+                    .addListener(future -> closeQuietly(source));
+        } else {
+            throw new IllegalArgumentException("Unsupported response type. Not a Netty response: " + response);
+        }
+    }
+
+    private static void closeQuietly(RangeSource source) {
+        try {
+            source.close();
+        } catch (IOException e) {
+            LOG.warn("An error occurred closing an input stream", e);
+        }
+    }
+
+    private static void skipFully(InputStream inputStream, long n) throws IOException {
+        while (n > 0) {
+            long skipped = inputStream.skip(n);
+            if (skipped <= 0) {
+                if (inputStream.read() == -1) {
+                    throw new EOFException("Unexpected end of stream while skipping to the requested range");
+                }
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+    }
+
+    /**
+     * Limits the bytes read from the underlying stream to the length of a range, without closing it.
+     */
+    private static final class RangeInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        RangeInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b != -1) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = in.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+            // the underlying stream is closed by the range source
+        }
+    }
 }
@@ -23,10 +23,10 @@ import io.micronaut.http.MediaType;
 import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.netty.NettyMutableHttpResponse;
 import io.micronaut.http.server.netty.SmartHttpContentCompressor;
-import io.micronaut.http.server.netty.types.NettyFileCustomizableResponseType;
 import io.micronaut.http.server.types.CustomizableResponseTypeException;
 import io.micronaut.http.server.types.files.FileCustomizableResponseType;
 import io.micronaut.http.server.types.files.SystemFile;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
@@ -37,6 +37,7 @@ import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.codec.http2.Http2StreamChannel;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.stream.ChunkedFile;
+import io.netty.handler.stream.ChunkedInput;
 import io.netty.util.ResourceLeakDetector;
 import io.netty.util.ResourceLeakDetectorFactory;
 import io.netty.util.ResourceLeakTracker;
@@ -58,7 +59,7 @@ import java.util.function.Supplier;
  * @since 1.0
  */
 @Internal
-public class NettySystemFileCustomizableResponseType extends SystemFile implements NettyFileCustomizableResponseType {
+public class NettySystemFileCustomizableResponseType extends SystemFile implements NettyRangeFileCustomizableResponseType {
 
     private static final int LENGTH_8K = 8192;
     private static final Logger LOG = LoggerFactory.getLogger(NettySystemFileCustomizableResponseType.class);
@@ -104,7 +105,37 @@ public class NettySystemFileCustomizableResponseType extends SystemFile implemen
 
     @Override
     public ChannelFuture write(HttpRequest<?> request, MutableHttpResponse<?> response, ChannelHandlerContext context) {
+        return write(response, context, 0, getLength());
+    }
+
+    @Override
+    public boolean isRangeSupported() {
+        return true;
+    }
+
+    @Override
+    public RangeSource openRanges() {
+        File file = getFile();
+        return new RangeSource() {
+            @Override
+            public ChunkedInput<ByteBuf> open(ByteRange range) throws IOException {
+                // ChunkedFile closes the file once the range has been read
+                return new ChunkedFile(new RandomAccessFile(file, "r"), range.getStart(), range.getLength(), LENGTH_8K);
+            }
+
+            @Override
+            public void close() {
+                // no-op
+            }
+        };
+    }
+
+    @Override
+    public ChannelFuture write(HttpRequest<?> request, MutableHttpResponse<?> response, ChannelHandlerContext context, ByteRange range) {
+        return write(response, context, range.getStart(), range.getLength());
+    }
 
+    private ChannelFuture write(MutableHttpResponse<?> response, ChannelHandlerContext context, long offset, long length) {
         if (response instanceof NettyMutableHttpResponse) {
 
             NettyMutableHttpResponse nettyResponse = ((NettyMutableHttpResponse) response);
@@ -120,14 +151,14 @@ public class NettySystemFileCustomizableResponseType extends SystemFile implemen
                     context.pipeline().get(SmartHttpContentCompressor.class).shouldSkip(finalResponse) &&
                     !(context.channel() instanceof Http2StreamChannel)) {
                 // SSL not enabled - can use zero-copy file transfer.
-                context.write(new DefaultFileRegion(file.raf.getChannel(), 0, getLength()), context.newProgressivePromise())
+                context.write(new DefaultFileRegion(file.raf.getChannel(), offset, length), context.newProgressivePromise())
                         .addListener(file);
                 return context.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
             } else {
                 // SSL enabled - cannot use zero-copy file transfer.
                 try {
                     // HttpChunkedInput will write the end marker (LastHttpContent) for us.
-                    final HttpChunkedInput chunkedInput = new HttpChunkedInput(new ChunkedFile(file.raf, 0, getLength(), LENGTH_8K));
+                    final HttpChunkedInput chunkedInput = new HttpChunkedInput(new ChunkedFile(file.raf, offset, length, LENGTH_8K));
                     return context.writeAndFlush(chunkedInput, context.newProgressivePromise())
                             .addListener(file);
                 } catch (IOException e) {
@@ -0,0 +1,517 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.types.files;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.core.util.clhm.ConcurrentLinkedHashMap;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.server.netty.HttpCompressionStrategy;
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
+import io.micronaut.http.server.netty.types.NettyFileCustomizableResponseType;
+import io.micronaut.scheduling.io.watch.event.FileChangedEvent;
+import io.micronaut.scheduling.io.watch.event.WatchEventType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <p>A bounded in-memory cache of static resources resolved by the
+ * {@link io.micronaut.web.router.resource.StaticResourceResolver}. The content of a resource is held in a single pooled
+ * direct buffer together with its compressed variants: gzip and deflate are computed once when the
+ * {@link HttpCompressionStrategy} would compress the resource, and existing <code>.gz</code> and <code>.br</code>
+ * sibling files are used as they are. Cached resources are served with a strong ETag for each variant without
+ * touching the file system or the {@link io.micronaut.http.server.netty.SmartHttpContentCompressor}.</p>
+ *
+ * <p>Resources are loaded on the IO executor after the first request that resolves them, and the least recently used
+ * resources are evicted once the configured size is exceeded. File resources are invalidated when their modification
+ * time changes or a {@link FileChangedEvent} is received for them.</p>
+ *
+ * @since 4.0.0
+ */
+@Internal
+@Singleton
+@Requires(property = NettyHttpServerConfiguration.FileTypeHandlerConfiguration.StaticResourceCacheConfiguration.PREFIX + ".enabled", value = StringUtils.TRUE)
+public final class StaticResourceCache implements ApplicationEventListener<FileChangedEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StaticResourceCache.class);
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final String BROTLI_EXTENSION = ".br";
+    private static final String BROTLI = "br";
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+    private static final String ANY = "*";
+
+    private final ConcurrentLinkedHashMap<String, Entry> entries;
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+    private final HttpCompressionStrategy compressionStrategy;
+    private final long maxEntrySize;
+    private final long revalidateIntervalMillis;
+
+    /**
+     * @param serverConfiguration The server configuration
+     * @param compressionStrategy The compression strategy that decides whether compressed variants are computed
+     */
+    public StaticResourceCache(NettyHttpServerConfiguration serverConfiguration, HttpCompressionStrategy compressionStrategy) {
+        NettyHttpServerConfiguration.FileTypeHandlerConfiguration.StaticResourceCacheConfiguration configuration =
+            serverConfiguration.getFileTypeHandlerConfiguration().getStaticResourceCache();
+        this.compressionStrategy = compressionStrategy;
+        this.maxEntrySize = Math.min(configuration.getMaxEntrySize(), configuration.getMaxSize());
+        this.revalidateIntervalMillis = configuration.getRevalidateInterval().toMillis();
+        this.entries = new ConcurrentLinkedHashMap.Builder<String, Entry>()
+            .maximumWeightedCapacity(Math.max(1, configuration.getMaxSize()))
+            .weigher((Entry entry) -> entry.weight)
+            .listener((path, entry) -> entry.release())
+            .build();
+    }
+
+    /**
+     * Looks up the resource cached for the given request path.
+     *
+     * @param path The request path
+     * @return The cached resource or {@code null} if it has not been cached yet or is stale
+     */
+    @Nullable
+    public NettyFileCustomizableResponseType get(@NonNull String path) {
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isStale(revalidateIntervalMillis)) {
+            invalidate(path, entry);
+            return null;
+        }
+        return new NettyCachedFileCustomizableResponseType(entry);
+    }
+
+    /**
+     * Caches the resource resolved for the given request path. The resource is read and compressed on the given
+     * executor, the current request is expected to be served from the resource itself.
+     *
+     * @param path     The request path
+     * @param url      The resolved resource
+     * @param executor The executor to read the resource on
+     */
+    public void load(@NonNull String path, @NonNull URL url, @NonNull Executor executor) {
+        if (!loading.add(path)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    Entry entry = read(url);
+                    if (entry != null) {
+                        Entry previous = entries.put(path, entry);
+                        if (previous != null) {
+                            previous.release();
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Unable to cache static resource [{}]: {}", url, e.getMessage(), e);
+                    }
+                } finally {
+                    loading.remove(path);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loading.remove(path);
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(FileChangedEvent event) {
+        if (event.getEventType() == WatchEventType.CREATE) {
+            // a new file may take precedence over a resource resolved by another loader
+            invalidateAll();
+            return;
+        }
+        Path changed = event.getPath().toAbsolutePath();
+        for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+            Entry entry = mapEntry.getValue();
+            if (entry.file != null && entry.file.toPath().toAbsolutePath().startsWith(changed)) {
+                invalidate(mapEntry.getKey(), entry);
+            }
+        }
+    }
+
+    /**
+     * Removes all cached resources.
+     */
+    @PreDestroy
+    public void invalidateAll() {
+        for (String path : entries.keySet()) {
+            Entry entry = entries.remove(path);
+            if (entry != null) {
+                entry.release();
+            }
+        }
+    }
+
+    private void invalidate(String path, Entry entry) {
+        if (entries.remove(path, entry)) {
+            entry.release();
+        }
+    }
+
+    @Nullable
+    private Entry read(URL url) throws IOException {
+        File file = toFile(url);
+        long lastModified;
+        byte[] content;
+        if (file != null) {
+            if (!file.isFile() || !file.canRead() || file.length() > maxEntrySize) {
+                return null;
+            }
+            lastModified = file.lastModified();
+            content = Files.readAllBytes(file.toPath());
+        } else {
+            URLConnection connection = url.openConnection();
+            if (connection.getContentLengthLong() > maxEntrySize) {
+                return null;
+            }
+            lastModified = connection.getLastModified();
+            try (InputStream inputStream = connection.getInputStream()) {
+                content = inputStream.readNBytes((int) maxEntrySize + 1);
+            }
+        }
+        if (content.length > maxEntrySize) {
+            return null;
+        }
+        MediaType mediaType = MediaType.forFilename(url.getPath());
+
+        List<String> encodings = new ArrayList<>(4);
+        List<byte[]> variants = new ArrayList<>(4);
+        byte[] brotli = readSibling(url, file, BROTLI_EXTENSION);
+        if (brotli != null) {
+            encodings.add(BROTLI);
+            variants.add(brotli);
+        }
+        byte[] gzip = readSibling(url, file, GZIP_EXTENSION);
+        boolean compress = shouldCompress(mediaType, content.length);
+        if (gzip == null && compress) {
+            gzip = compress(content, true);
+        }
+        if (gzip != null && gzip.length < content.length) {
+            encodings.add(GZIP);
+            variants.add(gzip);
+        }
+        if (compress) {
+            byte[] deflate = compress(content, false);
+            if (deflate.length < content.length) {
+                encodings.add(DEFLATE);
+                variants.add(deflate);
+            }
+        }
+
+        int size = content.length;
+        for (byte[] variant : variants) {
+            size += variant.length;
+        }
+        ByteBuf buffer = PooledByteBufAllocator.DEFAULT.directBuffer(Math.max(1, size), Math.max(1, size));
+        buffer.writeBytes(content);
+        int[] offsets = new int[variants.size()];
+        int[] lengths = new int[variants.size()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = buffer.writerIndex();
+            lengths[i] = variants.get(i).length;
+            buffer.writeBytes(variants.get(i));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        String etag = "\"" + Long.toHexString(crc.getValue()) + '-' + Integer.toHexString(content.length) + "\"";
+        return new Entry(url, file, mediaType, lastModified, etag, buffer, content.length,
+            encodings.toArray(new String[0]), offsets, lengths);
+    }
+
+    private boolean shouldCompress(MediaType mediaType, int length) {
+        DefaultHttpResponse probe = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        probe.headers()
+            .set(HttpHeaderNames.CONTENT_TYPE, mediaType.toString())
+            .set(HttpHeaderNames.CONTENT_LENGTH, length);
+        return compressionStrategy.shouldCompress(probe);
+    }
+
+    private byte[] compress(byte[] content, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2 + 64);
+        int level = compressionStrategy.getCompressionLevel();
+        if (gzip) {
+            try (OutputStream compressor = new LeveledGzipOutputStream(out, level)) {
+                compressor.write(content);
+            }
+        } else {
+            Deflater deflater = new Deflater(level);
+            try (OutputStream compressor = new DeflaterOutputStream(out, deflater)) {
+                compressor.write(content);
+            } finally {
+                deflater.end();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Nullable
+    private byte[] readSibling(URL url, @Nullable File file, String extension) {
+        try {
+            if (file != null) {
+                File sibling = new File(file.getPath() + extension);
+                if (!sibling.isFile() || sibling.length() > maxEntrySize) {
+                    return null;
+                }
+                return Files.readAllBytes(sibling.toPath());
+            }
+            try (InputStream inputStream = new URL(url.toExternalForm() + extension).openStream()) {
+                byte[] content = inputStream.readNBytes((int) maxEntrySize + 1);
+                return content.length > maxEntrySize ? null : content;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static File toFile(URL url) {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return Paths.get(url.toURI()).toFile();
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A {@link GZIPOutputStream} with a configurable compression level.
+     */
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+        LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+
+    /**
+     * A cached resource. The identity content is stored at the start of the buffer followed by the compressed
+     * variants.
+     */
+    static final class Entry {
+        final URL url;
+        @Nullable
+        final File file;
+        final MediaType mediaType;
+        final long lastModified;
+        final String etag;
+        final int length;
+        final String[] encodings;
+        private final String[] etags;
+        private final ByteBuf buffer;
+        private final int[] offsets;
+        private final int[] lengths;
+        private final int weight;
+        // one pin for the cache, plus one per slice being retained
+        private final AtomicInteger pins = new AtomicInteger(1);
+        private final AtomicBoolean cached = new AtomicBoolean(true);
+        private volatile long lastChecked;
+
+        Entry(URL url, @Nullable File file, MediaType mediaType, long lastModified, String etag, ByteBuf buffer,
+              int length, String[] encodings, int[] offsets, int[] lengths) {
+            this.url = url;
+            this.file = file;
+            this.mediaType = mediaType;
+            this.lastModified = lastModified;
+            this.etag = etag;
+            this.buffer = buffer;
+            this.length = length;
+            this.encodings = encodings;
+            this.etags = new String[encodings.length];
+            for (int i = 0; i < encodings.length; i++) {
+                // each encoding is a different representation, so it gets its own strong entity tag
+                etags[i] = etag.substring(0, etag.length() - 1) + '-' + encodings[i] + '"';
+            }
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.weight = Math.max(1, buffer.capacity());
+            this.lastChecked = System.currentTimeMillis();
+        }
+
+        /**
+         * Selects the smallest variant acceptable according to the given Accept-Encoding header.
+         *
+         * @param acceptEncoding The Accept-Encoding header of the request
+         * @return The index of the variant or -1 for the identity content
+         */
+        int select(@Nullable String acceptEncoding) {
+            if (acceptEncoding == null || encodings.length == 0) {
+                return -1;
+            }
+            String value = acceptEncoding.toLowerCase(Locale.ENGLISH);
+            int selected = -1;
+            for (int i = 0; i < encodings.length; i++) {
+                if (isAccepted(value, encodings[i]) && (selected == -1 || lengths[i] < lengths[selected])) {
+                    selected = i;
+                }
+            }
+            return selected;
+        }
+
+        /**
+         * @param variant The index of the variant or -1 for the identity content
+         * @return The entity tag of the variant
+         */
+        String etag(int variant) {
+            return variant < 0 ? etag : etags[variant];
+        }
+
+        /**
+         * @param variant The index of the variant or -1 for the identity content
+         * @return The retained content of the variant, or {@code null} if the entry has been released concurrently
+         */
+        @Nullable
+        ByteBuf retainedContent(int variant) {
+            return retainedSlice(variant < 0 ? 0 : offsets[variant], variant < 0 ? length : lengths[variant]);
+        }
+
+        /**
+         * @param index  The index in the identity content
+         * @param length The length
+         * @return The retained slice of the identity content, or {@code null} if the entry has been released concurrently
+         */
+        @Nullable
+        ByteBuf retainedSlice(int index, int length) {
+            if (!pin()) {
+                return null;
+            }
+            try {
+                return buffer.retainedSlice(index, length);
+            } finally {
+                unpin();
+            }
+        }
+
+        boolean isStale(long revalidateIntervalMillis) {
+            if (file == null) {
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            if (now - lastChecked < revalidateIntervalMillis) {
+                return false;
+            }
+            lastChecked = now;
+            return file.lastModified() != lastModified;
+        }
+
+        /**
+         * Releases the reference held by the cache. The buffer is freed once no slice is being retained.
+         */
+        void release() {
+            if (cached.compareAndSet(true, false)) {
+                unpin();
+            }
+        }
+
+        /**
+         * Pins the buffer, unless the cache has already released it. A released pooled buffer may have been
+         * reallocated, so it must not be retained without a pin.
+         *
+         * @return True if the buffer is pinned
+         */
+        private boolean pin() {
+            while (true) {
+                int current = pins.get();
+                if (current == 0) {
+                    return false;
+                }
+                if (pins.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private void unpin() {
+            if (pins.decrementAndGet() == 0) {
+                buffer.release();
+            }
+        }
+
+        private static boolean isAccepted(String acceptEncoding, String encoding) {
+            Boolean wildcard = null;
+            for (String token : StringUtils.splitOmitEmptyStrings(acceptEncoding, ',')) {
+                int semicolon = token.indexOf(';');
+                String name = (semicolon < 0 ? token : token.substring(0, semicolon)).trim();
+                boolean accepted = semicolon < 0 || !isZeroQuality(token.substring(semicolon + 1));
+                if (name.equals(encoding)) {
+                    return accepted;
+                }
+                if (name.equals(ANY)) {
+                    wildcard = accepted;
+                }
+            }
+            return wildcard != null && wildcard;
+        }
+
+        private static boolean isZeroQuality(String parameters) {
+            for (String parameter : StringUtils.splitOmitEmptyStrings(parameters, ';')) {
+                String trimmed = parameter.trim();
+                if (trimmed.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(trimmed.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -33,12 +33,14 @@ import io.micronaut.http.context.ServerRequestContext;
 import io.micronaut.http.netty.websocket.AbstractNettyWebSocketHandler;
 import io.micronaut.http.netty.websocket.NettyWebSocketSession;
 import io.micronaut.http.netty.websocket.WebSocketSessionRepository;
+import io.micronaut.http.netty.websocket.WebSocketTopicIndex;
 import io.micronaut.http.server.CoroutineHelper;
 import io.micronaut.http.server.netty.NettyEmbeddedServices;
 import io.micronaut.inject.ExecutableMethod;
 import io.micronaut.inject.MethodExecutionHandle;
 import io.micronaut.web.router.UriRouteMatch;
 import io.micronaut.websocket.CloseReason;
+import io.micronaut.websocket.TopicWebSocketSession;
 import io.micronaut.websocket.WebSocketPongMessage;
 import io.micronaut.websocket.WebSocketSession;
 import io.micronaut.websocket.bind.WebSocketState;
@@ -61,6 +63,7 @@ import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.security.Principal;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -226,17 +229,21 @@ public class NettyServerWebSocketHandler extends AbstractNettyWebSocketHandler {
         String id = originatingRequest.getHeaders().get(HttpHeaderNames.SEC_WEBSOCKET_KEY);
         final Channel channel = ctx.channel();
 
-        NettyWebSocketSession session = new NettyWebSocketSession(
-                id,
-                channel,
-                originatingRequest,
-                mediaTypeCodecRegistry,
-                webSocketVersion.toHttpHeaderValue(),
-                ctx.pipeline().get(SslHandler.class) != null
-        ) {
+        final class ServerWebSocketSession extends NettyWebSocketSession implements TopicWebSocketSession {
 
             private final ConvertibleValues<Object> uriVars = ConvertibleValues.of(uriVariables);
 
+            ServerWebSocketSession() {
+                super(
+                    id,
+                    channel,
+                    originatingRequest,
+                    mediaTypeCodecRegistry,
+                    webSocketVersion.toHttpHeaderValue(),
+                    ctx.pipeline().get(SslHandler.class) != null
+                );
+            }
+
             @Override
             public Optional<String> getSubprotocol() {
                 return Optional.ofNullable(subProtocol);
@@ -265,12 +272,38 @@ public class NettyServerWebSocketHandler extends AbstractNettyWebSocketHandler {
                 return originatingRequest.getAttribute(HttpAttributes.PRINCIPAL, Principal.class);
             }
 
+            @Override
+            public boolean subscribe(String topic) {
+                return topicIndex().subscribe(channel, topic);
+            }
+
+            @Override
+            public boolean unsubscribe(String topic) {
+                return topicIndex().unsubscribe(channel, topic);
+            }
+
+            @Override
+            public Set<String> getTopics() {
+                WebSocketTopicIndex topicIndex = webSocketSessionRepository.getTopicIndex();
+                return topicIndex == null ? Collections.emptySet() : topicIndex.getTopics(channel);
+            }
+
+            private WebSocketTopicIndex topicIndex() {
+                WebSocketTopicIndex topicIndex = webSocketSessionRepository.getTopicIndex();
+                if (topicIndex == null) {
+                    throw new UnsupportedOperationException("Topics not supported by this session repository");
+                }
+                return topicIndex;
+            }
+
             @Override
             public ConvertibleValues<Object> getUriVariables() {
                 return uriVars;
             }
 
-        };
+        }
+
+        NettyWebSocketSession session = new ServerWebSocketSession();
 
         webSocketSessionRepository.addChannel(channel);
 
@@ -31,11 +31,13 @@ import io.micronaut.http.context.ServerRequestContext;
 import io.micronaut.http.exceptions.HttpStatusException;
 import io.micronaut.http.netty.NettyHttpHeaders;
 import io.micronaut.http.netty.channel.ChannelPipelineCustomizer;
+import io.micronaut.http.netty.websocket.NettyWebSocketSession;
 import io.micronaut.http.netty.websocket.WebSocketSessionRepository;
 import io.micronaut.http.server.RequestLifecycle;
 import io.micronaut.http.server.RouteExecutor;
 import io.micronaut.http.server.netty.NettyEmbeddedServices;
 import io.micronaut.http.server.netty.NettyHttpRequest;
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
 import io.micronaut.web.router.RouteMatch;
 import io.micronaut.web.router.Router;
 import io.micronaut.web.router.UriRouteMatch;
@@ -51,6 +53,7 @@ import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
@@ -90,6 +93,7 @@ public class NettyServerWebSocketUpgradeHandler extends SimpleChannelInboundHand
     private final WebSocketSessionRepository webSocketSessionRepository;
     private final RouteExecutor routeExecutor;
     private final NettyEmbeddedServices nettyEmbeddedServices;
+    private final NettyHttpServerConfiguration.WebSocketConfiguration webSocketConfiguration;
     private WebSocketServerHandshaker handshaker;
     private boolean cancelUpgrade = false;
 
@@ -101,11 +105,26 @@ public class NettyServerWebSocketUpgradeHandler extends SimpleChannelInboundHand
      */
     public NettyServerWebSocketUpgradeHandler(NettyEmbeddedServices embeddedServices,
                                               WebSocketSessionRepository webSocketSessionRepository) {
+        this(embeddedServices, webSocketSessionRepository, embeddedServices.getApplicationContext()
+            .findBean(NettyHttpServerConfiguration.WebSocketConfiguration.class)
+            .orElseGet(NettyHttpServerConfiguration.WebSocketConfiguration::new));
+    }
+
+    /**
+     * @param embeddedServices The embedded server services
+     * @param webSocketSessionRepository The websocket session repository
+     * @param webSocketConfiguration The websocket configuration
+     * @since 4.0.0
+     */
+    public NettyServerWebSocketUpgradeHandler(NettyEmbeddedServices embeddedServices,
+                                              WebSocketSessionRepository webSocketSessionRepository,
+                                              NettyHttpServerConfiguration.WebSocketConfiguration webSocketConfiguration) {
         this.router = embeddedServices.getRouter();
         this.webSocketBeanRegistry = WebSocketBeanRegistry.forServer(embeddedServices.getApplicationContext());
         this.webSocketSessionRepository = webSocketSessionRepository;
         this.routeExecutor = embeddedServices.getRouteExecutor();
         this.nettyEmbeddedServices = embeddedServices;
+        this.webSocketConfiguration = webSocketConfiguration;
     }
 
     @Override
@@ -167,6 +186,7 @@ public class NettyServerWebSocketUpgradeHandler extends SimpleChannelInboundHand
                     routeMatch,
                     ctx,
                     routeExecutor.getCoroutineHelper().orElse(null));
+                configureBackpressure(ctx.channel(), webSocketHandler.getSession());
                 pipeline.addBefore(ctx.name(), NettyServerWebSocketHandler.ID, webSocketHandler);
 
                 pipeline.remove(ChannelPipelineCustomizer.HANDLER_HTTP_STREAM);
@@ -187,6 +207,18 @@ public class NettyServerWebSocketUpgradeHandler extends SimpleChannelInboundHand
         }
     }
 
+    private void configureBackpressure(Channel channel, NettyWebSocketSession session) {
+        session.setBackpressurePolicy(webSocketConfiguration.getBackpressurePolicy());
+        Integer low = webSocketConfiguration.getWriteBufferLowWaterMark();
+        Integer high = webSocketConfiguration.getWriteBufferHighWaterMark();
+        if (low != null || high != null) {
+            WriteBufferWaterMark current = channel.config().getWriteBufferWaterMark();
+            int highValue = high != null ? high : Math.max(current.high(), low);
+            int lowValue = low != null ? low : Math.min(current.low(), highValue);
+            channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(lowValue, highValue));
+        }
+    }
+
     /**
      * Do the handshaking for WebSocket request.
      *
@@ -20,6 +20,7 @@ import io.micronaut.core.annotation.Internal;
 import io.micronaut.http.server.netty.NettyEmbeddedServer;
 import io.micronaut.http.server.netty.NettyEmbeddedServices;
 import io.micronaut.http.server.netty.NettyHttpRequest;
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration;
 import io.micronaut.websocket.context.WebSocketBeanRegistry;
 import io.netty.channel.SimpleChannelInboundHandler;
 import jakarta.inject.Singleton;
@@ -34,6 +35,15 @@ import jakarta.inject.Singleton;
 @Singleton
 @Internal
 public final class WebSocketUpgradeHandlerFactory {
+    private final NettyHttpServerConfiguration.WebSocketConfiguration webSocketConfiguration;
+
+    /**
+     * @param webSocketConfiguration The websocket configuration shared by the handlers
+     */
+    public WebSocketUpgradeHandlerFactory(NettyHttpServerConfiguration.WebSocketConfiguration webSocketConfiguration) {
+        this.webSocketConfiguration = webSocketConfiguration;
+    }
+
     /**
      * Creates the websocket upgrade inbound handler.
      * @param embeddedServer The server
@@ -41,6 +51,6 @@ public final class WebSocketUpgradeHandlerFactory {
      * @return The handler
      */
     public SimpleChannelInboundHandler<NettyHttpRequest<?>> create(NettyEmbeddedServer embeddedServer, NettyEmbeddedServices nettyEmbeddedServices) {
-        return new NettyServerWebSocketUpgradeHandler(nettyEmbeddedServices, embeddedServer);
+        return new NettyServerWebSocketUpgradeHandler(nettyEmbeddedServices, embeddedServer, webSocketConfiguration);
     }
 }
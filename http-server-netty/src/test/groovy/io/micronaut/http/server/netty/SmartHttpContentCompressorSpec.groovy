@@ -1,5 +1,14 @@
 package io.micronaut.http.server.netty
 
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.annotation.Compression
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.annotation.Produces
+import io.micronaut.http.server.netty.configuration.NettyHttpServerConfiguration
+import io.micronaut.runtime.server.EmbeddedServer
+import io.netty.handler.codec.compression.Zstd
 import io.netty.handler.codec.http.*
 import spock.lang.Specification
 import spock.lang.Unroll
@@ -34,4 +43,90 @@ class SmartHttpContentCompressorSpec extends Specification {
         inCompressible | 0      | true      // incompressible, always skip
         null           | null   | true      // if the content type is unknown, skip
     }
+
+    @Unroll
+    void "test #acceptEncoding negotiates #expected"() {
+        expect:
+        SmartHttpContentCompressor.negotiate(acceptEncoding, ['zstd', 'gzip', 'deflate']) == expected
+
+        where:
+        acceptEncoding                   | expected
+        'identity'                       | null
+        'gzip'                           | 'gzip'
+        'deflate, gzip'                  | 'gzip'
+        'gzip;q=0.5, deflate'            | 'deflate'
+        'gzip;q=0, deflate;q=0'          | null
+        '*'                              | (Zstd.isAvailable() ? 'zstd' : 'gzip')
+        '*;q=0.1, gzip;q=0.5'            | 'gzip'
+        'zstd, gzip'                     | (Zstd.isAvailable() ? 'zstd' : 'gzip')
+        'compress'                       | null
+    }
+
+    void "test media type specific encodings and levels"() {
+        given:
+        def json = new NettyHttpServerConfiguration.CompressionConfiguration.MediaTypeCompression(mediaType: 'application/json', encodings: ['zstd'], level: 1)
+        def text = new NettyHttpServerConfiguration.CompressionConfiguration.MediaTypeCompression(mediaType: 'text/*', level: 9)
+        def compression = new NettyHttpServerConfiguration.CompressionConfiguration(mediaTypes: [json, text], brotliQuality: 5)
+        def strategy = new DefaultHttpCompressionStrategy(1024, 6, compression)
+
+        expect:
+        strategy.getContentEncodings(response('application/json')) == ['zstd']
+        strategy.getCompressionLevel(response('application/json'), 'zstd') == 1
+        strategy.getContentEncodings(response('text/css')) == NettyHttpServerConfiguration.CompressionConfiguration.DEFAULT_ENCODINGS
+        strategy.getCompressionLevel(response('text/css; charset=utf-8'), 'br') == 9
+        strategy.getCompressionLevel(response('application/xml'), 'br') == 5
+        strategy.getCompressionLevel(response('application/xml'), 'gzip') == 6
+    }
+
+    void "test the compression of a route can be overridden"() {
+        given:
+        EmbeddedServer server = ApplicationContext.run(EmbeddedServer, ['spec.name': 'SmartHttpContentCompressorSpec'])
+
+        when:
+        HttpURLConnection deflate = (HttpURLConnection) new URL(server.URL, '/compression/deflate').openConnection()
+        deflate.setRequestProperty('Accept-Encoding', 'gzip, deflate')
+        HttpURLConnection disabled = (HttpURLConnection) new URL(server.URL, '/compression/disabled').openConnection()
+        disabled.setRequestProperty('Accept-Encoding', 'gzip, deflate')
+        HttpURLConnection defaults = (HttpURLConnection) new URL(server.URL, '/compression/default').openConnection()
+        defaults.setRequestProperty('Accept-Encoding', 'gzip')
+
+        then:
+        deflate.getHeaderField('Content-Encoding') == 'deflate'
+        disabled.getHeaderField('Content-Encoding') == null
+        defaults.getHeaderField('Content-Encoding') == 'gzip'
+
+        cleanup:
+        server.close()
+    }
+
+    private static HttpResponse response(String contentType) {
+        HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK)
+        response.headers().add(HttpHeaderNames.CONTENT_TYPE, contentType)
+        return response
+    }
+
+    @Requires(property = 'spec.name', value = 'SmartHttpContentCompressorSpec')
+    @Controller('/compression')
+    @Produces('text/plain')
+    static class CompressionController {
+
+        static final String BODY = 'compressible ' * 200
+
+        @Get('/deflate')
+        @Compression(value = 'deflate', level = 9)
+        String deflate() {
+            BODY
+        }
+
+        @Get('/disabled')
+        @Compression(enabled = false)
+        String disabled() {
+            BODY
+        }
+
+        @Get('/default')
+        String defaults() {
+            BODY
+        }
+    }
 }
@@ -0,0 +1,217 @@
+package io.micronaut.http.server.netty.cache
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.core.annotation.Nullable
+import io.micronaut.http.HttpHeaders
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.annotation.Header
+import io.micronaut.http.annotation.PathVariable
+import io.micronaut.http.client.HttpClient
+import io.micronaut.runtime.server.EmbeddedServer
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.atomic.AtomicInteger
+
+class ResponseCacheFilterSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    EmbeddedServer embeddedServer = ApplicationContext.run(EmbeddedServer, [
+            'spec.name': 'ResponseCacheFilterSpec',
+            'micronaut.server.response-cache.enabled': true
+    ])
+
+    @Shared
+    @AutoCleanup
+    HttpClient client = embeddedServer.applicationContext.createBean(HttpClient, embeddedServer.URL)
+
+    CachedController controller = embeddedServer.applicationContext.getBean(CachedController)
+
+    void "test cacheable responses are served from the cache"() {
+        when:
+        HttpResponse<String> first = client.toBlocking().exchange('/cached/public/a', String)
+        HttpResponse<String> second = client.toBlocking().exchange('/cached/public/a', String)
+
+        then:
+        first.body() == 'a'
+        second.body() == 'a'
+        second.header(HttpHeaders.ETAG) == first.header(HttpHeaders.ETAG)
+        second.header(HttpHeaders.AGE) != null
+        controller.invocations.get('public/a').get() == 1
+    }
+
+    void "test 304 is returned if the entity tag matches"() {
+        given:
+        String etag = client.toBlocking().exchange('/cached/public/b', String).header(HttpHeaders.ETAG)
+
+        when:
+        HttpResponse<?> response = client.toBlocking().exchange(HttpRequest.GET('/cached/public/b').header(HttpHeaders.IF_NONE_MATCH, etag))
+
+        then:
+        etag != null
+        response.status() == HttpStatus.NOT_MODIFIED
+        response.header(HttpHeaders.ETAG) == etag
+        controller.invocations.get('public/b').get() == 1
+    }
+
+    void "test private responses are not cached"() {
+        when:
+        client.toBlocking().exchange('/cached/private', String)
+        client.toBlocking().exchange('/cached/private', String)
+
+        then:
+        controller.invocations.get('private').get() == 2
+    }
+
+    void "test responses are cached per value of the headers they vary on"() {
+        when:
+        String en = client.toBlocking().retrieve(HttpRequest.GET('/cached/vary').header(HttpHeaders.ACCEPT_LANGUAGE, 'en'))
+        String de = client.toBlocking().retrieve(HttpRequest.GET('/cached/vary').header(HttpHeaders.ACCEPT_LANGUAGE, 'de'))
+        String enAgain = client.toBlocking().retrieve(HttpRequest.GET('/cached/vary').header(HttpHeaders.ACCEPT_LANGUAGE, 'en'))
+
+        then:
+        en == 'en'
+        de == 'de'
+        enAgain == 'en'
+        controller.invocations.get('vary').get() == 2
+    }
+
+    void "test responses are cached per host"() {
+        when:
+        String first = client.toBlocking().retrieve(HttpRequest.GET('/cached/host').header(HttpHeaders.HOST, 'first.example'))
+        String second = client.toBlocking().retrieve(HttpRequest.GET('/cached/host').header(HttpHeaders.HOST, 'second.example'))
+        String firstAgain = client.toBlocking().retrieve(HttpRequest.GET('/cached/host').header(HttpHeaders.HOST, 'first.example'))
+
+        then:
+        first == 'first.example'
+        second == 'second.example'
+        firstAgain == 'first.example'
+        controller.invocations.get('host').get() == 2
+    }
+
+    void "test responses that are not public are not cached for requests with cookies"() {
+        when:"a response to a request with cookies is not stored"
+        String personal = client.toBlocking().retrieve(HttpRequest.GET('/cached/cookie').header(HttpHeaders.COOKIE, 'user=alice'))
+        String anonymous = client.toBlocking().retrieve('/cached/cookie')
+
+        then:
+        personal == 'user=alice'
+        anonymous == 'anonymous'
+        controller.invocations.get('cookie').get() == 2
+
+        when:"a cached response is not served to a request with cookies"
+        String cached = client.toBlocking().retrieve('/cached/cookie')
+        String other = client.toBlocking().retrieve(HttpRequest.GET('/cached/cookie').header(HttpHeaders.COOKIE, 'user=bob'))
+
+        then:
+        cached == 'anonymous'
+        other == 'user=bob'
+        controller.invocations.get('cookie').get() == 3
+    }
+
+    void "test public responses are cached for requests with cookies"() {
+        when:
+        client.toBlocking().retrieve(HttpRequest.GET('/cached/public/c').header(HttpHeaders.COOKIE, 'user=alice'))
+        String cached = client.toBlocking().retrieve(HttpRequest.GET('/cached/public/c').header(HttpHeaders.COOKIE, 'user=bob'))
+
+        then:
+        cached == 'c'
+        controller.invocations.get('public/c').get() == 1
+    }
+
+    void "test concurrent misses execute the route once"() {
+        given:"a stale response"
+        client.toBlocking().retrieve('/cached/slow')
+        sleep(1100)
+
+        when:
+        List<String> bodies = Flux.range(0, 5)
+                .flatMap(i -> client.retrieve('/cached/slow'))
+                .collectList()
+                .block()
+
+        then:
+        bodies == ['slow'] * 5
+        controller.invocations.get('slow').get() == 2
+    }
+
+    void "test concurrent requests for a location without a cacheable response do not wait for each other"() {
+        when:
+        List<String> bodies = Flux.range(0, 5)
+                .flatMap(i -> client.retrieve('/cached/uncacheable'))
+                .collectList()
+                .block()
+
+        then:
+        bodies == ['uncacheable'] * 5
+        controller.invocations.get('uncacheable').get() == 5
+        controller.maxConcurrentUncacheable.get() == 5
+    }
+
+    @Requires(property = 'spec.name', value = 'ResponseCacheFilterSpec')
+    @Controller('/cached')
+    static class CachedController {
+
+        final Map<String, AtomicInteger> invocations = [:].withDefault { new AtomicInteger() }.asSynchronized()
+        final AtomicInteger concurrentUncacheable = new AtomicInteger()
+        final AtomicInteger maxConcurrentUncacheable = new AtomicInteger()
+
+        @Get('/public/{name}')
+        HttpResponse<String> publicResponse(@PathVariable String name) {
+            invocations.get('public/' + name).incrementAndGet()
+            return HttpResponse.ok(name).header(HttpHeaders.CACHE_CONTROL, 'public, max-age=60')
+        }
+
+        @Get('/private')
+        HttpResponse<String> privateResponse() {
+            invocations.get('private').incrementAndGet()
+            return HttpResponse.ok('private').header(HttpHeaders.CACHE_CONTROL, 'private, max-age=60')
+        }
+
+        @Get('/vary')
+        HttpResponse<String> vary(@Header(HttpHeaders.ACCEPT_LANGUAGE) String language) {
+            invocations.get('vary').incrementAndGet()
+            return HttpResponse.ok(language)
+                    .header(HttpHeaders.CACHE_CONTROL, 'max-age=60')
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE)
+        }
+
+        @Get('/host')
+        HttpResponse<String> host(@Header(HttpHeaders.HOST) String host) {
+            invocations.get('host').incrementAndGet()
+            return HttpResponse.ok(host).header(HttpHeaders.CACHE_CONTROL, 'public, max-age=60')
+        }
+
+        @Get('/cookie')
+        HttpResponse<String> cookie(@Nullable @Header(HttpHeaders.COOKIE) String cookie) {
+            invocations.get('cookie').incrementAndGet()
+            return HttpResponse.ok(cookie ?: 'anonymous').header(HttpHeaders.CACHE_CONTROL, 'max-age=60')
+        }
+
+        @Get('/slow')
+        Mono<HttpResponse<String>> slow() {
+            invocations.get('slow').incrementAndGet()
+            return Mono.delay(Duration.ofMillis(500))
+                    .map(l -> HttpResponse.ok('slow').header(HttpHeaders.CACHE_CONTROL, 'max-age=1'))
+        }
+
+        @Get('/uncacheable')
+        Mono<HttpResponse<String>> uncacheable() {
+            invocations.get('uncacheable').incrementAndGet()
+            maxConcurrentUncacheable.accumulateAndGet(concurrentUncacheable.incrementAndGet(), Math::max)
+            return Mono.delay(Duration.ofMillis(500))
+                    .map(l -> HttpResponse.ok('uncacheable'))
+                    .doFinally(signal -> concurrentUncacheable.decrementAndGet())
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.micronaut.http.server.netty.handler.accesslog
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.runtime.server.EmbeddedServer
+import spock.lang.Specification
+import spock.lang.TempDir
+import spock.util.concurrent.PollingConditions
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class AsyncFileAccessLogSinkSpec extends Specification {
+
+    @TempDir
+    Path directory
+
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    void "test lines are written to the file"() {
+        given:
+        Path file = directory.resolve('logs/access.log')
+        AsyncFileAccessLogSink sink = new AsyncFileAccessLogSink(file, 16, 0, 1)
+
+        when:
+        sink.log(new StringBuilder('first'))
+        sink.log('second')
+        sink.close()
+
+        then:
+        Files.readAllLines(file) == ['first', 'second']
+        sink.droppedLines == 0
+    }
+
+    void "test the file is rotated once it exceeds the maximum size"() {
+        given:
+        Path file = directory.resolve('access.log')
+        AsyncFileAccessLogSink sink = new AsyncFileAccessLogSink(file, 16, 10, 2)
+
+        when:
+        ['aaaaaaaa', 'bbbbbbbb', 'cccccccc', 'dddddddd'].each {
+            sink.log(it)
+            conditions.eventually {
+                assert Files.exists(file) && Files.readAllLines(file).contains(it)
+            }
+        }
+        sink.close()
+
+        then:
+        Files.readAllLines(file) == ['dddddddd']
+        Files.readAllLines(directory.resolve('access.log.1')) == ['cccccccc']
+        Files.readAllLines(directory.resolve('access.log.2')) == ['bbbbbbbb']
+        !Files.exists(directory.resolve('access.log.3'))
+    }
+
+    void "test lines logged after close are dropped"() {
+        given:
+        AsyncFileAccessLogSink sink = new AsyncFileAccessLogSink(directory.resolve('access.log'), 16, 0, 1)
+        sink.close()
+
+        when:
+        sink.log('dropped')
+
+        then:
+        sink.droppedLines == 1
+    }
+
+    void "test the server writes access logs to the configured file"() {
+        given:
+        Path file = directory.resolve('server-access.log')
+        ApplicationContext ctx = ApplicationContext.run([
+                'spec.name': 'AsyncFileAccessLogSinkSpec',
+                'micronaut.server.netty.access-logger.enabled': true,
+                'micronaut.server.netty.access-logger.log-format': '%r %s',
+                'micronaut.server.netty.access-logger.file.path': file.toString(),
+        ])
+        EmbeddedServer server = ctx.getBean(EmbeddedServer)
+        server.start()
+
+        when:
+        String body = new URL(server.URL, '/access-log-file').text
+
+        then:
+        body == 'ok'
+        conditions.eventually {
+            assert Files.exists(file) && Files.readAllLines(file) == ['GET /access-log-file HTTP/1.1 200']
+        }
+
+        cleanup:
+        ctx.close()
+    }
+
+    @Requires(property = 'spec.name', value = 'AsyncFileAccessLogSinkSpec')
+    @Controller('/access-log-file')
+    static class AccessLogFileController {
+        @Get
+        String index() {
+            'ok'
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.micronaut.http.server.netty.jackson
+
+import com.fasterxml.jackson.annotation.JsonView
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import io.micronaut.core.annotation.Introspected
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.annotation.Body
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Post
+import io.micronaut.http.client.HttpClient
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.runtime.server.EmbeddedServer
+import reactor.core.publisher.Flux
+import org.reactivestreams.Publisher
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class JsonContentProcessorSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    EmbeddedServer embeddedServer = ApplicationContext.run(EmbeddedServer, ['spec.name': 'JsonContentProcessorSpec'])
+
+    @Shared
+    @AutoCleanup
+    HttpClient client = embeddedServer.applicationContext.createBean(HttpClient, embeddedServer.URL)
+
+    void 'test a large body is bound directly to the argument type'() {
+        given:
+        List<Map> items = (1..2000).collect { [name: "item-$it".toString(), quantity: it] }
+
+        when:
+        String result = client.toBlocking().retrieve(HttpRequest.POST('/json-processor/order', [items: items]))
+
+        then:
+        result == 'Order: 2000 items, 2001000 total'
+    }
+
+    void 'test a body bound directly honours the json view of the argument'() {
+        when:
+        String result = client.toBlocking().retrieve(HttpRequest.POST('/json-processor/view', '{"name":"public","secret":"hidden"}'))
+
+        then:
+        result == 'public:null'
+    }
+
+    void 'test a path variable does not prevent binding the body directly'() {
+        when:
+        String result = client.toBlocking().retrieve(HttpRequest.POST('/json-processor/order/42', '{"items":[{"name":"a","quantity":3}]}'))
+
+        then:
+        result == '42: 1 items'
+    }
+
+    void 'test invalid JSON fails as without the direct binding'() {
+        when:
+        client.toBlocking().retrieve(HttpRequest.POST('/json-processor/order', '{"items":[}'))
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.BAD_REQUEST
+        e.message.startsWith('Invalid JSON: Unexpected character')
+        e.message.contains('[Source: UNKNOWN; line: 1')
+    }
+
+    void 'test JSON that cannot be bound falls back to converting the tree'() {
+        when:
+        client.toBlocking().retrieve(HttpRequest.POST('/json-processor/order', '{"items":[{"name":"a","quantity":"many"}]}'))
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.BAD_REQUEST
+        e.message.startsWith('Failed to convert argument [order]')
+    }
+
+    void 'test a blank body is treated as missing'() {
+        when:
+        client.toBlocking().retrieve(HttpRequest.POST('/json-processor/order', '  ').contentType('application/json'))
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.BAD_REQUEST
+        e.message.contains('Required Body [order] not specified')
+    }
+
+    void 'test publisher bodies are still streamed'() {
+        when:
+        String result = client.toBlocking().retrieve(HttpRequest.POST('/json-processor/stream', '[{"name":"a","quantity":1},{"name":"b","quantity":2}]'))
+
+        then:
+        result == 'a,b'
+    }
+
+    @Requires(property = 'spec.name', value = 'JsonContentProcessorSpec')
+    @Controller('/json-processor')
+    static class OrderController {
+
+        @Post('/order')
+        String order(@Body Order order) {
+            "Order: ${order.items.size()} items, ${order.items.sum { it.quantity }} total"
+        }
+
+        @Post('/order/{id}')
+        String order(Long id, @Body Order order) {
+            "$id: ${order.items.size()} items"
+        }
+
+        @Post('/view')
+        String view(@Body @JsonView(Public) Account account) {
+            "${account.name}:${account.secret}"
+        }
+
+        @Post('/stream')
+        Publisher<String> stream(@Body Publisher<Item> items) {
+            Flux.from(items).map { it.name }.collectList().map { it.join(',') }
+        }
+    }
+
+    @Introspected
+    static class Order {
+        List<Item> items
+    }
+
+    @Introspected
+    static class Item {
+        String name
+        int quantity
+    }
+
+    static class Public {
+    }
+
+    static class Internal {
+    }
+
+    @Introspected
+    static class Account {
+        @JsonView(Public)
+        String name
+        @JsonView(Internal)
+        String secret
+    }
+}
@@ -0,0 +1,206 @@
+package io.micronaut.http.server.netty.resources
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.http.MediaType
+import io.micronaut.http.server.netty.types.files.StaticResourceCache
+import io.micronaut.runtime.server.EmbeddedServer
+import io.micronaut.scheduling.io.watch.event.FileChangedEvent
+import io.micronaut.scheduling.io.watch.event.WatchEventType
+import io.netty.buffer.ByteBuf
+import io.netty.buffer.PooledByteBufAllocator
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.zip.GZIPInputStream
+
+class StaticResourceCacheSpec extends Specification {
+
+    static final String CONTENT = "<html><head></head><body>${'Cached static resource. ' * 100}</body></html>"
+
+    @Shared
+    File directory = File.createTempDir("staticResourceCacheSpec", "")
+
+    @Shared
+    @AutoCleanup
+    EmbeddedServer embeddedServer
+
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    void setupSpec() {
+        new File(directory, 'cached.html').text = CONTENT
+        new File(directory, 'precompressed.css').text = 'body { color: red; }'
+        new File(directory, 'precompressed.css.br').bytes = [1, 2, 3] as byte[]
+        embeddedServer = ApplicationContext.run(EmbeddedServer, [
+                'micronaut.router.static-resources.default.paths': ['file:' + directory.absolutePath],
+                'micronaut.server.netty.responses.file.static-resource-cache.enabled': true,
+                'micronaut.server.netty.responses.file.static-resource-cache.revalidate-interval': '0s',
+        ])
+    }
+
+    void cleanupSpec() {
+        directory.deleteDir()
+    }
+
+    void "test static resources are cached with their compressed variants"() {
+        expect:
+        embeddedServer.applicationContext.containsBean(StaticResourceCache)
+        conditions.eventually {
+            assert open('/cached.html').getHeaderField('ETag') != null
+        }
+
+        when:
+        HttpURLConnection identity = open('/cached.html')
+        HttpURLConnection gzip = open('/cached.html', ['Accept-Encoding': 'gzip'])
+
+        then:
+        identity.responseCode == 200
+        identity.getHeaderField('Content-Type') == 'text/html'
+        identity.getHeaderField('Content-Encoding') == null
+        identity.getHeaderField('Vary') == 'Accept-Encoding'
+        identity.inputStream.text == CONTENT
+
+        gzip.responseCode == 200
+        gzip.getHeaderField('Content-Encoding') == 'gzip'
+        gzip.getHeaderField('ETag') != identity.getHeaderField('ETag')
+        Integer.parseInt(gzip.getHeaderField('Content-Length')) < CONTENT.length()
+        new GZIPInputStream(gzip.inputStream).text == CONTENT
+    }
+
+    void "test a precompressed sibling file is served"() {
+        expect:
+        conditions.eventually {
+            assert open('/precompressed.css').getHeaderField('ETag') != null
+        }
+
+        when:
+        HttpURLConnection connection = open('/precompressed.css', ['Accept-Encoding': 'gzip, br'])
+
+        then:
+        connection.responseCode == 200
+        connection.getHeaderField('Content-Encoding') == 'br'
+        connection.inputStream.bytes == [1, 2, 3] as byte[]
+    }
+
+    void "test 304 is returned if the entity tag matches"() {
+        given:
+        conditions.eventually {
+            assert open('/cached.html').getHeaderField('ETag') != null
+        }
+        String etag = open('/cached.html').getHeaderField('ETag')
+
+        when:
+        HttpURLConnection connection = open('/cached.html', ['If-None-Match': etag])
+
+        then:
+        connection.responseCode == 304
+        connection.getHeaderField('ETag') == etag
+    }
+
+    void "test each encoding is validated against its own entity tag"() {
+        given:
+        conditions.eventually {
+            assert open('/cached.html').getHeaderField('ETag') != null
+        }
+        String identity = open('/cached.html').getHeaderField('ETag')
+        String gzip = open('/cached.html', ['Accept-Encoding': 'gzip']).getHeaderField('ETag')
+        String deflate = open('/cached.html', ['Accept-Encoding': 'deflate']).getHeaderField('ETag')
+
+        expect:
+        [identity, gzip, deflate].unique().size() == 3
+        gzip.endsWith('-gzip"')
+        deflate.endsWith('-deflate"')
+
+        when:"the gzip entity tag is sent for the identity content"
+        HttpURLConnection connection = open('/cached.html', ['If-None-Match': gzip])
+
+        then:
+        connection.responseCode == 200
+        connection.getHeaderField('ETag') == identity
+
+        when:
+        connection = open('/cached.html', ['If-None-Match': gzip, 'Accept-Encoding': 'gzip'])
+
+        then:
+        connection.responseCode == 304
+        connection.getHeaderField('ETag') == gzip
+
+        when:"a range is requested with the gzip entity tag"
+        connection = open('/cached.html', ['Range': 'bytes=0-5', 'If-Range': gzip, 'Accept-Encoding': 'gzip'])
+
+        then:"the complete gzip content is returned"
+        connection.responseCode == 200
+        connection.getHeaderField('Content-Encoding') == 'gzip'
+
+        when:"a range is requested with the identity entity tag"
+        connection = open('/cached.html', ['Range': 'bytes=0-5', 'If-Range': identity, 'Accept-Encoding': 'gzip'])
+
+        then:"the range is taken from the identity content"
+        connection.responseCode == 206
+        connection.getHeaderField('ETag') == identity
+        connection.getHeaderField('Content-Encoding') == null
+        connection.inputStream.text == '<html>'
+    }
+
+    void "test modified files are invalidated"() {
+        given:
+        File file = new File(directory, 'modified.html')
+        file.text = 'original'
+        conditions.eventually {
+            assert open('/modified.html').getHeaderField('ETag') != null
+        }
+
+        when:
+        file.text = 'modified'
+        file.setLastModified(file.lastModified() + 5000)
+
+        then:
+        open('/modified.html').inputStream.text == 'modified'
+    }
+
+    void "test a file change event invalidates the cached file"() {
+        given:
+        File file = new File(directory, 'watched.html')
+        file.text = 'watched'
+        StaticResourceCache cache = embeddedServer.applicationContext.getBean(StaticResourceCache)
+        conditions.eventually {
+            assert cache.get('/watched.html') != null
+        }
+
+        when:
+        embeddedServer.applicationContext.publishEvent(new FileChangedEvent(file.toPath(), WatchEventType.MODIFY))
+
+        then:
+        cache.get('/watched.html') == null
+    }
+
+    void "test a released entry is never retained again"() {
+        given:
+        ByteBuf buffer = PooledByteBufAllocator.DEFAULT.directBuffer(4, 4).writeBytes([1, 2, 3, 4] as byte[])
+        StaticResourceCache.Entry entry = new StaticResourceCache.Entry(new URL('file:/entry'), null, MediaType.TEXT_PLAIN_TYPE,
+                0, '"etag"', buffer, 4, new String[0], new int[0], new int[0])
+
+        when:
+        ByteBuf slice = entry.retainedSlice(1, 2)
+        entry.release()
+
+        then: 'the in-flight slice keeps the buffer alive'
+        buffer.refCnt() == 1
+        entry.retainedSlice(0, 4) == null
+
+        when:
+        entry.release()
+        slice.release()
+
+        then:
+        buffer.refCnt() == 0
+        entry.retainedContent(-1) == null
+    }
+
+    private HttpURLConnection open(String path, Map<String, String> headers = [:]) {
+        HttpURLConnection connection = (HttpURLConnection) new URL(embeddedServer.URL, path).openConnection()
+        headers.each { name, value -> connection.setRequestProperty(name, value) }
+        return connection
+    }
+}
@@ -0,0 +1,256 @@
+package io.micronaut.http.server.netty.sse
+
+import io.micronaut.context.annotation.Property
+import io.micronaut.context.annotation.Requires
+import io.micronaut.core.annotation.Nullable
+import io.micronaut.http.MediaType
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.annotation.Header
+import io.micronaut.http.sse.Event
+import io.micronaut.runtime.server.EmbeddedServer
+import io.micronaut.test.extensions.spock.annotation.MicronautTest
+import io.netty.buffer.ByteBuf
+import io.netty.channel.DefaultEventLoop
+import io.netty.util.concurrent.EventExecutor
+import jakarta.inject.Inject
+import org.reactivestreams.Publisher
+import org.reactivestreams.Subscription
+import reactor.core.publisher.BaseSubscriber
+import reactor.core.publisher.Flux
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.nio.charset.StandardCharsets
+import java.time.Duration
+import java.util.concurrent.Callable
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+
+@MicronautTest
+@Property(name = 'spec.name', value = 'ServerSentEventBroadcasterSpec')
+@Property(name = 'micronaut.server.netty.sse.replay-capacity', value = '3')
+@Property(name = 'micronaut.server.netty.sse.max-pending-events', value = '4')
+@Property(name = 'micronaut.server.netty.sse.heartbeat-interval', value = '200ms')
+class ServerSentEventBroadcasterSpec extends Specification {
+
+    @Inject
+    ServerSentEventBroadcaster broadcaster
+
+    @Inject
+    EmbeddedServer embeddedServer
+
+    void "test events published after subscribing are received"() {
+        given:
+        Publisher<ByteBuf> events = broadcaster.subscribe('live', null)
+        List<String> received = new CopyOnWriteArrayList<>()
+        events.subscribe(new TextSubscriber(received))
+
+        when:
+        broadcaster.broadcast('live', 'a')
+        broadcaster.broadcast('live', Event.of('b').id('custom').name('letter'))
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert received.join('').contains('id: 1\ndata: a\n\nid: custom\nevent: letter\ndata: b\n\n')
+        }
+    }
+
+    void "test missed events are replayed after the last event id"() {
+        given:
+        broadcaster.broadcast('replay', 'a')
+        broadcaster.broadcast('replay', 'b')
+        broadcaster.broadcast('replay', 'c')
+
+        expect:
+        read('replay', '1', 'data: c') == 'id: 2\ndata: b\n\nid: 3\ndata: c\n\n'
+    }
+
+    void "test all retained events are replayed if the last event id is unknown"() {
+        given:
+        (1..5).each { broadcaster.broadcast('evicted', "e$it") }
+
+        expect:
+        read('evicted', '1', 'data: e5') == 'id: 3\ndata: e3\n\nid: 4\ndata: e4\n\nid: 5\ndata: e5\n\n'
+    }
+
+    void "test idle subscribers receive heartbeats"() {
+        expect:
+        read('idle', null, ':\n') == ':\n'
+    }
+
+    void "test a subscriber that falls behind is disconnected"() {
+        given:
+        Throwable error = null
+        broadcaster.subscribe('slow', null).subscribe(new BaseSubscriber<ByteBuf>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // never request
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                error = throwable
+            }
+        })
+
+        when:
+        (1..5).each { broadcaster.broadcast('slow', "s$it") }
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert error != null
+            assert error.message.contains('too slow')
+        }
+    }
+
+    void "test a client resumes with the Last-Event-ID header"() {
+        given:
+        broadcaster.broadcast('http', 'x')
+        broadcaster.broadcast('http', 'y')
+        HttpURLConnection connection = (HttpURLConnection) new URL(embeddedServer.URL, '/broadcast/http').openConnection()
+        connection.setRequestProperty('Last-Event-ID', '1')
+
+        when:
+        BufferedReader reader = new BufferedReader(new InputStreamReader(connection.inputStream, StandardCharsets.UTF_8))
+
+        then:
+        connection.responseCode == 200
+        connection.contentType.startsWith(MediaType.TEXT_EVENT_STREAM)
+        reader.readLine() == 'id: 2'
+        reader.readLine() == 'data: y'
+
+        cleanup:
+        connection.disconnect()
+    }
+
+    void "test a subscriber cancelled before it is registered is not added"() {
+        given:
+        DefaultEventLoop loop = new DefaultEventLoop()
+        BroadcastTopic topic = new BroadcastTopic('early', new ServerSentEventConfiguration())
+
+        when:
+        topic.subscribe(null, loop).subscribe(new BaseSubscriber<ByteBuf>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                cancel()
+            }
+        })
+
+        then:
+        members(topic, loop) == 0
+
+        cleanup:
+        topic.close()
+        loop.shutdownGracefully()
+    }
+
+    void "test cancelled subscribers are removed"() {
+        given:
+        DefaultEventLoop loop = new DefaultEventLoop()
+        BroadcastTopic topic = new BroadcastTopic('cancelled', new ServerSentEventConfiguration())
+        List<BaseSubscriber<ByteBuf>> subscribers = (1..100).collect {
+            BaseSubscriber<ByteBuf> subscriber = new BaseSubscriber<ByteBuf>() {}
+            topic.subscribe(null, loop).subscribe(subscriber)
+            return subscriber
+        }
+
+        expect:
+        members(topic, loop) == 100
+
+        when:
+        subscribers*.dispose()
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert members(topic, loop) == 0
+        }
+
+        cleanup:
+        topic.close()
+        loop.shutdownGracefully()
+    }
+
+    void "test the group of an event loop is removed with its last subscriber"() {
+        given:
+        DefaultEventLoop loop = new DefaultEventLoop()
+        ServerSentEventConfiguration configuration = new ServerSentEventConfiguration()
+        configuration.heartbeatInterval = Duration.ofMillis(100)
+        BroadcastTopic topic = new BroadcastTopic('empty', configuration)
+        BaseSubscriber<ByteBuf> subscriber = new BaseSubscriber<ByteBuf>() {}
+        topic.subscribe(null, loop).subscribe(subscriber)
+
+        expect:
+        members(topic, loop) == 1
+
+        when:
+        def group = loop.submit({ topic.groups[loop] } as Callable).get(5, TimeUnit.SECONDS)
+        subscriber.dispose()
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert loop.submit({ topic.groups.isEmpty() } as Callable<Boolean>).get(5, TimeUnit.SECONDS)
+        }
+        group.heartbeat.isCancelled()
+
+        when:"a subscriber arrives after the group has been removed"
+        BaseSubscriber<ByteBuf> next = new BaseSubscriber<ByteBuf>() {}
+        topic.subscribe(null, loop).subscribe(next)
+
+        then:"it joins a new group"
+        members(topic, loop) == 1
+        !topic.groups[loop].is(group)
+
+        cleanup:
+        next?.dispose()
+        topic.close()
+        loop.shutdownGracefully()
+    }
+
+    private static int members(BroadcastTopic topic, EventExecutor loop) {
+        // runs after the registrations and disposals already submitted to the loop
+        return loop.submit({ topic.groups[loop]?.members?.size() ?: 0 } as Callable<Integer>).get(5, TimeUnit.SECONDS)
+    }
+
+    private String read(String topic, String lastEventId, String until) {
+        return Flux.from(broadcaster.subscribe(topic, lastEventId))
+                .map { ByteBuf buf -> toText(buf) }
+                .scan('') { String a, String b -> a + b }
+                .filter { String text -> text.contains(until) }
+                .blockFirst(Duration.ofSeconds(5))
+    }
+
+    private static String toText(ByteBuf buf) {
+        try {
+            return buf.toString(StandardCharsets.UTF_8)
+        } finally {
+            buf.release()
+        }
+    }
+
+    static class TextSubscriber extends BaseSubscriber<ByteBuf> {
+        final List<String> received
+
+        TextSubscriber(List<String> received) {
+            this.received = received
+        }
+
+        @Override
+        protected void hookOnNext(ByteBuf value) {
+            received.add(toText(value))
+        }
+    }
+
+    @Requires(property = 'spec.name', value = 'ServerSentEventBroadcasterSpec')
+    @Controller('/broadcast')
+    static class BroadcastController {
+
+        @Inject
+        ServerSentEventBroadcaster broadcaster
+
+        @Get(value = '/{topic}', produces = MediaType.TEXT_EVENT_STREAM)
+        Publisher<ByteBuf> events(String topic, @Nullable @Header('Last-Event-ID') String lastEventId) {
+            return broadcaster.subscribe(topic, lastEventId)
+        }
+    }
+}
@@ -44,16 +44,21 @@ import java.nio.file.Files
 import java.time.Instant
 import java.time.ZoneId
 import java.time.ZonedDateTime
+import java.time.format.DateTimeFormatter
 import java.time.temporal.ChronoUnit
 import java.util.concurrent.ExecutorService
 
+import static io.micronaut.http.HttpHeaders.ACCEPT_RANGES
 import static io.micronaut.http.HttpHeaders.CACHE_CONTROL
 import static io.micronaut.http.HttpHeaders.CONTENT_DISPOSITION
 import static io.micronaut.http.HttpHeaders.CONTENT_LENGTH
+import static io.micronaut.http.HttpHeaders.CONTENT_RANGE
 import static io.micronaut.http.HttpHeaders.CONTENT_TYPE
 import static io.micronaut.http.HttpHeaders.DATE
 import static io.micronaut.http.HttpHeaders.EXPIRES
+import static io.micronaut.http.HttpHeaders.IF_RANGE
 import static io.micronaut.http.HttpHeaders.LAST_MODIFIED
+import static io.micronaut.http.HttpHeaders.RANGE
 
 class FileTypeHandlerSpec extends AbstractMicronautSpec {
 
@@ -91,6 +96,109 @@ class FileTypeHandlerSpec extends AbstractMicronautSpec {
         response.header(DATE)
     }
 
+    void "test a single range of a file is returned"() {
+        when:
+        MutableHttpRequest<?> request = HttpRequest.GET(uri).header(RANGE, range)
+        def response = rxClient.toBlocking().exchange(request, String)
+
+        then:
+        response.code() == HttpStatus.PARTIAL_CONTENT.code
+        response.header(ACCEPT_RANGES) == "bytes"
+        response.header(CONTENT_TYPE) == "text/html"
+        response.header(CONTENT_RANGE) == "bytes $start-$end/${tempFileContents.length()}"
+        Integer.parseInt(response.header(CONTENT_LENGTH)) == end - start + 1
+        response.body() == tempFileContents.substring(start, end + 1)
+
+        where:
+        uri                   | range        | start                           | end
+        '/test/html'          | 'bytes=0-5'  | 0                               | 5
+        '/test/html'          | 'bytes=10-'  | 10                              | tempFileContents.length() - 1
+        '/test/html'          | 'bytes=-4'   | tempFileContents.length() - 4   | tempFileContents.length() - 1
+        '/test/html'          | 'bytes=5-999'| 5                               | tempFileContents.length() - 1
+        '/test-stream/url'    | 'bytes=6-11' | 6                               | 11
+    }
+
+    void "test multiple ranges of a file are returned as multipart/byteranges"() {
+        when:
+        MutableHttpRequest<?> request = HttpRequest.GET(uri).header(RANGE, 'bytes=0-5,10-12')
+        def response = rxClient.toBlocking().exchange(request, String)
+        String contentType = response.header(CONTENT_TYPE)
+        String boundary = contentType.substring(contentType.indexOf('boundary=') + 'boundary='.length())
+
+        then:
+        response.code() == HttpStatus.PARTIAL_CONTENT.code
+        contentType.startsWith("multipart/byteranges; boundary=")
+        Integer.parseInt(response.header(CONTENT_LENGTH)) == response.body().length()
+        response.body() == "\r\n--$boundary\r\n" +
+                "Content-Type: text/html\r\n" +
+                "Content-Range: bytes 0-5/${tempFileContents.length()}\r\n\r\n" +
+                tempFileContents.substring(0, 6) +
+                "\r\n--$boundary\r\n" +
+                "Content-Type: text/html\r\n" +
+                "Content-Range: bytes 10-12/${tempFileContents.length()}\r\n\r\n" +
+                tempFileContents.substring(10, 13) +
+                "\r\n--$boundary--\r\n"
+
+        where:
+        uri << ['/test/html', '/test-stream/url']
+    }
+
+    void "test 416 is returned if no range is satisfiable"() {
+        when:
+        rxClient.toBlocking().exchange(HttpRequest.GET('/test/html').header(RANGE, 'bytes=1000-'), String)
+
+        then:
+        def e = thrown(HttpClientResponseException)
+        e.response.code() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.code
+        e.response.header(CONTENT_RANGE) == "bytes */${tempFileContents.length()}"
+    }
+
+    void "test the input stream is closed if no range is satisfiable"() {
+        given:
+        TestStreamController.trackedStreamClosed = false
+
+        when:
+        rxClient.toBlocking().exchange(HttpRequest.GET('/test-stream/tracked').header(RANGE, 'bytes=1000-'), String)
+
+        then:
+        def e = thrown(HttpClientResponseException)
+        e.response.code() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.code
+        TestStreamController.trackedStreamClosed
+    }
+
+    void "test the complete file is returned if the range is invalid or If-Range does not match"() {
+        when:
+        MutableHttpRequest<?> request = HttpRequest.GET('/test/html').header(RANGE, range)
+        if (ifRange) {
+            request.header(IF_RANGE, ifRange)
+        }
+        def response = rxClient.toBlocking().exchange(request, String)
+
+        then:
+        response.code() == HttpStatus.OK.code
+        response.header(CONTENT_RANGE) == null
+        response.body() == tempFileContents
+
+        where:
+        range        | ifRange
+        'bytes=5-1'  | null
+        'items=0-5'  | null
+        'bytes=0-5'  | 'Wed, 21 Oct 2015 07:28:00 GMT'
+        'bytes=0-5'  | '"some-etag"'
+    }
+
+    void "test a range is returned if If-Range matches the last modified date"() {
+        when:
+        MutableHttpRequest<?> request = HttpRequest.GET('/test/html')
+                .header(RANGE, 'bytes=0-5')
+                .header(IF_RANGE, DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(tempFile.lastModified()), ZoneId.of("GMT"))))
+        def response = rxClient.toBlocking().exchange(request, String)
+
+        then:
+        response.code() == HttpStatus.PARTIAL_CONTENT.code
+        response.body() == tempFileContents.substring(0, 6)
+    }
+
     void "test cache control can be overridden"() {
         when:
         MutableHttpRequest<?> request = HttpRequest.GET('/test/custom-cache-control')
@@ -352,6 +460,8 @@ class FileTypeHandlerSpec extends AbstractMicronautSpec {
     @Requires(property = 'spec.name', value = 'FileTypeHandlerSpec')
     static class TestStreamController {
 
+        static volatile boolean trackedStreamClosed
+
         @Named("io")
         @Inject
         ExecutorService executorService
@@ -367,6 +477,23 @@ class FileTypeHandlerSpec extends AbstractMicronautSpec {
                     .contentType(MediaType.TEXT_PLAIN_TYPE)
         }
 
+        @Get('/url')
+        StreamedFile url() {
+            new StreamedFile(tempFile.toURI().toURL())
+        }
+
+        @Get('/tracked')
+        StreamedFile tracked() {
+            InputStream input = new FilterInputStream(Files.newInputStream(tempFile.toPath())) {
+                @Override
+                void close() throws IOException {
+                    trackedStreamClosed = true
+                    super.close()
+                }
+            }
+            new StreamedFile(input, MediaType.TEXT_HTML_TYPE, tempFile.lastModified(), tempFile.length())
+        }
+
         @Get('/piped-stream')
         StreamedFile pipedStream() {
             def output = new PipedOutputStream()
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.netty.types.files
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ByteRangeSpec extends Specification {
+
+    @Unroll
+    void "test parse #value"() {
+        expect:
+        ByteRange.parse(value, 100, 4) == expected
+
+        where:
+        value                        | expected
+        null                         | null
+        'items=0-5'                  | null
+        'bytes=5-1'                  | null
+        'bytes=a-b'                  | null
+        'bytes=5'                    | null
+        'bytes=1-2,3-4,5-6,7-8,9-10' | null
+        'bytes=0-5'                  | [new ByteRange(0, 5)]
+        'BYTES=0-5'                  | [new ByteRange(0, 5)]
+        'bytes=90-'                  | [new ByteRange(90, 99)]
+        'bytes=90-200'               | [new ByteRange(90, 99)]
+        'bytes=-10'                  | [new ByteRange(90, 99)]
+        'bytes=-200'                 | [new ByteRange(0, 99)]
+        'bytes=0-1, 5-6'             | [new ByteRange(0, 1), new ByteRange(5, 6)]
+        'bytes=5-6,0-1'              | [new ByteRange(0, 1), new ByteRange(5, 6)]
+        'bytes=0-10,5-20,21-30'      | [new ByteRange(0, 30)]
+        'bytes=100-'                 | []
+        'bytes=-0'                   | []
+        'bytes=100-,0-1'             | [new ByteRange(0, 1)]
+    }
+
+    void "test content range"() {
+        expect:
+        new ByteRange(0, 5).toContentRange(100) == 'bytes 0-5/100'
+        new ByteRange(0, 5).length == 6
+        ByteRange.unsatisfiedContentRange(100) == 'bytes */100'
+    }
+}
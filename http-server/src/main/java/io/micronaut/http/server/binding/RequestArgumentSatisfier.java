@@ -16,6 +16,7 @@
 package io.micronaut.http.server.binding;
 
 import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.bind.ArgumentBinder;
 import io.micronaut.core.convert.ArgumentConversionContext;
 import io.micronaut.core.convert.ConversionContext;
@@ -27,6 +28,8 @@ import io.micronaut.http.bind.RequestBinderRegistry;
 import io.micronaut.http.bind.binders.BodyArgumentBinder;
 import io.micronaut.http.bind.binders.NonBlockingBodyArgumentBinder;
 import io.micronaut.http.bind.binders.RequestBeanAnnotationBinder;
+import io.micronaut.inject.ExecutableMethod;
+import io.micronaut.web.router.MethodBasedRouteMatch;
 import io.micronaut.web.router.NullArgument;
 import io.micronaut.web.router.RouteMatch;
 import io.micronaut.web.router.UnresolvedArgument;
@@ -37,6 +40,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A class containing methods to aid in satisfying arguments of a {@link io.micronaut.web.router.Route}.
@@ -49,6 +53,7 @@ import java.util.Optional;
 public class RequestArgumentSatisfier {
 
     private final RequestBinderRegistry binderRegistry;
+    private final Map<ExecutableMethod<?, ?>, BindingPlan> bindingPlans = new ConcurrentHashMap<>();
 
     /**
      * @param requestBinderRegistry The Request binder registry
@@ -67,6 +72,9 @@ public class RequestArgumentSatisfier {
     /**
      * Attempt to satisfy the arguments of the given route with the data from the given request.
      *
+     * <p>The binders of a method based route are resolved once, the first time the route is matched, and reused
+     * for every subsequent request.</p>
+     *
      * @param route            The route
      * @param request          The request
      * @param satisfyOptionals Whether to satisfy optionals
@@ -81,10 +89,19 @@ public class RequestArgumentSatisfier {
             argumentValues = Collections.emptyMap();
         } else {
             argumentValues = new LinkedHashMap<>(requiredArguments.size());
+            BindingPlan plan = getBindingPlan(route, request);
             // Begin try fulfilling the argument requirements
             for (Argument<?> argument : requiredArguments) {
-                getValueForArgument(argument, request, satisfyOptionals).ifPresent(value ->
-                    argumentValues.put(argument.getName(), value));
+                ArgumentBinding binding = plan != null ? plan.find(argument) : null;
+                if (binding != null) {
+                    Object value = getValueForBinding(binding, request, satisfyOptionals);
+                    if (value != null) {
+                        argumentValues.put(binding.name, value);
+                    }
+                } else {
+                    getValueForArgument(argument, request, satisfyOptionals).ifPresent(value ->
+                        argumentValues.put(argument.getName(), value));
+                }
             }
         }
 
@@ -99,50 +116,76 @@ public class RequestArgumentSatisfier {
      * @return An {@link Optional} for the value
      */
     protected Optional<Object> getValueForArgument(Argument argument, HttpRequest<?> request, boolean satisfyOptionals) {
-        Object value = null;
         Optional<ArgumentBinder> registeredBinder =
             binderRegistry.findArgumentBinder(argument, request);
         if (registeredBinder.isPresent()) {
-            ArgumentBinder argumentBinder = registeredBinder.get();
-            ArgumentConversionContext conversionContext = ConversionContext.of(
-                argument,
-                request.getLocale().orElse(null),
-                request.getCharacterEncoding()
-            );
-
-            if (argumentBinder instanceof BodyArgumentBinder) {
-                if (argumentBinder instanceof NonBlockingBodyArgumentBinder) {
-                    ArgumentBinder.BindingResult bindingResult = argumentBinder
-                        .bind(conversionContext, request);
-
-                    if (bindingResult.isPresentAndSatisfied()) {
-                        value = bindingResult.get();
-                    } else if (bindingResult.isSatisfied() && argument.isNullable()) {
-                        value = NullArgument.INSTANCE;
+            return Optional.ofNullable(getValueForBinding(new ArgumentBinding(argument, registeredBinder.get()), request, satisfyOptionals));
+        }
+        return Optional.empty();
+    }
+
+    @Nullable
+    private BindingPlan getBindingPlan(RouteMatch<?> route, HttpRequest<?> request) {
+        if (route instanceof MethodBasedRouteMatch<?, ?> methodBasedRoute) {
+            ExecutableMethod<?, ?> method = methodBasedRoute.getExecutableMethod();
+            if (method != null) {
+                BindingPlan plan = bindingPlans.get(method);
+                if (plan == null) {
+                    plan = bindingPlans.computeIfAbsent(method, m -> new BindingPlan(m.getArguments(), request));
+                }
+                return plan;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private Object getValueForBinding(ArgumentBinding binding, HttpRequest<?> request, boolean satisfyOptionals) {
+        ArgumentBinder argumentBinder = binding.binder;
+        if (argumentBinder == null) {
+            return null;
+        }
+        Argument argument = binding.argument;
+        ArgumentConversionContext conversionContext = ConversionContext.of(
+            argument,
+            request.getLocale().orElse(null),
+            request.getCharacterEncoding()
+        );
+
+        Object value = null;
+        switch (binding.kind) {
+            case NON_BLOCKING_BODY -> {
+                ArgumentBinder.BindingResult bindingResult = argumentBinder
+                    .bind(conversionContext, request);
+
+                if (bindingResult.isPresentAndSatisfied()) {
+                    value = bindingResult.get();
+                } else if (bindingResult.isSatisfied() && binding.nullable) {
+                    value = NullArgument.INSTANCE;
+                }
+            }
+            case BLOCKING_BODY -> value = getValueForBlockingBodyArgumentBinder(request, argumentBinder, conversionContext);
+            // Resolve RequestBean after filters since some field types may depend on filters, i.e. Authentication
+            case REQUEST_BEAN -> value = (UnresolvedArgument<?>) () -> argumentBinder.bind(conversionContext, request);
+            case OPTIONAL -> {
+                ArgumentBinder.BindingResult bindingResult = argumentBinder.bind(conversionContext, request);
+                if (bindingResult.isSatisfied() || satisfyOptionals) {
+                    Optional<?> optionalValue = bindingResult.getValue();
+                    if (optionalValue.isPresent()) {
+                        value = optionalValue.get();
+                    } else {
+                        value = optionalValue;
                     }
-                } else {
-                    value = getValueForBlockingBodyArgumentBinder(request, argumentBinder, conversionContext);
                 }
-            } else if (argumentBinder instanceof RequestBeanAnnotationBinder) {
-                // Resolve RequestBean after filters since some field types may depend on filters, i.e. Authentication
-                value = (UnresolvedArgument<?>) () -> argumentBinder.bind(conversionContext, request);
-            } else {
+            }
+            default -> {
                 ArgumentBinder.BindingResult bindingResult = argumentBinder.bind(conversionContext, request);
 
-                if (argument.getType() == Optional.class) {
-                    if (bindingResult.isSatisfied() || satisfyOptionals) {
-                        Optional<?> optionalValue = bindingResult.getValue();
-                        if (optionalValue.isPresent()) {
-                            value = optionalValue.get();
-                        } else {
-                            value = optionalValue;
-                        }
-                    }
-                } else if (bindingResult.isPresentAndSatisfied()) {
+                if (bindingResult.isPresentAndSatisfied()) {
                     value = bindingResult.get();
-                } else if (bindingResult.isSatisfied() && argument.isNullable()) {
+                } else if (bindingResult.isSatisfied() && binding.nullable) {
                     value = NullArgument.INSTANCE;
-                } else if (HttpMethod.requiresRequestBody(request.getMethod()) || argument.isNullable() || conversionContext.hasErrors()) {
+                } else if (HttpMethod.requiresRequestBody(request.getMethod()) || binding.nullable || conversionContext.hasErrors()) {
                     value = (UnresolvedArgument) () -> {
                         ArgumentBinder.BindingResult result = argumentBinder.bind(conversionContext, request);
                         Optional<ConversionError> lastError = conversionContext.getLastError();
@@ -154,7 +197,7 @@ public class RequestArgumentSatisfier {
                 }
             }
         }
-        return Optional.ofNullable(value);
+        return value;
     }
 
     /**
@@ -167,4 +210,83 @@ public class RequestArgumentSatisfier {
     private <T> UnresolvedArgument<T> getValueForBlockingBodyArgumentBinder(HttpRequest<?> request, ArgumentBinder<T, HttpRequest<?>> argumentBinder, ArgumentConversionContext<T> conversionContext) {
         return () -> argumentBinder.bind(conversionContext, request);
     }
+
+    /**
+     * How the value of an argument is obtained from its binder.
+     */
+    private enum BindingKind {
+        NON_BLOCKING_BODY,
+        BLOCKING_BODY,
+        REQUEST_BEAN,
+        OPTIONAL,
+        DEFAULT
+    }
+
+    /**
+     * The resolved binder of a single argument.
+     */
+    private static final class ArgumentBinding {
+
+        final Argument<?> argument;
+        final String name;
+        final boolean nullable;
+        @Nullable
+        final ArgumentBinder<?, HttpRequest<?>> binder;
+        final BindingKind kind;
+
+        ArgumentBinding(Argument<?> argument, @Nullable ArgumentBinder<?, HttpRequest<?>> binder) {
+            this.argument = argument;
+            this.name = argument.getName();
+            this.nullable = argument.isNullable();
+            this.binder = binder;
+            if (binder instanceof NonBlockingBodyArgumentBinder) {
+                kind = BindingKind.NON_BLOCKING_BODY;
+            } else if (binder instanceof BodyArgumentBinder) {
+                kind = BindingKind.BLOCKING_BODY;
+            } else if (binder instanceof RequestBeanAnnotationBinder) {
+                kind = BindingKind.REQUEST_BEAN;
+            } else if (argument.getType() == Optional.class) {
+                kind = BindingKind.OPTIONAL;
+            } else {
+                kind = BindingKind.DEFAULT;
+            }
+        }
+    }
+
+    /**
+     * The immutable argument bindings of a route method, in the order of the method arguments.
+     */
+    private final class BindingPlan {
+
+        private final Argument<?>[] arguments;
+        private final ArgumentBinding[] bindings;
+
+        BindingPlan(Argument<?>[] arguments, HttpRequest<?> request) {
+            this.arguments = arguments;
+            this.bindings = new ArgumentBinding[arguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                Argument<?> argument = arguments[i];
+                bindings[i] = new ArgumentBinding(argument, binderRegistry.findArgumentBinder(argument, request).orElse(null));
+            }
+        }
+
+        /**
+         * @param argument A required argument of the route
+         * @return The binding of the argument or null if the argument is not a method argument
+         */
+        @Nullable
+        ArgumentBinding find(Argument<?> argument) {
+            for (int i = 0; i < arguments.length; i++) {
+                if (arguments[i] == argument) {
+                    return bindings[i];
+                }
+            }
+            for (int i = 0; i < arguments.length; i++) {
+                if (arguments[i].equals(argument)) {
+                    return bindings[i];
+                }
+            }
+            return null;
+        }
+    }
 }
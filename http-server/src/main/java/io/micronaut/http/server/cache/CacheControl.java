@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.cache;
+
+import io.micronaut.core.annotation.Internal;
+
+import java.util.List;
+
+/**
+ * The directives of the <code>Cache-Control</code> headers of a request or response that are relevant to a
+ * shared cache.
+ *
+ * @since 4.0.0
+ */
+@Internal
+final class CacheControl {
+
+    private static final CacheControl NONE = new CacheControl(false, false, false, false, -1, -1);
+
+    final boolean noStore;
+    final boolean noCache;
+    final boolean privateResponse;
+    final boolean publicResponse;
+    final long maxAge;
+    final long sharedMaxAge;
+
+    private CacheControl(boolean noStore, boolean noCache, boolean privateResponse, boolean publicResponse, long maxAge, long sharedMaxAge) {
+        this.noStore = noStore;
+        this.noCache = noCache;
+        this.privateResponse = privateResponse;
+        this.publicResponse = publicResponse;
+        this.maxAge = maxAge;
+        this.sharedMaxAge = sharedMaxAge;
+    }
+
+    /**
+     * @return The freshness lifetime in seconds for a shared cache, or -1 if none is declared
+     */
+    long getFreshnessLifetime() {
+        return sharedMaxAge > -1 ? sharedMaxAge : maxAge;
+    }
+
+    /**
+     * Parses the given header values. Unknown directives and malformed delta seconds are ignored.
+     *
+     * @param values The values of the Cache-Control headers
+     * @return The directives
+     */
+    static CacheControl parse(List<String> values) {
+        if (values.isEmpty()) {
+            return NONE;
+        }
+        boolean noStore = false;
+        boolean noCache = false;
+        boolean privateResponse = false;
+        boolean publicResponse = false;
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                String name = directive.trim();
+                String argument = null;
+                int i = name.indexOf('=');
+                if (i > -1) {
+                    argument = name.substring(i + 1).trim();
+                    name = name.substring(0, i).trim();
+                }
+                if (name.equalsIgnoreCase("no-store")) {
+                    noStore = true;
+                } else if (name.equalsIgnoreCase("no-cache")) {
+                    noCache = true;
+                } else if (name.equalsIgnoreCase("private")) {
+                    privateResponse = true;
+                } else if (name.equalsIgnoreCase("public")) {
+                    publicResponse = true;
+                } else if (name.equalsIgnoreCase("max-age")) {
+                    maxAge = parseDeltaSeconds(argument);
+                } else if (name.equalsIgnoreCase("s-maxage")) {
+                    sharedMaxAge = parseDeltaSeconds(argument);
+                }
+            }
+        }
+        return new CacheControl(noStore, noCache, privateResponse, publicResponse, maxAge, sharedMaxAge);
+    }
+
+    private static long parseDeltaSeconds(String argument) {
+        if (argument == null) {
+            return -1;
+        }
+        if (argument.length() > 1 && argument.charAt(0) == '"' && argument.charAt(argument.length() - 1) == '"') {
+            argument = argument.substring(1, argument.length() - 1);
+        }
+        try {
+            return Long.parseLong(argument);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
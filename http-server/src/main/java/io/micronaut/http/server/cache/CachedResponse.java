@@ -0,0 +1,219 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.cache;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpHeaders;
+import io.micronaut.http.MutableHttpResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A response stored by the {@link ResponseCacheFilter}, with its encoded body.
+ *
+ * @since 4.0.0
+ */
+@Internal
+final class CachedResponse {
+
+    /**
+     * The headers sent with a 304 response, see RFC 9110 section 15.4.5.
+     */
+    private static final String[] NOT_MODIFIED_HEADERS = {
+        HttpHeaders.CACHE_CONTROL,
+        HttpHeaders.CONTENT_LOCATION,
+        HttpHeaders.ETAG,
+        HttpHeaders.EXPIRES,
+        HttpHeaders.VARY
+    };
+
+    final String etag;
+    private final HttpStatus status;
+    private final String[] headerNames;
+    private final String[] headerValues;
+    private final byte[] body;
+    private final String[] varyNames;
+    private final String[] varyValues;
+    private final long storedAt;
+    private final long expiresAt;
+    private final boolean publicResponse;
+
+    /**
+     * @param status         The status
+     * @param headers        The headers of the response
+     * @param body           The encoded body
+     * @param etag           The entity tag
+     * @param varyNames      The lower case names of the request headers the response varies on
+     * @param varyValues     The values of those headers in the request
+     * @param storedAt       The time the response was stored in milliseconds
+     * @param expiresAt      The time the response becomes stale in milliseconds
+     * @param publicResponse Whether the response has a <code>public</code> directive
+     */
+    CachedResponse(HttpStatus status,
+                   HttpHeaders headers,
+                   byte[] body,
+                   String etag,
+                   String[] varyNames,
+                   String[] varyValues,
+                   long storedAt,
+                   long expiresAt,
+                   boolean publicResponse) {
+        this.status = status;
+        this.body = body;
+        this.etag = etag;
+        this.varyNames = varyNames;
+        this.varyValues = varyValues;
+        this.storedAt = storedAt;
+        this.expiresAt = expiresAt;
+        this.publicResponse = publicResponse;
+        List<String> names = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (String name : headers.names()) {
+            if (isStoredHeader(name)) {
+                for (String value : headers.getAll(name)) {
+                    names.add(name);
+                    values.add(value);
+                }
+            }
+        }
+        this.headerNames = names.toArray(new String[0]);
+        this.headerValues = values.toArray(new String[0]);
+    }
+
+    /**
+     * @return The number of bytes occupied by the response
+     */
+    int weight() {
+        int weight = body.length + 1;
+        for (int i = 0; i < headerNames.length; i++) {
+            weight += headerNames[i].length() + headerValues[i].length();
+        }
+        return weight;
+    }
+
+    /**
+     * @param now The current time in milliseconds
+     * @return Whether the response is still fresh
+     */
+    boolean isFresh(long now) {
+        return now < expiresAt;
+    }
+
+    /**
+     * @param headers The headers of a request
+     * @return Whether this response was selected by the same values of the Vary headers, and may be served to a
+     * request with cookies
+     */
+    boolean matches(HttpHeaders headers) {
+        if (!publicResponse && headers.contains(HttpHeaders.COOKIE)) {
+            return false;
+        }
+        for (int i = 0; i < varyNames.length; i++) {
+            if (!Objects.equals(varyValues[i], varyValue(headers, varyNames[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the response to a request, which is a 304 response if the request has a matching
+     * <code>If-None-Match</code> header.
+     *
+     * @param request The request
+     * @param now     The current time in milliseconds
+     * @return The response
+     */
+    MutableHttpResponse<?> toResponse(HttpRequest<?> request, long now) {
+        MutableHttpResponse<?> response;
+        if (isNotModified(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response = HttpResponse.notModified();
+            MutableHttpHeaders headers = response.getHeaders();
+            for (int i = 0; i < headerNames.length; i++) {
+                for (String name : NOT_MODIFIED_HEADERS) {
+                    if (name.equalsIgnoreCase(headerNames[i])) {
+                        headers.add(headerNames[i], headerValues[i]);
+                    }
+                }
+            }
+        } else {
+            response = HttpResponse.status(status).body(body);
+            MutableHttpHeaders headers = response.getHeaders();
+            for (int i = 0; i < headerNames.length; i++) {
+                headers.add(headerNames[i], headerValues[i]);
+            }
+        }
+        response.getHeaders().add(HttpHeaders.AGE, String.valueOf(Math.max(0, (now - storedAt) / 1000)));
+        return response;
+    }
+
+    /**
+     * Compares the entity tags of an <code>If-None-Match</code> header with the given entity tag using the weak
+     * comparison function of RFC 9110 section 8.8.3.2.
+     *
+     * @param ifNoneMatch The value of the If-None-Match header
+     * @param etag        The entity tag of the response
+     * @return True if the response is not modified
+     */
+    static boolean isNotModified(@Nullable String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        if (ifNoneMatch.trim().equals("*")) {
+            return true;
+        }
+        String opaqueTag = stripWeak(etag);
+        for (String tag : ifNoneMatch.split(",")) {
+            if (stripWeak(tag.trim()).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param headers The request headers
+     * @param name    The name of a header listed in Vary
+     * @return The combined values of the header or null if it is absent
+     */
+    @Nullable
+    static String varyValue(HttpHeaders headers, String name) {
+        List<String> values = headers.getAll(name);
+        if (values.isEmpty()) {
+            return null;
+        }
+        return values.size() == 1 ? values.get(0) : String.join(",", values);
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static boolean isStoredHeader(String name) {
+        return !name.equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH)
+            && !name.equalsIgnoreCase(HttpHeaders.TRANSFER_ENCODING)
+            && !name.equalsIgnoreCase(HttpHeaders.CONNECTION)
+            && !name.equalsIgnoreCase(HttpHeaders.DATE)
+            && !name.equalsIgnoreCase(HttpHeaders.AGE);
+    }
+}
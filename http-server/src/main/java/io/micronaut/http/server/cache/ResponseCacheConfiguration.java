@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.cache;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.util.Toggleable;
+import io.micronaut.http.server.HttpServerConfiguration;
+
+/**
+ * Configuration of the {@link ResponseCacheFilter}.
+ *
+ * @since 4.0.0
+ */
+@ConfigurationProperties(ResponseCacheConfiguration.PREFIX)
+public class ResponseCacheConfiguration implements Toggleable {
+
+    /**
+     * The prefix of the response cache configuration.
+     */
+    public static final String PREFIX = HttpServerConfiguration.PREFIX + ".response-cache";
+
+    /**
+     * The default maximum size of the cache in bytes.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final long DEFAULT_MAX_SIZE = 10 * 1024 * 1024;
+
+    /**
+     * The default maximum size of a single cached response body in bytes.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_MAX_ENTRY_SIZE = 1024 * 1024;
+
+    private boolean enabled;
+    private long maxSize = DEFAULT_MAX_SIZE;
+    private int maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
+
+    /**
+     * @return Whether the response cache is enabled. Defaults to false.
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether responses of GET requests are cached. Default value (false).
+     *
+     * @param enabled True if responses should be cached
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return The maximum size of the cache in bytes
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximum size of the cached responses in bytes. The least recently used responses are evicted
+     * once it is exceeded. Default value ({@value #DEFAULT_MAX_SIZE}).
+     *
+     * @param maxSize The maximum size in bytes
+     */
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return The maximum size of a single cached response body in bytes
+     */
+    public int getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    /**
+     * Sets the maximum size of a response body that is cached. Larger responses are not cached.
+     * Default value ({@value #DEFAULT_MAX_ENTRY_SIZE}).
+     *
+     * @param maxEntrySize The maximum size in bytes
+     */
+    public void setMaxEntrySize(int maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.server.cache;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.core.io.Writable;
+import io.micronaut.core.io.buffer.ByteBuffer;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.core.util.clhm.ConcurrentLinkedHashMap;
+import io.micronaut.http.HttpAttributes;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpHeaders;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.codec.CodecException;
+import io.micronaut.http.codec.MediaTypeCodec;
+import io.micronaut.http.codec.MediaTypeCodecRegistry;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.http.filter.ServerFilterPhase;
+import io.micronaut.http.server.types.CustomizableResponseType;
+import io.micronaut.web.router.RouteInfo;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+import static io.micronaut.http.annotation.Filter.MATCH_ALL_PATTERN;
+
+/**
+ * A shared cache of the responses to GET requests. A response is cached when it has a 200 status, a body that can
+ * be encoded up front and a <code>Cache-Control</code> header with a positive <code>s-maxage</code> or
+ * <code>max-age</code> directive and without <code>no-store</code>, <code>no-cache</code> or <code>private</code>.
+ * Responses to requests with cookies are only cached, and cached responses are only served to requests with cookies,
+ * if they have a <code>public</code> directive.
+ *
+ * <p>Responses are keyed by the request host and URI and the values of the request headers listed in their
+ * <code>Vary</code> header, and evicted in least recently used order once the configured size is exceeded. A strong entity tag is
+ * generated for responses without one and requests with a matching <code>If-None-Match</code> header receive a 304
+ * response. Concurrent requests that miss the cache for the same key of a location whose last response was cached
+ * wait for the first one instead of executing the route again.</p>
+ *
+ * @since 4.0.0
+ */
+@Filter(MATCH_ALL_PATTERN)
+@Requires(property = ResponseCacheConfiguration.PREFIX + ".enabled", value = StringUtils.TRUE)
+public class ResponseCacheFilter implements HttpServerFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseCacheFilter.class);
+    private static final String[] NO_VARY = new String[0];
+    private static final int MAX_CACHEABLE_LOCATIONS = 10_000;
+
+    private final ResponseCacheConfiguration configuration;
+    private final MediaTypeCodecRegistry codecRegistry;
+    private final Map<String, CachedResponse> responses;
+    /**
+     * The locations whose last response was cached, with the request headers that response varied on.
+     */
+    private final Map<String, String[]> cacheableLocations;
+    private final Map<String, CompletableFuture<CachedResponse>> pendingResponses = new ConcurrentHashMap<>();
+
+    /**
+     * @param configuration The response cache configuration
+     * @param codecRegistry The codec registry used to encode response bodies
+     */
+    public ResponseCacheFilter(ResponseCacheConfiguration configuration, MediaTypeCodecRegistry codecRegistry) {
+        this.configuration = configuration;
+        this.codecRegistry = codecRegistry;
+        this.responses = new ConcurrentLinkedHashMap.Builder<String, CachedResponse>()
+            .maximumWeightedCapacity(configuration.getMaxSize())
+            .weigher(CachedResponse::weight)
+            .build();
+        this.cacheableLocations = new ConcurrentLinkedHashMap.Builder<String, String[]>()
+            .maximumWeightedCapacity(MAX_CACHEABLE_LOCATIONS)
+            .build();
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        HttpHeaders requestHeaders = request.getHeaders();
+        if (request.getMethod() != HttpMethod.GET || requestHeaders.contains(HttpHeaders.AUTHORIZATION)) {
+            return chain.proceed(request);
+        }
+        CacheControl cacheControl = CacheControl.parse(requestHeaders.getAll(HttpHeaders.CACHE_CONTROL));
+        if (cacheControl.noStore) {
+            return chain.proceed(request);
+        }
+        String location = location(request);
+        String[] varyNames = cacheableLocations.get(location);
+        if (varyNames == null) {
+            // waiting for a response that is unlikely to be cacheable would only queue the requests
+            return Mono.from(chain.proceed(request))
+                .map(response -> respond(location, request, response, null));
+        }
+        String key = cacheKey(location, varyNames, requestHeaders);
+        if (!cacheControl.noCache) {
+            long now = System.currentTimeMillis();
+            CachedResponse cached = responses.get(key);
+            if (cached != null) {
+                if (!cached.isFresh(now)) {
+                    responses.remove(key, cached);
+                } else if (cached.matches(requestHeaders)) {
+                    return Publishers.just(cached.toResponse(request, now));
+                }
+            }
+        }
+        CompletableFuture<CachedResponse> pending = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> existing = pendingResponses.putIfAbsent(key, pending);
+        if (existing != null) {
+            if (cacheControl.noCache) {
+                return chain.proceed(request);
+            }
+            // a dependent future, so that a cancelled subscriber does not cancel the response of the others
+            return Mono.fromFuture(existing.thenApply(Function.identity()))
+                .filter(cached -> cached.matches(requestHeaders))
+                .<MutableHttpResponse<?>>map(cached -> cached.toResponse(request, System.currentTimeMillis()))
+                .switchIfEmpty(Mono.defer(() -> Mono.from(chain.proceed(request))));
+        }
+        return Mono.from(chain.proceed(request))
+            .map(response -> respond(location, request, response, pending))
+            .doFinally(signal -> {
+                pending.complete(null);
+                pendingResponses.remove(key, pending);
+            });
+    }
+
+    @Override
+    public int getOrder() {
+        // after security, before renderers such as JSON views so that the rendered body is cached
+        return ServerFilterPhase.RENDERING.before();
+    }
+
+    /**
+     * Removes all cached responses.
+     */
+    public void invalidateAll() {
+        responses.clear();
+        cacheableLocations.clear();
+    }
+
+    /**
+     * Stores the response if it is cacheable.
+     *
+     * @param location The location of the request
+     * @param request  The request
+     * @param response The response
+     * @param pending  The future completed with the stored response for the requests waiting for it, if any
+     * @return The response to send, which is a 304 response if the request has a matching entity tag
+     */
+    private MutableHttpResponse<?> respond(String location,
+                                           HttpRequest<?> request,
+                                           MutableHttpResponse<?> response,
+                                           @Nullable CompletableFuture<CachedResponse> pending) {
+        CachedResponse cached = store(location, request, response);
+        if (pending != null) {
+            pending.complete(cached);
+        }
+        if (cached == null) {
+            if (!request.getHeaders().contains(HttpHeaders.COOKIE)) {
+                // the response to a request with cookies may only be uncacheable because it is not public
+                cacheableLocations.remove(location);
+            }
+            return response;
+        }
+        if (CachedResponse.isNotModified(request.getHeaders().get(HttpHeaders.IF_NONE_MATCH), cached.etag)) {
+            return cached.toResponse(request, System.currentTimeMillis());
+        }
+        return response;
+    }
+
+    @Nullable
+    private CachedResponse store(String location, HttpRequest<?> request, MutableHttpResponse<?> response) {
+        if (response.getStatus() != HttpStatus.OK) {
+            return null;
+        }
+        MutableHttpHeaders headers = response.getHeaders();
+        if (headers.contains(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+        CacheControl cacheControl = CacheControl.parse(headers.getAll(HttpHeaders.CACHE_CONTROL));
+        long freshnessLifetime = cacheControl.getFreshnessLifetime();
+        if (freshnessLifetime <= 0 || cacheControl.noStore || cacheControl.noCache || cacheControl.privateResponse) {
+            return null;
+        }
+        HttpHeaders requestHeaders = request.getHeaders();
+        if (!cacheControl.publicResponse && requestHeaders.contains(HttpHeaders.COOKIE)) {
+            // the response may depend on the cookies
+            return null;
+        }
+        String[] varyNames = varyNames(headers.getAll(HttpHeaders.VARY), response);
+        if (varyNames == null) {
+            return null;
+        }
+        byte[] body = encode(request, response);
+        if (body == null || body.length > configuration.getMaxEntrySize()) {
+            return null;
+        }
+        response.body(body);
+        String etag = headers.get(HttpHeaders.ETAG);
+        if (etag == null) {
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            etag = "\"" + Long.toHexString(crc.getValue()) + '-' + Integer.toHexString(body.length) + "\"";
+            headers.add(HttpHeaders.ETAG, etag);
+        }
+        String[] varyValues = new String[varyNames.length];
+        for (int i = 0; i < varyNames.length; i++) {
+            varyValues[i] = CachedResponse.varyValue(requestHeaders, varyNames[i]);
+        }
+        long now = System.currentTimeMillis();
+        CachedResponse cached = new CachedResponse(
+            HttpStatus.OK,
+            headers,
+            body,
+            etag,
+            varyNames,
+            varyValues,
+            now,
+            now + freshnessLifetime * 1000,
+            cacheControl.publicResponse
+        );
+        cacheableLocations.put(location, varyNames);
+        responses.put(cacheKey(location, varyNames, requestHeaders), cached);
+        return cached;
+    }
+
+    /**
+     * @param values   The values of the Vary headers of the response
+     * @param response The response
+     * @return The sorted lower case names of the request headers selecting the response, or null if the response
+     * varies on anything
+     */
+    @Nullable
+    private String[] varyNames(List<String> values, MutableHttpResponse<?> response) {
+        TreeSet<String> names = new TreeSet<>();
+        for (String value : values) {
+            for (String name : value.split(",")) {
+                name = name.trim();
+                if (name.equals("*")) {
+                    return null;
+                }
+                if (!name.isEmpty()) {
+                    names.add(name.toLowerCase(Locale.ENGLISH));
+                }
+            }
+        }
+        if (response.getContentType().isEmpty()) {
+            // the content type will be negotiated from the Accept header
+            List<MediaType> produces = response.getAttribute(HttpAttributes.ROUTE_INFO, RouteInfo.class)
+                .map(RouteInfo::getProduces)
+                .orElse(null);
+            if (produces != null && produces.size() > 1) {
+                names.add(HttpHeaders.ACCEPT.toLowerCase(Locale.ENGLISH));
+            }
+        }
+        return names.isEmpty() ? NO_VARY : names.toArray(NO_VARY);
+    }
+
+    /**
+     * @param request  The request
+     * @param response The response
+     * @return The encoded body of the response, or null if it cannot be encoded before it is written
+     */
+    @Nullable
+    private byte[] encode(HttpRequest<?> request, MutableHttpResponse<?> response) {
+        Object body = response.getBody().orElse(null);
+        if (body == null) {
+            return new byte[0];
+        }
+        if (body instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (body instanceof CharSequence) {
+            return body.toString().getBytes(response.getCharacterEncoding());
+        }
+        if (body instanceof ByteBuffer<?> byteBuffer) {
+            return byteBuffer.toByteArray();
+        }
+        if (body instanceof CustomizableResponseType
+            || body instanceof InputStream
+            || body instanceof File
+            || body instanceof Writable
+            || Publishers.isConvertibleToPublisher(body)) {
+            return null;
+        }
+        MediaType mediaType = response.getContentType().orElseGet(() -> defaultMediaType(request, response));
+        MediaTypeCodec codec = codecRegistry.findCodec(mediaType, body.getClass()).orElse(null);
+        if (codec == null) {
+            return null;
+        }
+        try {
+            byte[] encoded = codec.encode(body);
+            response.contentType(mediaType);
+            return encoded;
+        } catch (CodecException e) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Not caching the response to " + request + ", its body cannot be encoded: " + e.getMessage(), e);
+            }
+            return null;
+        }
+    }
+
+    private MediaType defaultMediaType(HttpRequest<?> request, MutableHttpResponse<?> response) {
+        List<MediaType> produces = response.getAttribute(HttpAttributes.ROUTE_INFO, RouteInfo.class)
+            .map(RouteInfo::getProduces)
+            .orElse(null);
+        if (produces == null || produces.isEmpty()) {
+            return MediaType.APPLICATION_JSON_TYPE;
+        }
+        List<MediaType> accept = request.getHeaders().accept();
+        if (!accept.isEmpty() && produces.contains(accept.get(0))) {
+            return accept.get(0);
+        }
+        return produces.get(0);
+    }
+
+    /**
+     * @param request The request
+     * @return The host and URI of the request, so that the responses of different virtual hosts are kept apart
+     */
+    private static String location(HttpRequest<?> request) {
+        String uri = request.getUri().toString();
+        String host = request.getHeaders().get(HttpHeaders.HOST);
+        return host == null ? uri : host.toLowerCase(Locale.ENGLISH) + uri;
+    }
+
+    private static String cacheKey(String location, @Nullable String[] varyNames, HttpHeaders requestHeaders) {
+        if (varyNames == null || varyNames.length == 0) {
+            return location;
+        }
+        StringBuilder key = new StringBuilder(location);
+        for (String name : varyNames) {
+            String value = CachedResponse.varyValue(requestHeaders, name);
+            key.append('\n').append(name).append(':');
+            if (value != null) {
+                key.append(value);
+            }
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.http.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * <p>Overrides the content encodings and the compression level the server uses to compress the responses of a route
+ * when applied to a method or a controller.</p>
+ *
+ * <pre class="code">
+ * &#064;Get("/books")
+ * &#064;Compression(value = "zstd", level = 1)
+ * List&lt;Book&gt; books() { ... }
+ * </pre>
+ *
+ * @since 4.0.0
+ */
+@Documented
+@Retention(RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Inherited
+public @interface Compression {
+
+    /**
+     * @return The content encodings the response may be compressed with, in order of preference. If empty the
+     * encodings configured for the server are used.
+     */
+    String[] value() default {};
+
+    /**
+     * @return The compression level of the negotiated encoding, or {@code -1} to use the configured level
+     */
+    int level() default -1;
+
+    /**
+     * @return Whether the response may be compressed at all
+     */
+    boolean enabled() default true;
+}
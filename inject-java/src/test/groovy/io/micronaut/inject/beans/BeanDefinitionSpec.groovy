@@ -46,6 +46,53 @@ class Test implements Runnable {
         reference.exposedTypes == [Runnable] as Set
     }
 
+    void "test indexed type names of a reference"() {
+        given:
+        def reference = buildBeanDefinitionReference('indexed.Test', '''
+package indexed;
+
+import jakarta.inject.*;
+
+@Singleton
+class Test extends Base implements Runnable {
+    public void run() {}
+}
+
+abstract class Base implements java.io.Closeable {
+    public void close() {}
+}
+
+''')
+        expect:
+        (reference.indexedTypeNames as List).containsAll([
+                'indexed.Base',
+                'indexed.Test',
+                'java.io.Closeable',
+                'java.lang.AutoCloseable',
+                'java.lang.Runnable'
+        ])
+    }
+
+    void "test indexed type names of a reference with exposed types"() {
+        given:
+        def reference = buildBeanDefinitionReference('indexed.Test', '''
+package indexed;
+
+import io.micronaut.context.annotation.*;
+import jakarta.inject.*;
+
+@Singleton
+@Bean(typed = Runnable.class)
+class Test implements Runnable, java.io.Closeable {
+    public void run() {}
+    public void close() {}
+}
+
+''')
+        expect:
+        reference.indexedTypeNames as List == ['indexed.Test', 'java.lang.Runnable']
+    }
+
     void "test fail compilation on invalid exposed bean type"() {
         when:
         buildBeanDefinition('limittypes.Test', '''
@@ -0,0 +1,21 @@
+package io.micronaut.inject.context.parallel;
+
+import io.micronaut.context.annotation.Context;
+import io.micronaut.context.annotation.Requires;
+import jakarta.annotation.PostConstruct;
+
+@Context
+@Requires(property = "spec.name", value = "ParallelEagerInitSpec")
+public class DependsOnA {
+
+    final SlowA slowA;
+
+    DependsOnA(SlowA slowA) {
+        this.slowA = slowA;
+    }
+
+    @PostConstruct
+    void init() {
+        InitRecorder.record("DependsOnA");
+    }
+}
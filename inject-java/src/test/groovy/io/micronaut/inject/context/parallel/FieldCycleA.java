@@ -0,0 +1,18 @@
+package io.micronaut.inject.context.parallel;
+
+import io.micronaut.context.annotation.Context;
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Inject;
+
+@Context
+@Requires(property = "spec.name", value = "ParallelEagerInitSpec.cycle")
+public class FieldCycleA {
+
+    @Inject
+    FieldCycleB cycleB;
+
+    FieldCycleA() {
+        // hold the creation lock until the other bean has been constructed as well
+        InitRecorder.record("FieldCycleA");
+    }
+}
@@ -0,0 +1,29 @@
+package io.micronaut.inject.context.parallel;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public final class InitRecorder {
+    static final List<String> STARTED = new CopyOnWriteArrayList<>();
+    static final List<String> FINISHED = new CopyOnWriteArrayList<>();
+    static final Map<String, String> THREADS = new ConcurrentHashMap<>();
+
+    static void record(String name) {
+        STARTED.add(name);
+        THREADS.put(name, Thread.currentThread().getName());
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        FINISHED.add(name);
+    }
+
+    static void reset() {
+        STARTED.clear();
+        FINISHED.clear();
+        THREADS.clear();
+    }
+}
@@ -0,0 +1,17 @@
+package io.micronaut.inject.context.parallel;
+
+import io.micronaut.context.annotation.Context;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Order;
+import jakarta.annotation.PostConstruct;
+
+@Context
+@Order(-100)
+@Requires(property = "spec.name", value = "ParallelEagerInitSpec")
+public class OrderedFirst {
+
+    @PostConstruct
+    void init() {
+        InitRecorder.record("OrderedFirst");
+    }
+}
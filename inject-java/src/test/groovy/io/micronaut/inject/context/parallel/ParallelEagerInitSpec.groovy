@@ -0,0 +1,72 @@
+package io.micronaut.inject.context.parallel
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.exceptions.CircularDependencyException
+import spock.lang.Specification
+import spock.lang.Timeout
+
+class ParallelEagerInitSpec extends Specification {
+
+    void setup() {
+        InitRecorder.reset()
+    }
+
+    void "test independent eager beans are initialized concurrently"() {
+        when:
+        def context = ApplicationContext.builder()
+                .properties('spec.name': ParallelEagerInitSpec.simpleName)
+                .eagerInitParallelism(4)
+                .start()
+
+        then:
+        InitRecorder.FINISHED.size() == 4
+        ['SlowA', 'SlowB', 'DependsOnA'].every { InitRecorder.THREADS[it].startsWith('eager-init-') }
+        // the ordered bean completes before any other bean starts
+        InitRecorder.FINISHED.first() == 'OrderedFirst'
+        InitRecorder.STARTED.indexOf('OrderedFirst') == 0
+        // the dependent bean starts after its dependency finished
+        InitRecorder.FINISHED.indexOf('SlowA') < InitRecorder.STARTED.indexOf('DependsOnA')
+        // the independent beans overlap
+        InitRecorder.STARTED.indexOf('SlowB') < InitRecorder.FINISHED.indexOf('SlowA')
+        context.getBean(DependsOnA).slowA.is(context.getBean(SlowA))
+
+        cleanup:
+        context.close()
+    }
+
+    void "test eager beans are initialized on the starting thread by default"() {
+        when:
+        def context = ApplicationContext.builder()
+                .properties('spec.name': ParallelEagerInitSpec.simpleName)
+                .start()
+
+        then:
+        InitRecorder.FINISHED.size() == 4
+        InitRecorder.THREADS.values().every { it == Thread.currentThread().name }
+
+        cleanup:
+        context.close()
+    }
+
+    @Timeout(30)
+    void "test a field injection cycle between workers fails as it does sequentially instead of deadlocking"() {
+        when:"each worker holds the lock of one bean of the cycle and waits for the other"
+        ApplicationContext.builder()
+                .properties('spec.name': ParallelEagerInitSpec.simpleName + '.cycle')
+                .eagerInitParallelism(2)
+                .start()
+
+        then:"the workers give up and the cycle is reported by the sequential initialization"
+        Exception e = thrown()
+        causes(e).any { it instanceof CircularDependencyException }
+        InitRecorder.THREADS.values().any { it.startsWith('eager-init-') }
+    }
+
+    private static List<Throwable> causes(Throwable e) {
+        List<Throwable> causes = []
+        for (Throwable t = e; t != null; t = t.cause) {
+            causes << t
+        }
+        return causes
+    }
+}
@@ -0,0 +1,15 @@
+package io.micronaut.inject.context.parallel;
+
+import io.micronaut.context.annotation.Context;
+import io.micronaut.context.annotation.Requires;
+import jakarta.annotation.PostConstruct;
+
+@Context
+@Requires(property = "spec.name", value = "ParallelEagerInitSpec")
+public class SlowB {
+
+    @PostConstruct
+    void init() {
+        InitRecorder.record("SlowB");
+    }
+}
@@ -0,0 +1,15 @@
+package io.micronaut.inject.context.startup;
+
+import io.micronaut.context.annotation.Requires;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Singleton;
+
+@Singleton
+@Requires(property = "spec.name", value = "StartupProfilerSpec")
+public class ProfiledDependency {
+
+    @PostConstruct
+    void init() throws InterruptedException {
+        Thread.sleep(20);
+    }
+}
@@ -0,0 +1,13 @@
+package io.micronaut.inject.context.startup;
+
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Singleton;
+
+@Singleton
+@Requires(property = "spec.name", value = "StartupProfilerSpec")
+public class ProfiledField {
+
+    public ProfiledField() throws InterruptedException {
+        Thread.sleep(20);
+    }
+}
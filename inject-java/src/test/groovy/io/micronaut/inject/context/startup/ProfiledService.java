@@ -0,0 +1,25 @@
+package io.micronaut.inject.context.startup;
+
+import io.micronaut.context.annotation.Requires;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+@Singleton
+@Requires(property = "spec.name", value = "StartupProfilerSpec")
+public class ProfiledService {
+
+    @Inject
+    ProfiledField field;
+
+    final ProfiledDependency dependency;
+
+    public ProfiledService(ProfiledDependency dependency) {
+        this.dependency = dependency;
+    }
+
+    @PostConstruct
+    void init() throws InterruptedException {
+        Thread.sleep(20);
+    }
+}
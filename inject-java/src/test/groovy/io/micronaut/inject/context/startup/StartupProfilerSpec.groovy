@@ -0,0 +1,74 @@
+package io.micronaut.inject.context.startup
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.startup.StartupProfiler
+import io.micronaut.context.startup.StartupStep
+import spock.lang.Specification
+
+import java.time.Duration
+
+class StartupProfilerSpec extends Specification {
+
+    void "test bean creation is recorded with its nested dependencies"() {
+        given:
+        def context = ApplicationContext.builder()
+                .properties('spec.name': StartupProfilerSpec.simpleName)
+                .startupProfiling(true)
+                .start()
+        StartupProfiler profiler = context.getBean(StartupProfiler)
+
+        when:
+        context.getBean(ProfiledService)
+        StartupStep service = find(profiler.steps, StartupStep.Type.BEAN_CREATION, ProfiledService.name)
+
+        then:
+        service != null
+        service.completed
+        find(service.children, StartupStep.Type.BEAN_CREATION, ProfiledDependency.name)
+        find(service.children, StartupStep.Type.BEAN_CREATION, ProfiledField.name)
+        service.instantiationDuration >= Duration.ofMillis(20)
+        service.injectionDuration >= Duration.ofMillis(20)
+        service.postConstructDuration >= Duration.ofMillis(20)
+        service.duration >= Duration.ofMillis(60)
+        service.selfDuration < service.duration - Duration.ofMillis(40)
+
+        and:
+        find(profiler.steps, StartupStep.Type.PROPERTY_SOURCES, 'application')
+        find(profiler.steps, StartupStep.Type.BEAN_DEFINITIONS, 'references')
+        find(profiler.steps, StartupStep.Type.BEAN_CONDITION, ProfiledService.name)
+
+        when:
+        context.stop()
+
+        then:
+        !profiler.recording
+
+        cleanup:
+        context.close()
+    }
+
+    void "test nothing is recorded by default"() {
+        given:
+        def context = ApplicationContext.run('spec.name': StartupProfilerSpec.simpleName)
+
+        expect:
+        !context.containsBean(StartupProfiler)
+        context.getBean(ProfiledService)
+
+        cleanup:
+        context.close()
+    }
+
+    private static StartupStep find(List<StartupStep> steps, StartupStep.Type type, String name) {
+        for (StartupStep step : steps) {
+            if (step.type == type && step.name == name) {
+                return step
+            }
+            StartupStep found = find(step.children, type, name)
+            if (found != null) {
+                return found
+            }
+        }
+        return null
+    }
+}
@@ -388,6 +388,7 @@ public abstract class AbstractBeanResolutionContext implements BeanResolutionCon
 
         @Override
         public Path pushMethodArgumentResolve(BeanDefinition declaringType, MethodInjectionPoint methodInjectionPoint, Argument argument) {
+            markInjectionStart(declaringType);
             Segment<?, ?> previous = peek();
             MethodSegment<?, ?> methodSegment = new MethodArgumentSegment(declaringType, methodInjectionPoint.getName(), argument,
                     methodInjectionPoint.getArguments(), previous instanceof MethodSegment ? (MethodSegment) previous : null);
@@ -402,6 +403,7 @@ public abstract class AbstractBeanResolutionContext implements BeanResolutionCon
 
         @Override
         public Path pushMethodArgumentResolve(BeanDefinition declaringType, String methodName, Argument argument, Argument[] arguments) {
+            markInjectionStart(declaringType);
             Segment<?, ?> previous = peek();
             MethodSegment<?, ?> methodSegment = new MethodArgumentSegment(declaringType, methodName, argument, arguments, previous instanceof MethodSegment ? (MethodSegment) previous : null);
             if (contains(methodSegment)) {
@@ -415,6 +417,7 @@ public abstract class AbstractBeanResolutionContext implements BeanResolutionCon
 
         @Override
         public Path pushFieldResolve(BeanDefinition declaringType, FieldInjectionPoint fieldInjectionPoint) {
+            markInjectionStart(declaringType);
             FieldSegment<?, ?> fieldSegment = new FieldSegment<>(declaringType, fieldInjectionPoint.asArgument());
             if (contains(fieldSegment)) {
                 throw new CircularDependencyException(AbstractBeanResolutionContext.this, fieldInjectionPoint, CIRCULAR_ERROR_MSG);
@@ -426,6 +429,7 @@ public abstract class AbstractBeanResolutionContext implements BeanResolutionCon
 
         @Override
         public Path pushFieldResolve(BeanDefinition declaringType, Argument fieldAsArgument) {
+            markInjectionStart(declaringType);
             FieldSegment<?, ?> fieldSegment = new FieldSegment<>(declaringType, fieldAsArgument);
             if (contains(fieldSegment)) {
                 throw new CircularDependencyException(AbstractBeanResolutionContext.this, declaringType, fieldAsArgument.getName(), CIRCULAR_ERROR_MSG);
@@ -446,6 +450,12 @@ public abstract class AbstractBeanResolutionContext implements BeanResolutionCon
             return this;
         }
 
+        private void markInjectionStart(BeanDefinition<?> declaringType) {
+            if (context != null) {
+                context.startupProfiler.markInjectionStart(declaringType);
+            }
+        }
+
         private void detectCircularDependency(BeanDefinition declaringType, Argument argument, Segment constructorSegment) {
             if (contains(constructorSegment)) {
                 Segment last = peek();
@@ -592,6 +592,9 @@ public abstract class AbstractInitializableBeanDefinition<T> extends AbstractBea
     @Deprecated(since = "4")
     @NextMajorVersion("Remove after Micronaut 4 Milestone 1. I think we always implement this method so it's not needed, otherwise un-deprecate")
     public T inject(BeanResolutionContext resolutionContext, BeanContext context, T bean) {
+        if (context instanceof DefaultBeanContext defaultBeanContext) {
+            defaultBeanContext.startupProfiler.markInjectionEnd(this);
+        }
         return (T) injectBean(resolutionContext, context, bean);
     }
 
@@ -832,8 +835,10 @@ public abstract class AbstractInitializableBeanDefinition<T> extends AbstractBea
     @Internal
     @UsedByGeneratedCode
     protected Object postConstruct(BeanResolutionContext resolutionContext, BeanContext context, Object bean) {
+        DefaultBeanContext defaultBeanContext = (DefaultBeanContext) context;
+        defaultBeanContext.startupProfiler.markPostConstructStart(this);
         final List<Map.Entry<Class<?>, ListenersSupplier<BeanInitializedEventListener>>> beanInitializedEventListeners
-                = ((DefaultBeanContext) context).beanInitializedEventListeners;
+                = defaultBeanContext.beanInitializedEventListeners;
         if (CollectionUtils.isNotEmpty(beanInitializedEventListeners)) {
             for (Map.Entry<Class<?>, ListenersSupplier<BeanInitializedEventListener>> entry : beanInitializedEventListeners) {
                 if (entry.getKey().isAssignableFrom(getBeanType())) {
@@ -17,6 +17,7 @@ package io.micronaut.context;
 
 import io.micronaut.context.annotation.ConfigurationReader;
 import io.micronaut.context.env.PropertySource;
+import io.micronaut.context.startup.StartupProfiler;
 import io.micronaut.core.util.ArgumentUtils;
 
 import io.micronaut.core.annotation.NonNull;
@@ -60,6 +61,32 @@ public interface ApplicationContextBuilder {
         return this;
     }
 
+    /**
+     * The maximum number of eager beans to initialize concurrently on startup. Independent beans are initialized
+     * on separate threads while beans that depend on each other, or have a different order, are still initialized
+     * one after the other. Defaults to {@code 1}, which initializes the beans one by one.
+     *
+     * @param parallelism The parallelism, for example {@code Runtime.getRuntime().availableProcessors()}
+     * @return The context builder
+     * @since 4.0.0
+     */
+    default @NonNull ApplicationContextBuilder eagerInitParallelism(int parallelism) {
+        return this;
+    }
+
+    /**
+     * Whether to record the time spent reading property sources and loading, evaluating and creating each bean
+     * on startup. The recorded steps are available from the {@link io.micronaut.context.startup.StartupProfiler}
+     * bean and as JFR events. Defaults to {@code false}.
+     *
+     * @param enabled Whether startup profiling is enabled
+     * @return The context builder
+     * @since 4.0.0
+     */
+    default @NonNull ApplicationContextBuilder startupProfiling(boolean enabled) {
+        return this;
+    }
+
     /**
      * Specify whether the default set of property sources should be enabled (default is {@code true}).
      * @param areEnabled Whether the default property sources are enabled
@@ -289,6 +316,7 @@ public interface ApplicationContextBuilder {
                 lifeCycle.start();
             }
         }
+        applicationContext.findBean(StartupProfiler.class).ifPresent(StartupProfiler::stop);
         return bean;
     }
 }
@@ -77,4 +77,27 @@ public interface BeanContextConfiguration {
     default Set<Class<? extends Annotation>> getEagerInitAnnotated() {
         return Collections.emptySet();
     }
+
+    /**
+     * The maximum number of eager beans that are initialized concurrently on startup. Beans are initialized
+     * following their dependencies and order, independent beans on separate threads. A value of {@code 1} or
+     * less initializes the beans one by one on the starting thread.
+     *
+     * @return The parallelism of the eager bean initialization
+     * @since 4.0.0
+     */
+    default int getEagerInitParallelism() {
+        return 1;
+    }
+
+    /**
+     * Whether the time spent loading, evaluating and creating each bean on startup is recorded by a
+     * {@link io.micronaut.context.startup.StartupProfiler}.
+     *
+     * @return True if startup profiling is enabled
+     * @since 4.0.0
+     */
+    default boolean isStartupProfilingEnabled() {
+        return false;
+    }
 }
@@ -172,6 +172,9 @@ public class DefaultApplicationContext extends DefaultBeanContext implements App
     public Environment getEnvironment() {
         if (environment == null) {
             environment = createEnvironment(configuration);
+            if (startupProfiler.isEnabled() && environment instanceof DefaultEnvironment defaultEnvironment) {
+                defaultEnvironment.setStartupProfiler(startupProfiler);
+            }
         }
         return environment;
     }
@@ -66,6 +66,8 @@ public class DefaultApplicationContextBuilder implements ApplicationContextBuild
     private boolean banner = true;
     private ClassPathResourceLoader classPathResourceLoader;
     private boolean allowEmptyProviders = false;
+    private int eagerInitParallelism = 1;
+    private boolean startupProfiling = false;
     private Boolean bootstrapEnvironment = null;
     private boolean enableDefaultPropertySources = true;
 
@@ -400,6 +402,28 @@ public class DefaultApplicationContextBuilder implements ApplicationContextBuild
         return this;
     }
 
+    @Override
+    public @NonNull ApplicationContextBuilder eagerInitParallelism(int parallelism) {
+        this.eagerInitParallelism = parallelism;
+        return this;
+    }
+
+    @Override
+    public int getEagerInitParallelism() {
+        return eagerInitParallelism;
+    }
+
+    @Override
+    public @NonNull ApplicationContextBuilder startupProfiling(boolean enabled) {
+        this.startupProfiling = enabled;
+        return this;
+    }
+
+    @Override
+    public boolean isStartupProfilingEnabled() {
+        return startupProfiling;
+    }
+
     /**
      * Returns a customizer which is the aggregation of all
      * customizers found on classpath via service loading.
@@ -55,6 +55,8 @@ import io.micronaut.context.scope.BeanCreationContext;
 import io.micronaut.context.scope.CreatedBean;
 import io.micronaut.context.scope.CustomScope;
 import io.micronaut.context.scope.CustomScopeRegistry;
+import io.micronaut.context.startup.StartupProfiler;
+import io.micronaut.context.startup.StartupStep;
 import io.micronaut.core.annotation.AnnotationClassValue;
 import io.micronaut.core.annotation.AnnotationMetadata;
 import io.micronaut.core.annotation.AnnotationMetadataProvider;
@@ -202,6 +204,15 @@ public class DefaultBeanContext implements InitializableBeanContext {
     private final Map<Argument, Collection<BeanDefinition>> beanCandidateCache = new ConcurrentLinkedHashMap.Builder<Argument, Collection<BeanDefinition>>().maximumWeightedCapacity(30).build();
 
     private final Map<Class<?>, Collection<BeanDefinitionProducer>> beanIndex = new ConcurrentHashMap<>(12);
+    /**
+     * The bean definition producers indexed by the type names computed at compilation time.
+     */
+    private final Map<String, List<BeanDefinitionProducer>> beanTypeNameIndex = new ConcurrentHashMap<>(200);
+    /**
+     * The bean definition producers without type names that are candidates for every lookup.
+     */
+    private final Collection<BeanDefinitionProducer> unindexedBeanDefinitionsClasses = new CopyOnWriteArrayList<>();
+    private volatile boolean beanTypeNamesIndexed;
 
     private final ClassLoader classLoader;
     private final Set<Class<?>> thisInterfaces = CollectionUtils.setOf(
@@ -227,6 +238,7 @@ public class DefaultBeanContext implements InitializableBeanContext {
     private final String[] eagerInitStereotypes;
     private final boolean eagerInitStereotypesPresent;
     private final boolean eagerInitSingletons;
+    final StartupProfiler startupProfiler;
 
     private BeanDefinitionValidator beanValidator;
     private List<BeanDefinitionReference> beanDefinitionReferences;
@@ -286,6 +298,7 @@ public class DefaultBeanContext implements InitializableBeanContext {
      */
     public DefaultBeanContext(@NonNull BeanContextConfiguration contextConfiguration) {
         ArgumentUtils.requireNonNull("contextConfiguration", contextConfiguration);
+        this.startupProfiler = contextConfiguration.isStartupProfilingEnabled() ? new StartupProfiler() : StartupProfiler.DISABLED;
         // enable classloader logging
         System.setProperty(ClassUtils.PROPERTY_MICRONAUT_CLASSLOADER_LOGGING, "true");
         this.classLoader = contextConfiguration.getClassLoader();
@@ -339,6 +352,9 @@ public class DefaultBeanContext implements InitializableBeanContext {
                     LOG.debug("Starting BeanContext");
                 }
                 registerConversionService();
+                if (startupProfiler.isEnabled()) {
+                    registerSingleton(StartupProfiler.class, startupProfiler, null, false);
+                }
                 finalizeConfiguration();
                 if (LOG.isDebugEnabled()) {
                     String activeConfigurations = beanConfigurations
@@ -410,6 +426,7 @@ public class DefaultBeanContext implements InitializableBeanContext {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Stopping BeanContext");
             }
+            startupProfiler.stop();
             publishEvent(new ShutdownEvent(this));
             attributes.clear();
 
@@ -463,6 +480,9 @@ public class DefaultBeanContext implements InitializableBeanContext {
             proxyTargetBeans.clear();
             attributes.clear();
             beanIndex.clear();
+            beanTypeNameIndex.clear();
+            unindexedBeanDefinitionsClasses.clear();
+            beanTypeNamesIndexed = false;
             beanConfigurationsList = null;
             beanDefinitionReferences = null;
             beanInitializedEventListeners = null;
@@ -1650,6 +1670,7 @@ public class DefaultBeanContext implements InitializableBeanContext {
         Class<B> beanType = definition.getBeanType();
         BeanDefinitionProducer producer = new BeanDefinitionProducer(definition);
         this.beanDefinitionsClasses.add(producer);
+        this.unindexedBeanDefinitionsClasses.add(producer);
         for (Class<?> indexedType : indexedTypes) {
             if (indexedType == beanType || indexedType.isAssignableFrom(beanType)) {
                 final Collection<BeanDefinitionProducer> indexed = resolveTypeIndex(indexedType);
@@ -2016,15 +2037,13 @@ public class DefaultBeanContext implements InitializableBeanContext {
             }
             filterReplacedBeans(null, eagerInit);
             OrderUtil.sort(eagerInit);
-            for (BeanDefinition eagerInitDefinition : eagerInit) {
-                try {
-                    initializeEagerBean(eagerInitDefinition);
-                } catch (DisabledBeanException e) {
-                    if (AbstractBeanContextConditional.ConditionLog.LOG.isDebugEnabled()) {
-                        AbstractBeanContextConditional.ConditionLog.LOG.debug("Bean of type [{}] disabled for reason: {}", eagerInitDefinition.getBeanType().getSimpleName(), e.getMessage());
-                    }
-                } catch (Throwable e) {
-                    throw new BeanInstantiationException("Bean definition [" + eagerInitDefinition.getName() + "] could not be loaded: " + e.getMessage(), e);
+            int eagerInitParallelism = beanContextConfiguration.getEagerInitParallelism();
+            if (eagerInitParallelism > 1 && eagerInit.size() > 1) {
+                new ParallelEagerBeanInitializer(this, eagerInitParallelism, this::initializeContextBean)
+                    .initialize(eagerInit);
+            } else {
+                for (BeanDefinition<Object> eagerInitDefinition : eagerInit) {
+                    initializeContextBean(eagerInitDefinition);
                 }
             }
         }
@@ -2154,6 +2173,8 @@ public class DefaultBeanContext implements InitializableBeanContext {
             if (beanDefinitionsClasses == null) {
                 beanDefinitionsClasses = Collections.emptyList();
             }
+        } else if (beanTypeNamesIndexed && beanClass != Object.class) {
+            beanDefinitionsClasses = findIndexedBeanDefinitionsClasses(beanClass);
         } else {
             beanDefinitionsClasses = this.beanDefinitionsClasses;
         }
@@ -2167,6 +2188,21 @@ public class DefaultBeanContext implements InitializableBeanContext {
         );
     }
 
+    @NonNull
+    private Collection<BeanDefinitionProducer> findIndexedBeanDefinitionsClasses(Class<?> beanClass) {
+        List<BeanDefinitionProducer> indexed = beanTypeNameIndex.get(beanClass.getName());
+        if (indexed == null) {
+            return unindexedBeanDefinitionsClasses;
+        }
+        if (unindexedBeanDefinitionsClasses.isEmpty()) {
+            return indexed;
+        }
+        List<BeanDefinitionProducer> producers = new ArrayList<>(indexed.size() + unindexedBeanDefinitionsClasses.size());
+        producers.addAll(indexed);
+        producers.addAll(unindexedBeanDefinitionsClasses);
+        return producers;
+    }
+
     @NonNull
     private <T> Set<BeanDefinition<T>> collectBeanCandidates(
         BeanResolutionContext resolutionContext,
@@ -2320,16 +2356,22 @@ public class DefaultBeanContext implements InitializableBeanContext {
                                @NonNull BeanDefinition<T> beanDefinition,
                                @Nullable Qualifier<T> qualifier,
                                @Nullable Map<String, Object> argumentValues) {
-        T bean;
-        // TODO: remove this after Micronaut 4 Milestone 1
-        if (beanDefinition instanceof BeanFactory) {
-            bean = resolveByBeanFactory(resolutionContext, beanDefinition, qualifier, argumentValues);
-        } else if (beanDefinition instanceof InstantiatableBeanDefinition<T> instantiatableBeanDefinition) {
-            bean = resolveByBeanFactory(resolutionContext, instantiatableBeanDefinition, qualifier, argumentValues);
-        } else {
-            throw new BeanInstantiationException("BeanDefinition doesn't support creating a new instance of the bean");
+        StartupStep step = startupProfiler.start(StartupStep.Type.BEAN_CREATION, beanDefinition);
+        try {
+            T bean;
+            // TODO: remove this after Micronaut 4 Milestone 1
+            if (beanDefinition instanceof BeanFactory) {
+                bean = resolveByBeanFactory(resolutionContext, beanDefinition, qualifier, argumentValues);
+            } else if (beanDefinition instanceof InstantiatableBeanDefinition<T> instantiatableBeanDefinition) {
+                bean = resolveByBeanFactory(resolutionContext, instantiatableBeanDefinition, qualifier, argumentValues);
+            } else {
+                throw new BeanInstantiationException("BeanDefinition doesn't support creating a new instance of the bean");
+            }
+            startupProfiler.markBuilt(step);
+            return postBeanCreated(resolutionContext, beanDefinition, qualifier, bean);
+        } finally {
+            startupProfiler.end(step);
         }
-        return postBeanCreated(resolutionContext, beanDefinition, qualifier, bean);
     }
 
     @Internal
@@ -2701,15 +2743,40 @@ public class DefaultBeanContext implements InitializableBeanContext {
     private void loadEagerBeans(BeanDefinitionProducer producer, Collection<BeanDefinition<Object>> collector) {
         if (producer.isReferenceEnabled(this)) {
             BeanDefinitionReference<Object> reference = producer.getReference();
-            BeanDefinition<Object> beanDefinition = reference.load(this);
+            BeanDefinition<Object> beanDefinition;
+            StartupStep step = startupProfiler.start(StartupStep.Type.BEAN_DEFINITION_LOAD, reference);
+            try {
+                beanDefinition = reference.load(this);
+            } finally {
+                startupProfiler.end(step);
+            }
             try (BeanResolutionContext resolutionContext = newResolutionContext(beanDefinition, null)) {
-                if (beanDefinition.isEnabled(this, resolutionContext)) {
+                boolean enabled;
+                step = startupProfiler.start(StartupStep.Type.BEAN_CONDITION, beanDefinition);
+                try {
+                    enabled = beanDefinition.isEnabled(this, resolutionContext);
+                } finally {
+                    startupProfiler.end(step);
+                }
+                if (enabled) {
                     collector.add(beanDefinition);
                 }
             }
         }
     }
 
+    private void initializeContextBean(BeanDefinition<Object> eagerInitDefinition) {
+        try {
+            initializeEagerBean(eagerInitDefinition);
+        } catch (DisabledBeanException e) {
+            if (AbstractBeanContextConditional.ConditionLog.LOG.isDebugEnabled()) {
+                AbstractBeanContextConditional.ConditionLog.LOG.debug("Bean of type [{}] disabled for reason: {}", eagerInitDefinition.getBeanType().getSimpleName(), e.getMessage());
+            }
+        } catch (Throwable e) {
+            throw new BeanInstantiationException("Bean definition [" + eagerInitDefinition.getName() + "] could not be loaded: " + e.getMessage(), e);
+        }
+    }
+
     private void initializeEagerBean(BeanDefinition<Object> beanDefinition) {
         if (beanDefinition.isIterable() || beanDefinition.hasStereotype(ConfigurationReader.class.getName())) {
             Set<BeanDefinition<Object>> beanCandidates = new HashSet<>(5);
@@ -3316,14 +3383,30 @@ public class DefaultBeanContext implements InitializableBeanContext {
         List<BeanDefinitionProducer> processedBeans = new ArrayList<>(10);
         List<BeanDefinitionProducer> parallelBeans = new ArrayList<>(10);
 
-        List<BeanDefinitionReference> beanDefinitionReferences = resolveBeanDefinitionReferences();
+        StartupStep step = startupProfiler.start(StartupStep.Type.BEAN_DEFINITIONS, "references");
+        List<BeanDefinitionReference> beanDefinitionReferences;
+        try {
+            beanDefinitionReferences = resolveBeanDefinitionReferences();
+        } finally {
+            startupProfiler.end(step);
+        }
 
         List<BeanDefinitionProducer> producers = new ArrayList<>(beanDefinitionReferences.size());
         List<BeanDefinitionProducer> proxyTargetBeans = new ArrayList<>(beanDefinitionReferences.size());
         for (BeanDefinitionReference beanDefinitionReference : beanDefinitionReferences) {
-            producers.add(new BeanDefinitionProducer(beanDefinitionReference));
+            BeanDefinitionProducer producer = new BeanDefinitionProducer(beanDefinitionReference);
+            producers.add(producer);
+            String[] typeNames = beanDefinitionReference.getIndexedTypeNames();
+            if (typeNames == null) {
+                unindexedBeanDefinitionsClasses.add(producer);
+            } else {
+                for (String typeName : typeNames) {
+                    beanTypeNameIndex.computeIfAbsent(typeName, name -> new ArrayList<>(2)).add(producer);
+                }
+            }
         }
         beanDefinitionsClasses.addAll(producers);
+        beanTypeNamesIndexed = true;
 
         Collection<BeanConfiguration> allConfigurations = beanConfigurations.values();
         List<BeanConfiguration> configurationsDisabled = new ArrayList<>(allConfigurations.size());
@@ -3743,7 +3826,12 @@ public class DefaultBeanContext implements InitializableBeanContext {
 
     @Override
     public void finalizeConfiguration() {
-        readAllBeanConfigurations();
+        StartupStep step = startupProfiler.start(StartupStep.Type.BEAN_DEFINITIONS, "configurations");
+        try {
+            readAllBeanConfigurations();
+        } finally {
+            startupProfiler.end(step);
+        }
         readAllBeanDefinitionClasses();
     }
 
@@ -4123,7 +4211,14 @@ public class DefaultBeanContext implements InitializableBeanContext {
                 return false;
             }
             if (referenceEnabled == null) {
-                if (ref.isEnabled(context, resolutionContext)) {
+                boolean enabled;
+                StartupStep step = context.startupProfiler.start(StartupStep.Type.BEAN_CONDITION, ref);
+                try {
+                    enabled = ref.isEnabled(context, resolutionContext);
+                } finally {
+                    context.startupProfiler.end(step);
+                }
+                if (enabled) {
                     referenceEnabled = true;
                 } else {
                     referenceEnabled = false;
@@ -4155,7 +4250,14 @@ public class DefaultBeanContext implements InitializableBeanContext {
             if (definitionEnabled == null) {
                 if (isReferenceEnabled(context, resolutionContext)) {
                     BeanDefinition <?> def = getDefinition(context);
-                    if (def.isEnabled(context, resolutionContext)) {
+                    boolean enabled;
+                    StartupStep step = context.startupProfiler.start(StartupStep.Type.BEAN_CONDITION, def);
+                    try {
+                        enabled = def.isEnabled(context, resolutionContext);
+                    } finally {
+                        context.startupProfiler.end(step);
+                    }
+                    if (enabled) {
                         definition = def;
                         definitionEnabled = true;
                     } else {
@@ -4186,7 +4288,14 @@ public class DefaultBeanContext implements InitializableBeanContext {
             try {
                 BeanDefinition def = definition;
                 if (def == null) {
-                    def = getReference().load(beanContext);
+                    BeanDefinitionReference ref = getReference();
+                    StartupProfiler profiler = beanContext instanceof DefaultBeanContext defaultBeanContext ? defaultBeanContext.startupProfiler : StartupProfiler.DISABLED;
+                    StartupStep step = profiler.start(StartupStep.Type.BEAN_DEFINITION_LOAD, ref);
+                    try {
+                        def = ref.load(beanContext);
+                    } finally {
+                        profiler.end(step);
+                    }
                     definition = def;
                 }
                 return def;
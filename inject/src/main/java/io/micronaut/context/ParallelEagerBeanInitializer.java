@@ -0,0 +1,330 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context;
+
+import io.micronaut.context.exceptions.BeanContextException;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.order.OrderUtil;
+import io.micronaut.inject.BeanDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Initializes eager beans concurrently on a bounded pool, following the dependency graph formed by the
+ * {@link BeanDefinition#getRequiredComponents() required components} of the bean definitions.
+ *
+ * <p>Beans are grouped by their order and the groups are initialized one after the other, so that a bean
+ * with a lower order is always initialized before a bean with a higher order. Within a group a bean is only
+ * initialized once every bean of the group it depends on, directly or through non-eager beans, has been
+ * initialized. Beans that are part of a dependency cycle are initialized sequentially at the end of their group.
+ * Concurrent creation of the same singleton is prevented by the locking of the {@link SingletonScope}.</p>
+ *
+ * <p>Dependencies that are not declared as required components, such as field injection points, may still form a
+ * cycle between beans created by different workers, each holding the lock of its bean while waiting for the lock of
+ * the other. Workers therefore give up waiting for a singleton lock after {@link #LOCK_TIMEOUT_MILLIS}, and the
+ * beans whose creation was abandoned are initialized again on the calling thread once the other beans of their group
+ * have been initialized, which yields the same result as a sequential initialization.</p>
+ *
+ * @since 4.0.0
+ */
+@Internal
+final class ParallelEagerBeanInitializer {
+
+    /**
+     * The time a worker waits for the creation lock of a singleton before giving up.
+     */
+    static final long LOCK_TIMEOUT_MILLIS = 1000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelEagerBeanInitializer.class);
+
+    private final BeanContext beanContext;
+    private final int parallelism;
+    private final Consumer<BeanDefinition<Object>> initializer;
+    private final Map<Class<?>, Collection<Class<?>>> componentsByType = new HashMap<>();
+
+    /**
+     * @param beanContext The bean context
+     * @param parallelism The maximum number of beans initialized concurrently
+     * @param initializer The initializer of a single bean
+     */
+    ParallelEagerBeanInitializer(@NonNull BeanContext beanContext,
+                                 int parallelism,
+                                 @NonNull Consumer<BeanDefinition<Object>> initializer) {
+        this.beanContext = beanContext;
+        this.parallelism = parallelism;
+        this.initializer = initializer;
+    }
+
+    /**
+     * Initializes the given beans.
+     *
+     * @param eagerInit The bean definitions, sorted by order
+     */
+    void initialize(@NonNull List<BeanDefinition<Object>> eagerInit) {
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.min(parallelism, eagerInit.size()),
+            newThreadFactory(Thread.currentThread().getContextClassLoader())
+        );
+        try {
+            int start = 0;
+            while (start < eagerInit.size()) {
+                int order = OrderUtil.getOrder(eagerInit.get(start));
+                int end = start + 1;
+                while (end < eagerInit.size() && OrderUtil.getOrder(eagerInit.get(end)) == order) {
+                    end++;
+                }
+                initializeGroup(eagerInit.subList(start, end), executor);
+                start = end;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void initializeGroup(List<BeanDefinition<Object>> group, ExecutorService executor) {
+        int size = group.size();
+        if (size == 1) {
+            initializer.accept(group.get(0));
+            return;
+        }
+        List<Integer>[] dependents = dependents(group);
+        int[] dependencyCount = new int[size];
+        for (List<Integer> beanDependents : dependents) {
+            for (int dependent : beanDependents) {
+                dependencyCount[dependent]++;
+            }
+        }
+
+        // find the beans that can be ordered, the rest is part of or depends on a cycle
+        BitSet acyclic = new BitSet(size);
+        int[] remaining = dependencyCount.clone();
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            if (remaining[i] == 0) {
+                ready.add(i);
+            }
+        }
+        while (!ready.isEmpty()) {
+            int i = ready.poll();
+            acyclic.set(i);
+            for (int dependent : dependents[i]) {
+                if (--remaining[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        int acyclicCount = acyclic.cardinality();
+        if (acyclicCount > 0) {
+            AtomicIntegerArray pending = new AtomicIntegerArray(dependencyCount);
+            CountDownLatch done = new CountDownLatch(acyclicCount);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Queue<Integer> abandoned = new ConcurrentLinkedQueue<>();
+            for (int i = acyclic.nextSetBit(0); i >= 0; i = acyclic.nextSetBit(i + 1)) {
+                if (dependencyCount[i] == 0) {
+                    submit(i, group, dependents, pending, done, failure, abandoned, executor);
+                }
+            }
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BeanContextException("Interrupted while initializing eager beans", e);
+            }
+            Throwable e = failure.get();
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            } else if (e instanceof Error error) {
+                throw error;
+            } else if (e != null) {
+                throw new BeanContextException("Error initializing eager beans: " + e.getMessage(), e);
+            }
+            for (int i : abandoned) {
+                initializer.accept(group.get(i));
+            }
+        }
+        for (int i = acyclic.nextClearBit(0); i < size; i = acyclic.nextClearBit(i + 1)) {
+            initializer.accept(group.get(i));
+        }
+    }
+
+    private void submit(int index,
+                        List<BeanDefinition<Object>> group,
+                        List<Integer>[] dependents,
+                        AtomicIntegerArray pending,
+                        CountDownLatch done,
+                        AtomicReference<Throwable> failure,
+                        Queue<Integer> abandoned,
+                        ExecutorService executor) {
+        executor.execute(() -> {
+            try {
+                if (failure.get() == null) {
+                    initializer.accept(group.get(index));
+                }
+            } catch (Throwable e) {
+                if (isLockTimeout(e)) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Initializing eager bean {} sequentially: {}", group.get(index).getName(), e.getMessage());
+                    }
+                    abandoned.add(index);
+                } else {
+                    failure.compareAndSet(null, e);
+                }
+            } finally {
+                for (int dependent : dependents[index]) {
+                    if (pending.decrementAndGet(dependent) == 0) {
+                        submit(dependent, group, dependents, pending, done, failure, abandoned, executor);
+                    }
+                }
+                done.countDown();
+            }
+        });
+    }
+
+    private static boolean isLockTimeout(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof LockTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param group The beans of a group
+     * @return For each bean, the indexes of the beans in the group that depend on it
+     */
+    @SuppressWarnings("unchecked")
+    private List<Integer>[] dependents(List<BeanDefinition<Object>> group) {
+        int size = group.size();
+        Map<Class<?>, List<Integer>> byType = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            for (Class<?> type : typeHierarchy(group.get(i).getBeanType())) {
+                byType.computeIfAbsent(type, t -> new ArrayList<>(1)).add(i);
+            }
+        }
+        List<Integer>[] dependents = new List[size];
+        for (int i = 0; i < size; i++) {
+            dependents[i] = new ArrayList<>(2);
+        }
+        BitSet dependencies = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            dependencies.clear();
+            for (Class<?> component : transitiveComponents(group.get(i))) {
+                for (int dependency : byType.getOrDefault(component, Collections.emptyList())) {
+                    if (dependency != i && !dependencies.get(dependency)) {
+                        dependencies.set(dependency);
+                        dependents[dependency].add(i);
+                    }
+                }
+            }
+        }
+        return dependents;
+    }
+
+    private Set<Class<?>> transitiveComponents(BeanDefinition<Object> definition) {
+        Set<Class<?>> components = new HashSet<>(definition.getRequiredComponents());
+        Deque<Class<?>> queue = new ArrayDeque<>(components);
+        while (!queue.isEmpty()) {
+            for (Class<?> component : componentsOf(queue.poll())) {
+                if (components.add(component)) {
+                    queue.add(component);
+                }
+            }
+        }
+        return components;
+    }
+
+    private Collection<Class<?>> componentsOf(Class<?> type) {
+        Collection<Class<?>> components = componentsByType.get(type);
+        if (components == null) {
+            components = new HashSet<>();
+            for (BeanDefinition<?> candidate : beanContext.getBeanDefinitions(type)) {
+                components.addAll(candidate.getRequiredComponents());
+            }
+            componentsByType.put(type, components);
+        }
+        return components;
+    }
+
+    private static Set<Class<?>> typeHierarchy(Class<?> type) {
+        Set<Class<?>> types = new HashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            Class<?> t = queue.poll();
+            if (t != Object.class && types.add(t)) {
+                Class<?> superclass = t.getSuperclass();
+                if (superclass != null) {
+                    queue.add(superclass);
+                }
+                Collections.addAll(queue, t.getInterfaces());
+            }
+        }
+        return types;
+    }
+
+    private static ThreadFactory newThreadFactory(ClassLoader classLoader) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Worker(runnable, "eager-init-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        };
+    }
+
+    /**
+     * A thread of the pool, which waits for the creation lock of a singleton for a limited time only.
+     */
+    static final class Worker extends Thread {
+        Worker(Runnable runnable, String name) {
+            super(runnable, name);
+        }
+    }
+
+    /**
+     * Thrown when a worker gave up waiting for the creation lock of a singleton.
+     */
+    static final class LockTimeoutException extends BeanContextException {
+        LockTimeoutException(BeanDefinition<?> definition) {
+            super("Timed out waiting for the creation of bean: " + definition.getName());
+        }
+    }
+}
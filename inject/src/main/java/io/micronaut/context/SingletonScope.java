@@ -15,6 +15,7 @@
  */
 package io.micronaut.context;
 
+import io.micronaut.context.exceptions.BeanContextException;
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
@@ -30,6 +31,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
 
 /**
@@ -44,7 +47,7 @@ final class SingletonScope {
     /**
      * The locks used to prevent re-creating of the same singleton.
      */
-    private final Map<BeanDefinitionIdentity, Object> singletonsInCreationLocks = new ConcurrentHashMap<>(5, 1);
+    private final Map<BeanDefinitionIdentity, ReentrantLock> singletonsInCreationLocks = new ConcurrentHashMap<>(5, 1);
 
     /**
      * The main collection storing registrations for {@link BeanDefinition}.
@@ -71,19 +74,42 @@ final class SingletonScope {
         if (existingRegistration != null) {
             return existingRegistration;
         }
-        Object lock = singletonsInCreationLocks.computeIfAbsent(identity, beanDefinitionIdentity -> new Object());
-        synchronized (lock) {
-            try {
-                existingRegistration = singletonByBeanDefinition.get(identity);
-                if (existingRegistration != null) {
-                    return existingRegistration;
-                }
-                BeanRegistration<T> newRegistration = beanContext.createRegistration(resolutionContext, beanType, qualifier, definition, false);
-                registerSingletonBean(newRegistration, qualifier);
-                return newRegistration;
-            } finally {
-                singletonsInCreationLocks.remove(identity);
+        ReentrantLock lock = singletonsInCreationLocks.computeIfAbsent(identity, beanDefinitionIdentity -> new ReentrantLock());
+        lock(lock, definition);
+        try {
+            existingRegistration = singletonByBeanDefinition.get(identity);
+            if (existingRegistration != null) {
+                return existingRegistration;
             }
+            BeanRegistration<T> newRegistration = beanContext.createRegistration(resolutionContext, beanType, qualifier, definition, false);
+            registerSingletonBean(newRegistration, qualifier);
+            return newRegistration;
+        } finally {
+            singletonsInCreationLocks.remove(identity);
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Acquires the creation lock of a singleton. The workers of the {@link ParallelEagerBeanInitializer} only wait
+     * for a limited time, since two workers creating beans that inject each other would otherwise wait for each other
+     * forever.
+     *
+     * @param lock       The lock
+     * @param definition The bean definition
+     */
+    private static void lock(ReentrantLock lock, BeanDefinition<?> definition) {
+        if (!(Thread.currentThread() instanceof ParallelEagerBeanInitializer.Worker)) {
+            lock.lock();
+            return;
+        }
+        try {
+            if (!lock.tryLock(ParallelEagerBeanInitializer.LOCK_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                throw new ParallelEagerBeanInitializer.LockTimeoutException(definition);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BeanContextException("Interrupted while waiting for the creation of bean: " + definition.getName(), e);
         }
     }
 
@@ -17,6 +17,9 @@ package io.micronaut.context.env;
 
 import io.micronaut.context.ApplicationContextConfiguration;
 import io.micronaut.context.exceptions.ConfigurationException;
+import io.micronaut.context.startup.StartupProfiler;
+import io.micronaut.context.startup.StartupStep;
+import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.convert.ConversionContext;
@@ -119,6 +122,7 @@ public class DefaultEnvironment extends PropertySourcePropertyResolver implement
     private final Boolean deduceEnvironments;
     private final ApplicationContextConfiguration configuration;
     private final Collection<String> configLocations;
+    private StartupProfiler startupProfiler = StartupProfiler.DISABLED;
 
     /**
      * Construct a new environment for the given configuration.
@@ -256,6 +260,15 @@ public class DefaultEnvironment extends PropertySourcePropertyResolver implement
         return this.names;
     }
 
+    /**
+     * @param startupProfiler The profiler that records the time spent reading the property sources
+     * @since 4.0.0
+     */
+    @Internal
+    public void setStartupProfiler(@NonNull StartupProfiler startupProfiler) {
+        this.startupProfiler = startupProfiler;
+    }
+
     @Override
     public Collection<PropertySource> getPropertySources() {
         return Collections.unmodifiableCollection(this.propertySources.values());
@@ -268,8 +281,13 @@ public class DefaultEnvironment extends PropertySourcePropertyResolver implement
                 LOG.debug("Starting environment {} for active names {}", this, getActiveNames());
             }
             if (reading.compareAndSet(false, true)) {
-
-                readPropertySources(getPropertySourceRootName());
+                String name = getPropertySourceRootName();
+                StartupStep step = startupProfiler.start(StartupStep.Type.PROPERTY_SOURCES, name);
+                try {
+                    readPropertySources(name);
+                } finally {
+                    startupProfiler.end(step);
+                }
                 reading.set(false);
             }
         }
@@ -431,7 +449,12 @@ public class DefaultEnvironment extends PropertySourcePropertyResolver implement
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Processing property source: {}", propertySource.getName());
             }
-            processPropertySource(propertySource, propertySource.getConvention());
+            StartupStep step = startupProfiler.start(StartupStep.Type.PROPERTY_SOURCE, propertySource.getName());
+            try {
+                processPropertySource(propertySource, propertySource.getConvention());
+            } finally {
+                startupProfiler.end(step);
+            }
         }
     }
 
@@ -610,14 +633,19 @@ public class DefaultEnvironment extends PropertySourcePropertyResolver implement
     }
 
     private void loadPropertySourceFromLoader(String name, PropertySourceLoader propertySourceLoader, List<PropertySource> propertySources, ResourceLoader resourceLoader) {
-        Optional<PropertySource> defaultPropertySource = propertySourceLoader.load(name, resourceLoader);
-        defaultPropertySource.ifPresent(propertySources::add);
-        Set<String> activeNames = getActiveNames();
-        int i = 0;
-        for (String activeName: activeNames) {
-            Optional<PropertySource> propertySource = propertySourceLoader.loadEnv(name, resourceLoader, ActiveEnvironment.of(activeName, i));
-            propertySource.ifPresent(propertySources::add);
-            i++;
+        StartupStep step = startupProfiler.isRecording() ? startupProfiler.start(StartupStep.Type.PROPERTY_SOURCE, name + " (" + propertySourceLoader.getClass().getSimpleName() + ")") : null;
+        try {
+            Optional<PropertySource> defaultPropertySource = propertySourceLoader.load(name, resourceLoader);
+            defaultPropertySource.ifPresent(propertySources::add);
+            Set<String> activeNames = getActiveNames();
+            int i = 0;
+            for (String activeName: activeNames) {
+                Optional<PropertySource> propertySource = propertySourceLoader.loadEnv(name, resourceLoader, ActiveEnvironment.of(activeName, i));
+                propertySource.ifPresent(propertySources::add);
+                i++;
+            }
+        } finally {
+            startupProfiler.end(step);
         }
     }
 
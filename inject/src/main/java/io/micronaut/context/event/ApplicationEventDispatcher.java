@@ -0,0 +1,43 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context.event;
+
+import io.micronaut.core.annotation.NonNull;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Delivers the events published with {@link ApplicationEventPublisher#publishEventAsync(Object)}
+ * to their listeners. If a bean of this type exists, the event publishers use it instead of
+ * notifying the listeners of each event in a task of the {@code scheduled} executor.
+ *
+ * @since 4.0.0
+ */
+public interface ApplicationEventDispatcher {
+
+    /**
+     * Dispatch an event to the given listeners. Implementations should use
+     * {@link ApplicationEventPublisherFactory#notifyEventListener(Object, ApplicationEventListener)}
+     * to notify a listener.
+     *
+     * @param event     The event
+     * @param listeners The listeners of the event type, in order
+     * @return A future that completes once all listeners have been notified
+     */
+    @NonNull
+    Future<Void> dispatchAsync(@NonNull Object event, @NonNull List<ApplicationEventListener> listeners);
+}
@@ -66,6 +66,7 @@ public final class ApplicationEventPublisherFactory<T>
     private ApplicationEventPublisher applicationObjectEventPublisher;
     private final Map<Argument, Supplier<ApplicationEventPublisher>> publishers = new ConcurrentHashMap<>();
     private Supplier<Executor> executorSupplier;
+    private Supplier<ApplicationEventDispatcher> dispatcherSupplier;
 
     public ApplicationEventPublisherFactory() {
         MutableAnnotationMetadata metadata = new MutableAnnotationMetadata();
@@ -141,6 +142,11 @@ public final class ApplicationEventPublisherFactory<T>
                  context.findBean(Executor.class, Qualifiers.byName("scheduled")).orElseGet(ForkJoinPool::commonPool)
             );
         }
+        if (dispatcherSupplier == null) {
+            dispatcherSupplier = SupplierUtil.memoized(() ->
+                context.findBean(ApplicationEventDispatcher.class).orElse(null)
+            );
+        }
         Argument<?> eventType = Argument.OBJECT_ARGUMENT;
         final BeanResolutionContext.Segment<?, ?> segment = resolutionContext.getPath().currentSegment().orElse(null);
         if (segment != null) {
@@ -235,8 +241,12 @@ public final class ApplicationEventPublisherFactory<T>
             @Override
             public Future<Void> publishEventAsync(Object event) {
                 Objects.requireNonNull(event, "Event cannot be null");
-                CompletableFuture<Void> future = new CompletableFuture<>();
                 List<ApplicationEventListener> eventListeners = lazyListeners.get();
+                ApplicationEventDispatcher dispatcher = dispatcherSupplier.get();
+                if (dispatcher != null) {
+                    return dispatcher.dispatchAsync(event, eventListeners);
+                }
+                CompletableFuture<Void> future = new CompletableFuture<>();
                 executorSupplier.get().execute(() -> {
                     try {
                         notifyEventListeners(event, eventListeners);
@@ -256,22 +266,34 @@ public final class ApplicationEventPublisherFactory<T>
                 EventLogger.LOG.trace("Established event listeners {} for event: {}", eventListeners, event);
             }
             for (ApplicationEventListener listener : eventListeners) {
-                if (listener.supports(event)) {
-                    try {
-                        if (EventLogger.LOG.isTraceEnabled()) {
-                            EventLogger.LOG.trace("Invoking event listener [{}] for event: {}", listener, event);
-                        }
-                        listener.onApplicationEvent(event);
-                    } catch (ClassCastException ex) {
-                        String msg = ex.getMessage();
-                        if (msg == null || msg.startsWith(event.getClass().getName())) {
-                            if (EventLogger.LOG.isDebugEnabled()) {
-                                EventLogger.LOG.debug("Incompatible listener for event: " + listener, ex);
-                            }
-                        } else {
-                            throw ex;
-                        }
+                notifyEventListener(event, listener);
+            }
+        }
+    }
+
+    /**
+     * Notify a listener of an event, if it supports the event.
+     *
+     * @param event    The event
+     * @param listener The listener
+     * @since 4.0.0
+     */
+    @SuppressWarnings("unchecked")
+    public static void notifyEventListener(@NonNull Object event, @NonNull ApplicationEventListener listener) {
+        if (listener.supports(event)) {
+            try {
+                if (EventLogger.LOG.isTraceEnabled()) {
+                    EventLogger.LOG.trace("Invoking event listener [{}] for event: {}", listener, event);
+                }
+                listener.onApplicationEvent(event);
+            } catch (ClassCastException ex) {
+                String msg = ex.getMessage();
+                if (msg == null || msg.startsWith(event.getClass().getName())) {
+                    if (EventLogger.LOG.isDebugEnabled()) {
+                        EventLogger.LOG.debug("Incompatible listener for event: " + listener, ex);
                     }
+                } else {
+                    throw ex;
                 }
             }
         }
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context.startup;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.inject.BeanType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records the time spent reading the property sources and loading, evaluating and creating each bean while the
+ * application starts. Steps started while another step is in progress on the same thread are nested in it, so
+ * the recorded steps form a tree per thread.
+ *
+ * <p>Profiling is enabled with {@link io.micronaut.context.ApplicationContextBuilder#startupProfiling(boolean)},
+ * in which case the profiler is registered as a bean. Every step is also emitted as a JFR event named
+ * {@code io.micronaut.StartupStep} when a flight recording is in progress. The recording stops once the
+ * application has started, when {@link #stop()} is called or after {@value #MAX_STEPS} steps.</p>
+ *
+ * @since 4.0.0
+ */
+public final class StartupProfiler {
+
+    /**
+     * A profiler that records nothing.
+     */
+    public static final StartupProfiler DISABLED = new StartupProfiler(false);
+
+    /**
+     * The maximum number of steps recorded.
+     */
+    public static final int MAX_STEPS = 50_000;
+
+    private static final boolean JFR_AVAILABLE = isJfrAvailable();
+
+    private final long start = System.nanoTime();
+    private final Queue<StartupStep> steps = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<StartupStep> current = new ThreadLocal<>();
+    private final AtomicInteger count = new AtomicInteger();
+    private final boolean enabled;
+    private volatile boolean recording;
+    private volatile long stopped;
+
+    /**
+     * Creates a new profiler that starts recording immediately.
+     */
+    public StartupProfiler() {
+        this(true);
+    }
+
+    private StartupProfiler(boolean enabled) {
+        this.enabled = enabled;
+        this.recording = enabled;
+    }
+
+    /**
+     * @return Whether the profiler records steps, false for {@link #DISABLED}
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return Whether steps are still being recorded
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Stops the recording. The steps in progress are still completed.
+     */
+    public void stop() {
+        if (recording) {
+            recording = false;
+            stopped = System.nanoTime();
+        }
+    }
+
+    /**
+     * @return The time from the creation of the profiler until the recording stopped, or until now if it is
+     * still recording
+     */
+    @NonNull
+    public Duration getDuration() {
+        long stopTime = stopped;
+        return Duration.ofNanos((stopTime != 0 ? stopTime : System.nanoTime()) - start);
+    }
+
+    /**
+     * @return The steps that are not nested in another step, in the order they completed
+     */
+    @NonNull
+    public List<StartupStep> getSteps() {
+        return new ArrayList<>(steps);
+    }
+
+    /**
+     * Starts a step. Every started step must be completed with {@link #end(StartupStep)} on the same thread.
+     *
+     * @param type The type of the step
+     * @param name The name of the step
+     * @return The step or null if nothing is being recorded
+     */
+    @Internal
+    @Nullable
+    public StartupStep start(@NonNull StartupStep.Type type, @NonNull String name) {
+        if (!recording) {
+            return null;
+        }
+        return start(type, name, null);
+    }
+
+    /**
+     * Starts a step for a bean. Every started step must be completed with {@link #end(StartupStep)} on the same
+     * thread.
+     *
+     * @param type     The type of the step
+     * @param beanType The bean definition or reference, matched by the phase marks
+     * @return The step or null if nothing is being recorded
+     */
+    @Internal
+    @Nullable
+    public StartupStep start(@NonNull StartupStep.Type type, @NonNull BeanType<?> beanType) {
+        if (!recording) {
+            return null;
+        }
+        return start(type, beanType.getName(), beanType);
+    }
+
+    private StartupStep start(StartupStep.Type type, String name, Object owner) {
+        if (count.incrementAndGet() > MAX_STEPS) {
+            stop();
+            return null;
+        }
+        long now = System.nanoTime();
+        StartupStep step = new StartupStep(current.get(), owner, type, name, now, now - start);
+        current.set(step);
+        if (JFR_AVAILABLE) {
+            step.event = StartupStepEvent.begin(step);
+        }
+        return step;
+    }
+
+    /**
+     * Completes a step returned by {@link #start(StartupStep.Type, String)} or
+     * {@link #start(StartupStep.Type, BeanType)}.
+     *
+     * @param step The step, can be null
+     */
+    @Internal
+    public void end(@Nullable StartupStep step) {
+        if (step == null) {
+            return;
+        }
+        step.end(System.nanoTime());
+        StartupStep parent = step.parent;
+        if (parent != null) {
+            current.set(parent);
+            parent.addChild(step);
+        } else {
+            current.remove();
+            steps.add(step);
+        }
+        if (step.event != null) {
+            StartupStepEvent.commit(step.event, step);
+            step.event = null;
+        }
+    }
+
+    /**
+     * Marks the start of the field and method injection of the bean being created.
+     *
+     * @param owner The bean definition
+     */
+    @Internal
+    public void markInjectionStart(@NonNull Object owner) {
+        StartupStep step = currentStep(owner);
+        if (step != null) {
+            step.markInjectionStart(System.nanoTime());
+        }
+    }
+
+    /**
+     * Marks the end of the field and method injection of the bean being created.
+     *
+     * @param owner The bean definition
+     */
+    @Internal
+    public void markInjectionEnd(@NonNull Object owner) {
+        StartupStep step = currentStep(owner);
+        if (step != null) {
+            step.markInjectionEnd(System.nanoTime());
+        }
+    }
+
+    /**
+     * Marks the start of the {@code @PostConstruct} methods of the bean being created.
+     *
+     * @param owner The bean definition
+     */
+    @Internal
+    public void markPostConstructStart(@NonNull Object owner) {
+        StartupStep step = currentStep(owner);
+        if (step != null) {
+            step.markPostConstructStart(System.nanoTime());
+        }
+    }
+
+    /**
+     * Marks the end of the construction of the bean, before the bean created listeners are invoked.
+     *
+     * @param step The bean creation step, can be null
+     */
+    @Internal
+    public void markBuilt(@Nullable StartupStep step) {
+        if (step != null) {
+            step.markBuilt(System.nanoTime());
+        }
+    }
+
+    private StartupStep currentStep(Object owner) {
+        if (!enabled) {
+            return null;
+        }
+        StartupStep step = current.get();
+        return step != null && step.owner == owner ? step : null;
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, StartupProfiler.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
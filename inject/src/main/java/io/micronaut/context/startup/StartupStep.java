@@ -0,0 +1,250 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context.startup;
+
+import io.micronaut.core.annotation.NonNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A step of the startup recorded by the {@link StartupProfiler}. The time of a step includes the time of the
+ * steps nested in it, for example the creation of a bean includes the creation of its dependencies.
+ *
+ * @since 4.0.0
+ */
+public final class StartupStep {
+
+    final StartupStep parent;
+    final Object owner;
+    Object event;
+
+    private final Type type;
+    private final String name;
+    private final String threadName;
+    private final long start;
+    private final long offset;
+    private final Queue<StartupStep> children = new ConcurrentLinkedQueue<>();
+    private long injectionStart;
+    private long injectionEnd;
+    private long postConstructStart;
+    private long built;
+    private volatile long end;
+
+    /**
+     * @param parent The enclosing step of the same thread, if any
+     * @param owner  The object the step is recorded for, used to match the phase marks
+     * @param type   The type
+     * @param name   The name
+     * @param start  The start time as given by {@link System#nanoTime()}
+     * @param offset The start time relative to the start of the profiler
+     */
+    StartupStep(StartupStep parent, Object owner, Type type, String name, long start, long offset) {
+        this.parent = parent;
+        this.owner = owner;
+        this.type = type;
+        this.name = name;
+        this.threadName = Thread.currentThread().getName();
+        this.start = start;
+        this.offset = offset;
+    }
+
+    /**
+     * @return The type of the step
+     */
+    @NonNull
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return The name of the step, the bean type or the property source
+     */
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The name of the thread that recorded the step
+     */
+    @NonNull
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * @return The time the step started at, relative to the start of the profiler
+     */
+    @NonNull
+    public Duration getStartTime() {
+        return Duration.ofNanos(offset);
+    }
+
+    /**
+     * @return Whether the step has completed
+     */
+    public boolean isCompleted() {
+        return end != 0;
+    }
+
+    /**
+     * @return The time of the step including the nested steps, or the time so far if the step has not completed
+     */
+    @NonNull
+    public Duration getDuration() {
+        return Duration.ofNanos(endOrNow() - start);
+    }
+
+    /**
+     * @return The time of the step excluding the nested steps
+     */
+    @NonNull
+    public Duration getSelfDuration() {
+        long self = endOrNow() - start;
+        for (StartupStep child : children) {
+            self -= child.endOrNow() - child.start;
+        }
+        return Duration.ofNanos(Math.max(0, self));
+    }
+
+    /**
+     * @return For a {@link Type#BEAN_CREATION}, the time spent in the constructor or factory method, including the
+     * creation of its arguments
+     */
+    @NonNull
+    public Duration getInstantiationDuration() {
+        if (type != Type.BEAN_CREATION) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(firstOf(injectionStart, injectionEnd, postConstructStart, built, endOrNow()) - start);
+    }
+
+    /**
+     * @return For a {@link Type#BEAN_CREATION}, the time spent injecting fields and methods, including the creation
+     * of the injected beans
+     */
+    @NonNull
+    public Duration getInjectionDuration() {
+        long from = firstOf(injectionStart, injectionEnd);
+        if (type != Type.BEAN_CREATION || from == 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(firstOf(injectionEnd, postConstructStart, built, endOrNow()) - from);
+    }
+
+    /**
+     * @return For a {@link Type#BEAN_CREATION}, the time spent in the {@code @PostConstruct} methods and the
+     * bean initialized listeners
+     */
+    @NonNull
+    public Duration getPostConstructDuration() {
+        if (type != Type.BEAN_CREATION || postConstructStart == 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(firstOf(built, endOrNow()) - postConstructStart);
+    }
+
+    /**
+     * @return The steps nested in this step, in the order they completed
+     */
+    @NonNull
+    public List<StartupStep> getChildren() {
+        return new ArrayList<>(children);
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + name + " " + getDuration();
+    }
+
+    void addChild(StartupStep child) {
+        children.add(child);
+    }
+
+    void markInjectionStart(long time) {
+        if (injectionStart == 0 && injectionEnd == 0 && postConstructStart == 0) {
+            injectionStart = time;
+        }
+    }
+
+    void markInjectionEnd(long time) {
+        if (injectionEnd == 0 && postConstructStart == 0) {
+            injectionEnd = time;
+        }
+    }
+
+    void markPostConstructStart(long time) {
+        if (postConstructStart == 0) {
+            postConstructStart = time;
+        }
+    }
+
+    void markBuilt(long time) {
+        built = time;
+    }
+
+    void end(long time) {
+        end = time;
+    }
+
+    private long endOrNow() {
+        long endTime = end;
+        return endTime != 0 ? endTime : System.nanoTime();
+    }
+
+    private static long firstOf(long... times) {
+        for (long time : times) {
+            if (time != 0) {
+                return time;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The types of steps.
+     */
+    public enum Type {
+        /**
+         * Reading and processing the property sources of the environment.
+         */
+        PROPERTY_SOURCES,
+        /**
+         * Loading a property source with a loader or processing a loaded property source.
+         */
+        PROPERTY_SOURCE,
+        /**
+         * Reading the bean definition references and bean configurations.
+         */
+        BEAN_DEFINITIONS,
+        /**
+         * Loading the bean definition of a reference.
+         */
+        BEAN_DEFINITION_LOAD,
+        /**
+         * Evaluating the conditions of a bean, such as {@link io.micronaut.context.annotation.Requires}.
+         */
+        BEAN_CONDITION,
+        /**
+         * Creating a bean: instantiation, injection, {@code @PostConstruct} and the bean created listeners.
+         */
+        BEAN_CREATION
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.context.startup;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The JFR event of a {@link StartupStep}. The class is only loaded when the {@code jdk.jfr} module is present.
+ *
+ * @since 4.0.0
+ */
+@Name("io.micronaut.StartupStep")
+@Label("Startup Step")
+@Category({"Micronaut", "Startup"})
+@Description("A step of the startup of the application context")
+@StackTrace(false)
+final class StartupStepEvent extends Event {
+
+    @Label("Type")
+    String type;
+
+    @Label("Name")
+    String name;
+
+    @Label("Self Time")
+    @Description("The time of the step excluding the nested steps")
+    @Timespan
+    long selfTime;
+
+    /**
+     * @param step The step
+     * @return The started event or null if the event is not enabled
+     */
+    static Object begin(StartupStep step) {
+        StartupStepEvent event = new StartupStepEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.type = step.getType().name();
+        event.name = step.getName();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param event The event returned by {@link #begin(StartupStep)}
+     * @param step  The completed step
+     */
+    static void commit(Object event, StartupStep step) {
+        StartupStepEvent startupEvent = (StartupStepEvent) event;
+        startupEvent.end();
+        if (startupEvent.shouldCommit()) {
+            startupEvent.selfTime = step.getSelfDuration().toNanos();
+            startupEvent.commit();
+        }
+    }
+}
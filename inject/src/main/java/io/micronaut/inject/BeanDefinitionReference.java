@@ -21,6 +21,7 @@ import io.micronaut.context.annotation.DefaultScope;
 import io.micronaut.core.annotation.AnnotationMetadata;
 import io.micronaut.core.annotation.AnnotationUtil;
 import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
 import jakarta.inject.Singleton;
 
 /**
@@ -127,4 +128,17 @@ public interface BeanDefinitionReference<T> extends QualifiedBeanType<T> {
     default boolean isProxyTarget() {
         return false;
     }
+
+    /**
+     * The names of the types this bean can be looked up by, computed at compilation time. Used by the bean context
+     * to index the references by type instead of checking every reference for each lookup.
+     *
+     * @return The type names or null if the reference is not indexed
+     * @since 4.0.0
+     */
+    @Internal
+    @Nullable
+    default String[] getIndexedTypeNames() {
+        return null;
+    }
 }
@@ -26,6 +26,7 @@ import io.micronaut.core.annotation.AnnotationMetadata;
 import io.micronaut.core.annotation.Internal;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.io.buffer.ByteBuffer;
 import io.micronaut.core.reflect.InstantiationUtils;
 import io.micronaut.core.type.Argument;
 import io.micronaut.jackson.JacksonConfiguration;
@@ -119,6 +120,19 @@ public final class JacksonDatabindMapper implements JsonMapper {
         return objectMapper.readValue(byteArray, JacksonConfiguration.constructType(type, objectMapper.getTypeFactory()));
     }
 
+    @Override
+    public <T> T readValue(@NonNull ByteBuffer<?> byteBuffer, @NonNull Argument<T> type) throws IOException {
+        JavaType javaType = JacksonConfiguration.constructType(type, objectMapper.getTypeFactory());
+        Optional<Class> view = type.getAnnotationMetadata().classValue(JsonView.class);
+        try (InputStream inputStream = byteBuffer.toInputStream()) {
+            if (view.isPresent()) {
+                return objectMapper.readerWithView(view.get()).forType(javaType).readValue(inputStream);
+            } else {
+                return objectMapper.readValue(inputStream, javaType);
+            }
+        }
+    }
+
     @Override
     public void writeValue(@NonNull OutputStream outputStream, @Nullable Object object) throws IOException {
         objectMapper.writeValue(outputStream, object);
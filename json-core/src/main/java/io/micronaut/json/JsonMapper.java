@@ -19,6 +19,7 @@ import io.micronaut.core.annotation.AnnotationMetadata;
 import io.micronaut.core.annotation.Experimental;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.io.buffer.ByteBuffer;
 import io.micronaut.core.order.OrderUtil;
 import io.micronaut.core.type.Argument;
 import io.micronaut.json.tree.JsonNode;
@@ -87,6 +88,23 @@ public interface JsonMapper {
      */
     <T> T readValue(@NonNull byte[] byteArray, @NonNull Argument<T> type) throws IOException;
 
+    /**
+     * Parse and map json from the given byte buffer, without copying it to a byte array first. The
+     * readable bytes of the buffer are consumed, but the buffer is not released.
+     *
+     * @param byteBuffer The input data.
+     * @param type       The type to deserialize to.
+     * @param <T>        Type variable of the return type.
+     * @return The deserialized object.
+     * @throws IOException IOException
+     * @since 4.0.0
+     */
+    default <T> T readValue(@NonNull ByteBuffer<?> byteBuffer, @NonNull Argument<T> type) throws IOException {
+        try (InputStream inputStream = byteBuffer.toInputStream()) {
+            return readValue(inputStream, type);
+        }
+    }
+
     /**
      * Parse and map json from the given string.
      *
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.management.endpoint.startup;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.startup.StartupProfiler;
+import io.micronaut.context.startup.StartupStep;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <p>Exposes an {@link Endpoint} to display the startup steps recorded by the {@link StartupProfiler}. The steps
+ * form a tree where each level is sorted by duration, longest first. Times are in milliseconds.</p>
+ *
+ * <p>The endpoint is only available when startup profiling is enabled with
+ * {@link io.micronaut.context.ApplicationContextBuilder#startupProfiling(boolean)}.</p>
+ *
+ * @since 4.0.0
+ */
+@Endpoint("startup")
+@Requires(beans = StartupProfiler.class)
+public class StartupEndpoint {
+
+    private static final Comparator<Map<String, Object>> BY_DURATION =
+        Comparator.comparing((Map<String, Object> step) -> (Double) step.get("duration")).reversed();
+
+    private final StartupProfiler startupProfiler;
+
+    /**
+     * @param startupProfiler The startup profiler
+     */
+    public StartupEndpoint(StartupProfiler startupProfiler) {
+        this.startupProfiler = startupProfiler;
+    }
+
+    /**
+     * @return The total duration and the tree of recorded steps
+     */
+    @Read
+    public Map<String, Object> getStartup() {
+        Map<String, Object> result = new LinkedHashMap<>(4);
+        result.put("duration", millis(startupProfiler.getDuration()));
+        result.put("recording", startupProfiler.isRecording());
+        result.put("steps", toData(startupProfiler.getSteps()));
+        return result;
+    }
+
+    private List<Map<String, Object>> toData(List<StartupStep> steps) {
+        List<Map<String, Object>> data = new ArrayList<>(steps.size());
+        for (StartupStep step : steps) {
+            Map<String, Object> stepData = new LinkedHashMap<>(12);
+            stepData.put("type", step.getType().name().toLowerCase(Locale.ENGLISH).replace('_', '-'));
+            stepData.put("name", step.getName());
+            stepData.put("thread", step.getThreadName());
+            stepData.put("start", millis(step.getStartTime()));
+            stepData.put("duration", millis(step.getDuration()));
+            stepData.put("self", millis(step.getSelfDuration()));
+            if (step.getType() == StartupStep.Type.BEAN_CREATION) {
+                stepData.put("instantiation", millis(step.getInstantiationDuration()));
+                stepData.put("injection", millis(step.getInjectionDuration()));
+                stepData.put("postConstruct", millis(step.getPostConstructDuration()));
+            }
+            List<StartupStep> children = step.getChildren();
+            if (!children.isEmpty()) {
+                stepData.put("children", toData(children));
+            }
+            data.add(stepData);
+        }
+        data.sort(BY_DURATION);
+        return data;
+    }
+
+    private static double millis(Duration duration) {
+        return Math.round(duration.toNanos() / 1000d) / 1000d;
+    }
+}
@@ -0,0 +1,61 @@
+package io.micronaut.management.endpoint.startup
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.client.HttpClient
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.runtime.server.EmbeddedServer
+import spock.lang.Specification
+
+class StartupEndpointSpec extends Specification {
+
+    void "test startup endpoint"() {
+        given:
+        EmbeddedServer embeddedServer = ApplicationContext.builder()
+                .properties('endpoints.startup.sensitive': false)
+                .startupProfiling(true)
+                .run(EmbeddedServer)
+        HttpClient client = embeddedServer.applicationContext.createBean(HttpClient, embeddedServer.getURL())
+
+        when:
+        HttpResponse<Map> response = client.toBlocking().exchange("/startup", Map)
+        Map result = response.body()
+        List<Map> steps = result.steps
+
+        then:
+        response.code() == HttpStatus.OK.code
+        result.duration > 0
+        result.recording == false
+        steps.size() > 0
+        steps*.duration == steps*.duration.sort(false).reverse()
+        steps.find { it.type == 'property-sources' }
+        flatten(steps).any { it.type == 'bean-condition' }
+        flatten(steps).find { it.type == 'bean-creation' && it.name == StartupEndpoint.name }.containsKey('injection')
+
+        cleanup:
+        client.close()
+        embeddedServer.close()
+    }
+
+    void "test the startup endpoint is not available without profiling"() {
+        given:
+        EmbeddedServer embeddedServer = ApplicationContext.run(EmbeddedServer, ['endpoints.startup.sensitive': false])
+        HttpClient client = embeddedServer.applicationContext.createBean(HttpClient, embeddedServer.getURL())
+
+        when:
+        client.toBlocking().exchange("/startup", Map)
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.NOT_FOUND
+
+        cleanup:
+        client.close()
+        embeddedServer.close()
+    }
+
+    private static List<Map> flatten(List<Map> steps) {
+        steps.collectMany { [it] + flatten(it.children ?: []) }
+    }
+}
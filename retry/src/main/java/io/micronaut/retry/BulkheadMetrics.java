@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry;
+
+/**
+ * The state of a {@link io.micronaut.retry.annotation.Bulkhead}, for example to expose it as metrics.
+ *
+ * @since 4.0.0
+ */
+public interface BulkheadMetrics {
+
+    /**
+     * @return The name of the bulkhead
+     */
+    String getName();
+
+    /**
+     * @return The current maximum number of concurrent calls
+     */
+    int getConcurrencyLimit();
+
+    /**
+     * @return The number of calls in progress
+     */
+    int getActiveCalls();
+
+    /**
+     * @return The number of calls waiting for a permit or a thread
+     */
+    int getWaitingCalls();
+
+    /**
+     * @return The total number of rejected calls, including the calls that waited too long
+     */
+    long getRejectedCalls();
+}
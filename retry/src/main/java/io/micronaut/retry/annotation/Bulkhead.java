@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.annotation;
+
+import io.micronaut.aop.Around;
+import io.micronaut.context.annotation.Type;
+import io.micronaut.retry.intercept.BulkheadInterceptor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * AOP Advice that limits the number of concurrent calls of a method, so that a slow dependency cannot exhaust the
+ * threads of the application. Calls above the limit are rejected with a
+ * {@link io.micronaut.retry.exception.BulkheadFullException}.
+ *
+ * <p>When applied to a type each method gets its own bulkhead, unless a {@link #name()} is given, in which case all
+ * the methods with the same name share a bulkhead.</p>
+ *
+ * @since 4.0.0
+ */
+@Documented
+@Retention(RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE, ElementType.ANNOTATION_TYPE})
+@Around
+@Type(BulkheadInterceptor.class)
+public @interface Bulkhead {
+
+    /**
+     * @return The name of a bulkhead shared by the annotated methods (defaults to one bulkhead per method)
+     */
+    String name() default "";
+
+    /**
+     * @return How the concurrent calls are limited, {@link BulkheadType#THREAD_POOL} only supports synchronous methods
+     */
+    BulkheadType type() default BulkheadType.SEMAPHORE;
+
+    /**
+     * @return The maximum number of concurrent calls, or the number of threads of a thread pool bulkhead
+     */
+    int maxConcurrentCalls() default 25;
+
+    /**
+     * The maximum duration a call waits for a permit of a semaphore bulkhead, or waits in the queue of a thread pool
+     * bulkhead. A semaphore bulkhead rejects calls immediately by default, a thread pool bulkhead does not limit
+     * the time spent in its queue.
+     *
+     * @return The maximum wait duration
+     */
+    String maxWaitDuration() default "0s";
+
+    /**
+     * @return The number of calls a thread pool bulkhead queues while all its threads are busy
+     */
+    int queueCapacity() default 100;
+
+    /**
+     * @return The algorithm adapting the concurrency limit of a semaphore bulkhead to the latency of the calls
+     */
+    ConcurrencyLimitAlgorithm limitAlgorithm() default ConcurrencyLimitAlgorithm.NONE;
+
+    /**
+     * @return The lower bound of an adaptive concurrency limit
+     */
+    int minConcurrentCalls() default 1;
+
+    /**
+     * @return The latency above which the {@link ConcurrencyLimitAlgorithm#AIMD} algorithm reduces the limit
+     */
+    String latencyThreshold() default "1s";
+}
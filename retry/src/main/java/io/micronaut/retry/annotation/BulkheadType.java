@@ -0,0 +1,38 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.annotation;
+
+/**
+ * How a {@link Bulkhead} limits the concurrent calls of a method.
+ *
+ * @since 4.0.0
+ */
+public enum BulkheadType {
+
+    /**
+     * Calls run on the calling thread once they acquire a permit. Calls that cannot acquire a permit wait for at most
+     * {@link Bulkhead#maxWaitDuration()} before they are rejected.
+     */
+    SEMAPHORE,
+
+    /**
+     * Calls run on a dedicated pool of {@link Bulkhead#maxConcurrentCalls()} threads. Calls that cannot be queued
+     * because the queue of {@link Bulkhead#queueCapacity()} calls is full are rejected. Only synchronous methods are
+     * supported: the threads of the pool would not bound the work of a {@code CompletionStage} or a {@code Publisher},
+     * so methods returning one fail with a {@link io.micronaut.context.exceptions.ConfigurationException}.
+     */
+    THREAD_POOL
+}
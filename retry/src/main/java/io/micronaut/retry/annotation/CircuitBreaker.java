@@ -102,4 +102,54 @@ public @interface CircuitBreaker {
      * @return Whether to wrap the original exception in a {@link io.micronaut.retry.exception.CircuitOpenException}
      */
     boolean throwWrappedException() default false;
+
+    /**
+     * The sliding window used to open the circuit based on the failure rate and the slow call rate of the recent
+     * calls. With the default {@link SlidingWindowType#NONE} the circuit opens as soon as a call fails after
+     * exhausting its retries.
+     *
+     * @return The type of the sliding window
+     * @since 4.0.0
+     */
+    SlidingWindowType slidingWindowType() default SlidingWindowType.NONE;
+
+    /**
+     * @return The number of calls of a count based window, or the number of seconds of a time based window
+     * @since 4.0.0
+     */
+    int slidingWindowSize() default 100;
+
+    /**
+     * @return The minimum number of calls in the sliding window before the rates are evaluated
+     * @since 4.0.0
+     */
+    int minimumNumberOfCalls() default 10;
+
+    /**
+     * @return The percentage of failed calls at which the circuit opens
+     * @since 4.0.0
+     */
+    int failureRateThreshold() default 50;
+
+    /**
+     * @return The percentage of slow calls at which the circuit opens
+     * @since 4.0.0
+     */
+    int slowCallRateThreshold() default 100;
+
+    /**
+     * @return The duration above which a call is considered slow
+     * @since 4.0.0
+     */
+    String slowCallDuration() default "60s";
+
+    /**
+     * The number of calls permitted while the circuit is {@link io.micronaut.retry.CircuitState#HALF_OPEN}. Further
+     * calls are rejected until the outcome of the permitted calls closes or reopens the circuit. Only used with a
+     * sliding window.
+     *
+     * @return The number of calls permitted in the half open state
+     * @since 4.0.0
+     */
+    int permittedCallsInHalfOpenState() default 10;
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.annotation;
+
+/**
+ * The algorithm a {@link BulkheadType#SEMAPHORE} {@link Bulkhead} uses to adapt its concurrency limit to the latency
+ * of the calls.
+ *
+ * @since 4.0.0
+ */
+public enum ConcurrencyLimitAlgorithm {
+
+    /**
+     * The concurrency limit is fixed to {@link Bulkhead#maxConcurrentCalls()}.
+     */
+    NONE,
+
+    /**
+     * Additive increase, multiplicative decrease. The limit grows by one after a call that completes within
+     * {@link Bulkhead#latencyThreshold()} while the bulkhead is busy and shrinks by 10% after a slower call or a
+     * call that timed out.
+     */
+    AIMD,
+
+    /**
+     * The limit follows the ratio of the long term average latency to the short term average latency, so it shrinks
+     * as soon as calls queue up in the dependency and grows back once the latency recovers.
+     */
+    GRADIENT
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.annotation;
+
+/**
+ * The kind of sliding window a {@link CircuitBreaker} uses to compute the failure rate and the slow call rate of
+ * the recent calls.
+ *
+ * @since 4.0.0
+ */
+public enum SlidingWindowType {
+
+    /**
+     * No sliding window. The circuit opens as soon as a call fails after exhausting its retries.
+     */
+    NONE,
+
+    /**
+     * The outcomes of the last {@link CircuitBreaker#slidingWindowSize()} calls are aggregated.
+     */
+    COUNT_BASED,
+
+    /**
+     * The outcomes of the calls of the last {@link CircuitBreaker#slidingWindowSize()} seconds are aggregated.
+     */
+    TIME_BASED
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.event;
+
+import io.micronaut.context.event.ApplicationEvent;
+import io.micronaut.inject.ExecutableMethod;
+import io.micronaut.retry.CircuitState;
+
+/**
+ * An event fired whenever a Circuit changes its {@link CircuitState}. When the circuit uses a sliding window the
+ * event carries the failure rate and the slow call rate that caused the transition.
+ *
+ * @since 4.0.0
+ */
+public class CircuitStateChangeEvent extends ApplicationEvent {
+
+    private final CircuitState previousState;
+    private final CircuitState state;
+    private final float failureRate;
+    private final float slowCallRate;
+
+    /**
+     * @param source        A compile time produced invocation of a method call
+     * @param previousState The previous state
+     * @param state         The new state
+     * @param failureRate   The percentage of failed calls, or {@code -1} if not known
+     * @param slowCallRate  The percentage of slow calls, or {@code -1} if not known
+     */
+    public CircuitStateChangeEvent(
+        ExecutableMethod<?, ?> source,
+        CircuitState previousState,
+        CircuitState state,
+        float failureRate,
+        float slowCallRate) {
+
+        super(source);
+        this.previousState = previousState;
+        this.state = state;
+        this.failureRate = failureRate;
+        this.slowCallRate = slowCallRate;
+    }
+
+    /**
+     * @return The previous state
+     */
+    public CircuitState getPreviousState() {
+        return previousState;
+    }
+
+    /**
+     * @return The new state
+     */
+    public CircuitState getState() {
+        return state;
+    }
+
+    /**
+     * @return The percentage of failed calls, or {@code -1} if not known
+     */
+    public float getFailureRate() {
+        return failureRate;
+    }
+
+    /**
+     * @return The percentage of slow calls, or {@code -1} if not known
+     */
+    public float getSlowCallRate() {
+        return slowCallRate;
+    }
+
+    /**
+     * @return The method that represents the circuit
+     */
+    @Override
+    public ExecutableMethod<?, ?> getSource() {
+        return (ExecutableMethod<?, ?>) super.getSource();
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.intercept;
+
+import io.micronaut.aop.InterceptPhase;
+import io.micronaut.aop.InterceptedMethod;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.context.exceptions.ConfigurationException;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.retry.BulkheadMetrics;
+import io.micronaut.retry.annotation.Bulkhead;
+import io.micronaut.retry.annotation.BulkheadType;
+import io.micronaut.retry.annotation.ConcurrencyLimitAlgorithm;
+import io.micronaut.retry.exception.RetryException;
+import io.micronaut.scheduling.TaskExecutors;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * A {@link MethodInterceptor} that limits the concurrent calls of a method according to the {@link Bulkhead}
+ * annotation.
+ *
+ * @since 4.0.0
+ */
+@Singleton
+public class BulkheadInterceptor implements MethodInterceptor<Object, Object> {
+
+    /**
+     * Positioned after the {@link io.micronaut.retry.annotation.Retryable} interceptor, so that every retry
+     * acquires a permit.
+     */
+    public static final int POSITION = InterceptPhase.RETRY.getPosition() + 10;
+
+    private static final int DEFAULT_MAX_CONCURRENT_CALLS = 25;
+    private static final int DEFAULT_QUEUE_CAPACITY = 100;
+    private static final int DEFAULT_MIN_CONCURRENT_CALLS = 1;
+    private static final Duration DEFAULT_LATENCY_THRESHOLD = Duration.ofSeconds(1);
+
+    private final ConversionService conversionService;
+    private final ScheduledExecutorService executorService;
+    private final Map<Object, BulkheadMetrics> bulkheads = new ConcurrentHashMap<>();
+
+    /**
+     * @param conversionService The conversion service
+     * @param executorService   The executor service to time out the calls waiting for a permit
+     */
+    public BulkheadInterceptor(ConversionService conversionService,
+                               @Named(TaskExecutors.SCHEDULED) ExecutorService executorService) {
+        this.conversionService = conversionService;
+        this.executorService = (ScheduledExecutorService) executorService;
+    }
+
+    @Override
+    public int getOrder() {
+        return POSITION;
+    }
+
+    /**
+     * @return The bulkheads created so far
+     */
+    public Collection<BulkheadMetrics> getBulkheads() {
+        return Collections.unmodifiableCollection(bulkheads.values());
+    }
+
+    @Nullable
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        if (!context.hasAnnotation(Bulkhead.class)) {
+            return context.proceed();
+        }
+        String name = context.stringValue(Bulkhead.class, "name").orElse(null);
+        BulkheadMetrics bulkhead = bulkheads.computeIfAbsent(
+                name != null ? name : context.getExecutableMethod(),
+                key -> newBulkhead(name != null ? name : context.getDeclaringType().getSimpleName() + "." + context.getMethodName(), context)
+        );
+        InterceptedMethod interceptedMethod = InterceptedMethod.of(context, conversionService);
+        if (bulkhead instanceof ThreadPoolBulkhead && interceptedMethod.resultType() != InterceptedMethod.ResultType.SYNCHRONOUS) {
+            // the pool threads would only bound the creation of the result, not the asynchronous work it represents
+            throw new ConfigurationException("Bulkhead [" + bulkhead.getName() + "] of type THREAD_POOL only supports synchronous methods, use a SEMAPHORE bulkhead for methods returning a CompletionStage or a Publisher");
+        }
+        try {
+            if (bulkhead instanceof ThreadPoolBulkhead pool) {
+                return interceptOnPool(interceptedMethod, pool);
+            }
+            return intercept(interceptedMethod, (SemaphoreBulkhead) bulkhead);
+        } catch (Exception e) {
+            return interceptedMethod.handleException(e);
+        }
+    }
+
+    private Object intercept(InterceptedMethod interceptedMethod, SemaphoreBulkhead bulkhead) {
+        switch (interceptedMethod.resultType()) {
+            case PUBLISHER -> {
+                return interceptedMethod.handleResult(Flux.defer(() -> {
+                    SemaphoreBulkhead.Permit permit = bulkhead.acquire();
+                    return Mono.fromCompletionStage(permit.granted)
+                            .thenMany(Flux.defer(() -> interceptedMethod.interceptResultAsPublisher(this)))
+                            .doOnComplete(() -> permit.release(null))
+                            .doOnError(permit::release)
+                            .doOnCancel(() -> permit.release(null));
+                }));
+            }
+            case COMPLETION_STAGE -> {
+                SemaphoreBulkhead.Permit permit = bulkhead.acquire();
+                return interceptedMethod.handleResult(
+                        permit.granted
+                                .thenCompose(v -> interceptedMethod.interceptResultAsCompletionStage(this))
+                                .whenComplete((v, e) -> permit.release(e))
+                );
+            }
+            case SYNCHRONOUS -> {
+                SemaphoreBulkhead.Permit permit = bulkhead.acquire();
+                permit.await();
+                Throwable error = null;
+                try {
+                    return interceptedMethod.interceptResult(this);
+                } catch (Throwable e) {
+                    error = e;
+                    throw e;
+                } finally {
+                    permit.release(error);
+                }
+            }
+            default -> {
+                return interceptedMethod.unsupported();
+            }
+        }
+    }
+
+    private Object interceptOnPool(InterceptedMethod interceptedMethod, ThreadPoolBulkhead bulkhead) throws Exception {
+        switch (interceptedMethod.resultType()) {
+            case SYNCHRONOUS -> {
+                CompletableFuture<Object> result = bulkhead.submit(() -> interceptedMethod.interceptResult(this));
+                try {
+                    return result.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof Exception cause) {
+                        throw cause;
+                    }
+                    throw (Error) e.getCause();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RetryException("Interrupted while waiting for the result of bulkhead [" + bulkhead.getName() + "]", e);
+                }
+            }
+            default -> {
+                return interceptedMethod.unsupported();
+            }
+        }
+    }
+
+    private BulkheadMetrics newBulkhead(String name, MethodInvocationContext<Object, Object> context) {
+        int maxConcurrentCalls = Math.max(1, context.intValue(Bulkhead.class, "maxConcurrentCalls").orElse(DEFAULT_MAX_CONCURRENT_CALLS));
+        Duration maxWait = context.getValue(Bulkhead.class, "maxWaitDuration", Duration.class).orElse(Duration.ZERO);
+        BulkheadType type = context.enumValue(Bulkhead.class, "type", BulkheadType.class).orElse(BulkheadType.SEMAPHORE);
+        if (type == BulkheadType.THREAD_POOL) {
+            return new ThreadPoolBulkhead(
+                    name,
+                    maxConcurrentCalls,
+                    context.intValue(Bulkhead.class, "queueCapacity").orElse(DEFAULT_QUEUE_CAPACITY),
+                    maxWait
+            );
+        }
+        int minConcurrentCalls = Math.max(1, Math.min(maxConcurrentCalls,
+                context.intValue(Bulkhead.class, "minConcurrentCalls").orElse(DEFAULT_MIN_CONCURRENT_CALLS)));
+        ConcurrencyLimit limit = switch (context.enumValue(Bulkhead.class, "limitAlgorithm", ConcurrencyLimitAlgorithm.class).orElse(ConcurrencyLimitAlgorithm.NONE)) {
+            case AIMD -> ConcurrencyLimit.aimd(
+                    minConcurrentCalls,
+                    maxConcurrentCalls,
+                    context.getValue(Bulkhead.class, "latencyThreshold", Duration.class).orElse(DEFAULT_LATENCY_THRESHOLD).toNanos()
+            );
+            case GRADIENT -> ConcurrencyLimit.gradient(minConcurrentCalls, maxConcurrentCalls);
+            default -> ConcurrencyLimit.fixed(maxConcurrentCalls);
+        };
+        return new SemaphoreBulkhead(name, limit, maxWait, executorService);
+    }
+
+    /**
+     * Shuts down the thread pools of the bulkheads.
+     */
+    @PreDestroy
+    void close() {
+        for (BulkheadMetrics bulkhead : bulkheads.values()) {
+            if (bulkhead instanceof ThreadPoolBulkhead pool) {
+                pool.close();
+            }
+        }
+    }
+}
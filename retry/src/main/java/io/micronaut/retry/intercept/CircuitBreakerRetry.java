@@ -21,8 +21,10 @@ import io.micronaut.inject.ExecutableMethod;
 import io.micronaut.retry.CircuitState;
 import io.micronaut.retry.RetryStateBuilder;
 import io.micronaut.retry.annotation.RetryPredicate;
+import io.micronaut.retry.annotation.SlidingWindowType;
 import io.micronaut.retry.event.CircuitClosedEvent;
 import io.micronaut.retry.event.CircuitOpenEvent;
+import io.micronaut.retry.event.CircuitStateChangeEvent;
 import io.micronaut.retry.exception.CircuitOpenException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,6 +32,7 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.util.Optional;
 import java.util.OptionalDouble;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -51,6 +54,13 @@ class CircuitBreakerRetry implements MutableRetryState {
     private volatile Throwable lastError;
     private volatile long time = System.currentTimeMillis();
     private volatile MutableRetryState childState;
+    @Nullable
+    private final SlidingWindowSettings slidingWindow;
+    private volatile SlidingWindowStatistics statistics;
+    private final AtomicInteger halfOpenPermits = new AtomicInteger();
+    private final AtomicInteger halfOpenCalls = new AtomicInteger();
+    private final AtomicInteger halfOpenFailures = new AtomicInteger();
+    private final AtomicInteger halfOpenSlowCalls = new AtomicInteger();
 
     /**
      * @param openTimeout       The circuit open timeout in millis
@@ -64,7 +74,27 @@ class CircuitBreakerRetry implements MutableRetryState {
         RetryStateBuilder childStateBuilder,
         ExecutableMethod<?, ?> method,
         ApplicationEventPublisher eventPublisher, boolean throwWrappedException) {
+        this(openTimeout, childStateBuilder, method, eventPublisher, throwWrappedException, null);
+    }
 
+    /**
+     * @param openTimeout       The circuit open timeout in millis
+     * @param childStateBuilder The retry state builder
+     * @param method            A compile time produced invocation of a method call
+     * @param eventPublisher    To publish circuit events
+     * @param throwWrappedException     If {@code true}, the original exception will be wrapped in {@link CircuitOpenException}
+     * @param slidingWindow     The sliding window settings, or {@code null} to open the circuit on the first failed call
+     */
+    CircuitBreakerRetry(
+        long openTimeout,
+        RetryStateBuilder childStateBuilder,
+        ExecutableMethod<?, ?> method,
+        ApplicationEventPublisher eventPublisher,
+        boolean throwWrappedException,
+        @Nullable SlidingWindowSettings slidingWindow) {
+
+        this.slidingWindow = slidingWindow;
+        this.statistics = slidingWindow != null ? slidingWindow.newStatistics() : null;
         this.retryStateBuilder = childStateBuilder;
         this.openTimeout = openTimeout;
         this.childState = (MutableRetryState) childStateBuilder.build();
@@ -75,6 +105,20 @@ class CircuitBreakerRetry implements MutableRetryState {
 
     @Override
     public void close(@Nullable Throwable exception) {
+        close(exception, 0);
+    }
+
+    /**
+     * Closes the state of a call.
+     *
+     * @param exception     The exception the call failed with, if any
+     * @param durationNanos The duration of the call including its retries
+     */
+    void close(@Nullable Throwable exception, long durationNanos) {
+        if (slidingWindow != null) {
+            record(exception, durationNanos);
+            return;
+        }
         if (exception == null && currentState() == CircuitState.HALF_OPEN) {
             closeCircuit();
         } else if (currentState() != CircuitState.OPEN) {
@@ -89,9 +133,23 @@ class CircuitBreakerRetry implements MutableRetryState {
         }
     }
 
+    /**
+     * Gives back the half open permit of a call that was cancelled before it had an outcome, so that
+     * the circuit does not stay half open with all its permits taken.
+     */
+    void release() {
+        if (slidingWindow != null && currentState() == CircuitState.HALF_OPEN) {
+            halfOpenPermits.incrementAndGet();
+        }
+    }
+
     @Override
     public void open() {
-        if (currentState() == CircuitState.OPEN && lastError != null) {
+        CircuitState currentState = currentState();
+        if (currentState == CircuitState.HALF_OPEN && slidingWindow != null && halfOpenPermits.getAndDecrement() <= 0) {
+            throw new CircuitOpenException("Circuit Half Open: all permitted calls are in progress");
+        }
+        if (currentState == CircuitState.OPEN && lastError != null) {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Rethrowing existing exception for Open Circuit [{}]: {}", method, lastError.getMessage());
             }
@@ -116,7 +174,7 @@ class CircuitBreakerRetry implements MutableRetryState {
         try {
             return currentState() != CircuitState.OPEN && childState.canRetry(exception);
         } finally {
-            if (currentState() == CircuitState.HALF_OPEN) {
+            if (slidingWindow == null && currentState() == CircuitState.HALF_OPEN) {
                 openCircuit(exception);
             }
         }
@@ -170,6 +228,12 @@ class CircuitBreakerRetry implements MutableRetryState {
             long now = System.currentTimeMillis();
             long timeout = time + openTimeout;
             if (now > timeout) {
+                if (slidingWindow != null) {
+                    if (transition(CircuitState.OPEN, CircuitState.HALF_OPEN, -1, -1)) {
+                        lastError = null;
+                    }
+                    return state.get();
+                }
                 return halfOpenCircuit();
             }
             return state.get();
@@ -193,9 +257,11 @@ class CircuitBreakerRetry implements MutableRetryState {
         this.childState = (MutableRetryState) retryStateBuilder.build();
         this.lastError = cause;
         this.time = System.currentTimeMillis();
+        CircuitState previousState = state.getAndSet(CircuitState.OPEN);
         try {
-            return state.getAndSet(CircuitState.OPEN);
+            return previousState;
         } finally {
+            publishStateChange(previousState, CircuitState.OPEN, -1, -1);
             if (eventPublisher != null) {
                 try {
                     eventPublisher.publishEvent(new CircuitOpenEvent(method, childState, cause));
@@ -221,9 +287,11 @@ class CircuitBreakerRetry implements MutableRetryState {
         time = System.currentTimeMillis();
         lastError = null;
         this.childState = (MutableRetryState) retryStateBuilder.build();
+        CircuitState previousState = state.getAndSet(CircuitState.CLOSED);
         try {
-            return state.getAndSet(CircuitState.CLOSED);
+            return previousState;
         } finally {
+            publishStateChange(previousState, CircuitState.CLOSED, -1, -1);
             if (eventPublisher != null) {
                 try {
                     eventPublisher.publishEvent(new CircuitClosedEvent(method));
@@ -247,6 +315,159 @@ class CircuitBreakerRetry implements MutableRetryState {
         }
         lastError = null;
         this.childState = (MutableRetryState) retryStateBuilder.build();
-        return state.getAndSet(CircuitState.HALF_OPEN);
+        CircuitState previousState = state.getAndSet(CircuitState.HALF_OPEN);
+        publishStateChange(previousState, CircuitState.HALF_OPEN, -1, -1);
+        return previousState;
+    }
+
+    /**
+     * Records the outcome of a call in the sliding window, or in the half open statistics, and opens or closes the
+     * circuit once the failure rate or the slow call rate crosses its threshold.
+     */
+    private void record(@Nullable Throwable exception, long durationNanos) {
+        boolean failure = exception != null && getRetryPredicate().test(exception);
+        int outcome = (failure ? SlidingWindowStatistics.FAILURE : 0)
+            | (durationNanos >= slidingWindow.slowCallDurationNanos ? SlidingWindowStatistics.SLOW : 0);
+        CircuitState currentState = currentState();
+        if (currentState == CircuitState.CLOSED) {
+            long now = System.currentTimeMillis();
+            SlidingWindowStatistics statistics = this.statistics;
+            statistics.record(outcome, now);
+            SlidingWindowStatistics.Snapshot snapshot = statistics.snapshot(now);
+            if (snapshot.calls >= slidingWindow.minimumNumberOfCalls) {
+                float failureRate = snapshot.failureRate();
+                float slowCallRate = snapshot.slowCallRate();
+                if (slidingWindow.exceeds(failureRate, slowCallRate)) {
+                    openSlidingWindowCircuit(CircuitState.CLOSED, exception, failureRate, slowCallRate);
+                    return;
+                }
+            }
+            this.childState = (MutableRetryState) retryStateBuilder.build();
+        } else if (currentState == CircuitState.HALF_OPEN) {
+            if ((outcome & SlidingWindowStatistics.FAILURE) != 0) {
+                halfOpenFailures.incrementAndGet();
+            }
+            if ((outcome & SlidingWindowStatistics.SLOW) != 0) {
+                halfOpenSlowCalls.incrementAndGet();
+            }
+            int calls = halfOpenCalls.incrementAndGet();
+            if (calls >= slidingWindow.permittedCallsInHalfOpenState) {
+                float failureRate = halfOpenFailures.get() * 100f / calls;
+                float slowCallRate = halfOpenSlowCalls.get() * 100f / calls;
+                if (slidingWindow.exceeds(failureRate, slowCallRate)) {
+                    openSlidingWindowCircuit(CircuitState.HALF_OPEN, exception, failureRate, slowCallRate);
+                } else if (transition(CircuitState.HALF_OPEN, CircuitState.CLOSED, failureRate, slowCallRate)) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Closing Circuit Breaker [{}]", method);
+                    }
+                    this.statistics = slidingWindow.newStatistics();
+                    this.childState = (MutableRetryState) retryStateBuilder.build();
+                    time = System.currentTimeMillis();
+                    if (eventPublisher != null) {
+                        try {
+                            eventPublisher.publishEvent(new CircuitClosedEvent(method));
+                        } catch (Exception e) {
+                            if (LOG.isErrorEnabled()) {
+                                LOG.error("Error publishing CircuitClosedEvent: " + e.getMessage(), e);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void openSlidingWindowCircuit(CircuitState from, @Nullable Throwable exception, float failureRate, float slowCallRate) {
+        Throwable cause = exception != null ? exception : new CircuitOpenException(
+            String.format("Circuit Open: failure rate %.1f%%, slow call rate %.1f%%", failureRate, slowCallRate)
+        );
+        // prepare the half open state before the circuit can be seen as open
+        halfOpenCalls.set(0);
+        halfOpenFailures.set(0);
+        halfOpenSlowCalls.set(0);
+        halfOpenPermits.set(slidingWindow.permittedCallsInHalfOpenState);
+        this.lastError = cause;
+        this.time = System.currentTimeMillis();
+        if (transition(from, CircuitState.OPEN, failureRate, slowCallRate)) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Opening Circuit Breaker [{}] with failure rate {}% and slow call rate {}%", method, failureRate, slowCallRate);
+            }
+            this.childState = (MutableRetryState) retryStateBuilder.build();
+            if (eventPublisher != null) {
+                try {
+                    eventPublisher.publishEvent(new CircuitOpenEvent(method, childState, cause));
+                } catch (Exception e) {
+                    if (LOG.isErrorEnabled()) {
+                        LOG.error("Error publishing CircuitOpen event: " + e.getMessage(), e);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean transition(CircuitState from, CircuitState to, float failureRate, float slowCallRate) {
+        if (state.compareAndSet(from, to)) {
+            publishStateChange(from, to, failureRate, slowCallRate);
+            return true;
+        }
+        return false;
+    }
+
+    private void publishStateChange(CircuitState from, CircuitState to, float failureRate, float slowCallRate) {
+        if (eventPublisher != null && from != to) {
+            try {
+                eventPublisher.publishEvent(new CircuitStateChangeEvent(method, from, to, failureRate, slowCallRate));
+            } catch (Exception e) {
+                if (LOG.isErrorEnabled()) {
+                    LOG.error("Error publishing CircuitStateChangeEvent: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The settings of a circuit that opens based on the failure rate and the slow call rate of a sliding window.
+     */
+    static final class SlidingWindowSettings {
+        final SlidingWindowType type;
+        final int size;
+        final int minimumNumberOfCalls;
+        final int failureRateThreshold;
+        final int slowCallRateThreshold;
+        final long slowCallDurationNanos;
+        final int permittedCallsInHalfOpenState;
+
+        /**
+         * @param type                          The type of the window
+         * @param size                          The number of calls or seconds of the window
+         * @param minimumNumberOfCalls          The minimum number of calls before the rates are evaluated
+         * @param failureRateThreshold          The percentage of failed calls at which the circuit opens
+         * @param slowCallRateThreshold         The percentage of slow calls at which the circuit opens
+         * @param slowCallDuration              The duration above which a call is slow
+         * @param permittedCallsInHalfOpenState The number of calls permitted in the half open state
+         */
+        SlidingWindowSettings(SlidingWindowType type,
+                              int size,
+                              int minimumNumberOfCalls,
+                              int failureRateThreshold,
+                              int slowCallRateThreshold,
+                              Duration slowCallDuration,
+                              int permittedCallsInHalfOpenState) {
+            this.type = type;
+            this.size = size;
+            this.minimumNumberOfCalls = Math.max(1, minimumNumberOfCalls);
+            this.failureRateThreshold = failureRateThreshold;
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            this.slowCallDurationNanos = slowCallDuration.toNanos();
+            this.permittedCallsInHalfOpenState = Math.max(1, permittedCallsInHalfOpenState);
+        }
+
+        SlidingWindowStatistics newStatistics() {
+            return type == SlidingWindowType.TIME_BASED ? SlidingWindowStatistics.timeBased(size) : SlidingWindowStatistics.countBased(size);
+        }
+
+        boolean exceeds(float failureRate, float slowCallRate) {
+            return failureRate >= failureRateThreshold || slowCallRate >= slowCallRateThreshold;
+        }
     }
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.intercept;
+
+import io.micronaut.core.annotation.Internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The concurrency limit of a semaphore bulkhead, adjusted from the latency of the completed calls.
+ *
+ * @since 4.0.0
+ */
+@Internal
+abstract class ConcurrencyLimit {
+
+    /**
+     * @return The current limit
+     */
+    abstract int getLimit();
+
+    /**
+     * Adjusts the limit after a call completed.
+     *
+     * @param latencyNanos The latency of the call
+     * @param inFlight     The number of calls in progress, including the completed call
+     * @param dropped      Whether the call timed out
+     */
+    abstract void onSample(long latencyNanos, int inFlight, boolean dropped);
+
+    /**
+     * @param limit The limit
+     * @return A limit that never changes
+     */
+    static ConcurrencyLimit fixed(int limit) {
+        return new Fixed(limit);
+    }
+
+    /**
+     * @param minLimit              The lower bound of the limit
+     * @param maxLimit              The upper bound and initial value of the limit
+     * @param latencyThresholdNanos The latency above which the limit is reduced
+     * @return An additive increase, multiplicative decrease limit
+     */
+    static ConcurrencyLimit aimd(int minLimit, int maxLimit, long latencyThresholdNanos) {
+        return new Aimd(minLimit, maxLimit, latencyThresholdNanos);
+    }
+
+    /**
+     * @param minLimit The lower bound of the limit
+     * @param maxLimit The upper bound and initial value of the limit
+     * @return A limit following the gradient of the latency
+     */
+    static ConcurrencyLimit gradient(int minLimit, int maxLimit) {
+        return new Gradient(minLimit, maxLimit);
+    }
+
+    private static final class Fixed extends ConcurrencyLimit {
+        private final int limit;
+
+        Fixed(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        int getLimit() {
+            return limit;
+        }
+
+        @Override
+        void onSample(long latencyNanos, int inFlight, boolean dropped) {
+            // no-op
+        }
+    }
+
+    private static final class Aimd extends ConcurrencyLimit {
+        private static final double BACKOFF_RATIO = 0.9;
+
+        private final int minLimit;
+        private final int maxLimit;
+        private final long latencyThresholdNanos;
+        private final AtomicInteger limit;
+
+        Aimd(int minLimit, int maxLimit, long latencyThresholdNanos) {
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.latencyThresholdNanos = latencyThresholdNanos;
+            this.limit = new AtomicInteger(maxLimit);
+        }
+
+        @Override
+        int getLimit() {
+            return limit.get();
+        }
+
+        @Override
+        void onSample(long latencyNanos, int inFlight, boolean dropped) {
+            if (dropped || latencyNanos > latencyThresholdNanos) {
+                limit.updateAndGet(current -> Math.max(minLimit, (int) (current * BACKOFF_RATIO)));
+            } else if (inFlight * 2 >= limit.get()) {
+                // only probe for a higher limit while the bulkhead is actually busy
+                limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+            }
+        }
+    }
+
+    /**
+     * A simplified form of the gradient algorithm of Netflix' concurrency-limits: the limit is multiplied by the
+     * ratio of the long term to the short term average latency, plus a small allowance for queueing.
+     */
+    private static final class Gradient extends ConcurrencyLimit {
+        private static final double SHORT_WINDOW_FACTOR = 2d / (10 + 1);
+        private static final double LONG_WINDOW_FACTOR = 2d / (600 + 1);
+        private static final double SMOOTHING = 0.2;
+        private static final double MIN_GRADIENT = 0.5;
+
+        private final int minLimit;
+        private final int maxLimit;
+        private volatile int limit;
+        private double estimatedLimit;
+        private double shortLatency;
+        private double longLatency;
+
+        Gradient(int minLimit, int maxLimit) {
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.limit = maxLimit;
+            this.estimatedLimit = maxLimit;
+        }
+
+        @Override
+        int getLimit() {
+            return limit;
+        }
+
+        @Override
+        synchronized void onSample(long latencyNanos, int inFlight, boolean dropped) {
+            if (longLatency == 0) {
+                shortLatency = latencyNanos;
+                longLatency = latencyNanos;
+                return;
+            }
+            shortLatency += (latencyNanos - shortLatency) * SHORT_WINDOW_FACTOR;
+            longLatency += (latencyNanos - longLatency) * LONG_WINDOW_FACTOR;
+            if (longLatency / shortLatency > 2) {
+                // the latency dropped a lot, let the long term average catch up faster
+                longLatency *= 0.95;
+            }
+            if (!dropped && inFlight < estimatedLimit / 2) {
+                // the bulkhead is not the bottleneck, the latency says nothing about the limit
+                return;
+            }
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, longLatency / shortLatency));
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+            estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+            limit = (int) estimatedLimit;
+        }
+    }
+}
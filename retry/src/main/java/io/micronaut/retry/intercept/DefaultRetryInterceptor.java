@@ -28,6 +28,7 @@ import io.micronaut.inject.ExecutableMethod;
 import io.micronaut.retry.RetryState;
 import io.micronaut.retry.annotation.CircuitBreaker;
 import io.micronaut.retry.annotation.Retryable;
+import io.micronaut.retry.annotation.SlidingWindowType;
 import io.micronaut.retry.event.RetryEvent;
 import io.micronaut.scheduling.TaskExecutors;
 import jakarta.inject.Named;
@@ -47,6 +48,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -63,6 +65,12 @@ public class DefaultRetryInterceptor implements MethodInterceptor<Object, Object
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultRetryInterceptor.class);
     private static final int DEFAULT_CIRCUIT_BREAKER_TIMEOUT_IN_MILLIS = 20;
+    private static final int DEFAULT_SLIDING_WINDOW_SIZE = 100;
+    private static final int DEFAULT_MINIMUM_NUMBER_OF_CALLS = 10;
+    private static final int DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+    private static final int DEFAULT_SLOW_CALL_RATE_THRESHOLD = 100;
+    private static final Duration DEFAULT_SLOW_CALL_DURATION = Duration.ofSeconds(60);
+    private static final int DEFAULT_PERMITTED_CALLS_IN_HALF_OPEN_STATE = 10;
 
     private final ConversionService conversionService;
     private final ApplicationEventPublisher eventPublisher;
@@ -113,7 +121,7 @@ public class DefaultRetryInterceptor implements MethodInterceptor<Object, Object
                     .orElse(false);
             retryState = circuitContexts.computeIfAbsent(
                     context.getExecutableMethod(),
-                    method -> new CircuitBreakerRetry(timeout, retryStateBuilder, context, eventPublisher, wrapException)
+                    method -> new CircuitBreakerRetry(timeout, retryStateBuilder, context, eventPublisher, wrapException, slidingWindowSettings(context))
             );
         } else {
             retryState = (MutableRetryState) retryStateBuilder.build();
@@ -123,26 +131,36 @@ public class DefaultRetryInterceptor implements MethodInterceptor<Object, Object
         attrs.put(RetryState.class.getName(), retry);
 
         InterceptedMethod interceptedMethod = InterceptedMethod.of(context, conversionService);
+        long start = System.nanoTime();
         try {
             retryState.open();
             // Retry method call before we have actual Publisher/CompletionStage result
-            Object result = retrySync(context, retryState, interceptedMethod);
+            Object result = retrySync(context, retryState, interceptedMethod, start);
             switch (interceptedMethod.resultType()) {
                 case PUBLISHER -> {
                     Flux<Object> reactiveSequence = Flux.from((Publisher<?>) result);
+                    // the outcome of the call is recorded once, whatever the number of elements it emits
+                    AtomicBoolean closed = new AtomicBoolean();
                     return interceptedMethod.handleResult(
                             reactiveSequence.onErrorResume(retryFlowable(context, retryState, reactiveSequence))
-                                    .doOnNext(o -> retryState.close(null))
+                                    .doOnNext(o -> close(closed, retryState, null, start))
+                                    .doOnComplete(() -> close(closed, retryState, null, start))
+                                    .doOnError(e -> close(closed, retryState, e, start))
+                                    .doOnCancel(() -> {
+                                        if (closed.compareAndSet(false, true) && retryState instanceof CircuitBreakerRetry circuitBreakerRetry) {
+                                            circuitBreakerRetry.release();
+                                        }
+                                    })
                     );
                 }
                 case COMPLETION_STAGE -> {
                     CompletableFuture<Object> newFuture = new CompletableFuture<>();
                     Supplier<CompletionStage<?>> retrySupplier = () -> interceptedMethod.interceptResultAsCompletionStage(this);
-                    ((CompletionStage<?>) result).whenComplete(retryCompletable(context, retryState, newFuture, retrySupplier));
+                    ((CompletionStage<?>) result).whenComplete(retryCompletable(context, retryState, newFuture, retrySupplier, start));
                     return interceptedMethod.handleResult(newFuture);
                 }
                 case SYNCHRONOUS -> {
-                    retryState.close(null);
+                    close(retryState, null, start);
                     return result;
                 }
                 default -> {
@@ -157,10 +175,11 @@ public class DefaultRetryInterceptor implements MethodInterceptor<Object, Object
     private BiConsumer<Object, ? super Throwable> retryCompletable(MethodInvocationContext<Object, Object> context,
                                                                    MutableRetryState retryState,
                                                                    CompletableFuture<Object> newFuture,
-                                                                   Supplier<CompletionStage<?>> retryResultSupplier) {
+                                                                   Supplier<CompletionStage<?>> retryResultSupplier,
+                                                                   long start) {
         return (Object value, Throwable exception) -> {
             if (exception == null) {
-                retryState.close(null);
+                close(retryState, null, start);
                 newFuture.complete(value);
                 return;
             }
@@ -177,14 +196,14 @@ public class DefaultRetryInterceptor implements MethodInterceptor<Object, Object
                     if (LOG.isDebugEnabled()) {
                         LOG.debug("Retrying execution for method [{}] after delay of {}ms for exception: {}", context, delay, exception.getMessage(), exception);
                     }
-                    retryResultSupplier.get().whenComplete(retryCompletable(context, retryState, newFuture, retryResultSupplier));
+                    retryResultSupplier.get().whenComplete(retryCompletable(context, retryState, newFuture, retryResultSupplier, start));
 
                 }, delay, TimeUnit.MILLISECONDS);
             } else {
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("Cannot retry anymore. Rethrowing original exception for method: {}", context);
                 }
-                retryState.close(exception);
+                close(retryState, exception, start);
                 newFuture.completeExceptionally(exception);
             }
         };
@@ -211,13 +230,13 @@ public class DefaultRetryInterceptor implements MethodInterceptor<Object, Object
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("Cannot retry anymore. Rethrowing original exception for method: {}", context);
                 }
-                retryState.close(exception);
+                // recorded when the error reaches the subscriber
                 return Flux.error(exception);
             }
         };
     }
 
-    private Object retrySync(MethodInvocationContext<Object, Object> context, MutableRetryState retryState, InterceptedMethod interceptedMethod) {
+    private Object retrySync(MethodInvocationContext<Object, Object> context, MutableRetryState retryState, InterceptedMethod interceptedMethod, long start) {
         boolean firstCall = true;
         while (true) {
             try {
@@ -235,7 +254,7 @@ public class DefaultRetryInterceptor implements MethodInterceptor<Object, Object
                     if (LOG.isDebugEnabled()) {
                         LOG.debug("Cannot retry anymore. Rethrowing original exception for method: {}", context);
                     }
-                    retryState.close(e);
+                    close(retryState, e, start);
                     throw e;
                 } else {
                     long delayMillis = retryState.nextDelay();
@@ -260,4 +279,35 @@ public class DefaultRetryInterceptor implements MethodInterceptor<Object, Object
         }
     }
 
+    private void close(AtomicBoolean closed, MutableRetryState retryState, @Nullable Throwable exception, long start) {
+        if (closed.compareAndSet(false, true)) {
+            close(retryState, exception, start);
+        }
+    }
+
+    private void close(MutableRetryState retryState, @Nullable Throwable exception, long start) {
+        if (retryState instanceof CircuitBreakerRetry circuitBreakerRetry) {
+            circuitBreakerRetry.close(exception, System.nanoTime() - start);
+        } else {
+            retryState.close(exception);
+        }
+    }
+
+    @Nullable
+    private CircuitBreakerRetry.SlidingWindowSettings slidingWindowSettings(MethodInvocationContext<Object, Object> context) {
+        SlidingWindowType type = context.enumValue(CircuitBreaker.class, "slidingWindowType", SlidingWindowType.class)
+                .orElse(SlidingWindowType.NONE);
+        if (type == SlidingWindowType.NONE) {
+            return null;
+        }
+        return new CircuitBreakerRetry.SlidingWindowSettings(
+                type,
+                context.intValue(CircuitBreaker.class, "slidingWindowSize").orElse(DEFAULT_SLIDING_WINDOW_SIZE),
+                context.intValue(CircuitBreaker.class, "minimumNumberOfCalls").orElse(DEFAULT_MINIMUM_NUMBER_OF_CALLS),
+                context.intValue(CircuitBreaker.class, "failureRateThreshold").orElse(DEFAULT_FAILURE_RATE_THRESHOLD),
+                context.intValue(CircuitBreaker.class, "slowCallRateThreshold").orElse(DEFAULT_SLOW_CALL_RATE_THRESHOLD),
+                context.getValue(CircuitBreaker.class, "slowCallDuration", Duration.class).orElse(DEFAULT_SLOW_CALL_DURATION),
+                context.intValue(CircuitBreaker.class, "permittedCallsInHalfOpenState").orElse(DEFAULT_PERMITTED_CALLS_IN_HALF_OPEN_STATE)
+        );
+    }
 }
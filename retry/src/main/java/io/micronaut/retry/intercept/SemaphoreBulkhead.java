@@ -0,0 +1,237 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.intercept;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.retry.BulkheadMetrics;
+import io.micronaut.retry.exception.BulkheadFullException;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bulkhead that runs calls on the calling thread once they acquired one of a limited number of permits.
+ *
+ * <p>Permits are acquired with a CAS while no call is waiting. Waiting calls are queued and handed the permits
+ * released by completed calls in order, without ever blocking the releasing thread, so the same bulkhead serves
+ * blocking and non-blocking methods.</p>
+ *
+ * @since 4.0.0
+ */
+@Internal
+final class SemaphoreBulkhead implements BulkheadMetrics {
+
+    private final String name;
+    private final ConcurrencyLimit limit;
+    private final long maxWaitNanos;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<Permit> waiters = new ConcurrentLinkedQueue<>();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param name      The name of the bulkhead
+     * @param limit     The concurrency limit
+     * @param maxWait   The maximum duration a call waits for a permit
+     * @param scheduler The scheduler that times out waiting calls
+     */
+    SemaphoreBulkhead(String name, ConcurrencyLimit limit, Duration maxWait, ScheduledExecutorService scheduler) {
+        this.name = name;
+        this.limit = limit;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getConcurrencyLimit() {
+        return limit.getLimit();
+    }
+
+    @Override
+    public int getActiveCalls() {
+        return inFlight.get();
+    }
+
+    @Override
+    public int getWaitingCalls() {
+        return waiters.size();
+    }
+
+    @Override
+    public long getRejectedCalls() {
+        return rejected.sum();
+    }
+
+    /**
+     * Acquires a permit. The returned permit must be released once the call completes, whether or not the permit
+     * was granted.
+     *
+     * @return The permit, granted immediately, rejected, or granted or rejected once the wait is over
+     */
+    Permit acquire() {
+        Permit permit = new Permit();
+        if (waiters.isEmpty() && tryAcquire()) {
+            permit.grant();
+            return permit;
+        }
+        if (maxWaitNanos <= 0) {
+            reject(permit, "Bulkhead [" + name + "] is full");
+            return permit;
+        }
+        waiters.add(permit);
+        drain();
+        if (!permit.granted.isDone()) {
+            ScheduledFuture<?> timeout = scheduler.schedule(
+                () -> reject(permit, "Bulkhead [" + name + "] is full: no permit within " + Duration.ofNanos(maxWaitNanos).toMillis() + "ms"),
+                maxWaitNanos,
+                TimeUnit.NANOSECONDS
+            );
+            permit.granted.whenComplete((v, e) -> timeout.cancel(false));
+        }
+        return permit;
+    }
+
+    private boolean tryAcquire() {
+        int max = limit.getLimit();
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= max) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void reject(Permit permit, String message) {
+        if (permit.granted.completeExceptionally(new BulkheadFullException(message))) {
+            waiters.remove(permit);
+            rejected.increment();
+        }
+    }
+
+    private void release(long latencyNanos, boolean dropped) {
+        limit.onSample(latencyNanos, inFlight.get(), dropped);
+        inFlight.decrementAndGet();
+        if (!waiters.isEmpty()) {
+            drain();
+        }
+    }
+
+    /**
+     * Hands the available permits to the waiting calls. A caller that queues itself drains the queue afterwards, so
+     * a permit released concurrently is never missed.
+     */
+    private void drain() {
+        synchronized (waiters) {
+            Permit permit;
+            while ((permit = waiters.peek()) != null) {
+                if (!permit.granted.isDone()) {
+                    if (!tryAcquire()) {
+                        return;
+                    }
+                    if (!permit.grant()) {
+                        // rejected concurrently
+                        inFlight.decrementAndGet();
+                    }
+                }
+                waiters.remove(permit);
+            }
+        }
+    }
+
+    private static boolean isDropped(@Nullable Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error instanceof TimeoutException;
+    }
+
+    /**
+     * A permit of the bulkhead.
+     */
+    final class Permit {
+
+        /**
+         * Completed once the permit is granted, or completed exceptionally with a {@link BulkheadFullException} once
+         * it is rejected.
+         */
+        final CompletableFuture<Void> granted = new CompletableFuture<>();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private long start;
+
+        private boolean grant() {
+            start = System.nanoTime();
+            return granted.complete(null);
+        }
+
+        /**
+         * Waits until the permit is granted.
+         *
+         * @throws BulkheadFullException If the permit is rejected or the thread is interrupted
+         */
+        void await() {
+            if (granted.isDone() && !granted.isCompletedExceptionally()) {
+                return;
+            }
+            try {
+                granted.get();
+            } catch (ExecutionException e) {
+                throw (BulkheadFullException) e.getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                release(e);
+                throw new BulkheadFullException("Interrupted while waiting for a permit of bulkhead [" + name + "]", e);
+            }
+        }
+
+        /**
+         * Returns the permit once the call completed, or gives up waiting for it. Only the first invocation has an
+         * effect.
+         *
+         * @param error The error the call completed with, if any
+         */
+        void release(@Nullable Throwable error) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (granted.completeExceptionally(new CancellationException())) {
+                waiters.remove(this);
+            } else if (!granted.isCompletedExceptionally()) {
+                SemaphoreBulkhead.this.release(System.nanoTime() - start, isDropped(error));
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.intercept;
+
+import io.micronaut.core.annotation.Internal;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates the outcomes of the recent calls of a circuit. Recording is lock-free: the outcomes are kept in a ring
+ * buffer and the totals in striped counters, so the totals are approximate while calls are recorded concurrently.
+ *
+ * @since 4.0.0
+ */
+@Internal
+abstract class SlidingWindowStatistics {
+
+    static final int FAILURE = 1;
+    static final int SLOW = 2;
+
+    /**
+     * Records the outcome of a call.
+     *
+     * @param outcome   A combination of {@link #FAILURE} and {@link #SLOW}, or zero for a fast successful call
+     * @param nowMillis   The current time in milliseconds
+     */
+    abstract void record(int outcome, long nowMillis);
+
+    /**
+     * @param nowMillis The current time in milliseconds
+     * @return The totals of the calls in the window
+     */
+    abstract Snapshot snapshot(long nowMillis);
+
+    /**
+     * @param size The number of calls in the window
+     * @return A window of the last calls
+     */
+    static SlidingWindowStatistics countBased(int size) {
+        return new CountBased(size);
+    }
+
+    /**
+     * @param seconds The number of seconds in the window
+     * @return A window of the calls of the last seconds
+     */
+    static SlidingWindowStatistics timeBased(int seconds) {
+        return new TimeBased(seconds);
+    }
+
+    /**
+     * The totals of a window.
+     */
+    static final class Snapshot {
+        final long calls;
+        final long failures;
+        final long slowCalls;
+
+        Snapshot(long calls, long failures, long slowCalls) {
+            this.calls = calls;
+            this.failures = failures;
+            this.slowCalls = slowCalls;
+        }
+
+        /**
+         * @return The percentage of failed calls
+         */
+        float failureRate() {
+            return calls == 0 ? 0 : failures * 100f / calls;
+        }
+
+        /**
+         * @return The percentage of slow calls
+         */
+        float slowCallRate() {
+            return calls == 0 ? 0 : slowCalls * 100f / calls;
+        }
+    }
+
+    /**
+     * Keeps the outcomes of the last calls in a ring buffer.
+     */
+    private static final class CountBased extends SlidingWindowStatistics {
+        private static final int EMPTY = -1;
+
+        private final AtomicIntegerArray outcomes;
+        private final AtomicLong index = new AtomicLong();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder slowCalls = new LongAdder();
+
+        CountBased(int size) {
+            outcomes = new AtomicIntegerArray(Math.max(1, size));
+            for (int i = 0; i < outcomes.length(); i++) {
+                outcomes.set(i, EMPTY);
+            }
+        }
+
+        @Override
+        void record(int outcome, long nowMillis) {
+            int slot = (int) (index.getAndIncrement() % outcomes.length());
+            int previous = outcomes.getAndSet(slot, outcome);
+            failures.add(flag(outcome, FAILURE) - flag(previous, FAILURE));
+            slowCalls.add(flag(outcome, SLOW) - flag(previous, SLOW));
+        }
+
+        @Override
+        Snapshot snapshot(long nowMillis) {
+            return new Snapshot(Math.min(index.get(), outcomes.length()), failures.sum(), slowCalls.sum());
+        }
+
+        private static int flag(int outcome, int flag) {
+            return outcome != EMPTY && (outcome & flag) != 0 ? 1 : 0;
+        }
+    }
+
+    /**
+     * Keeps one bucket of totals per second in a ring buffer. A bucket is reset when it is reused for a new second.
+     */
+    private static final class TimeBased extends SlidingWindowStatistics {
+        private final Bucket[] buckets;
+
+        TimeBased(int seconds) {
+            buckets = new Bucket[Math.max(1, seconds)];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new Bucket();
+            }
+        }
+
+        @Override
+        void record(int outcome, long nowMillis) {
+            long second = nowMillis / 1000;
+            Bucket bucket = buckets[(int) Math.floorMod(second, (long) buckets.length)];
+            long epoch = bucket.second.get();
+            if (epoch != second && bucket.second.compareAndSet(epoch, second)) {
+                bucket.calls.reset();
+                bucket.failures.reset();
+                bucket.slowCalls.reset();
+            }
+            bucket.calls.increment();
+            if ((outcome & FAILURE) != 0) {
+                bucket.failures.increment();
+            }
+            if ((outcome & SLOW) != 0) {
+                bucket.slowCalls.increment();
+            }
+        }
+
+        @Override
+        Snapshot snapshot(long nowMillis) {
+            long oldest = nowMillis / 1000 - buckets.length;
+            long calls = 0;
+            long failures = 0;
+            long slowCalls = 0;
+            for (Bucket bucket : buckets) {
+                if (bucket.second.get() > oldest) {
+                    calls += bucket.calls.sum();
+                    failures += bucket.failures.sum();
+                    slowCalls += bucket.slowCalls.sum();
+                }
+            }
+            return new Snapshot(calls, failures, slowCalls);
+        }
+
+        private static final class Bucket {
+            final AtomicLong second = new AtomicLong(Long.MIN_VALUE);
+            final LongAdder calls = new LongAdder();
+            final LongAdder failures = new LongAdder();
+            final LongAdder slowCalls = new LongAdder();
+        }
+    }
+}
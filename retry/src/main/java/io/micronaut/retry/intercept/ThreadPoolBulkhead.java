@@ -0,0 +1,128 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.intercept;
+
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.retry.BulkheadMetrics;
+import io.micronaut.retry.exception.BulkheadFullException;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bulkhead that runs calls on a dedicated, bounded pool of threads with a bounded queue.
+ *
+ * @since 4.0.0
+ */
+@Internal
+final class ThreadPoolBulkhead implements BulkheadMetrics, Closeable {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private final String name;
+    private final long maxWaitNanos;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param name          The name of the bulkhead
+     * @param threads       The number of threads
+     * @param queueCapacity The number of calls queued while all threads are busy
+     * @param maxWait       The maximum duration a call waits in the queue, zero for no limit
+     */
+    ThreadPoolBulkhead(String name, int threads, int queueCapacity, Duration maxWait) {
+        this.name = name;
+        this.maxWaitNanos = maxWait.toNanos();
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "bulkhead-" + name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getConcurrencyLimit() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @Override
+    public int getActiveCalls() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public int getWaitingCalls() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public long getRejectedCalls() {
+        return rejected.sum();
+    }
+
+    /**
+     * Runs a call on the pool.
+     *
+     * @param call The call
+     * @param <T>  The result type
+     * @return The result, completed exceptionally with a {@link BulkheadFullException} if the call is rejected
+     */
+    <T> CompletableFuture<T> submit(Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long queued = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                if (maxWaitNanos > 0 && System.nanoTime() - queued > maxWaitNanos) {
+                    rejected.increment();
+                    result.completeExceptionally(new BulkheadFullException("Bulkhead [" + name + "] is full: the call waited more than " + Duration.ofNanos(maxWaitNanos).toMillis() + "ms in the queue"));
+                    return;
+                }
+                try {
+                    result.complete(call.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(new BulkheadFullException("Bulkhead [" + name + "] is full", e));
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
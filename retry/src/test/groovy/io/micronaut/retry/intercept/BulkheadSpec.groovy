@@ -0,0 +1,275 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.intercept
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.exceptions.ConfigurationException
+import io.micronaut.retry.BulkheadMetrics
+import io.micronaut.retry.annotation.Bulkhead
+import io.micronaut.retry.annotation.BulkheadType
+import io.micronaut.retry.exception.BulkheadFullException
+import jakarta.inject.Singleton
+import reactor.core.publisher.Mono
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionStage
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
+
+class BulkheadSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    ApplicationContext context = ApplicationContext.run()
+
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    void "test calls above the limit of a semaphore bulkhead are rejected"() {
+        given:
+        BlockingService service = context.getBean(BlockingService)
+        def executor = Executors.newFixedThreadPool(2)
+        CountDownLatch latch = new CountDownLatch(1)
+        List<Future<String>> calls = (1..2).collect { executor.submit({ service.call(latch) } as java.util.concurrent.Callable<String>) }
+
+        when:
+        conditions.eventually {
+            assert metrics('BlockingService.call').activeCalls == 2
+        }
+        service.call(latch)
+
+        then:
+        thrown(BulkheadFullException)
+        metrics('BlockingService.call').rejectedCalls == 1
+
+        when:
+        latch.countDown()
+
+        then:
+        calls*.get(5, TimeUnit.SECONDS) == ['done', 'done']
+        metrics('BlockingService.call').activeCalls == 0
+        service.call(latch) == 'done'
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    void "test a call waits for a permit up to the maximum wait duration"() {
+        given:
+        BlockingService service = context.getBean(BlockingService)
+        def executor = Executors.newFixedThreadPool(2)
+        CountDownLatch latch = new CountDownLatch(1)
+        Future<String> first = executor.submit({ service.waiting(latch) } as java.util.concurrent.Callable<String>)
+        conditions.eventually {
+            assert metrics('waiting').activeCalls == 1
+        }
+
+        when:"the permit is released while the second call waits"
+        Future<String> second = executor.submit({ service.waiting(new CountDownLatch(0)) } as java.util.concurrent.Callable<String>)
+        conditions.eventually {
+            assert metrics('waiting').waitingCalls == 1
+        }
+        latch.countDown()
+
+        then:
+        first.get(5, TimeUnit.SECONDS) == 'done'
+        second.get(5, TimeUnit.SECONDS) == 'done'
+
+        when:"the permit is not released in time"
+        latch = new CountDownLatch(1)
+        first = executor.submit({ service.waiting(latch) } as java.util.concurrent.Callable<String>)
+        conditions.eventually {
+            assert metrics('waiting').activeCalls == 1
+        }
+        service.waiting(latch)
+
+        then:
+        thrown(BulkheadFullException)
+        metrics('waiting').waitingCalls == 0
+
+        cleanup:
+        latch.countDown()
+        executor.shutdown()
+    }
+
+    void "test the permit of an asynchronous call is released on completion"() {
+        given:
+        AsyncService service = context.getBean(AsyncService)
+        CompletableFuture<String> pending = new CompletableFuture<>()
+
+        when:
+        CompletionStage<String> first = service.call(pending)
+        service.call(pending).toCompletableFuture().get()
+
+        then:
+        ExecutionException e = thrown()
+        e.cause instanceof BulkheadFullException
+
+        when:
+        pending.complete('done')
+
+        then:
+        first.toCompletableFuture().get() == 'done'
+        service.call(CompletableFuture.completedFuture('again')).toCompletableFuture().get() == 'again'
+    }
+
+    void "test the permit of a reactive call is released on completion"() {
+        given:
+        AsyncService service = context.getBean(AsyncService)
+
+        expect:
+        service.reactive().block() == 'done'
+        service.reactive().block() == 'done'
+        metrics('AsyncService.reactive').activeCalls == 0
+    }
+
+    void "test a thread pool bulkhead runs calls on its threads"() {
+        given:
+        PooledService service = context.getBean(PooledService)
+        CountDownLatch latch = new CountDownLatch(1)
+        def executor = Executors.newSingleThreadExecutor()
+
+        expect:
+        service.threadName(new CountDownLatch(0)).startsWith('bulkhead-pooled-')
+
+        when:
+        Future<String> first = executor.submit({ service.threadName(latch) } as java.util.concurrent.Callable<String>)
+        conditions.eventually {
+            assert metrics('pooled').activeCalls == 1
+        }
+        service.threadName(latch)
+
+        then:
+        thrown(BulkheadFullException)
+        metrics('pooled').rejectedCalls == 1
+
+        when:
+        latch.countDown()
+
+        then:
+        first.get(5, TimeUnit.SECONDS).startsWith('bulkhead-pooled-')
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    void "test a thread pool bulkhead rejects asynchronous methods"() {
+        given:
+        PooledService service = context.getBean(PooledService)
+
+        when:
+        service.async()
+
+        then:
+        ConfigurationException e = thrown()
+        e.message.contains('THREAD_POOL only supports synchronous methods')
+
+        when:
+        service.reactive()
+
+        then:
+        thrown(ConfigurationException)
+    }
+
+    void "test the AIMD limit decreases on slow calls and recovers on fast calls"() {
+        given:
+        ConcurrencyLimit limit = ConcurrencyLimit.aimd(2, 10, Duration.ofMillis(100).toNanos())
+
+        when:
+        3.times { limit.onSample(Duration.ofSeconds(1).toNanos(), 10, false) }
+
+        then:
+        limit.limit == 7
+
+        when:
+        limit.onSample(Duration.ofMillis(1).toNanos(), 1, false)
+
+        then:"the limit is not raised while the bulkhead is mostly idle"
+        limit.limit == 7
+
+        when:
+        limit.onSample(Duration.ofMillis(1).toNanos(), 7, false)
+
+        then:
+        limit.limit == 8
+
+        when:
+        20.times { limit.onSample(0, 1, true) }
+
+        then:
+        limit.limit == 2
+    }
+
+    private BulkheadMetrics metrics(String name) {
+        context.getBean(BulkheadInterceptor).bulkheads.find { it.name == name }
+    }
+
+    @Singleton
+    static class BlockingService {
+
+        @Bulkhead(maxConcurrentCalls = 2)
+        String call(CountDownLatch latch) {
+            latch.await()
+            return 'done'
+        }
+
+        @Bulkhead(name = 'waiting', maxConcurrentCalls = 1, maxWaitDuration = '300ms')
+        String waiting(CountDownLatch latch) {
+            latch.await()
+            return 'done'
+        }
+    }
+
+    @Singleton
+    @Bulkhead(maxConcurrentCalls = 1)
+    static class AsyncService {
+
+        CompletionStage<String> call(CompletableFuture<String> result) {
+            return result
+        }
+
+        Mono<String> reactive() {
+            return Mono.just('done')
+        }
+    }
+
+    @Singleton
+    static class PooledService {
+
+        @Bulkhead(name = 'pooled', type = BulkheadType.THREAD_POOL, maxConcurrentCalls = 1, queueCapacity = 0)
+        String threadName(CountDownLatch latch) {
+            latch.await()
+            return Thread.currentThread().name
+        }
+
+        @Bulkhead(name = 'pooled-async', type = BulkheadType.THREAD_POOL)
+        CompletionStage<String> async() {
+            return CompletableFuture.completedFuture('done')
+        }
+
+        @Bulkhead(name = 'pooled-async', type = BulkheadType.THREAD_POOL)
+        Mono<String> reactive() {
+            return Mono.just('done')
+        }
+    }
+}
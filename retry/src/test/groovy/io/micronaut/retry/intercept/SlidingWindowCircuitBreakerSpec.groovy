@@ -0,0 +1,362 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.retry.intercept
+
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.event.ApplicationEventListener
+import io.micronaut.retry.CircuitState
+import io.micronaut.retry.annotation.CircuitBreaker
+import io.micronaut.retry.annotation.SlidingWindowType
+import io.micronaut.retry.event.CircuitStateChangeEvent
+import io.micronaut.retry.exception.CircuitOpenException
+import jakarta.inject.Singleton
+import spock.lang.Specification
+import reactor.core.publisher.Flux
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+
+class SlidingWindowCircuitBreakerSpec extends Specification {
+
+    PollingConditions conditions = new PollingConditions(timeout: 2)
+
+    void "test the circuit opens once the failure rate reaches the threshold"() {
+        given:
+        CircuitBreakerRetry retry = newRetry(50, 100)
+        IllegalStateException failure = new IllegalStateException("bad")
+
+        when:"fewer calls than the minimum are recorded"
+        retry.close(null)
+        retry.close(null)
+        retry.close(failure)
+
+        then:
+        retry.currentState() == CircuitState.CLOSED
+
+        when:"the failure rate reaches the threshold"
+        retry.close(failure)
+
+        then:
+        retry.currentState() == CircuitState.OPEN
+
+        when:
+        retry.open()
+
+        then:
+        IllegalStateException e = thrown()
+        e.is(failure)
+
+        and:"the circuit becomes half open after the reset timeout"
+        conditions.eventually {
+            assert retry.currentState() == CircuitState.HALF_OPEN
+        }
+    }
+
+    void "test only the permitted calls are let through a half open circuit"() {
+        given:
+        CircuitBreakerRetry retry = newRetry(50, 100)
+        4.times { retry.close(new IllegalStateException("bad")) }
+        conditions.eventually {
+            assert retry.currentState() == CircuitState.HALF_OPEN
+        }
+
+        when:
+        retry.open()
+        retry.open()
+        retry.open()
+
+        then:
+        thrown(CircuitOpenException)
+
+        when:"the permitted calls succeed"
+        retry.close(null)
+        retry.close(null)
+
+        then:
+        retry.currentState() == CircuitState.CLOSED
+        retry.open()
+    }
+
+    void "test a failing half open circuit opens again"() {
+        given:
+        CircuitBreakerRetry retry = newRetry(50, 100)
+        4.times { retry.close(new IllegalStateException("bad")) }
+        conditions.eventually {
+            assert retry.currentState() == CircuitState.HALF_OPEN
+        }
+
+        when:
+        retry.open()
+        retry.open()
+        retry.close(null)
+        retry.close(new IllegalStateException("still bad"))
+
+        then:
+        retry.currentState() == CircuitState.OPEN
+    }
+
+    void "test the circuit opens once the slow call rate reaches the threshold"() {
+        given:
+        CircuitBreakerRetry retry = newRetry(100, 50)
+        long slow = Duration.ofSeconds(2).toNanos()
+
+        when:
+        retry.close(null, slow)
+        retry.close(null, 0)
+        retry.close(null, 0)
+
+        then:
+        retry.currentState() == CircuitState.CLOSED
+
+        when:
+        retry.close(null, slow)
+
+        then:
+        retry.currentState() == CircuitState.OPEN
+
+        when:
+        retry.open()
+
+        then:
+        CircuitOpenException e = thrown()
+        e.message.contains('slow call rate 50.0%')
+    }
+
+    void "test a count based window only keeps the last calls"() {
+        given:
+        SlidingWindowStatistics statistics = SlidingWindowStatistics.countBased(3)
+
+        when:
+        statistics.record(SlidingWindowStatistics.FAILURE, 0)
+        statistics.record(SlidingWindowStatistics.FAILURE | SlidingWindowStatistics.SLOW, 0)
+        statistics.record(0, 0)
+        SlidingWindowStatistics.Snapshot snapshot = statistics.snapshot(0)
+
+        then:
+        snapshot.calls == 3
+        snapshot.failures == 2
+        snapshot.slowCalls == 1
+
+        when:
+        statistics.record(0, 0)
+        statistics.record(0, 0)
+        snapshot = statistics.snapshot(0)
+
+        then:
+        snapshot.calls == 3
+        snapshot.failures == 0
+        snapshot.slowCalls == 0
+        snapshot.failureRate() == 0f
+    }
+
+    void "test a time based window expires old buckets"() {
+        given:
+        SlidingWindowStatistics statistics = SlidingWindowStatistics.timeBased(2)
+
+        when:
+        statistics.record(SlidingWindowStatistics.FAILURE, 1000)
+        statistics.record(0, 1500)
+        statistics.record(SlidingWindowStatistics.SLOW, 2000)
+        SlidingWindowStatistics.Snapshot snapshot = statistics.snapshot(2000)
+
+        then:
+        snapshot.calls == 3
+        snapshot.failures == 1
+        snapshot.slowCalls == 1
+
+        when:
+        snapshot = statistics.snapshot(3000)
+
+        then:
+        snapshot.calls == 1
+        snapshot.failures == 0
+        snapshot.slowCalls == 1
+
+        when:
+        snapshot = statistics.snapshot(10000)
+
+        then:
+        snapshot.calls == 0
+        snapshot.slowCallRate() == 0f
+    }
+
+    void "test state changes are published for an annotated bean"() {
+        given:
+        ApplicationContext context = ApplicationContext.run()
+        FlakyService service = context.getBean(FlakyService)
+        StateChangeListener listener = context.getBean(StateChangeListener)
+
+        when:
+        3.times {
+            try {
+                service.call(false)
+            } catch (IllegalStateException ignored) {
+            }
+        }
+        service.call(true)
+
+        then:
+        listener.events.size() == 1
+        listener.events[0].previousState == CircuitState.CLOSED
+        listener.events[0].state == CircuitState.OPEN
+        listener.events[0].failureRate == 75f
+
+        when:
+        service.call(true)
+
+        then:
+        CircuitOpenException e = thrown()
+        e.message.contains('failure rate 75.0%')
+
+        cleanup:
+        context.close()
+    }
+
+    void "test a reactive call with several elements is recorded once"() {
+        given:
+        ApplicationContext context = ApplicationContext.run()
+        ReactiveService service = context.getBean(ReactiveService)
+        StateChangeListener listener = context.getBean(StateChangeListener)
+
+        when:
+        3.times {
+            try {
+                service.fail().blockLast()
+            } catch (IllegalStateException ignored) {
+            }
+        }
+        List<Integer> values = service.elements().collectList().block()
+
+        then:
+        values == [1, 2, 3]
+        listener.events.size() == 1
+        listener.events[0].state == CircuitState.OPEN
+        listener.events[0].failureRate == 75f
+
+        cleanup:
+        context.close()
+    }
+
+    void "test an empty reactive call is recorded"() {
+        given:
+        ApplicationContext context = ApplicationContext.run()
+        ReactiveService service = context.getBean(ReactiveService)
+        StateChangeListener listener = context.getBean(StateChangeListener)
+
+        when:
+        3.times {
+            try {
+                service.fail().blockLast()
+            } catch (IllegalStateException ignored) {
+            }
+        }
+        service.empty().blockLast()
+
+        then:
+        listener.events.size() == 1
+        listener.events[0].state == CircuitState.OPEN
+        listener.events[0].failureRate == 75f
+
+        cleanup:
+        context.close()
+    }
+
+    void "test a cancelled reactive call gives back its half open permit"() {
+        given:
+        ApplicationContext context = ApplicationContext.run()
+        ReactiveService service = context.getBean(ReactiveService)
+        StateChangeListener listener = context.getBean(StateChangeListener)
+        4.times {
+            try {
+                service.fail().blockLast()
+            } catch (IllegalStateException ignored) {
+            }
+        }
+
+        expect:
+        listener.events[-1].state == CircuitState.OPEN
+
+        when:"the only half open permit is taken by a call that is cancelled"
+        Thread.sleep(200)
+        service.never().subscribe().dispose()
+
+        then:"the next call is let through and closes the circuit"
+        service.elements().blockFirst() == 1
+        listener.events[-1].state == CircuitState.CLOSED
+
+        cleanup:
+        context.close()
+    }
+
+    private static CircuitBreakerRetry newRetry(int failureRateThreshold, int slowCallRateThreshold) {
+        new CircuitBreakerRetry(
+                200,
+                {-> new SimpleRetry(1, 1.0d, Duration.ofMillis(0))},
+                null,
+                null,
+                false,
+                new CircuitBreakerRetry.SlidingWindowSettings(
+                        SlidingWindowType.COUNT_BASED, 4, 4, failureRateThreshold, slowCallRateThreshold, Duration.ofSeconds(1), 2
+                )
+        )
+    }
+
+    @Singleton
+    static class StateChangeListener implements ApplicationEventListener<CircuitStateChangeEvent> {
+        List<CircuitStateChangeEvent> events = []
+
+        @Override
+        void onApplicationEvent(CircuitStateChangeEvent event) {
+            events.add(event)
+        }
+    }
+
+    @Singleton
+    @CircuitBreaker(attempts = '1', delay = '1ms', reset = '10s',
+            slidingWindowType = SlidingWindowType.COUNT_BASED, slidingWindowSize = 4, minimumNumberOfCalls = 4)
+    static class FlakyService {
+
+        boolean call(boolean succeed) {
+            if (!succeed) {
+                throw new IllegalStateException("bad")
+            }
+            return true
+        }
+    }
+
+    @Singleton
+    @CircuitBreaker(attempts = '1', delay = '1ms', reset = '100ms',
+            slidingWindowType = SlidingWindowType.COUNT_BASED, slidingWindowSize = 4, minimumNumberOfCalls = 4,
+            permittedCallsInHalfOpenState = 1)
+    static class ReactiveService {
+
+        Flux<Integer> fail() {
+            return Flux.error(new IllegalStateException("bad"))
+        }
+
+        Flux<Integer> elements() {
+            return Flux.just(1, 2, 3)
+        }
+
+        Flux<Integer> empty() {
+            return Flux.empty()
+        }
+
+        Flux<Integer> never() {
+            return Flux.never()
+        }
+    }
+}
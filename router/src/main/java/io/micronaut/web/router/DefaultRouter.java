@@ -21,7 +21,9 @@ import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.order.OrderUtil;
 import io.micronaut.core.reflect.ClassUtils;
 import io.micronaut.core.util.CollectionUtils;
+import io.micronaut.core.util.PathMatcher;
 import io.micronaut.core.util.SupplierUtil;
+import io.micronaut.core.util.Toggleable;
 import io.micronaut.http.HttpAttributes;
 import io.micronaut.http.HttpMethod;
 import io.micronaut.http.HttpRequest;
@@ -29,7 +31,6 @@ import io.micronaut.http.HttpStatus;
 import io.micronaut.http.MediaType;
 import io.micronaut.http.annotation.Filter;
 import io.micronaut.http.annotation.FilterMatcher;
-import io.micronaut.http.filter.FilterPatternStyle;
 import io.micronaut.http.filter.HttpFilter;
 import io.micronaut.http.filter.HttpServerFilterResolver;
 import io.micronaut.http.uri.UriMatchTemplate;
@@ -40,23 +41,26 @@ import jakarta.inject.Singleton;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 /**
  * <p>The default {@link Router} implementation. This implementation does not perform any additional caching of
- * route discovery.</p>
+ * route discovery, however the routes of each HTTP method are indexed by path segment so that only the routes
+ * that can structurally match a URI are matched against it.</p>
  *
  * @author Graeme Rocher
  * @since 1.0
@@ -65,11 +69,15 @@ import java.util.stream.Stream;
 public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatch<?>> {
 
     private final Map<String, List<UriRoute>> routesByMethod = new HashMap<>();
+    private final Map<String, UriRouteIndex> routeIndexByMethod = new HashMap<>();
     private final List<StatusRoute> statusRoutes = new ArrayList<>();
     private final List<ErrorRoute> errorRoutes = new ArrayList<>();
     private final Set<Integer> exposedPorts;
     private final List<FilterRoute> alwaysMatchesFilterRoutes = new ArrayList<>();
     private final List<FilterRoute> preconditionFilterRoutes = new ArrayList<>();
+    private final Map<FilterRoute, String> filterMatcherAnnotations = new IdentityHashMap<>();
+    private final Map<FilterChainKey, RouteFilterChain> routeFilterChains = new ConcurrentHashMap<>();
+    private final Map<FilterChainKey, List<FilterEntry<HttpFilter>>> routeFilterEntries = new ConcurrentHashMap<>();
     private final Supplier<List<HttpFilter>> alwaysMatchesHttpFilters = SupplierUtil.memoized(() -> {
         if (alwaysMatchesFilterRoutes.isEmpty()) {
             return Collections.emptyList();
@@ -132,11 +140,19 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
         }
 
         routesByMethod.values().forEach(this::finalizeRoutes);
+        routesByMethod.forEach((method, routes) -> routeIndexByMethod.put(method, new UriRouteIndex(routes)));
         for (FilterRoute filterRoute : filterRoutes) {
             if (isMatchesAll(filterRoute)) {
                 alwaysMatchesFilterRoutes.add(filterRoute);
             } else {
                 preconditionFilterRoutes.add(filterRoute);
+                AnnotationMetadata annotationMetadata = filterRoute.getAnnotationMetadata();
+                if (annotationMetadata.hasStereotype(FilterMatcher.NAME)) {
+                    filterMatcherAnnotations.put(
+                            filterRoute,
+                            annotationMetadata.getAnnotationNameByStereotype(FilterMatcher.NAME).orElse(FilterMatcher.NAME)
+                    );
+                }
             }
         }
     }
@@ -284,9 +300,15 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
     @NonNull
     @Override
     public <T, R> Optional<UriRouteMatch<T, R>> route(@NonNull HttpMethod httpMethod, @NonNull CharSequence uri) {
-        List<UriRoute> routes = routesByMethod.getOrDefault(httpMethod.name(), Collections.emptyList());
-        for (UriRoute uriRoute : routes) {
-            Optional<UriRouteMatch> match = uriRoute.match(uri.toString());
+        String httpMethodName = httpMethod.name();
+        List<UriRoute> routes = routesByMethod.get(httpMethodName);
+        if (routes == null) {
+            return Optional.empty();
+        }
+        final String uriStr = uri.toString();
+        BitSet candidates = routeIndexByMethod.get(httpMethodName).candidates(uriStr);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            Optional<UriRouteMatch> match = routes.get(i).match(uriStr);
             if (match.isPresent()) {
                 return (Optional) match;
             }
@@ -450,11 +472,19 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
         if (preconditionFilterRoutes.isEmpty()) {
             return alwaysMatchesHttpFilters.get();
         }
-        List<HttpFilter> httpFilters = new ArrayList<>(alwaysMatchesFilterRoutes.size() + preconditionFilterRoutes.size());
-        httpFilters.addAll(alwaysMatchesHttpFilters.get());
         RouteMatch routeMatch = (RouteMatch) request.getAttribute(HttpAttributes.ROUTE_MATCH).filter(o -> o instanceof RouteMatch).orElse(null);
         HttpMethod method = request.getMethod();
         URI uri = request.getUri();
+        if (routeMatch instanceof UriRouteMatch) {
+            FilterChainKey key = new FilterChainKey(((UriRouteMatch<?, ?>) routeMatch).getRoute(), method);
+            RouteFilterChain filterChain = routeFilterChains.get(key);
+            if (filterChain == null) {
+                filterChain = routeFilterChains.computeIfAbsent(key, k -> new RouteFilterChain(routeMatch, k));
+            }
+            return filterChain.resolve(method, uri);
+        }
+        List<HttpFilter> httpFilters = new ArrayList<>(alwaysMatchesFilterRoutes.size() + preconditionFilterRoutes.size());
+        httpFilters.addAll(alwaysMatchesHttpFilters.get());
         for (FilterRoute filterRoute : preconditionFilterRoutes) {
             if (routeMatch != null) {
                 if (!matchesFilterMatcher(filterRoute, routeMatch)) {
@@ -473,9 +503,11 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
     public <T, R> Stream<UriRouteMatch<T, R>> findAny(@NonNull CharSequence uri, @Nullable HttpRequest<?> context) {
         List matchedRoutes = new ArrayList<>(5);
         final String uriStr = uri.toString();
-        for (List<UriRoute> routes : routesByMethod.values()) {
-            for (UriRoute route : routes) {
-                final UriRouteMatch match = route.match(uriStr).orElse(null);
+        for (Map.Entry<String, List<UriRoute>> entry : routesByMethod.entrySet()) {
+            List<UriRoute> routes = entry.getValue();
+            BitSet candidates = routeIndexByMethod.get(entry.getKey()).candidates(uriStr);
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                final UriRouteMatch match = routes.get(i).match(uriStr).orElse(null);
                 if (match != null && match.test(context)) {
                     matchedRoutes.add(match);
                 }
@@ -488,9 +520,10 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
         List<UriRoute> routes = routesByMethod.getOrDefault(httpMethodName, Collections.emptyList());
         if (CollectionUtils.isNotEmpty(routes)) {
             final String uriStr = uri.toString();
-            List<UriRouteMatch<T, R>> routeMatches = new LinkedList<>();
-            for (UriRoute route : routes) {
-                Optional<UriRouteMatch> match = route.match(uriStr);
+            BitSet candidates = routeIndexByMethod.get(httpMethodName).candidates(uriStr);
+            List<UriRouteMatch<T, R>> routeMatches = new ArrayList<>(candidates.cardinality());
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                Optional<UriRouteMatch> match = routes.get(i).match(uriStr);
                 if (predicate != null) {
                     match = match.filter(predicate);
                 }
@@ -545,6 +578,18 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
         if (preconditionFilterRoutes.isEmpty()) {
             return (List) alwaysMatchesFilterRoutes;
         }
+        if (routeMatch instanceof UriRouteMatch) {
+            FilterChainKey key = new FilterChainKey(((UriRouteMatch<?, ?>) routeMatch).getRoute(), null);
+            List<FilterEntry<HttpFilter>> filterEntries = routeFilterEntries.get(key);
+            if (filterEntries == null) {
+                filterEntries = routeFilterEntries.computeIfAbsent(key, k -> resolveRouteFilterEntries(routeMatch));
+            }
+            return filterEntries;
+        }
+        return resolveRouteFilterEntries(routeMatch);
+    }
+
+    private List<FilterEntry<HttpFilter>> resolveRouteFilterEntries(RouteMatch<?> routeMatch) {
         List<FilterEntry<HttpFilter>> filterEntries = new ArrayList<>(alwaysMatchesFilterRoutes.size() + preconditionFilterRoutes.size());
         filterEntries.addAll(alwaysMatchesFilterRoutes);
         for (FilterRoute filterRoute : preconditionFilterRoutes) {
@@ -566,15 +611,13 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
             if (entry.hasPatterns()) {
                 String path = request.getPath();
                 String[] patterns = entry.getPatterns();
-                FilterPatternStyle patternStyle = entry.getAnnotationMetadata()
-                    .enumValue("patternStyle", FilterPatternStyle.class)
-                    .orElse(FilterPatternStyle.ANT);
+                PathMatcher pathMatcher = entry.getPatternStyle().getPathMatcher();
                 boolean matches = true;
                 for (String pattern : patterns) {
                     if (!matches) {
                         break;
                     }
-                    matches = Filter.MATCH_ALL_PATTERN.equals(pattern) || patternStyle.getPathMatcher().matches(pattern, path);
+                    matches = Filter.MATCH_ALL_PATTERN.equals(pattern) || pathMatcher.matches(pattern, path);
                 }
                 if (!matches) {
                     continue;
@@ -587,14 +630,146 @@ public class DefaultRouter implements Router, HttpServerFilterResolver<RouteMatc
     }
 
     private boolean matchesFilterMatcher(FilterRoute filterRoute, RouteMatch<?> context) {
-        AnnotationMetadata annotationMetadata = filterRoute.getAnnotationMetadata();
-        boolean matches = !annotationMetadata.hasStereotype(FilterMatcher.NAME);
-        if (!matches) {
-            String filterAnnotation = annotationMetadata.getAnnotationNameByStereotype(FilterMatcher.NAME).orElse(null);
-            if (filterAnnotation != null) {
-                matches = context.getAnnotationMetadata().hasStereotype(filterAnnotation);
+        String filterAnnotation = filterMatcherAnnotations.get(filterRoute);
+        return filterAnnotation == null || context.getAnnotationMetadata().hasStereotype(filterAnnotation);
+    }
+
+    private static boolean hasMatchAllPattern(FilterRoute filterRoute) {
+        if (filterRoute.hasPatterns()) {
+            for (String pattern : filterRoute.getPatterns()) {
+                if (Filter.MATCH_ALL_PATTERN.equals(pattern)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesPatterns(FilterRoute filterRoute, String path) {
+        PathMatcher pathMatcher = filterRoute.getPatternStyle().getPathMatcher();
+        for (String pattern : filterRoute.getPatterns()) {
+            if (pathMatcher.matches(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The key of a cached filter chain. Routes are compared by identity since {@link UriRoute} equality does not
+     * take the URI template into account.
+     */
+    private static final class FilterChainKey {
+        private final UriRoute route;
+        private final HttpMethod method;
+
+        FilterChainKey(UriRoute route, @Nullable HttpMethod method) {
+            this.route = route;
+            this.method = method;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            FilterChainKey that = (FilterChainKey) o;
+            return route == that.route && method == that.method;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(route) + (method != null ? method.hashCode() : 0);
+        }
+    }
+
+    /**
+     * The filters of a {@link UriRoute} for a given HTTP method. The {@link FilterMatcher} and HTTP method conditions
+     * of the filter routes are decided once when the chain is created. Filter patterns are decided once as well
+     * if the route template has no path variables and the request path equals the template path, otherwise
+     * they are evaluated against each request.
+     */
+    private final class RouteFilterChain {
+        private final List<HttpFilter> baseFilters;
+        private final List<FilterRoute> pathRoutes;
+        private final String staticPath;
+        private final List<HttpFilter> staticFilters;
+        private final List<FilterRoute> dynamicRoutes;
+
+        RouteFilterChain(RouteMatch<?> routeMatch, FilterChainKey key) {
+            List<HttpFilter> baseFilters = new ArrayList<>(alwaysMatchesHttpFilters.get());
+            List<FilterRoute> patternRoutes = new ArrayList<>(preconditionFilterRoutes.size());
+            List<FilterRoute> dynamicRoutes = new ArrayList<>(preconditionFilterRoutes.size());
+            for (FilterRoute filterRoute : preconditionFilterRoutes) {
+                if (!matchesFilterMatcher(filterRoute, routeMatch)) {
+                    continue;
+                }
+                if (filterRoute.hasMethods() && !filterRoute.getFilterMethods().contains(key.method)) {
+                    continue;
+                }
+                HttpFilter filter = filterRoute.getFilter();
+                if (filter instanceof Toggleable || !(filterRoute instanceof DefaultFilterRoute)) {
+                    // enabled state and custom matching can only be decided per request
+                    dynamicRoutes.add(filterRoute);
+                } else if (hasMatchAllPattern(filterRoute)) {
+                    baseFilters.add(filter);
+                } else {
+                    patternRoutes.add(filterRoute);
+                }
+            }
+            baseFilters.sort(OrderUtil.COMPARATOR);
+            this.baseFilters = Collections.unmodifiableList(baseFilters);
+
+            List<FilterRoute> pathRoutes = new ArrayList<>(patternRoutes.size() + dynamicRoutes.size());
+            pathRoutes.addAll(patternRoutes);
+            pathRoutes.addAll(dynamicRoutes);
+            this.pathRoutes = pathRoutes;
+            this.dynamicRoutes = dynamicRoutes;
+
+            UriMatchTemplate template = key.route.getUriMatchTemplate();
+            if (template.getPathVariableSegmentCount() == 0) {
+                this.staticPath = template.toPathString();
+                List<HttpFilter> staticFilters = new ArrayList<>(baseFilters);
+                for (FilterRoute filterRoute : patternRoutes) {
+                    if (matchesPatterns(filterRoute, staticPath)) {
+                        staticFilters.add(filterRoute.getFilter());
+                    }
+                }
+                staticFilters.sort(OrderUtil.COMPARATOR);
+                this.staticFilters = Collections.unmodifiableList(staticFilters);
+            } else {
+                this.staticPath = null;
+                this.staticFilters = null;
+            }
+        }
+
+        List<HttpFilter> resolve(HttpMethod method, URI uri) {
+            if (staticPath != null && staticPath.equals(uri.getPath())) {
+                return dynamicRoutes.isEmpty() ? staticFilters : resolve(staticFilters, dynamicRoutes, method, uri);
+            }
+            return pathRoutes.isEmpty() ? baseFilters : resolve(baseFilters, pathRoutes, method, uri);
+        }
+
+        private List<HttpFilter> resolve(List<HttpFilter> filters, List<FilterRoute> filterRoutes, HttpMethod method, URI uri) {
+            List<HttpFilter> httpFilters = null;
+            for (FilterRoute filterRoute : filterRoutes) {
+                HttpFilter filter = filterRoute.match(method, uri).orElse(null);
+                if (filter != null) {
+                    if (httpFilters == null) {
+                        httpFilters = new ArrayList<>(filters.size() + filterRoutes.size());
+                        httpFilters.addAll(filters);
+                    }
+                    httpFilters.add(filter);
+                }
+            }
+            if (httpFilters == null) {
+                return filters;
             }
+            httpFilters.sort(OrderUtil.COMPARATOR);
+            return Collections.unmodifiableList(httpFilters);
         }
-        return matches;
     }
 }
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.web.router;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.http.uri.UriMatchTemplate;
+import io.micronaut.http.uri.UriTypeMatchTemplate;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>A prefix tree over the path segments of a list of {@link UriRoute} instances used by {@link DefaultRouter}
+ * to narrow down the routes that have to be matched against a request URI.</p>
+ *
+ * <p>Literal path segments are stored as edges and simple <code>{var}</code> segments as a wildcard node that accepts
+ * any single segment. Segments that cannot be decided structurally (regex constrained or optional variables, operator
+ * expansions such as <code>{/var}</code> or <code>{+var}</code>, or a mix of literal content and variables) terminate
+ * the indexing of a route and the route becomes a candidate for every URI that reaches that node.</p>
+ *
+ * <p>The index is a pure pre-filter: every candidate it returns still has to be verified with
+ * {@link UriRoute#match(String)}, and it never excludes a route whose template would match. Candidates are identified
+ * by their position in the route list, so iteration over the returned {@link BitSet} preserves the precedence order of
+ * the routes.</p>
+ *
+ * @since 4.0.0
+ */
+final class UriRouteIndex {
+
+    private static final char SLASH = '/';
+    private static final char VAR_START = '{';
+    private static final char VAR_END = '}';
+    private static final int[] EMPTY = new int[0];
+
+    private final Node root = new Node();
+    private final int size;
+
+    /**
+     * @param routes The routes to index, already sorted by precedence
+     */
+    UriRouteIndex(@NonNull List<UriRoute> routes) {
+        this.size = routes.size();
+        for (int i = 0; i < size; i++) {
+            add(i, routes.get(i).getUriMatchTemplate());
+        }
+        root.compact();
+    }
+
+    /**
+     * Resolves the positions of the routes that may match the given URI.
+     *
+     * @param uri The URI
+     * @return The candidate positions
+     */
+    @NonNull
+    BitSet candidates(@NonNull String uri) {
+        BitSet candidates = new BitSet(size);
+        String path = normalize(uri);
+        if (path.isEmpty() || path.charAt(0) != SLASH) {
+            for (int position : root.opaquePositions) {
+                candidates.set(position);
+            }
+        } else {
+            collect(root, path, 1, candidates);
+        }
+        return candidates;
+    }
+
+    private void add(int position, UriMatchTemplate template) {
+        Class<? extends UriMatchTemplate> templateType = template.getClass();
+        String path = template.toPathString();
+        if ((templateType != UriMatchTemplate.class && templateType != UriTypeMatchTemplate.class)
+                || path.length() <= 1
+                || path.charAt(0) != SLASH) {
+            // custom variable patterns, root templates and relative templates are always verified
+            root.opaque.add(position);
+            return;
+        }
+        Node node = root;
+        int len = path.length();
+        int start = 1;
+        while (true) {
+            int end = segmentEnd(path, start);
+            if (end < 0) {
+                node.opaque.add(position);
+                return;
+            }
+            String segment = path.substring(start, end);
+            if (segment.indexOf(VAR_START) > -1) {
+                if (!isSimpleVariable(segment)) {
+                    node.opaque.add(position);
+                    return;
+                }
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                if (node.literals == null) {
+                    node.literals = new HashMap<>(4);
+                }
+                node = node.literals.computeIfAbsent(segment, s -> new Node());
+            }
+            if (end == len) {
+                node.terminal.add(position);
+                return;
+            }
+            start = end + 1;
+        }
+    }
+
+    private void collect(Node node, String path, int start, BitSet candidates) {
+        for (int position : node.opaquePositions) {
+            candidates.set(position);
+        }
+        int end = path.indexOf(SLASH, start);
+        if (end < 0) {
+            end = path.length();
+        }
+        if (node.literals != null) {
+            Node literal = node.literals.get(path.substring(start, end));
+            if (literal != null) {
+                collectNext(literal, path, end, candidates);
+            }
+        }
+        if (node.wildcard != null && end > start) {
+            collectNext(node.wildcard, path, end, candidates);
+        }
+    }
+
+    private void collectNext(Node node, String path, int end, BitSet candidates) {
+        if (end == path.length()) {
+            for (int position : node.opaquePositions) {
+                candidates.set(position);
+            }
+            for (int position : node.terminalPositions) {
+                candidates.set(position);
+            }
+        } else {
+            collect(node, path, end + 1, candidates);
+        }
+    }
+
+    /**
+     * Applies the same normalization as {@link UriMatchTemplate#match(String)}: a trailing slash and the query
+     * string are removed before matching.
+     *
+     * @param uri The URI
+     * @return The normalized path
+     */
+    private static String normalize(String uri) {
+        int length = uri.length();
+        if (length > 1 && uri.charAt(length - 1) == SLASH) {
+            uri = uri.substring(0, length - 1);
+        }
+        int parameterIndex = uri.indexOf('?');
+        if (parameterIndex > -1) {
+            uri = uri.substring(0, parameterIndex);
+        }
+        if (uri.endsWith("/")) {
+            uri = uri.substring(0, uri.length() - 1);
+        }
+        return uri;
+    }
+
+    /**
+     * Finds the end of the template segment starting at the given index, ignoring slashes inside variable expressions.
+     *
+     * @param path  The template path
+     * @param start The start index
+     * @return The end index or -1 if the expression is not terminated
+     */
+    private static int segmentEnd(String path, int start) {
+        int depth = 0;
+        for (int i = start; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == VAR_START) {
+                depth++;
+            } else if (c == VAR_END) {
+                depth--;
+            } else if (c == SLASH && depth == 0) {
+                return i;
+            }
+        }
+        return depth == 0 ? path.length() : -1;
+    }
+
+    /**
+     * A simple variable spans the whole segment and has no operator, modifier or additional variables, and
+     * hence matches exactly one non-empty path segment.
+     *
+     * @param segment The template segment
+     * @return True if the segment is a simple variable
+     */
+    private static boolean isSimpleVariable(String segment) {
+        int len = segment.length();
+        if (len < 3 || segment.charAt(0) != VAR_START || segment.charAt(len - 1) != VAR_END) {
+            return false;
+        }
+        for (int i = 1; i < len - 1; i++) {
+            char c = segment.charAt(i);
+            if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-' || (c == '.' && i > 1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A node of the tree.
+     */
+    private static final class Node {
+        Map<String, Node> literals;
+        Node wildcard;
+        List<Integer> terminal = new ArrayList<>(1);
+        List<Integer> opaque = new ArrayList<>(1);
+        int[] terminalPositions = EMPTY;
+        int[] opaquePositions = EMPTY;
+
+        void compact() {
+            terminalPositions = toArray(terminal);
+            opaquePositions = toArray(opaque);
+            terminal = null;
+            opaque = null;
+            if (literals != null) {
+                for (Node node : literals.values()) {
+                    node.compact();
+                }
+            }
+            if (wildcard != null) {
+                wildcard.compact();
+            }
+        }
+
+        private static int[] toArray(List<Integer> positions) {
+            if (positions.isEmpty()) {
+                return EMPTY;
+            }
+            int[] array = new int[positions.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = positions.get(i);
+            }
+            return array;
+        }
+    }
+}
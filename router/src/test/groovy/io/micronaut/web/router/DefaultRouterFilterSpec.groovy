@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.web.router
+
+import io.micronaut.core.annotation.AnnotationMetadata
+import io.micronaut.http.HttpAttributes
+import io.micronaut.http.HttpMethod
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpResponse
+import io.micronaut.http.filter.FilterChain
+import io.micronaut.http.filter.HttpFilter
+import io.micronaut.http.uri.UriMatchTemplate
+import org.reactivestreams.Publisher
+import spock.lang.Specification
+
+import java.util.function.Supplier
+
+class DefaultRouterFilterSpec extends Specification {
+
+    HttpFilter booksFilter = new TestFilter(order: 2)
+    HttpFilter authorsFilter = new TestFilter(order: 1)
+    HttpFilter allFilter = new TestFilter(order: 3)
+    HttpFilter postFilter = new TestFilter(order: 0)
+
+    DefaultRouter router = new DefaultRouter(Stub(RouteBuilder) {
+        getUriRoutes() >> []
+        getStatusRoutes() >> []
+        getErrorRoutes() >> []
+        getExposedPorts() >> ([] as Set)
+        getFilterRoutes() >> [
+                new DefaultFilterRoute('/books/**', supplier(booksFilter)),
+                new DefaultFilterRoute('/authors/**', supplier(authorsFilter)),
+                new DefaultFilterRoute('/**', supplier(allFilter)),
+                new DefaultFilterRoute('/books/**', supplier(postFilter)).methods(HttpMethod.POST)
+        ]
+    })
+
+    void "test filters of a route without path variables are resolved once"() {
+        given:
+        HttpRequest request = request(HttpMethod.GET, '/books/list', '/books/list')
+
+        when:
+        List<HttpFilter> filters = router.findFilters(request)
+
+        then:
+        filters == [booksFilter, allFilter]
+        router.findFilters(request).is(filters)
+    }
+
+    void "test filters of a route with path variables are matched against the request path"() {
+        expect:
+        router.findFilters(request(HttpMethod.GET, '/books/{id}', '/books/1')) == [booksFilter, allFilter]
+        router.findFilters(request(HttpMethod.GET, '/{type}/{id}', '/authors/1')) == [authorsFilter, allFilter]
+        router.findFilters(request(HttpMethod.GET, '/{type}/{id}', '/other/1')) == [allFilter]
+    }
+
+    void "test filter methods are matched against the request method"() {
+        expect:
+        router.findFilters(request(HttpMethod.POST, '/books/{id}', '/books/1')) == [postFilter, booksFilter, allFilter]
+        router.findFilters(request(HttpMethod.POST, '/authors/list', '/authors/list')) == [authorsFilter, allFilter]
+    }
+
+    void "test a request path that differs from the template path is matched against the filter patterns"() {
+        expect:
+        router.findFilters(request(HttpMethod.GET, '/books/list', '/books/list/')) == [booksFilter, allFilter]
+    }
+
+    private HttpRequest request(HttpMethod method, String template, String path) {
+        UriRoute route = routes.computeIfAbsent(template + method, {
+            Stub(UriRoute) {
+                getUriMatchTemplate() >> UriMatchTemplate.of(template)
+            }
+        })
+        UriRouteMatch routeMatch = Stub(UriRouteMatch) {
+            getRoute() >> route
+            getAnnotationMetadata() >> AnnotationMetadata.EMPTY_METADATA
+        }
+        return Stub(HttpRequest) {
+            getAttribute(HttpAttributes.ROUTE_MATCH) >> Optional.of(routeMatch)
+            getMethod() >> method
+            getUri() >> URI.create(path)
+        }
+    }
+
+    private Map<String, UriRoute> routes = [:]
+
+    private static Supplier<HttpFilter> supplier(HttpFilter filter) {
+        return { filter } as Supplier<HttpFilter>
+    }
+
+    static class TestFilter implements HttpFilter {
+        int order
+
+        @Override
+        Publisher<? extends HttpResponse<?>> doFilter(HttpRequest<?> request, FilterChain chain) {
+            return null
+        }
+
+        @Override
+        int getOrder() {
+            return order
+        }
+    }
+}
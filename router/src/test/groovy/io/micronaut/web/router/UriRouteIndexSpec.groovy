@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.web.router
+
+import io.micronaut.http.uri.UriMatchTemplate
+import io.micronaut.http.uri.UriTypeMatchTemplate
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class UriRouteIndexSpec extends Specification {
+
+    static final List<UriMatchTemplate> TEMPLATES = [
+            UriMatchTemplate.of('/'),
+            UriMatchTemplate.of('/books'),
+            UriMatchTemplate.of('/books/'),
+            UriMatchTemplate.of('/books{?max,offset}'),
+            UriMatchTemplate.of('/books/{id}'),
+            UriMatchTemplate.of('/books/{id}/authors'),
+            UriMatchTemplate.of('/books/{id}/authors/{name}'),
+            UriMatchTemplate.of('/books/{id:[0-9]+}'),
+            UriMatchTemplate.of('/books/{id:.*}'),
+            UriMatchTemplate.of('/books/{id?}'),
+            UriMatchTemplate.of('/books{/id}'),
+            UriMatchTemplate.of('/books/{id}.json'),
+            UriMatchTemplate.of('/books/{+path}'),
+            UriMatchTemplate.of('/authors/{a}/{b}'),
+            UriMatchTemplate.of('/authors/list'),
+            UriMatchTemplate.of('/{+path}'),
+            UriMatchTemplate.of('/static/{name}/{+rest}'),
+            UriMatchTemplate.of('/a//b'),
+            new UriTypeMatchTemplate('/typed/{id}', Integer),
+    ]
+
+    @Unroll
+    void "test index candidates include every route matching #uri"() {
+        given:
+        List<UriRoute> routes = TEMPLATES.collect { template ->
+            Stub(UriRoute) {
+                getUriMatchTemplate() >> template
+            }
+        }
+        UriRouteIndex index = new UriRouteIndex(routes)
+
+        when:
+        BitSet candidates = index.candidates(uri)
+        List<Integer> expected = (0..<TEMPLATES.size()).findAll { TEMPLATES[it].match(uri).isPresent() }
+
+        then:
+        expected.every { candidates.get(it) }
+
+        where:
+        uri << [
+                '', '/', '/books', '/books/', '/books//', '/books?max=10', '/books/1', '/books/1/',
+                '/books/1?x=y', '/books/abc/authors', '/books/1/authors/bob', '/books/1.json',
+                '/books/a/b/c', '/authors/x/y', '/authors/list', '/static/foo/a/b', '/a//b',
+                '/typed/10', '/typed/abc', '/unknown', 'books'
+        ]
+    }
+
+    void "test literal and simple variable routes are narrowed down"() {
+        given:
+        List<UriMatchTemplate> templates = [
+                UriMatchTemplate.of('/books'),
+                UriMatchTemplate.of('/books/{id}'),
+                UriMatchTemplate.of('/authors/{id}'),
+                UriMatchTemplate.of('/authors/{id}/books'),
+        ]
+        List<UriRoute> routes = templates.collect { template ->
+            Stub(UriRoute) {
+                getUriMatchTemplate() >> template
+            }
+        }
+        UriRouteIndex index = new UriRouteIndex(routes)
+
+        expect:
+        index.candidates('/books') == bits(0)
+        index.candidates('/books/1') == bits(1)
+        index.candidates('/authors/1') == bits(2)
+        index.candidates('/authors/1/books/') == bits(3)
+        index.candidates('/other').isEmpty()
+    }
+
+    private static BitSet bits(int... positions) {
+        BitSet bitSet = new BitSet()
+        positions.each { bitSet.set(it) }
+        return bitSet
+    }
+}
@@ -97,6 +97,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -119,6 +120,8 @@ public class DefaultValidator implements Validator, ExecutableMethodValidator, R
     private final ExecutionHandleLocator executionHandleLocator;
     private final MessageSource messageSource;
     private final ConversionService conversionService;
+    private final Map<Class<?>, BeanValidationPlan> beanValidationPlans = new ConcurrentHashMap<>(50);
+    private final Map<ExecutableMethod<?, ?>, Boolean> constrainedParameters = new ConcurrentHashMap<>(50);
 
     /**
      * Default constructor.
@@ -142,11 +145,12 @@ public class DefaultValidator implements Validator, ExecutableMethodValidator, R
     @Override
     public <T> Set<ConstraintViolation<T>> validate(@NonNull T object, @Nullable Class<?>... groups) {
         ArgumentUtils.requireNonNull("object", object);
+        // the plan is looked up from the introspection, so that subclasses overriding the lookup are honoured
         final BeanIntrospection<T> introspection = (BeanIntrospection<T>) getBeanIntrospection(object);
         if (introspection == null) {
             return Collections.emptySet();
         }
-        return validate(introspection, object, groups);
+        return validate(getValidationPlan(introspection), object, groups);
     }
 
     /**
@@ -164,33 +168,37 @@ public class DefaultValidator implements Validator, ExecutableMethodValidator, R
         if (introspection == null) {
             throw new ValidationException("Passed object [" + object + "] cannot be introspected. Please annotate with @Introspected");
         }
-        @SuppressWarnings("unchecked")
-        final Collection<? extends BeanProperty<Object, Object>> constrainedProperties =
-                ((BeanIntrospection<Object>) introspection).getIndexedProperties(Constraint.class);
-        @SuppressWarnings("unchecked")
-        final Collection<BeanProperty<Object, Object>> cascadeProperties =
-                ((BeanIntrospection<Object>) introspection).getIndexedProperties(Valid.class);
-
-        final List<Class<? extends Annotation>> pojoConstraints = introspection.getAnnotationTypesByStereotype(Constraint.class);
-
-        if (CollectionUtils.isNotEmpty(constrainedProperties)
-                || CollectionUtils.isNotEmpty(cascadeProperties)
-                || CollectionUtils.isNotEmpty(pojoConstraints)) {
+        return validate(getValidationPlan(introspection), object, groups);
+    }
 
-            DefaultConstraintValidatorContext context = new DefaultConstraintValidatorContext(object, groups);
-            Set<ConstraintViolation<T>> overallViolations = new HashSet<>(5);
-            return doValidate(
-                    introspection,
-                    object,
-                    object,
-                    constrainedProperties,
-                    cascadeProperties,
-                    context,
-                    overallViolations,
-                    pojoConstraints
-            );
+    private <T> Set<ConstraintViolation<T>> validate(BeanValidationPlan plan, T object, @Nullable Class<?>... groups) {
+        if (!plan.constrained) {
+            return Collections.emptySet();
         }
-        return Collections.emptySet();
+        DefaultConstraintValidatorContext context = new DefaultConstraintValidatorContext(object, groups);
+        Set<ConstraintViolation<T>> overallViolations = new HashSet<>(5);
+        return doValidate(
+                plan,
+                object,
+                object,
+                context,
+                overallViolations
+        );
+    }
+
+    /**
+     * @param introspection The introspection
+     * @return The cached validation plan of the introspected type
+     */
+    @SuppressWarnings("unchecked")
+    private BeanValidationPlan getValidationPlan(BeanIntrospection<?> introspection) {
+        Class<?> beanType = introspection.getBeanType();
+        BeanValidationPlan plan = beanValidationPlans.get(beanType);
+        if (plan == null) {
+            plan = new BeanValidationPlan((BeanIntrospection<Object>) introspection);
+            beanValidationPlans.put(beanType, plan);
+        }
+        return plan;
     }
 
     @NonNull
@@ -364,6 +372,9 @@ public class DefaultValidator implements Validator, ExecutableMethodValidator, R
         if (argLen != parameterValues.length) {
             throw new IllegalArgumentException("The method parameter array must have exactly " + argLen + " elements.");
         }
+        if (!hasConstrainedParameters(method)) {
+            return Collections.emptySet();
+        }
 
         DefaultConstraintValidatorContext context = new DefaultConstraintValidatorContext(object, groups);
         Set overallViolations = new HashSet<>(5);
@@ -404,6 +415,9 @@ public class DefaultValidator implements Validator, ExecutableMethodValidator, R
         if (argLen != argumentValues.size()) {
             throw new IllegalArgumentException("The method parameter array must have exactly " + argLen + " elements.");
         }
+        if (!hasConstrainedParameters(method)) {
+            return Collections.emptySet();
+        }
 
         DefaultConstraintValidatorContext context = new DefaultConstraintValidatorContext(object, groups);
         Set overallViolations = new HashSet<>(5);
@@ -701,6 +715,26 @@ public class DefaultValidator implements Validator, ExecutableMethodValidator, R
         return BeanIntrospector.SHARED.findIntrospection((Class<Object>) object.getClass()).orElse(null);
     }
 
+    /**
+     * @param method The method
+     * @return Whether any parameter has constraints or cascades
+     */
+    private boolean hasConstrainedParameters(ExecutableMethod<?, ?> method) {
+        Boolean constrained = constrainedParameters.get(method);
+        if (constrained == null) {
+            constrained = false;
+            for (Argument<?> argument : method.getArguments()) {
+                final AnnotationMetadata annotationMetadata = argument.getAnnotationMetadata();
+                if (annotationMetadata.hasStereotype(Validator.ANN_VALID) || annotationMetadata.hasStereotype(Validator.ANN_CONSTRAINT)) {
+                    constrained = true;
+                    break;
+                }
+            }
+            constrainedParameters.put(method, constrained);
+        }
+        return constrained;
+    }
+
     private <T> void validateParametersInternal(
             @NonNull Class<T> rootClass,
             @Nullable T object,
@@ -1104,32 +1138,31 @@ public class DefaultValidator implements Validator, ExecutableMethodValidator, R
     }
 
     private <T> Set<ConstraintViolation<T>> doValidate(
-            BeanIntrospection<T> introspection,
+            BeanValidationPlan plan,
             @NonNull T rootBean,
             @NonNull Object object,
-            Collection<? extends BeanProperty<Object, Object>> constrainedProperties,
-            Collection<BeanProperty<Object, Object>> cascadeProperties,
             DefaultConstraintValidatorContext context,
-            Set overallViolations,
-            List<Class<? extends Annotation>> pojoConstraints) {
+            Set overallViolations) {
         @SuppressWarnings("unchecked")
         final Class<T> rootBeanClass = (Class<T>) rootBean.getClass();
-        for (BeanProperty<Object, Object> constrainedProperty : constrainedProperties) {
-            final Object propertyValue = constrainedProperty.get(object);
+        for (PropertyValidationPlan constrainedProperty : plan.constrainedProperties) {
+            final Object propertyValue = constrainedProperty.property.get(object);
+            context.addPropertyNode(constrainedProperty.name, null);
+            final String currentMessageTemplate = context.messageTemplate;
             //noinspection unchecked
-            validateConstrainedPropertyInternal(
+            validatePropertyInternal(
                     rootBeanClass,
                     rootBean,
                     object,
-                    constrainedProperty,
-                    constrainedProperty.getType(),
-                    propertyValue,
                     context,
                     overallViolations,
-                    null);
+                    constrainedProperty,
+                    propertyValue);
+            context.removeLast();
+            context.messageTemplate(currentMessageTemplate);
         }
 
-        for (Class<? extends Annotation> pojoConstraint : pojoConstraints) {
+        for (int i = 0; i < plan.pojoConstraints.length; i++) {
             validatePojoInternal(
                     rootBeanClass,
                     rootBean,
@@ -1138,12 +1171,12 @@ public class DefaultValidator implements Validator, ExecutableMethodValidator, R
                     overallViolations,
                     object.getClass(),
                     object,
-                    pojoConstraint,
-                    introspection.getAnnotation(pojoConstraint));
+                    plan.pojoConstraints[i],
+                    plan.pojoConstraintValues[i]);
         }
 
         // now handle cascading validation
-        for (BeanProperty<Object, Object> cascadeProperty : cascadeProperties) {
+        for (BeanProperty<Object, Object> cascadeProperty : plan.cascadeProperties) {
             final Object propertyValue = cascadeProperty.get(object);
             if (propertyValue != null) {
                 @SuppressWarnings("unchecked")
@@ -1236,6 +1269,9 @@ public class DefaultValidator implements Validator, ExecutableMethodValidator, R
                 }
             }
         }
+        if (overallViolations.isEmpty()) {
+            return Collections.emptySet();
+        }
         //noinspection unchecked
         return Collections.unmodifiableSet(overallViolations);
     }
@@ -1406,26 +1442,14 @@ public class DefaultValidator implements Validator, ExecutableMethodValidator, R
 
     private <T> void cascadeToOneIntrospection(DefaultConstraintValidatorContext context, T rootBean, Object bean, BeanIntrospection<Object> beanIntrospection, Set overallViolations) {
         context.validatedObjects.add(bean);
-        final Collection<BeanProperty<Object, Object>> cascadeConstraints =
-                beanIntrospection.getIndexedProperties(Constraint.class);
-        final Collection<BeanProperty<Object, Object>> cascadeNestedProperties =
-                beanIntrospection.getIndexedProperties(Valid.class);
-        final List<Class<? extends Annotation>> pojoConstraints =
-            beanIntrospection.getAnnotationMetadata().getAnnotationTypesByStereotype(Constraint.class);
-
-        if (CollectionUtils.isNotEmpty(cascadeConstraints) ||
-            CollectionUtils.isNotEmpty(cascadeNestedProperties) ||
-            CollectionUtils.isNotEmpty(pojoConstraints)
-        ) {
+        final BeanValidationPlan plan = getValidationPlan(beanIntrospection);
+        if (plan.constrained) {
             doValidate(
-                    beanIntrospection,
+                    plan,
                     rootBean,
                     bean,
-                    cascadeConstraints,
-                    cascadeNestedProperties,
                     context,
-                    overallViolations,
-                    pojoConstraints
+                    overallViolations
             );
         }
     }
@@ -1568,6 +1592,84 @@ public class DefaultValidator implements Validator, ExecutableMethodValidator, R
         }
     }
 
+    private <T> void validatePropertyInternal(
+            @NonNull Class<T> rootBeanClass,
+            @NonNull T rootBean,
+            @NonNull Object object,
+            @NonNull DefaultConstraintValidatorContext context,
+            @NonNull Set<ConstraintViolation<Object>> overallViolations,
+            @NonNull PropertyValidationPlan property,
+            @Nullable Object propertyValue) {
+        final ValueExtractor<Object> valueExtractor = propertyValue != null && !property.valid ? property.findUnwrapValueExtractor(propertyValue.getClass()) : null;
+        for (ConstraintValidationPlan constraint : property.constraints) {
+            if (valueExtractor != null) {
+                valueExtractor.extractValues(propertyValue, (SimpleValueReceiver) (nodeName, extractedValue) -> valueConstraintOnProperty(
+                        rootBeanClass,
+                        rootBean,
+                        object,
+                        context,
+                        overallViolations,
+                        property,
+                        constraint,
+                        extractedValue
+                ));
+            } else {
+                valueConstraintOnProperty(
+                        rootBeanClass,
+                        rootBean,
+                        object,
+                        context,
+                        overallViolations,
+                        property,
+                        constraint,
+                        propertyValue
+                );
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void valueConstraintOnProperty(
+            Class<T> rootBeanClass,
+            T rootBean,
+            Object object,
+            DefaultConstraintValidatorContext context,
+            Set<ConstraintViolation<Object>> overallViolations,
+            PropertyValidationPlan property,
+            ConstraintValidationPlan constraint,
+            @Nullable Object propertyValue) {
+        final Class<Object> targetType = propertyValue != null ? (Class<Object>) propertyValue.getClass() : (Class<Object>) property.type;
+        ConstraintValidator<? extends Annotation, Object> validator = null;
+        for (int i = 0; i < constraint.annotationValues.length; i++) {
+            if (!constraint.isInGroups(i, context.groups)) {
+                continue;
+            }
+            if (validator == null) {
+                validator = constraint.findValidator(targetType);
+                if (validator == null) {
+                    return;
+                }
+            }
+            final AnnotationValue annotationValue = constraint.annotationValues[i];
+            if (!validator.isValid(propertyValue, annotationValue, context)) {
+                final AnnotationMetadata annotationMetadata = property.annotationMetadata;
+                final String messageTemplate = buildMessageTemplate(context, annotationValue, annotationMetadata);
+                Map<String, Object> variables = newConstraintVariables(annotationValue, propertyValue, annotationMetadata);
+                overallViolations.add(
+                        new DefaultConstraintViolation(
+                                rootBean,
+                                rootBeanClass,
+                                object,
+                                propertyValue,
+                                messageSource.interpolate(messageTemplate, MessageSource.MessageContext.of(variables)),
+                                messageTemplate,
+                                new PathImpl(context.currentPath),
+                                new DefaultConstraintDescriptor(annotationMetadata, constraint.constraintType, annotationValue))
+                );
+            }
+        }
+    }
+
     private Map<String, Object> newConstraintVariables(AnnotationValue annotationValue, @Nullable Object propertyValue, AnnotationMetadata annotationMetadata) {
         final Map<?, ?> values = annotationValue.getValues();
         int initSize = (int) Math.ceil(values.size() / 0.75);
@@ -2446,4 +2548,161 @@ public class DefaultValidator implements Validator, ExecutableMethodValidator, R
             return this;
         }
     }
+
+    /**
+     * The constraints and cascaded properties of an introspected type, resolved once per type.
+     */
+    private final class BeanValidationPlan {
+        final PropertyValidationPlan[] constrainedProperties;
+        final Collection<BeanProperty<Object, Object>> cascadeProperties;
+        final Class<? extends Annotation>[] pojoConstraints;
+        final AnnotationValue<? extends Annotation>[] pojoConstraintValues;
+        final boolean constrained;
+
+        @SuppressWarnings("unchecked")
+        BeanValidationPlan(BeanIntrospection<Object> introspection) {
+            final Collection<BeanProperty<Object, Object>> properties = introspection.getIndexedProperties(Constraint.class);
+            this.constrainedProperties = new PropertyValidationPlan[properties.size()];
+            int i = 0;
+            for (BeanProperty<Object, Object> property : properties) {
+                constrainedProperties[i++] = new PropertyValidationPlan(property);
+            }
+            this.cascadeProperties = introspection.getIndexedProperties(Valid.class);
+            final List<Class<? extends Annotation>> constraintTypes = introspection.getAnnotationMetadata().getAnnotationTypesByStereotype(Constraint.class);
+            this.pojoConstraints = constraintTypes.toArray(new Class[0]);
+            this.pojoConstraintValues = new AnnotationValue[pojoConstraints.length];
+            for (int j = 0; j < pojoConstraints.length; j++) {
+                pojoConstraintValues[j] = introspection.getAnnotation(pojoConstraints[j]);
+            }
+            this.constrained = constrainedProperties.length > 0 || !cascadeProperties.isEmpty() || pojoConstraints.length > 0;
+        }
+    }
+
+    /**
+     * The constraints of a single property.
+     */
+    private final class PropertyValidationPlan {
+        final BeanProperty<Object, Object> property;
+        final String name;
+        final Class<?> type;
+        final AnnotationMetadata annotationMetadata;
+        final boolean valid;
+        final ConstraintValidationPlan[] constraints;
+        private volatile ResolvedValueExtractor unwrapValueExtractor;
+
+        PropertyValidationPlan(BeanProperty<Object, Object> property) {
+            this.property = property;
+            this.name = property.getName();
+            this.type = property.getType();
+            this.annotationMetadata = property.getAnnotationMetadata();
+            this.valid = annotationMetadata.hasAnnotation(Valid.class);
+            final List<Class<? extends Annotation>> constraintTypes = annotationMetadata.getAnnotationTypesByStereotype(Constraint.class);
+            this.constraints = new ConstraintValidationPlan[constraintTypes.size()];
+            for (int i = 0; i < constraints.length; i++) {
+                constraints[i] = new ConstraintValidationPlan(constraintTypes.get(i), annotationMetadata);
+            }
+        }
+
+        /**
+         * @param valueType The type of the property value
+         * @return The extractor to unwrap the value with, or null
+         */
+        @SuppressWarnings("unchecked")
+        @Nullable
+        ValueExtractor<Object> findUnwrapValueExtractor(Class<?> valueType) {
+            ResolvedValueExtractor resolved = unwrapValueExtractor;
+            if (resolved == null || resolved.valueType != valueType) {
+                resolved = new ResolvedValueExtractor(
+                        valueType,
+                        valueExtractorRegistry.findUnwrapValueExtractor((Class<Object>) valueType).orElse(null)
+                );
+                unwrapValueExtractor = resolved;
+            }
+            return resolved.valueExtractor;
+        }
+    }
+
+    /**
+     * The values of a constraint annotation declared on a property, with their groups.
+     */
+    private final class ConstraintValidationPlan {
+        final Class<? extends Annotation> constraintType;
+        final AnnotationValue<? extends Annotation>[] annotationValues;
+        final Class<?>[][] groups;
+        private volatile ResolvedConstraintValidator validator;
+
+        @SuppressWarnings("unchecked")
+        ConstraintValidationPlan(Class<? extends Annotation> constraintType, AnnotationMetadata annotationMetadata) {
+            this.constraintType = constraintType;
+            this.annotationValues = annotationMetadata.getAnnotationValuesByType(constraintType).toArray(new AnnotationValue[0]);
+            this.groups = new Class<?>[annotationValues.length][];
+            for (int i = 0; i < annotationValues.length; i++) {
+                groups[i] = annotationValues[i].classValues("groups");
+            }
+        }
+
+        /**
+         * @param index          The index of the annotation value
+         * @param validatedGroups The groups being validated
+         * @return Whether the annotation value applies to one of the groups
+         */
+        boolean isInGroups(int index, List<Class<?>> validatedGroups) {
+            final Class<?>[] constraintGroups = groups[index];
+            if (ArrayUtils.isEmpty(constraintGroups)) {
+                return validatedGroups == DEFAULT_GROUPS || validatedGroups.contains(Default.class);
+            }
+            for (int i = 0; i < validatedGroups.size(); i++) {
+                final Class<?> group = validatedGroups.get(i);
+                for (Class<?> constraintGroup : constraintGroups) {
+                    if (constraintGroup == group) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @param targetType The type of the validated value
+         * @return The validator or null if there is none
+         */
+        @Nullable
+        ConstraintValidator<? extends Annotation, Object> findValidator(Class<Object> targetType) {
+            ResolvedConstraintValidator resolved = validator;
+            if (resolved == null || resolved.targetType != targetType) {
+                resolved = new ResolvedConstraintValidator(
+                        targetType,
+                        constraintValidatorRegistry.findConstraintValidator(constraintType, targetType).orElse(null)
+                );
+                validator = resolved;
+            }
+            return resolved.validator;
+        }
+    }
+
+    /**
+     * The validator resolved for the last validated value type of a constraint.
+     */
+    private static final class ResolvedConstraintValidator {
+        final Class<?> targetType;
+        final ConstraintValidator<? extends Annotation, Object> validator;
+
+        ResolvedConstraintValidator(Class<?> targetType, @Nullable ConstraintValidator<? extends Annotation, Object> validator) {
+            this.targetType = targetType;
+            this.validator = validator;
+        }
+    }
+
+    /**
+     * The unwrap value extractor resolved for the last value type of a property.
+     */
+    private static final class ResolvedValueExtractor {
+        final Class<?> valueType;
+        final ValueExtractor<Object> valueExtractor;
+
+        ResolvedValueExtractor(Class<?> valueType, @Nullable ValueExtractor<Object> valueExtractor) {
+            this.valueType = valueType;
+            this.valueExtractor = valueExtractor;
+        }
+    }
 }
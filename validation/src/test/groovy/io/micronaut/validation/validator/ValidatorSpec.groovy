@@ -6,6 +6,7 @@ import io.micronaut.context.annotation.Prototype
 import io.micronaut.context.annotation.Value
 import io.micronaut.context.exceptions.BeanInstantiationException
 import io.micronaut.core.annotation.Introspected
+import io.micronaut.core.beans.BeanIntrospection
 import io.micronaut.core.reflect.ClassUtils
 import io.micronaut.validation.validator.resolver.CompositeTraversableResolver
 import jakarta.inject.Singleton
@@ -75,6 +76,42 @@ class ValidatorSpec extends Specification {
 
     }
 
+    void "test repeated validation of the same type"() {
+        when:
+        def invalid = validator.validate(new Book(title: "", pages: 50))
+        def valid = validator.validate(new Book(title: "Micronaut", pages: 150, authors: [new Author(name: "Graeme", age: 40)], primaryAuthor: new Author(name: "Graeme", age: 40)))
+        def invalidAgain = validator.validate(new Book(title: "", pages: 50))
+
+        then:
+        invalid.size() == 4
+        valid.isEmpty()
+        invalidAgain.size() == 4
+        invalidAgain*.messageTemplate.toSet() == invalid*.messageTemplate.toSet()
+    }
+
+    void "test repeated validation looks up the introspection through the protected hook"() {
+        given:
+        boolean introspected = true
+        DefaultValidator custom = new DefaultValidator(applicationContext.getBean(ValidatorConfiguration), applicationContext.getConversionService()) {
+            @Override
+            protected BeanIntrospection<Object> getBeanIntrospection(Object object) {
+                return introspected ? super.getBeanIntrospection(object) : null
+            }
+        }
+
+        when:
+        def violations = custom.validate(new Book(title: "", pages: 50))
+
+        then:
+        violations.size() == 4
+
+        when:
+        introspected = false
+
+        then:
+        custom.validate(new Book(title: "", pages: 50)).isEmpty()
+    }
+
     void "test validate bean property"() {
         given:
         Book b = new Book(title: "", pages: 50)
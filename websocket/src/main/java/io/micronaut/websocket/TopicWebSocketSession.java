@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017-2022 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.websocket;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.http.MediaType;
+
+import java.util.Set;
+
+/**
+ * A {@link WebSocketSession} that can subscribe to topics. The sessions of the Netty server implement this
+ * interface.
+ *
+ * @since 4.0.0
+ */
+public interface TopicWebSocketSession extends WebSocketSession {
+
+    /**
+     * Subscribes this session to a topic. Messages broadcast to the topic with
+     * {@link WebSocketBroadcaster#broadcastTopic(String, Object, MediaType)} are sent to its subscribers.
+     * Sessions are unsubscribed from all topics when they are closed.
+     *
+     * @param topic The topic
+     * @return True if the session was not already subscribed to the topic
+     */
+    boolean subscribe(@NonNull String topic);
+
+    /**
+     * Unsubscribes this session from a topic.
+     *
+     * @param topic The topic
+     * @return True if the session was subscribed to the topic
+     */
+    boolean unsubscribe(@NonNull String topic);
+
+    /**
+     * The topics this session is subscribed to.
+     *
+     * @return The topics
+     */
+    @NonNull
+    Set<String> getTopics();
+}
@@ -91,6 +91,38 @@ public interface WebSocketBroadcaster {
         return broadcast(message, MediaType.APPLICATION_JSON_TYPE, filter);
     }
 
+    /**
+     * When used on the server this method will broadcast a message to all open WebSocket connections subscribed to the given topic
+     * with {@link TopicWebSocketSession#subscribe(String)}.
+     * The resulting {@link Publisher} does not start sending until subscribed to.
+     *
+     * @param topic The topic
+     * @param message The message
+     * @param mediaType The media type of the message. Used to lookup an appropriate codec via the {@link io.micronaut.http.codec.MediaTypeCodecRegistry}.
+     * @param <T> The message type
+     * @return A {@link Publisher} that either emits an error or emits the message once it has been published successfully.
+     * @since 4.0.0
+     */
+    default <T> Publisher<T> broadcastTopic(String topic, T message, MediaType mediaType) {
+        Objects.requireNonNull(topic, "The topic cannot be null");
+        return broadcast(message, mediaType, s -> s instanceof TopicWebSocketSession topicSession && topicSession.getTopics().contains(topic));
+    }
+
+    /**
+     * When used on the server this method will broadcast a message to all open WebSocket connections subscribed to the given topic
+     * with {@link TopicWebSocketSession#subscribe(String)}.
+     * The resulting {@link Publisher} does not start sending until subscribed to.
+     *
+     * @param topic The topic
+     * @param message The message
+     * @param <T> The message type
+     * @return A {@link Publisher} that either emits an error or emits the message once it has been published successfully.
+     * @since 4.0.0
+     */
+    default <T> Publisher<T> broadcastTopic(String topic, T message) {
+        return broadcastTopic(topic, message, MediaType.APPLICATION_JSON_TYPE);
+    }
+
     /**
      * When used on the server this method will broadcast a message to all open WebSocket connections.
      *